@@ -0,0 +1,167 @@
+package com.military.asset.benchmark;
+
+import com.alibaba.excel.EasyExcel;
+import com.alibaba.excel.context.AnalysisContext;
+import com.alibaba.excel.event.AnalysisEventListener;
+import com.military.asset.entity.SoftwareAsset;
+import com.military.asset.listener.SoftwareAssetExcelListener;
+import com.military.asset.service.impl.ImportResultBuilder;
+import com.military.asset.utils.AssetFingerprintIndex;
+import com.military.asset.vo.ExcelErrorVO;
+import com.military.asset.vo.ImportResult;
+import com.military.asset.vo.excel.SoftwareAssetExcelVO;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 软件资产导入基准测试
+
+ * 导入流程按阶段分别测量（每个操作处理整个工作簿）：
+ * - parseOnly：EasyExcel解析为Excel导入VO，不做校验
+ * - validateOnly：预先解析好的行交给监听器校验（空表，不触发判重命中）
+ * - duplicateLookup：预先解析好的行逐行查询已存在资产指纹索引并比较关键字段指纹
+ * - buildImportResult：由校验完成的监听器构建结果，并逐条读取错误详情（触发错误描述渲染）和重复记录
+ * - buildSuccessRecords：逐条读取成功记录延迟视图
+
+ * 除每秒操作数外，rows计数器给出每秒处理行数；运行时加 -prof gc 输出分配速率（gc.alloc.rate.norm为每次操作分配的字节数）
+ * 运行方式见README"导入性能基准测试"
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class SoftwareImportBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    @Param({"0.05"})
+    public double errorRatio;
+
+    @Param({"0.1"})
+    public double duplicateRatio;
+
+    private SyntheticWorkbook workbook;
+
+    private List<SoftwareAssetExcelVO> parsedRows;
+
+    private AssetFingerprintIndex<SoftwareAsset> emptyIndex;
+
+    private AssetFingerprintIndex<SoftwareAsset> existingIndex;
+
+    /**
+     * 已完成校验和判重的监听器（结果构建阶段使用，只读）
+     */
+    private SoftwareAssetExcelListener validatedListener;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        workbook = SyntheticWorkbook.software(rows, errorRatio, duplicateRatio);
+        parsedRows = workbook.readAll();
+        emptyIndex = new AssetFingerprintIndex<>(Map.of(), id -> null);
+        existingIndex = workbook.existingIndex(parsedRows);
+        validatedListener = validate(existingIndex);
+    }
+
+    // ============================ 各阶段基准 ============================
+
+    @Benchmark
+    public void parseOnly(RowCounter counter, Blackhole blackhole) {
+        EasyExcel.read(workbook.getFile().toFile(), SoftwareAssetExcelVO.class,
+                new AnalysisEventListener<SoftwareAssetExcelVO>() {
+                    @Override
+                    public void invoke(SoftwareAssetExcelVO data, AnalysisContext context) {
+                        blackhole.consume(data);
+                    }
+
+                    @Override
+                    public void doAfterAllAnalysed(AnalysisContext context) {
+                    }
+                }).sheet(0).headRowNumber(2).doRead();
+        counter.rows += rows;
+    }
+
+    @Benchmark
+    public int validateOnly(RowCounter counter) {
+        SoftwareAssetExcelListener listener = validate(emptyIndex);
+        counter.rows += rows;
+        return listener.getValidCount() + listener.getErrorCount();
+    }
+
+    @Benchmark
+    public int duplicateLookup(RowCounter counter) {
+        int duplicates = 0;
+        for (SoftwareAssetExcelVO row : parsedRows) {
+            Long existing = existingIndex.getFingerprint(row.getId().trim());
+            if (existing != null && existing == SoftwareAssetExcelListener.keyFingerprint(row)) {
+                duplicates++;
+            }
+        }
+        counter.rows += rows;
+        return duplicates;
+    }
+
+    @Benchmark
+    public void buildImportResult(RowCounter counter, Blackhole blackhole) {
+        ImportResult result = ImportResultBuilder.build(validatedListener, "软件资产");
+        for (ExcelErrorVO error : result.getData().getErrorDetails()) {
+            blackhole.consume(error);
+        }
+        for (Object duplicate : result.getData().getDuplicateDetails().getDuplicateRecords()) {
+            blackhole.consume(duplicate);
+        }
+        counter.rows += rows;
+    }
+
+    @Benchmark
+    public void buildSuccessRecords(RowCounter counter, Blackhole blackhole) {
+        for (ImportResult.SuccessRecord record : ImportResultBuilder.buildSuccessRecords(validatedListener)) {
+            blackhole.consume(record);
+        }
+        counter.rows += rows;
+    }
+
+    private SoftwareAssetExcelListener validate(AssetFingerprintIndex<SoftwareAsset> index) {
+        SoftwareAssetExcelListener listener = new SoftwareAssetExcelListener(index);
+        // 行号与EasyExcel解析时一致（2行表头，第一条数据为第3行）
+        for (int i = 0; i < parsedRows.size(); i++) {
+            listener.acceptRow(parsedRows.get(i), i + 3);
+        }
+        listener.finishRows();
+        return listener;
+    }
+
+    /**
+     * 处理行数计数器（JMH按迭代时间折算为每秒行数）
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class RowCounter {
+
+        public long rows;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            rows = 0;
+        }
+    }
+}
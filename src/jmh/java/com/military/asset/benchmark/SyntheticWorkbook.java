@@ -0,0 +1,228 @@
+package com.military.asset.benchmark;
+
+import com.alibaba.excel.EasyExcel;
+import com.alibaba.excel.ExcelWriter;
+import com.alibaba.excel.context.AnalysisContext;
+import com.alibaba.excel.event.AnalysisEventListener;
+import com.alibaba.excel.write.metadata.WriteSheet;
+import com.military.asset.entity.SoftwareAsset;
+import com.military.asset.listener.CsvRowReader;
+import com.military.asset.listener.SoftwareAssetExcelListener;
+import com.military.asset.utils.AssetFingerprintIndex;
+import com.military.asset.utils.CategoryMapUtils;
+import com.military.asset.vo.excel.SoftwareAssetExcelVO;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 基准测试用的合成软件资产工作簿
+
+ * 布局与导入模板一致：2行表头（标题行 + 列名行），数据列按@ExcelProperty列序号排列；
+ * 行按固定比例混入错误行和系统重复行（按行号取模分布，同一参数每次生成的内容相同）：
+ * - 错误行：资产名称为空，或服务状态非法（交替出现）
+ * - 系统重复行：ID放入已存在资产索引，关键字段与Excel一致
+ * 生成的文件缓存在 java.io.tmpdir/asset-benchmark/ 下，同一参数的多次fork直接复用
+ */
+final class SyntheticWorkbook {
+
+    private static final String ID_PREFIX = "BENCH-SW-";
+
+    /**
+     * 每次写出的行数（避免1M行一次性构建在内存中）
+     */
+    private static final int WRITE_CHUNK_SIZE = 10_000;
+
+    private static final int REPORT_UNIT_COUNT = 200;
+
+    private final Path file;
+    private final int rows;
+    private final double errorRatio;
+    private final double duplicateRatio;
+
+    private SyntheticWorkbook(Path file, int rows, double errorRatio, double duplicateRatio) {
+        this.file = file;
+        this.rows = rows;
+        this.errorRatio = errorRatio;
+        this.duplicateRatio = duplicateRatio;
+    }
+
+    /**
+     * 取得（必要时生成）指定参数的合成工作簿
+     *
+     * @param rows 数据行数
+     * @param errorRatio 错误行比例（0~1）
+     * @param duplicateRatio 系统重复行比例（0~1，与错误行不重叠）
+     */
+    static SyntheticWorkbook software(int rows, double errorRatio, double duplicateRatio) throws IOException {
+        if (errorRatio < 0 || duplicateRatio < 0 || errorRatio + duplicateRatio > 1) {
+            throw new IllegalArgumentException("错误行比例与重复行比例之和必须在0~1之间");
+        }
+        Path dir = Path.of(System.getProperty("java.io.tmpdir"), "asset-benchmark");
+        Files.createDirectories(dir);
+        Path file = dir.resolve(String.format(Locale.ROOT, "software-%d-e%.4f-d%.4f.xlsx",
+                rows, errorRatio, duplicateRatio));
+        SyntheticWorkbook workbook = new SyntheticWorkbook(file, rows, errorRatio, duplicateRatio);
+        if (!Files.exists(file)) {
+            workbook.generate();
+        }
+        return workbook;
+    }
+
+    Path getFile() {
+        return file;
+    }
+
+    int getRows() {
+        return rows;
+    }
+
+    /**
+     * 读取全部数据行（供校验、判重等不含解析的基准测试预先准备）
+     */
+    List<SoftwareAssetExcelVO> readAll() {
+        List<SoftwareAssetExcelVO> result = new ArrayList<>(rows);
+        EasyExcel.read(file.toFile(), SoftwareAssetExcelVO.class, new AnalysisEventListener<SoftwareAssetExcelVO>() {
+            @Override
+            public void invoke(SoftwareAssetExcelVO data, AnalysisContext context) {
+                result.add(data);
+            }
+
+            @Override
+            public void doAfterAllAnalysed(AnalysisContext context) {
+            }
+        }).sheet(0).headRowNumber(2).doRead();
+        return result;
+    }
+
+    /**
+     * 系统已存在资产索引：包含全部系统重复行的ID和关键字段指纹
+     *
+     * @param parsedRows readAll()读取的数据行
+     */
+    AssetFingerprintIndex<SoftwareAsset> existingIndex(List<SoftwareAssetExcelVO> parsedRows) {
+        Map<String, Long> fingerprints = new HashMap<>();
+        for (int i = 0; i < parsedRows.size(); i++) {
+            if (kindOf(i) == RowKind.DUPLICATE) {
+                SoftwareAssetExcelVO row = parsedRows.get(i);
+                fingerprints.put(row.getId().trim(), SoftwareAssetExcelListener.keyFingerprint(row));
+            }
+        }
+        return new AssetFingerprintIndex<>(fingerprints, id -> null);
+    }
+
+    // ============================ 生成 ============================
+
+    private enum RowKind { VALID, ERROR, DUPLICATE }
+
+    /**
+     * 按行序号取模分布错误行和重复行（每1万行内比例准确，且分布均匀）
+     */
+    private RowKind kindOf(int index) {
+        int slot = index % 10_000;
+        if (slot < Math.round(errorRatio * 10_000)) {
+            return RowKind.ERROR;
+        }
+        if (slot < Math.round((errorRatio + duplicateRatio) * 10_000)) {
+            return RowKind.DUPLICATE;
+        }
+        return RowKind.VALID;
+    }
+
+    private void generate() throws IOException {
+        Map<String, Integer> columns = CsvRowReader.templateColumnIndexes(SoftwareAssetExcelVO.class);
+        int columnCount = columns.values().stream().mapToInt(Integer::intValue).max().orElse(-1) + 1;
+        Map.Entry<String, String> category = CategoryMapUtils.initSoftwareCategoryMap().entrySet().iterator().next();
+
+        // 先写入临时文件再改名，避免中断时留下不完整的缓存文件
+        Path partial = file.resolveSibling(file.getFileName() + ".partial");
+        ExcelWriter writer = EasyExcel.write(partial.toFile()).build();
+        try {
+            WriteSheet sheet = EasyExcel.writerSheet(0, "软件资产").build();
+            writer.write(headRows(columns, columnCount), sheet);
+
+            List<List<Object>> chunk = new ArrayList<>(WRITE_CHUNK_SIZE);
+            for (int i = 0; i < rows; i++) {
+                chunk.add(dataRow(i, columns, columnCount, category));
+                if (chunk.size() == WRITE_CHUNK_SIZE) {
+                    writer.write(chunk, sheet);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                writer.write(chunk, sheet);
+            }
+        } finally {
+            writer.finish();
+        }
+        Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * 两行表头：标题行 + 列名行（列名取@ExcelProperty最后一级名称，按名称绑定时同样匹配）
+     */
+    private static List<List<Object>> headRows(Map<String, Integer> columns, int columnCount) {
+        List<Object> title = new ArrayList<>();
+        title.add("软件资产导入（基准测试数据）");
+        List<Object> names = new ArrayList<>(columnCount);
+        for (int i = 0; i < columnCount; i++) {
+            names.add(null);
+        }
+        columns.forEach((name, index) -> {
+            // 同一列同时登记了字段名和列名，列名为中文，优先使用
+            Object current = names.get(index);
+            if (current == null || isAscii((String) current)) {
+                names.set(index, name);
+            }
+        });
+        return List.of(title, names);
+    }
+
+    private List<Object> dataRow(int index, Map<String, Integer> columns, int columnCount,
+                                 Map.Entry<String, String> category) {
+        RowKind kind = kindOf(index);
+        String reportUnit = "基准测试单位" + (index % REPORT_UNIT_COUNT);
+        Object[] values = new Object[columnCount];
+        set(values, columns, "id", ID_PREFIX + String.format(Locale.ROOT, "%08d", index));
+        set(values, columns, "reportUnit", reportUnit);
+        set(values, columns, "categoryCode", category.getKey());
+        set(values, columns, "assetCategory", category.getValue());
+        set(values, columns, "assetName", "基准测试软件" + index);
+        set(values, columns, "acquisitionMethod", "购置");
+        set(values, columns, "deploymentScope", "全军");
+        set(values, columns, "serviceStatus", "在用");
+        set(values, columns, "actualQuantity", 1 + index % 10);
+        set(values, columns, "unit", "套");
+        set(values, columns, "putIntoUseDate", LocalDate.of(2020, 1, 1).plusDays(index % 1000));
+        set(values, columns, "inventoryUnit", reportUnit);
+        if (kind == RowKind.ERROR) {
+            if (index % 2 == 0) {
+                set(values, columns, "assetName", null);
+            } else {
+                set(values, columns, "serviceStatus", "报废");
+            }
+        }
+        return Arrays.asList(values);
+    }
+
+    private static void set(Object[] values, Map<String, Integer> columns, String field, Object value) {
+        Integer index = columns.get(field);
+        if (index == null) {
+            throw new IllegalStateException("软件资产导入模板缺少字段：" + field);
+        }
+        values[index] = value;
+    }
+
+    private static boolean isAscii(String value) {
+        return value.chars().allMatch(c -> c < 0x80);
+    }
+}
@@ -0,0 +1,96 @@
+package com.military.asset.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * 异步导入线程池配置类
+ * 作用：异步导入任务在独立的有界线程池中执行，不占用Tomcat工作线程
+ * 写库的任务先在ImportAdmissionService中按资产类型排队，取得执行槽位后才提交到importExecutor，
+ * 线程池中只有可以立即执行的任务
+
+ * 配置项（均可在application.yml中覆盖）：
+ * - asset.import.executor.core-size：核心线程数（默认2）
+ * - asset.import.executor.max-size：最大线程数（默认4）
+ * - asset.import.executor.queue-capacity：等待队列长度（默认20），队列满时拒绝提交
+ * - asset.import.pipeline.threads：并行校验线程数（默认0，即CPU核数）
+ * - asset.import.sheet.threads：多工作表导入的工作表并行线程数（默认3，对应三类资产）
+ */
+@Configuration
+public class ImportExecutorConfig {
+
+    /**
+     * 异步导入线程池
+     *
+     * @return ThreadPoolTaskExecutor 有界线程池，队列满时抛出TaskRejectedException
+     */
+    @Bean("importExecutor")
+    public ThreadPoolTaskExecutor importExecutor(
+            @Value("${asset.import.executor.core-size:2}") int coreSize,
+            @Value("${asset.import.executor.max-size:4}") int maxSize,
+            @Value("${asset.import.executor.queue-capacity:20}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(coreSize);
+        executor.setMaxPoolSize(Math.max(coreSize, maxSize));
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("asset-import-");
+
+        // 队列满时直接拒绝，由接口返回"任务队列已满"，避免无限堆积上传文件
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+
+        // 停机时等待正在执行的导入完成，避免批量保存中途被打断
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * 导入并行校验线程池（所有导入共享，CPU密集型，线程数默认等于CPU核数）
+
+     * 队列满时由提交线程（Excel解析线程）自己执行校验，天然形成背压，不会拒绝任务
+     *
+     * @return ThreadPoolTaskExecutor 校验线程池
+     */
+    @Bean("importValidationExecutor")
+    public ThreadPoolTaskExecutor importValidationExecutor(
+            @Value("${asset.import.pipeline.threads:0}") int threads) {
+        int poolSize = (threads > 0) ? threads : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(poolSize * 4);
+        executor.setThreadNamePrefix("asset-import-validate-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * 多工作表导入线程池（一个工作表一个任务，解析、校验、保存在任务内完成）
+
+     * 与校验线程池分开：工作表任务会等待自己提交的校验批次，若共用同一线程池，
+     * 线程全部被工作表任务占满时校验批次无线程执行，会互相等待
+     * 队列满时由请求线程自己执行该工作表，不拒绝任务
+     *
+     * @return ThreadPoolTaskExecutor 工作表线程池
+     */
+    @Bean("importSheetExecutor")
+    public ThreadPoolTaskExecutor importSheetExecutor(
+            @Value("${asset.import.sheet.threads:3}") int threads) {
+        int poolSize = Math.max(threads, 1);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(poolSize * 4);
+        executor.setThreadNamePrefix("asset-import-sheet-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+}
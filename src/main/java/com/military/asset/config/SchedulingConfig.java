@@ -0,0 +1,13 @@
+package com.military.asset.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * 定时任务配置类
+ * 开启 @Scheduled 支持，用于导入去重指纹索引的定时对账等后台任务
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
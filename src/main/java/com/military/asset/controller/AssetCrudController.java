@@ -8,19 +8,40 @@ import com.military.asset.mapper.ProvinceMapper;
 import com.military.asset.service.CyberAssetService;
 import com.military.asset.service.DataContentAssetService;
 import com.military.asset.service.SoftwareAssetService;
+import com.military.asset.service.impl.AssetEntityCacheService;
+import com.military.asset.service.impl.AssetExportService;
+import com.military.asset.service.impl.AssetFieldQueryService;
+import com.military.asset.service.impl.AssetFingerprintIndexService;
+import com.military.asset.service.impl.AssetKeysetPageService;
+import com.military.asset.service.impl.AssetNdjsonStreamService;
+import com.military.asset.utils.FieldSelection;
+import com.military.asset.vo.CursorPageVO;
+import com.military.asset.vo.EntityCacheStatsVO;
 import com.military.asset.vo.ResultVO;
 import com.military.asset.vo.stat.ProvinceMetricVO;
 import com.military.asset.vo.stat.SoftwareAssetStatisticVO;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.function.Function;
+import java.util.function.ToLongFunction;
 
 /**
  * 三表统一CRUD控制器 + 首页控制器
@@ -37,6 +58,22 @@ public class AssetCrudController {
     private final CyberAssetService cyberService;
     private final DataContentAssetService dataService;
     private final ProvinceMapper provinceMapper;
+    private final AssetFingerprintIndexService assetFingerprintIndexService;
+    private final AssetKeysetPageService assetKeysetPageService;
+    private final AssetFieldQueryService assetFieldQueryService;
+    private final AssetExportService assetExportService;
+    private final AssetNdjsonStreamService assetNdjsonStreamService;
+    private final AssetEntityCacheService assetEntityCacheService;
+
+    /**
+     * NDJSON响应类型
+     */
+    private static final String NDJSON_MEDIA_TYPE = "application/x-ndjson";
+
+    /**
+     * 导出文件名时间戳格式
+     */
+    private static final DateTimeFormatter EXPORT_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
 
     /**
      * 构造器注入
@@ -45,11 +82,23 @@ public class AssetCrudController {
     public AssetCrudController(SoftwareAssetService softwareService,
                                CyberAssetService cyberService,
                                DataContentAssetService dataService,
-                               ProvinceMapper provinceMapper) {
+                               ProvinceMapper provinceMapper,
+                               AssetFingerprintIndexService assetFingerprintIndexService,
+                               AssetKeysetPageService assetKeysetPageService,
+                               AssetFieldQueryService assetFieldQueryService,
+                               AssetExportService assetExportService,
+                               AssetNdjsonStreamService assetNdjsonStreamService,
+                               AssetEntityCacheService assetEntityCacheService) {
         this.softwareService = softwareService;
         this.cyberService = cyberService;
         this.dataService = dataService;
         this.provinceMapper = provinceMapper;
+        this.assetFingerprintIndexService = assetFingerprintIndexService;
+        this.assetKeysetPageService = assetKeysetPageService;
+        this.assetFieldQueryService = assetFieldQueryService;
+        this.assetExportService = assetExportService;
+        this.assetNdjsonStreamService = assetNdjsonStreamService;
+        this.assetEntityCacheService = assetEntityCacheService;
     }
 
     // ============================== 首页欢迎接口 ==============================
@@ -85,6 +134,10 @@ public class AssetCrudController {
                         "   • 软件资产升级判定: /api/asset/software/statistics/v2/aging/asset/{assetId}/upgrade-required\n" +
                         "   • 网信资产列表: /api/asset/cyber/list?reportUnit=xxx&assetCategory=xxx\n" +
                         "   • 数据资产列表: /api/asset/data/list?reportUnit=xxx&assetCategory=xxx\n" +
+                        "   • 列表游标分页: /api/asset/{software|cyber|data}/page?reportUnit=xxx&assetCategory=xxx&size=100&cursor=xxx\n" +
+                        "   • 列表NDJSON流式输出（每行一条资产）: /api/asset/{software|cyber|data}/list/ndjson?reportUnit=xxx&assetCategory=xxx\n" +
+                        "   • 详情、列表、分页接口均支持 fields=id,assetName,reportUnit 只查询并返回所选字段\n" +
+                        "   • 整表导出Excel（导入模板版式）: /api/asset/{software|cyber|data}/export\n" +
                         "   • 网信资产数量范围查询: /api/asset/cyber/quantity?min=10&max=50\n" +
                         "   • 数据资产开发工具查询: /api/asset/data/tool?developmentTool=MySQL\n\n" +
                         "   • 数据资产信息化程度（全部省份）: /api/asset/data/province/information-degree\n" +
@@ -93,7 +146,8 @@ public class AssetCrudController {
                         "📝 详情查询接口（GET请求）：\n" +
                         "   • 软件资产详情: /api/asset/software/{id}\n" +
                         "   • 网信资产详情: /api/asset/cyber/{id}\n" +
-                        "   • 数据资产详情: /api/asset/data/{id}\n\n" +
+                        "   • 数据资产详情: /api/asset/data/{id}\n" +
+                        "   • 详情缓存命中统计: /api/asset/cache/stats\n\n" +
 
                         "➕ 新增接口（POST请求，JSON格式）：\n" +
                         "   • 新增软件资产: /api/asset/software\n" +
@@ -127,13 +181,29 @@ public class AssetCrudController {
         return ResultVO.success(welcomeMessage, "系统首页加载成功");
     }
 
+    // ============================== 详情缓存统计 ==============================
+
+    /**
+     * 资产详情缓存命中统计（三类资产各一条；未启用缓存时为空列表）
+     */
+    @GetMapping("/cache/stats")
+    public ResultVO<List<EntityCacheStatsVO>> cacheStats() {
+        return ResultVO.success(assetEntityCacheService.stats(), "查询详情缓存统计成功");
+    }
+
     // ============================== 软件资产CRUD ==============================
 
     @GetMapping("/software/{id}")
-    public ResultVO<SoftwareAsset> getSoftware(@PathVariable String id) {
+    public ResultVO<?> getSoftware(@PathVariable String id, @RequestParam(required = false) String fields) {
         try {
-            SoftwareAsset asset = softwareService.getById(id);
+            FieldSelection selection = FieldSelection.parse(SoftwareAsset.class, fields);
+            if (selection != null) {
+                return ResultVO.success(assetFieldQueryService.getSoftware(id, selection), "查询软件资产详情成功");
+            }
+            SoftwareAsset asset = assetEntityCacheService.getSoftware(id);
             return ResultVO.success(asset, "查询软件资产详情成功");
+        } catch (IllegalArgumentException e) {
+            return ResultVO.fail("查询失败：" + e.getMessage());
         } catch (RuntimeException e) {
             log.error("查询软件资产失败，ID：{}", id, e);
             return ResultVO.fail("查询失败：" + e.getMessage());
@@ -141,18 +211,69 @@ public class AssetCrudController {
     }
 
     @GetMapping("/software/list")
-    public ResultVO<List<SoftwareAsset>> listSoftware(
+    public ResultVO<?> listSoftware(
             @RequestParam(required = false) String reportUnit,
-            @RequestParam(required = false) String assetCategory) {
+            @RequestParam(required = false) String assetCategory,
+            @RequestParam(required = false) String fields) {
         try {
+            FieldSelection selection = FieldSelection.parse(SoftwareAsset.class, fields);
+            if (selection != null) {
+                List<Map<String, Object>> rows = assetFieldQueryService.listSoftware(reportUnit, assetCategory, selection);
+                return ResultVO.success(rows, "查询软件资产列表成功（共" + rows.size() + "条）");
+            }
             List<SoftwareAsset> list = softwareService.listByReportUnitAndCategory(reportUnit, assetCategory);
             return ResultVO.success(list, "查询软件资产列表成功（共" + list.size() + "条）");
+        } catch (IllegalArgumentException e) {
+            return ResultVO.fail("查询失败：" + e.getMessage());
         } catch (Exception e) {
             log.error("查询软件资产列表失败", e);
             return ResultVO.fail("查询失败：" + e.getMessage());
         }
     }
 
+    /**
+     * 软件资产列表NDJSON流式输出（整表拉取用；参数同组合查询，每行一条资产，游标逐行读取并写出）
+     */
+    @GetMapping(value = "/software/list/ndjson", produces = NDJSON_MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> streamSoftwareList(
+            @RequestParam(required = false) String reportUnit,
+            @RequestParam(required = false) String assetCategory,
+            @RequestParam(required = false) String fields) {
+        return ndjsonResponse("软件资产", SoftwareAsset.class, fields,
+                (selection, out) -> assetNdjsonStreamService.streamSoftware(reportUnit, assetCategory, selection, out));
+    }
+
+    /**
+     * 软件资产列表游标分页（按入库时间倒序；cursor取上一页返回的nextCursor，第一页不传）
+     */
+    @GetMapping("/software/page")
+    public ResultVO<CursorPageVO<?>> pageSoftware(
+            @RequestParam(required = false) String reportUnit,
+            @RequestParam(required = false) String assetCategory,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String fields) {
+        try {
+            FieldSelection selection = FieldSelection.parse(SoftwareAsset.class, fields);
+            CursorPageVO<SoftwareAsset> page = assetKeysetPageService.pageSoftware(
+                    reportUnit, assetCategory, cursor, size, selection);
+            return ResultVO.success(project(page, selection), "查询软件资产列表成功（本页" + page.getRecords().size() + "条）");
+        } catch (IllegalArgumentException e) {
+            return ResultVO.fail("查询失败：" + e.getMessage());
+        } catch (Exception e) {
+            log.error("分页查询软件资产列表失败", e);
+            return ResultVO.fail("查询失败：" + e.getMessage());
+        }
+    }
+
+    /**
+     * 导出全部软件资产（与导入模板相同版式，游标流式读取并写出，内存占用不随条数增长）
+     */
+    @GetMapping("/software/export")
+    public ResponseEntity<StreamingResponseBody> exportSoftware() {
+        return exportResponse("软件资产", assetExportService::exportSoftware);
+    }
+
     @GetMapping("/software/statistics")
     public ResultVO<List<SoftwareAssetStatisticVO>> statisticSoftware() {
         try {
@@ -169,6 +290,7 @@ public class AssetCrudController {
     public ResultVO<Void> addSoftware(@RequestBody SoftwareAsset asset) {
         try {
             softwareService.add(asset);
+            assetFingerprintIndexService.refreshSoftware(asset.getId());
             return ResultVO.success("新增软件资产成功，ID：" + asset.getId());
         } catch (RuntimeException e) {
             log.error("新增软件资产失败，ID：{}", asset.getId(), e);
@@ -180,6 +302,7 @@ public class AssetCrudController {
     public ResultVO<Void> updateSoftware(@RequestBody SoftwareAsset asset) {
         try {
             softwareService.update(asset);
+            assetFingerprintIndexService.refreshSoftware(asset.getId());
             return ResultVO.success("修改软件资产成功，ID：" + asset.getId());
         } catch (RuntimeException e) {
             log.error("修改软件资产失败，ID：{}", asset.getId(), e);
@@ -191,6 +314,7 @@ public class AssetCrudController {
     public ResultVO<Void> deleteSoftware(@PathVariable String id) {
         try {
             softwareService.remove(id);
+            assetFingerprintIndexService.removeSoftware(id);
             return ResultVO.success("删除软件资产成功，ID：" + id);
         } catch (RuntimeException e) {
             log.error("删除软件资产失败，ID：{}", id, e);
@@ -201,10 +325,16 @@ public class AssetCrudController {
     // ============================== 网信资产CRUD ==============================
 
     @GetMapping("/cyber/{id}")
-    public ResultVO<CyberAsset> getCyber(@PathVariable String id) {
+    public ResultVO<?> getCyber(@PathVariable String id, @RequestParam(required = false) String fields) {
         try {
-            CyberAsset asset = cyberService.getById(id);
+            FieldSelection selection = FieldSelection.parse(CyberAsset.class, fields);
+            if (selection != null) {
+                return ResultVO.success(assetFieldQueryService.getCyber(id, selection), "查询网信资产详情成功");
+            }
+            CyberAsset asset = assetEntityCacheService.getCyber(id);
             return ResultVO.success(asset, "查询网信资产详情成功");
+        } catch (IllegalArgumentException e) {
+            return ResultVO.fail("查询失败：" + e.getMessage());
         } catch (RuntimeException e) {
             log.error("查询网信资产失败，ID：{}", id, e);
             return ResultVO.fail("查询失败：" + e.getMessage());
@@ -212,18 +342,69 @@ public class AssetCrudController {
     }
 
     @GetMapping("/cyber/list")
-    public ResultVO<List<CyberAsset>> listCyber(
+    public ResultVO<?> listCyber(
             @RequestParam(required = false) String reportUnit,
-            @RequestParam(required = false) String assetCategory) {
+            @RequestParam(required = false) String assetCategory,
+            @RequestParam(required = false) String fields) {
         try {
+            FieldSelection selection = FieldSelection.parse(CyberAsset.class, fields);
+            if (selection != null) {
+                List<Map<String, Object>> rows = assetFieldQueryService.listCyber(reportUnit, assetCategory, selection);
+                return ResultVO.success(rows, "查询网信资产列表成功（共" + rows.size() + "条）");
+            }
             List<CyberAsset> list = cyberService.listByReportUnitAndCategory(reportUnit, assetCategory);
             return ResultVO.success(list, "查询网信资产列表成功（共" + list.size() + "条）");
+        } catch (IllegalArgumentException e) {
+            return ResultVO.fail("查询失败：" + e.getMessage());
         } catch (Exception e) {
             log.error("查询网信资产列表失败", e);
             return ResultVO.fail("查询失败：" + e.getMessage());
         }
     }
 
+    /**
+     * 网信资产列表NDJSON流式输出（整表拉取用；参数同组合查询，每行一条资产，游标逐行读取并写出）
+     */
+    @GetMapping(value = "/cyber/list/ndjson", produces = NDJSON_MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> streamCyberList(
+            @RequestParam(required = false) String reportUnit,
+            @RequestParam(required = false) String assetCategory,
+            @RequestParam(required = false) String fields) {
+        return ndjsonResponse("网信资产", CyberAsset.class, fields,
+                (selection, out) -> assetNdjsonStreamService.streamCyber(reportUnit, assetCategory, selection, out));
+    }
+
+    /**
+     * 网信资产列表游标分页（按入库时间倒序；cursor取上一页返回的nextCursor，第一页不传）
+     */
+    @GetMapping("/cyber/page")
+    public ResultVO<CursorPageVO<?>> pageCyber(
+            @RequestParam(required = false) String reportUnit,
+            @RequestParam(required = false) String assetCategory,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String fields) {
+        try {
+            FieldSelection selection = FieldSelection.parse(CyberAsset.class, fields);
+            CursorPageVO<CyberAsset> page = assetKeysetPageService.pageCyber(
+                    reportUnit, assetCategory, cursor, size, selection);
+            return ResultVO.success(project(page, selection), "查询网信资产列表成功（本页" + page.getRecords().size() + "条）");
+        } catch (IllegalArgumentException e) {
+            return ResultVO.fail("查询失败：" + e.getMessage());
+        } catch (Exception e) {
+            log.error("分页查询网信资产列表失败", e);
+            return ResultVO.fail("查询失败：" + e.getMessage());
+        }
+    }
+
+    /**
+     * 导出全部网信资产（与导入模板相同版式，游标流式读取并写出，内存占用不随条数增长）
+     */
+    @GetMapping("/cyber/export")
+    public ResponseEntity<StreamingResponseBody> exportCyber() {
+        return exportResponse("网信资产", assetExportService::exportCyber);
+    }
+
     @GetMapping("/cyber/quantity")
     public ResultVO<List<CyberAsset>> listCyberByQuantity(
             @RequestParam Integer min,
@@ -241,6 +422,7 @@ public class AssetCrudController {
     public ResultVO<Void> addCyber(@RequestBody CyberAsset asset) {
         try {
             cyberService.add(asset);
+            assetFingerprintIndexService.refreshCyber(asset.getId());
             return ResultVO.success("新增网信资产成功，ID：" + asset.getId());
         } catch (RuntimeException e) {
             log.error("新增网信资产失败，ID：{}", asset.getId(), e);
@@ -252,6 +434,7 @@ public class AssetCrudController {
     public ResultVO<Void> updateCyber(@RequestBody CyberAsset asset) {
         try {
             cyberService.update(asset);
+            assetFingerprintIndexService.refreshCyber(asset.getId());
             return ResultVO.success("修改网信资产成功，ID：" + asset.getId());
         } catch (RuntimeException e) {
             log.error("修改网信资产失败，ID：{}", asset.getId(), e);
@@ -263,6 +446,7 @@ public class AssetCrudController {
     public ResultVO<Void> deleteCyber(@PathVariable String id) {
         try {
             cyberService.remove(id);
+            assetFingerprintIndexService.removeCyber(id);
             return ResultVO.success("删除网信资产成功，ID：" + id);
         } catch (RuntimeException e) {
             log.error("删除网信资产失败，ID：{}", id, e);
@@ -273,10 +457,16 @@ public class AssetCrudController {
     // ============================== 数据内容资产CRUD ==============================
 
     @GetMapping("/data/{id}")
-    public ResultVO<DataContentAsset> getData(@PathVariable String id) {
+    public ResultVO<?> getData(@PathVariable String id, @RequestParam(required = false) String fields) {
         try {
-            DataContentAsset asset = dataService.getById(id);
+            FieldSelection selection = FieldSelection.parse(DataContentAsset.class, fields);
+            if (selection != null) {
+                return ResultVO.success(assetFieldQueryService.getDataContent(id, selection), "查询数据资产详情成功");
+            }
+            DataContentAsset asset = assetEntityCacheService.getDataContent(id);
             return ResultVO.success(asset, "查询数据资产详情成功");
+        } catch (IllegalArgumentException e) {
+            return ResultVO.fail("查询失败：" + e.getMessage());
         } catch (RuntimeException e) {
             log.error("查询数据资产失败，ID：{}", id, e);
             return ResultVO.fail("查询失败：" + e.getMessage());
@@ -284,18 +474,69 @@ public class AssetCrudController {
     }
 
     @GetMapping("/data/list")
-    public ResultVO<List<DataContentAsset>> listData(
+    public ResultVO<?> listData(
             @RequestParam(required = false) String reportUnit,
-            @RequestParam(required = false) String assetCategory) {
+            @RequestParam(required = false) String assetCategory,
+            @RequestParam(required = false) String fields) {
         try {
+            FieldSelection selection = FieldSelection.parse(DataContentAsset.class, fields);
+            if (selection != null) {
+                List<Map<String, Object>> rows = assetFieldQueryService.listDataContent(reportUnit, assetCategory, selection);
+                return ResultVO.success(rows, "查询数据资产列表成功（共" + rows.size() + "条）");
+            }
             List<DataContentAsset> list = dataService.listByReportUnitAndCategory(reportUnit, assetCategory);
             return ResultVO.success(list, "查询数据资产列表成功（共" + list.size() + "条）");
+        } catch (IllegalArgumentException e) {
+            return ResultVO.fail("查询失败：" + e.getMessage());
         } catch (Exception e) {
             log.error("查询数据资产列表失败", e);
             return ResultVO.fail("查询失败：" + e.getMessage());
         }
     }
 
+    /**
+     * 数据资产列表NDJSON流式输出（整表拉取用；参数同组合查询，每行一条资产，游标逐行读取并写出）
+     */
+    @GetMapping(value = "/data/list/ndjson", produces = NDJSON_MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> streamDataList(
+            @RequestParam(required = false) String reportUnit,
+            @RequestParam(required = false) String assetCategory,
+            @RequestParam(required = false) String fields) {
+        return ndjsonResponse("数据资产", DataContentAsset.class, fields, (selection, out) ->
+                assetNdjsonStreamService.streamDataContent(reportUnit, assetCategory, selection, out));
+    }
+
+    /**
+     * 数据资产列表游标分页（按入库时间倒序；cursor取上一页返回的nextCursor，第一页不传）
+     */
+    @GetMapping("/data/page")
+    public ResultVO<CursorPageVO<?>> pageData(
+            @RequestParam(required = false) String reportUnit,
+            @RequestParam(required = false) String assetCategory,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String fields) {
+        try {
+            FieldSelection selection = FieldSelection.parse(DataContentAsset.class, fields);
+            CursorPageVO<DataContentAsset> page = assetKeysetPageService.pageDataContent(
+                    reportUnit, assetCategory, cursor, size, selection);
+            return ResultVO.success(project(page, selection), "查询数据资产列表成功（本页" + page.getRecords().size() + "条）");
+        } catch (IllegalArgumentException e) {
+            return ResultVO.fail("查询失败：" + e.getMessage());
+        } catch (Exception e) {
+            log.error("分页查询数据资产列表失败", e);
+            return ResultVO.fail("查询失败：" + e.getMessage());
+        }
+    }
+
+    /**
+     * 导出全部数据资产（与导入模板相同版式，游标流式读取并写出，内存占用不随条数增长）
+     */
+    @GetMapping("/data/export")
+    public ResponseEntity<StreamingResponseBody> exportData() {
+        return exportResponse("数据资产", assetExportService::exportDataContent);
+    }
+
     @GetMapping("/data/tool")
     public ResultVO<List<DataContentAsset>> listDataByTool(@RequestParam String developmentTool) {
         try {
@@ -351,6 +592,7 @@ public class AssetCrudController {
     public ResultVO<Void> addData(@RequestBody DataContentAsset asset) {
         try {
             dataService.add(asset);
+            assetFingerprintIndexService.refreshDataContent(asset.getId());
             return ResultVO.success("新增数据资产成功，ID：" + asset.getId());
         } catch (RuntimeException e) {
             log.error("新增数据资产失败，ID：{}", asset.getId(), e);
@@ -362,6 +604,7 @@ public class AssetCrudController {
     public ResultVO<Void> updateData(@RequestBody DataContentAsset asset) {
         try {
             dataService.update(asset);
+            assetFingerprintIndexService.refreshDataContent(asset.getId());
             return ResultVO.success("修改数据资产成功，ID：" + asset.getId());
         } catch (RuntimeException e) {
             log.error("修改数据资产失败，ID：{}", asset.getId(), e);
@@ -373,10 +616,82 @@ public class AssetCrudController {
     public ResultVO<Void> deleteData(@PathVariable String id) {
         try {
             dataService.remove(id);
+            assetFingerprintIndexService.removeDataContent(id);
             return ResultVO.success("删除数据资产成功，ID：" + id);
         } catch (RuntimeException e) {
             log.error("删除数据资产失败，ID：{}", id, e);
             return ResultVO.fail("删除失败：" + e.getMessage());
         }
     }
+
+    /**
+     * NDJSON列表输出
+     */
+    @FunctionalInterface
+    private interface NdjsonListTask {
+        void write(FieldSelection selection, OutputStream out);
+    }
+
+    /**
+     * NDJSON列表响应：fields参数无效时返回400和单行失败结果；
+     * 开始输出后失败只能中断响应（客户端收到不完整的分块响应），详情见服务端日志
+     */
+    private ResponseEntity<StreamingResponseBody> ndjsonResponse(String assetName, Class<?> entityClass, String fields,
+                                                                 NdjsonListTask task) {
+        FieldSelection selection;
+        try {
+            selection = FieldSelection.parse(entityClass, fields);
+        } catch (IllegalArgumentException e) {
+            String message = "查询失败：" + e.getMessage();
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .contentType(MediaType.parseMediaType(NDJSON_MEDIA_TYPE))
+                    .body(out -> assetNdjsonStreamService.writeFailure(out, message));
+        }
+        StreamingResponseBody body = out -> {
+            try {
+                task.write(selection, out);
+            } catch (RuntimeException e) {
+                log.error("{}列表NDJSON输出失败", assetName, e);
+                throw e;
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON_MEDIA_TYPE)).body(body);
+    }
+
+    /**
+     * 导出响应：响应头先行返回，工作簿边读边写直接输出到响应流
+     */
+    private static ResponseEntity<StreamingResponseBody> exportResponse(String assetName,
+                                                                        ToLongFunction<OutputStream> exporter) {
+        StreamingResponseBody body = out -> {
+            try {
+                exporter.applyAsLong(out);
+            } catch (RuntimeException e) {
+                // 响应头已发出，只能中断输出，客户端得到的是不完整的文件
+                log.error("导出{}失败", assetName, e);
+                throw e;
+            }
+        };
+        String filename = assetName + "_导出_" + LocalDateTime.now().format(EXPORT_TIMESTAMP) + ".xlsx";
+        filename = URLEncoder.encode(filename, StandardCharsets.UTF_8).replaceAll("\\+", "%20");
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment;filename=" + filename)
+                .body(body);
+    }
+
+    /**
+     * 指定fields时分页记录只输出所选字段
+     */
+    private static CursorPageVO<?> project(CursorPageVO<?> page, FieldSelection selection) {
+        if (selection == null) {
+            return page;
+        }
+        CursorPageVO<Map<String, Object>> projected = new CursorPageVO<>();
+        projected.setSize(page.getSize());
+        projected.setHasMore(page.isHasMore());
+        projected.setNextCursor(page.getNextCursor());
+        projected.setRecords(selection.project(page.getRecords()));
+        return projected;
+    }
 }
\ No newline at end of file
@@ -1,46 +1,93 @@
 package com.military.asset.controller;
 
 import com.alibaba.excel.EasyExcel;
+import com.alibaba.excel.ExcelReader;
+import com.alibaba.excel.read.metadata.ReadSheet;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.military.asset.service.SoftwareAssetService;
 import com.military.asset.service.CyberAssetService;
 import com.military.asset.service.DataContentAssetService;
 import com.military.asset.listener.SoftwareAssetExcelListener;
 import com.military.asset.listener.CyberAssetExcelListener;
 import com.military.asset.listener.DataContentAssetExcelListener;
+import com.military.asset.listener.AssetImportListener;
+import com.military.asset.listener.CsvRowReader;
+import com.military.asset.listener.ImportProgress;
+import com.military.asset.listener.ImportRecordSink;
+import com.military.asset.service.impl.AssetFingerprintIndexService;
+import com.military.asset.service.impl.AssetUpsertService;
+import com.military.asset.service.impl.ImportAdmissionService;
+import com.military.asset.service.impl.ChunkedUploadService;
+import com.military.asset.service.impl.ImportIdempotencyService;
+import com.military.asset.service.impl.ImportJobService;
+import com.military.asset.service.impl.ImportResultBuilder;
+import com.military.asset.service.impl.ImportResultStore;
+import com.military.asset.service.impl.ImportStagingService;
 import com.military.asset.service.impl.ReportUnitService;
+import com.military.asset.utils.AssetFingerprintIndex;
 import com.military.asset.vo.ExcelErrorVO;
+import com.military.asset.vo.ImportJobVO;
+import com.military.asset.vo.ImportOptions;
 import com.military.asset.vo.ImportResult;
+import com.military.asset.vo.ImportResultSummaryVO;
+import com.military.asset.vo.ResultVO;
+import com.military.asset.vo.WorkbookImportResultVO;
 import com.military.asset.vo.excel.SoftwareAssetExcelVO;
 import com.military.asset.vo.excel.CyberAssetExcelVO;
 import com.military.asset.vo.excel.DataContentAssetExcelVO;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.util.StreamUtils;
 import jakarta.servlet.http.HttpServletResponse;
 
 
 
-import java.lang.reflect.Method;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
 
 /**
  * 资产导入控制器 - 新逻辑版本（无限制记录数量 + 使用现有模板文件）
 
  * 核心特性：
  * 1. 支持大规模数据导入（10万+行数据）
- * 2. 三个表的导入方法都使用新的监听器构造函数（传入完整资产对象Map）
+ * 2. 三个表的导入方法都使用新的监听器构造函数（传入关键字段指纹索引）
  * 3. 移除Excel内部重复检查，只检查数据库重复
  * 4. 统一重复数据显示逻辑，不再区分Excel内部和系统重复
- * 5. 优化结果构建逻辑，简化重复数据统计
+ * 5. 优化结果构建逻辑，简化重复数据统计（通过AssetImportListener的类型化接口读取结果，不使用反射）
  * 6. 无限制返回成功和失败记录，支持大数据量场景
  * 7. 使用现有的Excel模板文件，包含完整的示例数据和格式
 
@@ -50,10 +97,24 @@ import java.util.stream.Collectors;
  * - 数据内容资产模板：classpath:templates/data_content_asset_template.xlsx
 
  * 性能优化：
- * - 预加载机制：一次性加载所有现有资产到内存Map
- * - 内存比较：重复检查在内存中进行，避免多次数据库查询
+ * - 预加载机制：常驻内存的"ID → 关键字段指纹"索引（启动预热、增量维护、定时对账），导入时无需重新加载
+ * - 内存比较：重复检查在内存中比较指纹，仅指纹不一致的少量ID按需查询完整记录
  * - 批量保存：有效数据收集完成后一次性批量保存
  * - 流式读取：Excel流式解析，不占用大内存
+ * - 流式提交：batchSize > 0 时监听器每满一批即入库并释放，百万行导入内存占用恒定
+ * - 异步导入：/async 接口立即返回任务ID，后台线程池执行，支持进度轮询和取消
+ * - 并行校验：parallel=true 时解析线程只负责读取，行校验交给校验线程池并行执行，结果按Excel行顺序登记
+ * - 结果分页：/summary 接口只返回摘要，完整结果保存在服务端按页获取；/ndjson 接口边解析边逐行输出记录
+ * - 多工作表：/workbook 接口一次上传包含三类资产工作表的工作簿，各工作表并行解析、校验、保存
+ * - 断点续传：/uploads 分片上传（见ChunkedUploadController），全部分片到齐后经 /{type}/uploads/{uploadId}/complete 提交异步导入
+ * - 大文件上传：上传文件落盘为临时文件后按文件读取（Excel由POI按文件打开，CSV经FileChannel读取），支持GB级文件
+ * - CSV导入：单表导入接口同时接受.csv和.csv.gz，按文件头识别格式，CSV不经过POI，按字节解析（UTF-8/GBK自动识别）
+ * - 仅校验：dryRun=true 时执行全部校验和重复检查（使用常驻指纹索引），不写数据库，用于正式提交前预检
+ * - 幂等导入：按文件内容SHA-256识别重复上传，时间窗口内且表数据未被改动时直接返回上次导入结果（force=true强制重新导入）
+ * - 暂存表合并：staging=true 时合法行先批量写入暂存表，解析完成后用集合SQL判重（含文件内ID重复）并一次性插入
+ * - 排队执行：同一资产类型的导入按asset.import.admission.max-concurrent限制并发（默认串行），超出的导入按提交顺序排队，
+ *   异步任务返回排队位置；不同资产类型并行导入；仅校验不写库，不排队
+ * - 更新模式：upsert=true 时已存在的ID按内容比较，变化的行批量 INSERT ... ON DUPLICATE KEY UPDATE，分别统计新增、更新、未变化条数
 
  * 使用场景：
  * - 软件资产导入：关键字段（上报单位、资产分类、资产名称）
@@ -75,6 +136,88 @@ public class AssetImportController {
     @Autowired
     private DataContentAssetService dataContentAssetService;
 
+    @Autowired
+    private AssetFingerprintIndexService assetFingerprintIndexService;
+
+    @Autowired
+    private ImportJobService importJobService;
+
+    @Autowired
+    private ImportResultStore importResultStore;
+
+    @Autowired
+    private ChunkedUploadService chunkedUploadService;
+
+    @Autowired
+    private ImportStagingService importStagingService;
+
+    @Autowired
+    private ImportIdempotencyService importIdempotencyService;
+
+    @Autowired
+    private AssetUpsertService assetUpsertService;
+
+    @Autowired
+    private ImportAdmissionService importAdmissionService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    @Qualifier("importValidationExecutor")
+    private ThreadPoolTaskExecutor importValidationExecutor;
+
+    @Autowired
+    @Qualifier("importSheetExecutor")
+    private ThreadPoolTaskExecutor importSheetExecutor;
+
+    /**
+     * 默认流式提交批次大小（0 表示关闭流式提交，解析完成后统一保存）
+     * 可通过请求参数batchSize按次覆盖
+     */
+    @Value("${asset.import.flush-batch-size:0}")
+    private int defaultFlushBatchSize;
+
+    /**
+     * 默认是否开启并行校验流水线（可通过请求参数parallel按次覆盖）
+     */
+    @Value("${asset.import.pipeline.enabled:false}")
+    private boolean defaultPipelineEnabled;
+
+    /**
+     * 并行校验流水线每批交给校验线程池的行数
+     */
+    @Value("${asset.import.pipeline.batch-size:500}")
+    private int pipelineBatchSize;
+
+    /**
+     * 默认是否经暂存表合并（可通过请求参数staging按次覆盖）
+     */
+    @Value("${asset.import.staging.enabled:false}")
+    private boolean defaultStagingEnabled;
+
+    /**
+     * 暂存表合并模式下每批写入暂存表的行数（请求参数batchSize > 0 时以请求参数为准）
+     */
+    @Value("${asset.import.staging.batch-size:5000}")
+    private int stagingBatchSize;
+
+    /**
+     * 更新模式下每批比较并写入的行数（请求参数batchSize > 0 时以请求参数为准）
+     */
+    @Value("${asset.import.upsert.batch-size:1000}")
+    private int upsertBatchSize;
+
+    /**
+     * 上传文件大小上限（MB），需同时调整spring.servlet.multipart.max-file-size/max-request-size
+     */
+    @Value("${asset.import.max-file-size-mb:4096}")
+    private long maxFileSizeMb;
+
+    /**
+     * NDJSON响应类型
+     */
+    private static final String NDJSON_MEDIA_TYPE = "application/x-ndjson";
 
     // ============================ 模板文件路径常量 ============================
 
@@ -101,55 +244,40 @@ public class AssetImportController {
      * 软件资产Excel导入 - 新逻辑（支持大数据量）
 
      * 处理流程：
-     * 1. 文件校验 → 2. 获取数据库现有资产Map → 3. 流式读取Excel → 4. 批量保存有效数据 → 5. 返回完整结果
+     * 1. 文件校验 → 2. 获取数据库现有资产指纹索引 → 3. 流式读取Excel → 4. 批量保存有效数据 → 5. 返回完整结果
 
      * 关键特性：
-     * - 使用完整资产对象Map进行关键字段比较
+     * - 使用关键字段指纹索引进行比较，仅指纹不一致时加载完整记录
      * - 移除Excel内部重复检查，只检查数据库重复
      * - 支持10万+行大数据量导入
      * - 返回所有成功和失败记录，无数量限制
      *
-     * @param file 上传的Excel文件（支持.xlsx和.xls格式，最大100MB）
+     * @param file 上传的Excel或CSV文件（支持.xlsx、.xls、.csv、.csv.gz格式，大小上限见asset.import.max-file-size-mb）
+     * @param options 导入选项（batchSize流式提交批次大小、parallel并行校验流水线、staging暂存表合并、force强制重新导入、dryRun仅校验不入库、upsert更新已存在的记录，均可选，不传则使用配置默认值）
      * @return ImportResult 包含完整导入结果的响应对象
      *
      * @apiNote 支持大规模数据导入，建议单个文件不超过10万行以保证性能
      */
     @PostMapping("/software")
-    public ImportResult importSoftwareAsset(@RequestParam("file") MultipartFile file) {
+    public ImportResult importSoftwareAsset(@RequestParam("file") MultipartFile file,
+                                            ImportOptions options) {
         log.info("开始导入软件资产Excel文件: {}，文件大小: {} bytes",
                 file.getOriginalFilename(), file.getSize());
+        Path tempFile = null;
         try {
-            // 步骤1：文件基础校验
+            // 步骤1：文件基础校验，上传文件落盘
             validateFile(file);
+            tempFile = spoolUpload(file);
 
-            // 步骤2：获取数据库中已存在的完整资产信息（用于关键字段比较）
-            var existingAssets = softwareAssetService.getExistingAssetsMap();
-            log.info("软件资产数据库现有记录数: {}条", existingAssets.size());
-
-            // 步骤3：创建监听器，传入完整的资产信息用于比较关键字段
-            SoftwareAssetExcelListener listener = new SoftwareAssetExcelListener(existingAssets);
-
-            // 步骤4：流式读取Excel文件（不限制行数）
-            EasyExcel.read(file.getInputStream(), SoftwareAssetExcelVO.class, listener)
-                    .sheet()
-                    .headRowNumber(2) // 跳过表头行
-                    .doRead();
-
-            // 步骤5：批量保存有效数据（如果有）
-            if (!listener.getValidDataList().isEmpty()) {
-                softwareAssetService.batchSaveSoftwareAssets(listener.getValidDataList());
-                log.info("软件资产导入成功保存{}条数据", listener.getValidDataList().size());
-                log.info("服务启动，开始自动填充上报单位的省份字段...");
-            } else {
-                log.info("软件资产导入无有效数据需要保存");
-            }
-
-            // 步骤6：构建并返回完整的导入结果（无记录数量限制）
-            return buildImportResult(listener, "软件资产");
-
+            // 步骤2~6：读取Excel、校验、保存并构建导入结果
+            return idempotent("软件资产", options, assetFingerprintIndexService::getSoftwareDataVersion,
+                    (uploadFile, progress) -> doImportSoftware(uploadSource(uploadFile), options, progress, null))
+                    .run(tempFile, null);
         } catch (Exception e) {
             log.error("软件资产导入失败: {}", e.getMessage(), e);
             return buildErrorResult("软件资产导入失败: " + e.getMessage());
+        } finally {
+            deleteTempFile(tempFile);
         }
     }
 
@@ -157,7 +285,7 @@ public class AssetImportController {
      * 网信资产Excel导入 - 新逻辑（支持大数据量）
 
      * 处理流程：
-     * 1. 文件校验 → 2. 获取数据库现有资产Map → 3. 流式读取Excel → 4. 批量保存有效数据 → 5. 返回完整结果
+     * 1. 文件校验 → 2. 获取数据库现有资产指纹索引 → 3. 流式读取Excel → 4. 批量保存有效数据 → 5. 返回完整结果
 
      * 关键特性：
      * - 网信资产特有：多一个资产内容字段比较
@@ -165,47 +293,32 @@ public class AssetImportController {
      * - 支持10万+行大数据量导入
      * - 返回所有成功和失败记录，无数量限制
      *
-     * @param file 上传的Excel文件（支持.xlsx和.xls格式，最大100MB）
+     * @param file 上传的Excel或CSV文件（支持.xlsx、.xls、.csv、.csv.gz格式，大小上限见asset.import.max-file-size-mb）
+     * @param options 导入选项（batchSize流式提交批次大小、parallel并行校验流水线、staging暂存表合并、force强制重新导入、dryRun仅校验不入库、upsert更新已存在的记录，均可选，不传则使用配置默认值）
      * @return ImportResult 包含完整导入结果的响应对象
      *
      * @apiNote 支持大规模数据导入，建议单个文件不超过10万行以保证性能
      */
     @PostMapping("/cyber")
-    public ImportResult importCyberAsset(@RequestParam("file") MultipartFile file) {
+    public ImportResult importCyberAsset(@RequestParam("file") MultipartFile file,
+                                         ImportOptions options) {
         log.info("开始导入网信资产Excel文件: {}，文件大小: {} bytes",
                 file.getOriginalFilename(), file.getSize());
+        Path tempFile = null;
         try {
-            // 步骤1：文件基础校验
+            // 步骤1：文件基础校验，上传文件落盘
             validateFile(file);
+            tempFile = spoolUpload(file);
 
-            // 步骤2：获取数据库中已存在的完整资产信息
-            var existingAssets = cyberAssetService.getExistingAssetsMap();
-            log.info("网信资产数据库现有记录数: {}条", existingAssets.size());
-
-            // 步骤3：创建监听器，传入完整的资产信息用于比较关键字段
-            CyberAssetExcelListener listener = new CyberAssetExcelListener(existingAssets);
-
-            // 步骤4：流式读取Excel文件（不限制行数）
-            EasyExcel.read(file.getInputStream(), CyberAssetExcelVO.class, listener)
-                    .sheet()
-                    .headRowNumber(2) // 跳过表头行
-                    .doRead();
-
-            // 步骤5：批量保存有效数据（如果有）
-            if (!listener.getValidDataList().isEmpty()) {
-                cyberAssetService.batchSaveCyberAssets(listener.getValidDataList());
-                log.info("网信资产导入成功保存{}条数据", listener.getValidDataList().size());
-                log.info("服务启动，开始自动填充上报单位的省份字段...");
-            } else {
-                log.info("网信资产导入无有效数据需要保存");
-            }
-
-            // 步骤6：构建并返回完整的导入结果（无记录数量限制）
-            return buildImportResult(listener, "网信资产");
-
+            // 步骤2~6：读取Excel、校验、保存并构建导入结果
+            return idempotent("网信资产", options, assetFingerprintIndexService::getCyberDataVersion,
+                    (uploadFile, progress) -> doImportCyber(uploadSource(uploadFile), options, progress, null))
+                    .run(tempFile, null);
         } catch (Exception e) {
             log.error("网信资产导入失败: {}", e.getMessage(), e);
             return buildErrorResult("网信资产导入失败: " + e.getMessage());
+        } finally {
+            deleteTempFile(tempFile);
         }
     }
 
@@ -213,7 +326,7 @@ public class AssetImportController {
      * 数据内容资产Excel导入 - 新逻辑（支持大数据量）
 
      * 处理流程：
-     * 1. 文件校验 → 2. 获取数据库现有资产Map → 3. 流式读取Excel → 4. 批量保存有效数据 → 5. 返回完整结果
+     * 1. 文件校验 → 2. 获取数据库现有资产指纹索引 → 3. 流式读取Excel → 4. 批量保存有效数据 → 5. 返回完整结果
 
      * 关键特性：
      * - 数据内容资产特有：开发工具等字段校验
@@ -221,51 +334,989 @@ public class AssetImportController {
      * - 支持10万+行大数据量导入
      * - 返回所有成功和失败记录，无数量限制
      *
-     * @param file 上传的Excel文件（支持.xlsx和.xls格式，最大100MB）
+     * @param file 上传的Excel或CSV文件（支持.xlsx、.xls、.csv、.csv.gz格式，大小上限见asset.import.max-file-size-mb）
+     * @param options 导入选项（batchSize流式提交批次大小、parallel并行校验流水线、staging暂存表合并、force强制重新导入、dryRun仅校验不入库、upsert更新已存在的记录，均可选，不传则使用配置默认值）
      * @return ImportResult 包含完整导入结果的响应对象
      *
      * @apiNote 支持大规模数据导入，建议单个文件不超过10万行以保证性能
      */
     @PostMapping("/data-content")
-    public ImportResult importDataContentAsset(@RequestParam("file") MultipartFile file) {
+    public ImportResult importDataContentAsset(@RequestParam("file") MultipartFile file,
+                                               ImportOptions options) {
         log.info("开始导入数据内容资产Excel文件: {}，文件大小: {} bytes",
                 file.getOriginalFilename(), file.getSize());
 
+        Path tempFile = null;
+        try {
+            // 步骤1：文件基础校验，上传文件落盘
+            validateFile(file);
+            tempFile = spoolUpload(file);
+
+            // 步骤2~6：读取Excel、校验、保存并构建导入结果
+            return idempotent("数据内容资产", options, assetFingerprintIndexService::getDataContentDataVersion,
+                    (uploadFile, progress) -> doImportDataContent(uploadSource(uploadFile), options, progress, null))
+                    .run(tempFile, null);
+        } catch (Exception e) {
+            log.error("数据内容资产导入失败: {}", e.getMessage(), e);
+            return buildErrorResult("数据内容资产导入失败: " + e.getMessage());
+        } finally {
+            deleteTempFile(tempFile);
+        }
+    }
+
+    // ============================ 异步导入 ============================
+
+    /**
+     * 软件资产Excel异步导入
+
+     * 上传文件落盘后立即返回任务ID，导入在后台线程池执行，
+     * 通过 GET /api/asset/import/jobs/{jobId} 轮询进度，GET /api/asset/import/jobs/{jobId}/result 获取完整结果
+     *
+     * @param file 上传的Excel或CSV文件（支持.xlsx、.xls、.csv、.csv.gz格式，大小上限见asset.import.max-file-size-mb）
+     * @param options 导入选项（可选，同同步接口）
+     * @return 202 任务已受理；400 文件校验失败；503 导入任务队列或该资产类型的排队已满
+     */
+    @PostMapping("/software/async")
+    public ResponseEntity<ResultVO<ImportJobVO>> importSoftwareAssetAsync(@RequestParam("file") MultipartFile file,
+                                                                          ImportOptions options) {
+        return submitImportJob(file, "软件资产", options,
+                idempotent("软件资产", options, assetFingerprintIndexService::getSoftwareDataVersion,
+                        (uploadFile, progress) -> doImportSoftware(uploadSource(uploadFile), options, progress, null)));
+    }
+
+    /**
+     * 网信资产Excel异步导入（用法同软件资产异步导入）
+     */
+    @PostMapping("/cyber/async")
+    public ResponseEntity<ResultVO<ImportJobVO>> importCyberAssetAsync(@RequestParam("file") MultipartFile file,
+                                                                       ImportOptions options) {
+        return submitImportJob(file, "网信资产", options,
+                idempotent("网信资产", options, assetFingerprintIndexService::getCyberDataVersion,
+                        (uploadFile, progress) -> doImportCyber(uploadSource(uploadFile), options, progress, null)));
+    }
+
+    /**
+     * 数据内容资产Excel异步导入（用法同软件资产异步导入）
+     */
+    @PostMapping("/data-content/async")
+    public ResponseEntity<ResultVO<ImportJobVO>> importDataContentAssetAsync(@RequestParam("file") MultipartFile file,
+                                                                             ImportOptions options) {
+        return submitImportJob(file, "数据内容资产", options,
+                idempotent("数据内容资产", options, assetFingerprintIndexService::getDataContentDataVersion,
+                        (uploadFile, progress) -> doImportDataContent(uploadSource(uploadFile), options, progress, null)));
+    }
+
+    /**
+     * 提交异步导入任务
+
+     * 处理流程：
+     * 1. 文件校验 → 2. 上传文件落盘为临时文件 → 3. 提交到导入线程池 → 4. 返回任务ID
+     *
+     * @param file 上传的Excel文件
+     * @param assetType 资产类型（用于日志和任务展示）
+     * @param options 导入选项（仅校验的任务不写库，不按资产类型排队）
+     * @param task 具体资产类型的导入流程
+     * @return 包含任务状态快照的响应
+     */
+    private ResponseEntity<ResultVO<ImportJobVO>> submitImportJob(MultipartFile file, String assetType,
+                                                                  ImportOptions options,
+                                                                  ImportJobService.ImportTask task) {
+        log.info("提交{}异步导入任务: {}，文件大小: {} bytes", assetType, file.getOriginalFilename(), file.getSize());
+        Path tempFile = null;
         try {
-            // 步骤1：文件基础校验
             validateFile(file);
+            tempFile = spoolUpload(file);
+
+            ImportJobVO job = importJobService.submit(assetType, file.getOriginalFilename(), tempFile,
+                    needsAdmission(options), task);
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .body(ResultVO.success(job, assetType + "导入任务已提交"));
+
+        } catch (TaskRejectedException e) {
+            deleteTempFile(tempFile);
+            log.warn("{}异步导入任务被拒绝：{}", assetType, e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(ResultVO.fail(e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ResultVO.fail(e.getMessage()));
+        } catch (Exception e) {
+            deleteTempFile(tempFile);
+            log.error("{}异步导入任务提交失败: {}", assetType, e.getMessage(), e);
+            return ResponseEntity.internalServerError()
+                    .body(ResultVO.fail(assetType + "导入任务提交失败: " + e.getMessage()));
+        }
+    }
+
+    // ============================ 分片上传完成后导入 ============================
+
+    /**
+     * 软件资产分片上传完成并提交异步导入任务
+
+     * 配合 /api/asset/import/uploads 分片上传接口使用：全部分片到齐后调用，
+     * 组装好的文件直接交给异步导入流程（与 /software/async 相同），返回任务ID
+     *
+     * @param uploadId 上传会话ID
+     * @param options 导入选项（可选，同同步接口）
+     * @return 202 任务已受理；400 仍有分片缺失或文件格式不支持；404 上传会话不存在；503 导入任务队列或该资产类型的排队已满
+     */
+    @PostMapping("/software/uploads/{uploadId}/complete")
+    public ResponseEntity<ResultVO<ImportJobVO>> completeSoftwareUpload(@PathVariable String uploadId,
+                                                                        ImportOptions options) {
+        return submitUploadedImportJob(uploadId, "软件资产", options,
+                idempotent("软件资产", options, assetFingerprintIndexService::getSoftwareDataVersion,
+                        (uploadFile, progress) -> doImportSoftware(uploadSource(uploadFile), options, progress, null)));
+    }
 
-            // 步骤2：获取数据库中已存在的完整资产信息
-            var existingAssets = dataContentAssetService.getExistingAssetsMap();
-            log.info("数据内容资产数据库现有记录数: {}条", existingAssets.size());
-
-            // 步骤3：创建监听器，传入完整的资产信息用于比较关键字段
-            DataContentAssetExcelListener listener = new DataContentAssetExcelListener(existingAssets);
-
-            // 步骤4：流式读取Excel文件（不限制行数）
-            EasyExcel.read(file.getInputStream(), DataContentAssetExcelVO.class, listener)
-                    .sheet()
-                    .headRowNumber(2) // 跳过表头行
-                    .doRead();
-
-            // 步骤5：批量保存有效数据（如果有）
-            if (!listener.getValidDataList().isEmpty()) {
-                dataContentAssetService.batchSaveDataContentAssets(listener.getValidDataList());
-                log.info("数据内容资产导入成功保存{}条数据", listener.getValidDataList().size());
-                log.info("服务启动，开始自动填充上报单位的省份字段...");
-            } else {
-                log.info("数据内容资产导入无有效数据需要保存");
+    /**
+     * 网信资产分片上传完成并提交异步导入任务（用法同软件资产）
+     */
+    @PostMapping("/cyber/uploads/{uploadId}/complete")
+    public ResponseEntity<ResultVO<ImportJobVO>> completeCyberUpload(@PathVariable String uploadId,
+                                                                     ImportOptions options) {
+        return submitUploadedImportJob(uploadId, "网信资产", options,
+                idempotent("网信资产", options, assetFingerprintIndexService::getCyberDataVersion,
+                        (uploadFile, progress) -> doImportCyber(uploadSource(uploadFile), options, progress, null)));
+    }
+
+    /**
+     * 数据内容资产分片上传完成并提交异步导入任务（用法同软件资产）
+     */
+    @PostMapping("/data-content/uploads/{uploadId}/complete")
+    public ResponseEntity<ResultVO<ImportJobVO>> completeDataContentUpload(@PathVariable String uploadId,
+                                                                           ImportOptions options) {
+        return submitUploadedImportJob(uploadId, "数据内容资产", options,
+                idempotent("数据内容资产", options, assetFingerprintIndexService::getDataContentDataVersion,
+                        (uploadFile, progress) -> doImportDataContent(uploadSource(uploadFile), options, progress, null)));
+    }
+
+    /**
+     * 完成分片上传并提交异步导入任务（组装好的文件由导入任务结束后删除）
+     */
+    private ResponseEntity<ResultVO<ImportJobVO>> submitUploadedImportJob(String uploadId, String assetType,
+                                                                          ImportOptions options,
+                                                                          ImportJobService.ImportTask task) {
+        ChunkedUploadService.UploadSession session = chunkedUploadService.get(uploadId);
+        if (session == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ResultVO.fail("上传会话不存在或已过期：" + uploadId));
+        }
+        Path uploadFile = null;
+        try {
+            validateFileName(session.getFileName());
+            uploadFile = chunkedUploadService.complete(session);
+
+            ImportJobVO job = importJobService.submit(assetType, session.getFileName(), uploadFile,
+                    needsAdmission(options), task);
+            log.info("{}分片上传已完成并提交导入任务：会话ID={}，任务ID={}", assetType, uploadId, job.getJobId());
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .body(ResultVO.success(job, assetType + "导入任务已提交"));
+
+        } catch (TaskRejectedException e) {
+            // 已上传的文件保留在会话中，稍后重新调用完成接口即可，不需要重新上传
+            log.warn("{}异步导入任务被拒绝，导入任务队列已满，会话ID={}", assetType, uploadId);
+            if (chunkedUploadService.reopen(session)) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .body(ResultVO.fail("导入任务队列已满，已上传的文件已保留，请稍后重新完成上传（无需重新上传）"));
             }
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(ResultVO.fail("导入任务队列已满且上传会话已过期，请稍后重新上传"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ResultVO.fail(e.getMessage()));
+        } catch (RuntimeException e) {
+            deleteTempFile(uploadFile);
+            log.error("{}分片上传导入任务提交失败: {}", assetType, e.getMessage(), e);
+            return ResponseEntity.internalServerError()
+                    .body(ResultVO.fail(assetType + "导入任务提交失败: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * 幂等导入：相同内容的文件复用最近一次成功导入的结果，不重新解析和判重
+     * （请求参数force=true时强制重新导入；仅校验模式每次都重新校验，结果也不用于复用）
 
-            // 步骤6：构建并返回完整的导入结果（无记录数量限制）
-            return buildImportResult(listener, "数据内容资产");
+     * 先取得该资产类型的执行槽位，再判断是否复用（异步任务在提交时已取得槽位）：
+     * 同步、异步两条路径顺序一致，登记了进行中导入的一方一定已持有槽位，
+     * 等待复用的一方不会与其互相等待槽位和导入结果
+     *
+     * @param assetType 资产类型
+     * @param options 导入选项
+     * @param dataVersion 资产表数据版本（两次导入之间表数据被改动过则不复用）
+     * @param task 实际导入流程
+     * @return 包装后的导入流程
+     */
+    private ImportJobService.ImportTask idempotent(String assetType, ImportOptions options, LongSupplier dataVersion,
+                                                   ImportJobService.ImportTask task) {
+        if (Boolean.TRUE.equals(options.getForce()) || Boolean.TRUE.equals(options.getDryRun())) {
+            return (uploadFile, progress) -> admitted(assetType, options, progress,
+                    () -> task.run(uploadFile, progress));
+        }
+        // 更新模式与普通导入的结果不同，分开复用
+        String resultKey = Boolean.TRUE.equals(options.getUpsert()) ? assetType + "（更新模式）" : assetType;
+        return (uploadFile, progress) -> admitted(assetType, options, progress,
+                () -> importIdempotencyService.importOnce(resultKey, uploadFile, dataVersion, progress,
+                        () -> task.run(uploadFile, progress)));
+    }
 
+    private void deleteTempFile(Path tempFile) {
+        if (tempFile == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(tempFile);
         } catch (Exception e) {
-            log.error("数据内容资产导入失败: {}", e.getMessage(), e);
-            return buildErrorResult("数据内容资产导入失败: " + e.getMessage());
+            log.warn("删除导入临时文件失败: {}", tempFile);
+        }
+    }
+
+    // ============================ 结果摘要与NDJSON流式导入 ============================
+
+    /**
+     * 软件资产Excel导入（只返回结果摘要）
+
+     * 完整结果保存在服务端，返回的resultId用于分页获取明细：
+     * GET /api/asset/import/results/{resultId}/successes|errors|duplicates?page=1&size=100
+     *
+     * @param file 上传的Excel或CSV文件（支持.xlsx、.xls、.csv、.csv.gz格式，大小上限见asset.import.max-file-size-mb）
+     * @param options 导入选项（可选，同同步接口）
+     * @return 200 导入结果摘要；400 文件校验失败；500 导入失败
+     */
+    @PostMapping("/software/summary")
+    public ResponseEntity<ResultVO<ImportResultSummaryVO>> importSoftwareAssetSummary(@RequestParam("file") MultipartFile file,
+                                                                                      ImportOptions options) {
+        return importWithStoredResult(file, "软件资产",
+                idempotent("软件资产", options, assetFingerprintIndexService::getSoftwareDataVersion,
+                        (uploadFile, progress) -> doImportSoftware(uploadSource(uploadFile), options, progress, null)));
+    }
+
+    /**
+     * 网信资产Excel导入（只返回结果摘要，用法同软件资产）
+     */
+    @PostMapping("/cyber/summary")
+    public ResponseEntity<ResultVO<ImportResultSummaryVO>> importCyberAssetSummary(@RequestParam("file") MultipartFile file,
+                                                                                   ImportOptions options) {
+        return importWithStoredResult(file, "网信资产",
+                idempotent("网信资产", options, assetFingerprintIndexService::getCyberDataVersion,
+                        (uploadFile, progress) -> doImportCyber(uploadSource(uploadFile), options, progress, null)));
+    }
+
+    /**
+     * 数据内容资产Excel导入（只返回结果摘要，用法同软件资产）
+     */
+    @PostMapping("/data-content/summary")
+    public ResponseEntity<ResultVO<ImportResultSummaryVO>> importDataContentAssetSummary(@RequestParam("file") MultipartFile file,
+                                                                                         ImportOptions options) {
+        return importWithStoredResult(file, "数据内容资产",
+                idempotent("数据内容资产", options, assetFingerprintIndexService::getDataContentDataVersion,
+                        (uploadFile, progress) -> doImportDataContent(uploadSource(uploadFile), options, progress, null)));
+    }
+
+    /**
+     * 软件资产Excel导入（NDJSON流式返回）
+
+     * 响应为application/x-ndjson，每行一个JSON对象，边解析边输出：
+     * - {"type":"success","record":{成功记录}}
+     * - {"type":"error","record":{错误记录}}
+     * - {"type":"duplicate","record":{重复记录}}
+     * - 最后一行 {"type":"summary","record":{结果摘要，含resultId}} 或 {"type":"failed","record":"失败原因"}
+     * 客户端中途断开连接时停止解析（流式提交模式下已提交的批次保留在库中）
+     *
+     * @param file 上传的Excel或CSV文件（支持.xlsx、.xls、.csv、.csv.gz格式，大小上限见asset.import.max-file-size-mb）
+     * @param options 导入选项（可选，同同步接口）
+     */
+    @PostMapping(value = "/software/ndjson", produces = NDJSON_MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> importSoftwareAssetNdjson(@RequestParam("file") MultipartFile file,
+                                                                           ImportOptions options) {
+        return streamImport(file, "软件资产", options,
+                (uploadFile, sink) -> admitted("软件资产", options, null,
+                        () -> doImportSoftware(uploadSource(uploadFile), options, null, sink)));
+    }
+
+    /**
+     * 网信资产Excel导入（NDJSON流式返回，用法同软件资产）
+     */
+    @PostMapping(value = "/cyber/ndjson", produces = NDJSON_MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> importCyberAssetNdjson(@RequestParam("file") MultipartFile file,
+                                                                        ImportOptions options) {
+        return streamImport(file, "网信资产", options,
+                (uploadFile, sink) -> admitted("网信资产", options, null,
+                        () -> doImportCyber(uploadSource(uploadFile), options, null, sink)));
+    }
+
+    /**
+     * 数据内容资产Excel导入（NDJSON流式返回，用法同软件资产）
+     */
+    @PostMapping(value = "/data-content/ndjson", produces = NDJSON_MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> importDataContentAssetNdjson(@RequestParam("file") MultipartFile file,
+                                                                              ImportOptions options) {
+        return streamImport(file, "数据内容资产", options,
+                (uploadFile, sink) -> admitted("数据内容资产", options, null,
+                        () -> doImportDataContent(uploadSource(uploadFile), options, null, sink)));
+    }
+
+    /**
+     * 同步导入并保存结果，只返回摘要
+     */
+    private ResponseEntity<ResultVO<ImportResultSummaryVO>> importWithStoredResult(MultipartFile file, String assetType,
+                                                                                   ImportJobService.ImportTask task) {
+        log.info("开始导入{}Excel文件（摘要模式）: {}，文件大小: {} bytes", assetType, file.getOriginalFilename(), file.getSize());
+        Path tempFile = null;
+        try {
+            validateFile(file);
+            tempFile = spoolUpload(file);
+            ImportResult result = task.run(tempFile, null);
+            if (result.getData() == null) {
+                return ResponseEntity.internalServerError().body(ResultVO.fail(result.getMessage()));
+            }
+            ImportResultStore.StoredResult stored = importResultStore.save(assetType, result);
+            return ResponseEntity.ok(ResultVO.success(stored.toSummaryVO(), result.getMessage()));
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ResultVO.fail(e.getMessage()));
+        } catch (Exception e) {
+            log.error("{}导入失败: {}", assetType, e.getMessage(), e);
+            return ResponseEntity.internalServerError().body(ResultVO.fail(assetType + "导入失败: " + e.getMessage()));
+        } finally {
+            deleteTempFile(tempFile);
         }
     }
 
+    /**
+     * NDJSON流式导入
+
+     * 上传文件先落盘为临时文件（响应体在请求线程返回后才写出，MultipartFile届时可能已清理），
+     * 解析过程中每行结果经NdjsonRecordSink直接写入响应流，结束后保存结果并输出摘要；
+     * 导入选项和文件在开始输出前校验，不合法时直接返回400
+     */
+    private ResponseEntity<StreamingResponseBody> streamImport(MultipartFile file, String assetType,
+                                                               ImportOptions options, StreamingImportTask task) {
+        log.info("开始导入{}Excel文件（NDJSON流式）: {}，文件大小: {} bytes", assetType, file.getOriginalFilename(), file.getSize());
+        Path tempFile;
+        try {
+            validateStreamingOptions(options);
+            validateFile(file);
+            tempFile = spoolUpload(file);
+        } catch (Exception e) {
+            HttpStatus status = (e instanceof IllegalArgumentException)
+                    ? HttpStatus.BAD_REQUEST : HttpStatus.INTERNAL_SERVER_ERROR;
+            String message = e.getMessage();
+            return ResponseEntity.status(status)
+                    .contentType(MediaType.parseMediaType(NDJSON_MEDIA_TYPE))
+                    .body(out -> new NdjsonRecordSink(out, objectMapper).finish("failed", message));
+        }
+
+        StreamingResponseBody body = out -> {
+            NdjsonRecordSink sink = new NdjsonRecordSink(out, objectMapper);
+            try {
+                ImportResult result = task.run(tempFile, sink);
+                if (result.getData() != null) {
+                    sink.finish("summary", importResultStore.save(assetType, result).toSummaryVO());
+                } else {
+                    sink.finish("failed", result.getMessage());
+                }
+            } catch (Exception e) {
+                log.error("{}NDJSON流式导入失败: {}", assetType, e.getMessage(), e);
+                sink.finishQuietly("failed", assetType + "导入失败: " + e.getMessage());
+            } finally {
+                deleteTempFile(tempFile);
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON_MEDIA_TYPE)).body(body);
+    }
+
+    /**
+     * NDJSON流式导入执行体
+     */
+    @FunctionalInterface
+    private interface StreamingImportTask {
+        ImportResult run(Path uploadFile, ImportRecordSink recordSink) throws Exception;
+    }
+
+    /**
+     * NDJSON记录输出（由监听器在解析线程中按行调用）
+
+     * 每条记录序列化为一行JSON写入带缓冲的响应流，缓冲写满即发送给客户端；
+     * 写出失败（客户端断开）时抛出UncheckedIOException终止解析
+     */
+    private static final class NdjsonRecordSink implements ImportRecordSink {
+
+        private final OutputStream out;
+        private final ObjectMapper objectMapper;
+
+        private NdjsonRecordSink(OutputStream out, ObjectMapper objectMapper) {
+            this.out = new BufferedOutputStream(out, 8192);
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        public void onSuccess(int rowNum, String assetId, String assetName, String reportUnit) {
+            ImportResult.SuccessRecord record = new ImportResult.SuccessRecord();
+            record.setExcelRowNum(rowNum);
+            record.setAssetId(assetId);
+            record.setAssetName(assetName);
+            record.setReportUnit(reportUnit);
+            writeLine("success", record);
+        }
+
+        @Override
+        public void onError(ExcelErrorVO errorVO) {
+            writeLine("error", errorVO);
+        }
+
+        @Override
+        public void onDuplicate(Object duplicateRecord) {
+            writeLine("duplicate", duplicateRecord);
+        }
+
+        private void writeLine(String type, Object record) {
+            try {
+                out.write(objectMapper.writeValueAsBytes(new NdjsonLine(type, record)));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * 输出最后一行并刷新响应流
+         */
+        private void finish(String type, Object record) throws IOException {
+            writeLine(type, record);
+            out.flush();
+        }
+
+        /**
+         * 导入失败时输出失败原因（客户端已断开时忽略）
+         */
+        private void finishQuietly(String type, Object record) {
+            try {
+                finish(type, record);
+            } catch (Exception e) {
+                log.debug("NDJSON响应输出失败（客户端可能已断开）: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * NDJSON单行结构
+     */
+    private record NdjsonLine(String type, Object record) {
+    }
+
+    // ============================ 多工作表导入 ============================
+
+    /**
+     * 多工作表Excel导入（一个工作簿同时包含软件、网信、数据内容资产工作表）
+
+     * 处理流程：
+     * 1. 文件校验 → 2. 上传文件落盘为临时文件 → 3. 读取工作表列表并按名称识别资产类型
+     * → 4. 各工作表在工作表线程池中并行解析、校验、保存 → 5. 保存各工作表结果并返回分区摘要
+
+     * 工作表识别规则（按工作表名称，每类资产只取第一个匹配的工作表）：
+     * - 名称包含"网信" → 网信资产；包含"软件" → 软件资产；包含"数据" → 数据内容资产
+     * - 其他工作表忽略，名称列入ignoredSheets
+     *
+     * @param file 上传的Excel文件（支持.xlsx和.xls格式，大小上限见asset.import.max-file-size-mb）
+     * @param options 导入选项（可选，同同步接口，对每个工作表生效）
+     * @return 200 各工作表结果分区；400 文件校验失败或未识别到任何资产工作表；500 读取工作簿失败
+     */
+    @PostMapping("/workbook")
+    public ResponseEntity<ResultVO<WorkbookImportResultVO>> importWorkbook(@RequestParam("file") MultipartFile file,
+                                                                           ImportOptions options) {
+        log.info("开始导入多工作表Excel文件: {}，文件大小: {} bytes", file.getOriginalFilename(), file.getSize());
+        Path tempFile = null;
+        try {
+            validateFile(file);
+            if (isCsvFile(file.getOriginalFilename())) {
+                throw new IllegalArgumentException("多工作表导入只支持.xlsx和.xls格式的Excel文件");
+            }
+            tempFile = spoolUpload(file);
+
+            WorkbookImportResultVO workbookResult = new WorkbookImportResultVO();
+            workbookResult.setFileName(file.getOriginalFilename());
+
+            // 步骤3：按工作表名称识别资产类型
+            Map<String, ReadSheet> assetSheets = new LinkedHashMap<>();
+            for (ReadSheet sheet : listSheets(tempFile)) {
+                String assetType = resolveSheetAssetType(sheet.getSheetName());
+                if (assetType == null || assetSheets.containsKey(assetType)) {
+                    workbookResult.getIgnoredSheets().add(sheet.getSheetName());
+                } else {
+                    assetSheets.put(assetType, sheet);
+                }
+            }
+            if (assetSheets.isEmpty()) {
+                return ResponseEntity.badRequest().body(ResultVO.fail(
+                        "未识别到资产工作表，工作表名称需包含\"软件\"、\"网信\"或\"数据\""));
+            }
+
+            // 步骤4：各工作表并行导入（每个工作表独立打开临时文件读取）
+            Path workbookFile = tempFile;
+            List<CompletableFuture<WorkbookImportResultVO.SheetResult>> futures = new ArrayList<>();
+            for (Map.Entry<String, ReadSheet> entry : assetSheets.entrySet()) {
+                String assetType = entry.getKey();
+                ReadSheet sheet = entry.getValue();
+                RowSource rowSource = excelSheetSource(workbookFile, sheet.getSheetNo());
+                futures.add(CompletableFuture.supplyAsync(() -> importSheet(assetType, sheet,
+                        () -> admitted(assetType, options, null, () -> switch (assetType) {
+                            case "软件资产" -> doImportSoftware(rowSource, options, null, null);
+                            case "网信资产" -> doImportCyber(rowSource, options, null, null);
+                            default -> doImportDataContent(rowSource, options, null, null);
+                        })), importSheetExecutor));
+            }
+
+            // 步骤5：汇总各工作表结果（提交顺序即工作表顺序）
+            boolean allSucceeded = true;
+            StringBuilder message = new StringBuilder("多工作表导入完成");
+            for (CompletableFuture<WorkbookImportResultVO.SheetResult> future : futures) {
+                WorkbookImportResultVO.SheetResult sheetResult = future.join();
+                workbookResult.getSheets().add(sheetResult);
+                allSucceeded &= sheetResult.isSuccess();
+                message.append("；").append(sheetResult.getSheetName()).append("：").append(sheetResult.getMessage());
+            }
+            workbookResult.setSuccess(allSucceeded);
+            workbookResult.setMessage(message.toString());
+
+            log.info("多工作表导入完成: {}，导入工作表{}个，忽略{}个",
+                    file.getOriginalFilename(), futures.size(), workbookResult.getIgnoredSheets().size());
+            return ResponseEntity.ok(ResultVO.success(workbookResult, workbookResult.getMessage()));
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ResultVO.fail(e.getMessage()));
+        } catch (Exception e) {
+            log.error("多工作表导入失败: {}", e.getMessage(), e);
+            return ResponseEntity.internalServerError().body(ResultVO.fail("多工作表导入失败: " + e.getMessage()));
+        } finally {
+            deleteTempFile(tempFile);
+        }
+    }
+
+    /**
+     * 导入单个工作表并保存结果（在工作表线程池中执行，异常转为失败分区，不影响其他工作表）
+     */
+    private WorkbookImportResultVO.SheetResult importSheet(String assetType, ReadSheet sheet,
+                                                           Callable<ImportResult> importFlow) {
+        WorkbookImportResultVO.SheetResult sheetResult = new WorkbookImportResultVO.SheetResult();
+        sheetResult.setSheetNo(sheet.getSheetNo());
+        sheetResult.setSheetName(sheet.getSheetName());
+        sheetResult.setAssetType(assetType);
+        try {
+            log.info("开始导入工作表[{}]（{}）", sheet.getSheetName(), assetType);
+            ImportResult result = importFlow.call();
+            sheetResult.setMessage(result.getMessage());
+            if (result.getData() != null) {
+                sheetResult.setSuccess(true);
+                sheetResult.setSummary(importResultStore.save(assetType, result).toSummaryVO());
+            }
+        } catch (Exception e) {
+            log.error("工作表[{}]（{}）导入失败: {}", sheet.getSheetName(), assetType, e.getMessage(), e);
+            sheetResult.setMessage(assetType + "导入失败: " + e.getMessage());
+        }
+        return sheetResult;
+    }
+
+    /**
+     * 读取工作簿的工作表列表（只读取工作簿目录，不解析数据行）
+     */
+    private List<ReadSheet> listSheets(Path workbookFile) {
+        ExcelReader reader = EasyExcel.read(workbookFile.toFile()).build();
+        try {
+            return reader.excelExecutor().sheetList();
+        } finally {
+            reader.finish();
+        }
+    }
+
+    /**
+     * 按工作表名称识别资产类型
+     *
+     * @return 资产类型，无法识别时返回null
+     */
+    private String resolveSheetAssetType(String sheetName) {
+        if (sheetName == null) {
+            return null;
+        }
+        if (sheetName.contains("网信")) {
+            return "网信资产";
+        }
+        if (sheetName.contains("软件")) {
+            return "软件资产";
+        }
+        if (sheetName.contains("数据")) {
+            return "数据内容资产";
+        }
+        return null;
+    }
+
+    // ============================ 导入流程 ============================
+
+    /**
+     * 数据行来源（读取全部数据行并逐行交给监听器）
+     */
+    @FunctionalInterface
+    private interface RowSource {
+        void read(Class<?> head, AssetImportListener<?, ?> listener) throws Exception;
+    }
+
+    /**
+     * 监听器构造函数（指纹索引、流式提交批次大小、批量保存回调），暂存表合并流程按资产类型创建监听器
+     */
+    @FunctionalInterface
+    private interface ListenerFactory<VO, E> {
+        AssetImportListener<VO, E> create(AssetFingerprintIndex<E> existingIndex, int flushBatchSize,
+                                          Consumer<List<VO>> batchSaver);
+    }
+
+    /**
+     * 已落盘上传文件的数据行来源：按文件头识别格式
+     * - 50 4B 03 04（xlsx）/ D0 CF 11 E0（xls）→ EasyExcel按文件读取第一个工作表
+     *   （POI按文件随机访问打开OPC包，只读取需要的部件，不像按流打开那样先把整个压缩包展开到内存）
+     * - 1F 8B（gzip）→ 经FileChannel读取并解压，按CSV解析
+     * - 其他 → 经FileChannel读取，按CSV解析
+     */
+    private static RowSource uploadSource(Path uploadFile) {
+        return (head, listener) -> {
+            try (FileChannel channel = FileChannel.open(uploadFile, StandardOpenOption.READ)) {
+                ByteBuffer magicBuffer = ByteBuffer.allocate(4);
+                while (magicBuffer.hasRemaining() && channel.read(magicBuffer) > 0) {
+                    // 读满文件头（或读到文件结束）
+                }
+                byte[] magic = magicBuffer.array();
+                int n = magicBuffer.position();
+
+                if (n == 4 && (isZipHeader(magic) || isOleHeader(magic))) {
+                    excelSheetSource(uploadFile, 0).read(head, listener);
+                    return;
+                }
+                channel.position(0);
+                InputStream in = Channels.newInputStream(channel);
+                if (n >= 2 && (magic[0] & 0xFF) == 0x1F && (magic[1] & 0xFF) == 0x8B) {
+                    in = new GZIPInputStream(in, 64 * 1024);
+                }
+                CsvRowReader.read(in, head, listener);
+            }
+        };
+    }
+
+    /**
+     * 上传文件落盘为临时文件
+
+     * multipart解析器在spring.servlet.multipart.file-size-threshold（默认0）以上已把上传内容写入磁盘，
+     * transferTo(File)在同一文件系统上直接移动该文件，不经过堆内存再复制一遍
+     */
+    private static Path spoolUpload(MultipartFile file) throws IOException {
+        Path tempFile = Files.createTempFile("asset-import-", ".tmp");
+        try {
+            file.transferTo(tempFile.toFile());
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+        return tempFile;
+    }
+
+    private static boolean isZipHeader(byte[] magic) {
+        return magic[0] == 0x50 && magic[1] == 0x4B && magic[2] == 0x03 && magic[3] == 0x04;
+    }
+
+    private static boolean isOleHeader(byte[] magic) {
+        return (magic[0] & 0xFF) == 0xD0 && (magic[1] & 0xFF) == 0xCF
+                && (magic[2] & 0xFF) == 0x11 && (magic[3] & 0xFF) == 0xE0;
+    }
+
+    /**
+     * 工作簿文件的指定工作表（跳过2行表头，每次读取独立打开文件，可多线程并行读取不同工作表）
+     */
+    private static RowSource excelSheetSource(Path workbookFile, int sheetNo) {
+        return (head, listener) -> EasyExcel.read(workbookFile.toFile(), head, listener)
+                .sheet(sheetNo)
+                .headRowNumber(2) // 跳过表头行
+                .doRead();
+    }
+
+    /**
+     * 软件资产导入流程（同步接口与异步任务共用）
+
+     * 处理流程：
+     * 2. 获取数据库现有资产指纹索引 → 3~4. 创建监听器并流式读取Excel → 5. 批量保存有效数据 → 6. 构建导入结果
+     * （步骤1文件校验由调用方完成；该资产类型的导入执行槽位由调用方经admitted取得）
+     *
+     * @param rowSource 数据行来源（已落盘的上传文件，或多工作表导入中的指定工作表）
+     * @param options 导入选项（批次大小、并行校验、暂存表合并、仅校验、更新模式）
+     * @param progress 导入进度（同步接口传null）
+     * @param recordSink 导入记录接收器（NDJSON流式导入时逐行输出记录，其他场景传null）
+     * @return ImportResult 完整导入结果
+     * @throws CancellationException 异步任务在解析过程中被取消时抛出
+     */
+    private ImportResult doImportSoftware(RowSource rowSource, ImportOptions options,
+                                          ImportProgress progress, ImportRecordSink recordSink) throws Exception {
+        return runImport(rowSource, ImportStagingService.StageTarget.SOFTWARE, options, progress, recordSink,
+                assetUpsertService::openSoftware, assetFingerprintIndexService::getSoftwareIndex,
+                SoftwareAssetExcelListener::new, this::saveSoftwareBatch);
+    }
+
+    /**
+     * 单表导入流程（三种资产类型共用）
+
+     * 处理流程：
+     * 2. 获取数据库现有资产指纹索引 → 3~4. 创建监听器并流式读取Excel → 5. 批量保存有效数据 → 6. 构建导入结果
+     * （更新模式、暂存表合并模式分别转入doImportViaUpsert、doImportViaStaging）
+     *
+     * @param rowSource 数据行来源
+     * @param target 导入目标（资产类型名称、Excel导入VO类型）
+     * @param options 导入选项
+     * @param progress 导入进度（同步接口传null）
+     * @param recordSink 导入记录接收器（NDJSON流式导入时传入，其他场景传null）
+     * @param upsertSession 更新会话（更新模式时才打开）
+     * @param existingIndex 数据库现有资产的关键字段指纹索引
+     * @param listenerFactory 监听器构造函数
+     * @param batchSaver 批量保存回调（资产服务批量保存并同步指纹索引）
+     * @return ImportResult 完整导入结果
+     * @throws CancellationException 异步任务在解析过程中被取消时抛出
+     */
+    private <VO, E> ImportResult runImport(RowSource rowSource, ImportStagingService.StageTarget<VO, E> target,
+                                           ImportOptions options, ImportProgress progress, ImportRecordSink recordSink,
+                                           Supplier<AssetUpsertService.UpsertSession<VO, E>> upsertSession,
+                                           Supplier<AssetFingerprintIndex<E>> existingIndex,
+                                           ListenerFactory<VO, E> listenerFactory,
+                                           Consumer<List<VO>> batchSaver) throws Exception {
+        String assetType = target.assetTypeName();
+
+        // 更新模式：已存在的ID按内容比较后新增或更新，不使用指纹索引判重
+        if (resolveUpsertEnabled(options, recordSink)) {
+            return doImportViaUpsert(rowSource, target.excelClass(), upsertSession.get(),
+                    options, progress, listenerFactory);
+        }
+
+        // 暂存表合并模式：判重和插入改由数据库集合SQL完成，不使用指纹索引
+        if (resolveStagingEnabled(options, recordSink, target)) {
+            return doImportViaStaging(rowSource, target, options, progress, listenerFactory);
+        }
+
+        // 步骤2：获取数据库中已存在资产的关键字段指纹索引（用于关键字段比较）
+        AssetFingerprintIndex<E> index = existingIndex.get();
+        log.info("{}数据库现有记录数: {}条", assetType, index.size());
+
+        // 步骤3：创建监听器，传入指纹索引用于比较关键字段（流式模式下同时传入批量保存回调）
+        AssetImportListener<VO, E> listener = listenerFactory.create(index,
+                resolveFlushBatchSize(options.getBatchSize()), batchSaver);
+        listener.setProgress(progress);
+        listener.setRecordSink(recordSink);
+        listener.setDryRun(Boolean.TRUE.equals(options.getDryRun()));
+        listener.setUpsertMode(Boolean.TRUE.equals(options.getUpsert()));
+        if (resolvePipelineEnabled(options.getParallel())) {
+            listener.enableValidationPipeline(importValidationExecutor, pipelineBatchSize,
+                    importValidationExecutor.getMaxPoolSize() * 2);
+        }
+
+        // 步骤4：流式读取Excel文件（不限制行数）
+        rowSource.read(target.excelClass(), listener);
+
+        // 异步任务被取消时不再保存剩余数据
+        if (progress != null && progress.isCancelled()) {
+            throw new CancellationException(assetType + "导入任务已取消");
+        }
+
+        // 步骤5：批量保存有效数据（流式模式下已由监听器分批保存；仅校验模式不保存）
+        if (listener.isDryRun()) {
+            log.info("{}仅校验模式，{}条合法数据未写入数据库", assetType, listener.getValidCount());
+        } else if (listener.isStreamingMode()) {
+            log.info("{}流式导入共分批保存{}条数据", assetType, listener.getSavedCount());
+        } else if (!listener.getValidDataList().isEmpty()) {
+            batchSaver.accept(listener.getValidDataList());
+            if (progress != null) {
+                progress.markSaved(listener.getValidDataList().size());
+            }
+            log.info("{}导入成功保存{}条数据", assetType, listener.getValidDataList().size());
+            log.info("服务启动，开始自动填充上报单位的省份字段...");
+        } else {
+            log.info("{}导入无有效数据需要保存", assetType);
+        }
+
+        // 步骤6：构建并返回完整的导入结果（无记录数量限制）
+        return buildImportResult(listener, assetType);
+    }
+
+    /**
+     * 网信资产导入流程（同步接口与异步任务共用）
+
+     * 处理流程：
+     * 2. 获取数据库现有资产指纹索引 → 3~4. 创建监听器并流式读取Excel → 5. 批量保存有效数据 → 6. 构建导入结果
+     * （步骤1文件校验由调用方完成；该资产类型的导入执行槽位由调用方经admitted取得）
+     *
+     * @param rowSource 数据行来源（已落盘的上传文件，或多工作表导入中的指定工作表）
+     * @param options 导入选项（批次大小、并行校验、暂存表合并、仅校验、更新模式）
+     * @param progress 导入进度（同步接口传null）
+     * @param recordSink 导入记录接收器（NDJSON流式导入时逐行输出记录，其他场景传null）
+     * @return ImportResult 完整导入结果
+     * @throws CancellationException 异步任务在解析过程中被取消时抛出
+     */
+    private ImportResult doImportCyber(RowSource rowSource, ImportOptions options,
+                                       ImportProgress progress, ImportRecordSink recordSink) throws Exception {
+        return runImport(rowSource, ImportStagingService.StageTarget.CYBER, options, progress, recordSink,
+                assetUpsertService::openCyber, assetFingerprintIndexService::getCyberIndex,
+                CyberAssetExcelListener::new, this::saveCyberBatch);
+    }
+
+    /**
+     * 数据内容资产导入流程（同步接口与异步任务共用）
+
+     * 处理流程：
+     * 2. 获取数据库现有资产指纹索引 → 3~4. 创建监听器并流式读取Excel → 5. 批量保存有效数据 → 6. 构建导入结果
+     * （步骤1文件校验由调用方完成；该资产类型的导入执行槽位由调用方经admitted取得）
+     *
+     * @param rowSource 数据行来源（已落盘的上传文件，或多工作表导入中的指定工作表）
+     * @param options 导入选项（批次大小、并行校验、暂存表合并、仅校验、更新模式）
+     * @param progress 导入进度（同步接口传null）
+     * @param recordSink 导入记录接收器（NDJSON流式导入时逐行输出记录，其他场景传null）
+     * @return ImportResult 完整导入结果
+     * @throws CancellationException 异步任务在解析过程中被取消时抛出
+     */
+    private ImportResult doImportDataContent(RowSource rowSource, ImportOptions options,
+                                             ImportProgress progress, ImportRecordSink recordSink) throws Exception {
+        return runImport(rowSource, ImportStagingService.StageTarget.DATA_CONTENT, options, progress, recordSink,
+                assetUpsertService::openDataContent, assetFingerprintIndexService::getDataContentIndex,
+                DataContentAssetExcelListener::new, this::saveDataContentBatch);
+    }
+
+    /**
+     * 取得该资产类型的导入执行槽位后执行导入流程（同类型导入排队串行写表，不同类型并行）
+
+     * 所有导入入口（同步、摘要、NDJSON、多工作表、经idempotent包装的异步任务）都在最外层调用，
+     * 槽位先于幂等复用判断取得
+
+     * 仅校验模式不写数据库，不占用执行槽位；
+     * 异步任务在提交时已由ImportJobService排队取得槽位（排队期间不占用导入线程），此处不再重复取得
+     *
+     * @param assetType 资产类型
+     * @param options 导入选项
+     * @param progress 导入进度（异步任务传入，已持有槽位；同步接口传null，在当前线程排队）
+     * @param body 导入流程
+     * @return ImportResult 完整导入结果
+     * @throws org.springframework.core.task.TaskRejectedException 该资产类型的等待队列已满或排队超时时抛出
+     */
+    private ImportResult admitted(String assetType, ImportOptions options, ImportProgress progress,
+                                  Callable<ImportResult> body) throws Exception {
+        if (!needsAdmission(options) || progress != null) {
+            return body.call();
+        }
+        try (ImportAdmissionService.Permit ignored = importAdmissionService.acquire(assetType, progress)) {
+            return body.call();
+        }
+    }
+
+    /**
+     * 是否需要按资产类型排队（仅校验模式不写数据库，不排队）
+     */
+    private static boolean needsAdmission(ImportOptions options) {
+        return !Boolean.TRUE.equals(options.getDryRun());
+    }
+
+    /**
+     * 暂存表合并导入流程（三种资产类型共用）
+
+     * 处理流程：
+     * 1. 创建暂存表 → 2. 流式读取Excel，字段校验通过的行每满一批写入暂存表（不做重复检查）
+     * → 3. 集合SQL标记系统重复、关键字段冲突、文件内重复，其余行INSERT ... SELECT写入目标表
+     * → 4. 被拒绝的行登记为重复记录或错误 → 5. 构建导入结果 → 6. 删除暂存表
+     * 暂存期间目标表没有写入，取消或失败时目标表保持不变
+     *
+     * @param rowSource 数据行来源
+     * @param target 导入目标（资产类型）
+     * @param options 导入选项（batchSize为暂存批次大小）
+     * @param progress 导入进度（同步接口传null）
+     * @param listenerFactory 监听器构造函数
+     * @return ImportResult 完整导入结果
+     * @throws CancellationException 异步任务在解析过程中被取消时抛出
+     */
+    private <VO, E> ImportResult doImportViaStaging(RowSource rowSource, ImportStagingService.StageTarget<VO, E> target,
+                                                    ImportOptions options, ImportProgress progress,
+                                                    ListenerFactory<VO, E> listenerFactory) throws Exception {
+        try (ImportStagingService.StagingSession<VO, E> session = importStagingService.open(target)) {
+            // 不传指纹索引：重复检查在合并阶段由数据库完成
+            AssetImportListener<VO, E> listener = listenerFactory.create(null,
+                    resolveStagingBatchSize(options.getBatchSize()), session::write);
+            listener.setProgress(progress);
+            if (resolvePipelineEnabled(options.getParallel())) {
+                listener.enableValidationPipeline(importValidationExecutor, pipelineBatchSize,
+                        importValidationExecutor.getMaxPoolSize() * 2);
+            }
+
+            rowSource.read(target.excelClass(), listener);
+
+            if (progress != null && progress.isCancelled()) {
+                throw new CancellationException(target.assetTypeName() + "导入任务已取消");
+            }
+
+            int mergedCount = session.merge(listener);
+            if (progress != null) {
+                progress.markSaved(mergedCount);
+            }
+            log.info("{}暂存表合并导入成功保存{}条数据", target.assetTypeName(), mergedCount);
+
+            return buildImportResult(listener, target.assetTypeName());
+        }
+    }
+
+    /**
+     * 更新模式导入流程（三种资产类型共用）
+
+     * 处理流程：
+     * 1. 流式读取Excel，字段校验通过的行（含ID已存在的行）每满一批交给更新会话
+     * → 2. 按ID加载系统记录逐行比较：新增 / 内容变化则更新 / 未变化登记为系统重复
+     * → 3. 新增和更新的行批量 INSERT ... ON DUPLICATE KEY UPDATE（创建时间保持不变）→ 4. 构建导入结果
+     * 已写入的批次不回滚，取消或失败时之前的批次保持已提交状态（与流式提交一致）
+     *
+     * @param rowSource 数据行来源
+     * @param head Excel导入VO类型
+     * @param session 更新会话（资产类型）
+     * @param options 导入选项（batchSize为每批比较写入的行数）
+     * @param progress 导入进度（同步接口传null）
+     * @param listenerFactory 监听器构造函数
+     * @return ImportResult 完整导入结果（消息中分别列出新增、更新、未变化条数）
+     * @throws CancellationException 异步任务在解析过程中被取消时抛出
+     */
+    private <VO, E> ImportResult doImportViaUpsert(RowSource rowSource, Class<VO> head,
+                                                   AssetUpsertService.UpsertSession<VO, E> session,
+                                                   ImportOptions options, ImportProgress progress,
+                                                   ListenerFactory<VO, E> listenerFactory) throws Exception {
+        String assetType = session.getAssetTypeName();
+        // 不传指纹索引：已存在的ID由更新会话按完整记录比较
+        AssetImportListener<VO, E> listener = listenerFactory.create(null,
+                resolveUpsertBatchSize(options.getBatchSize()), session::write);
+        listener.setUpsertMode(true);
+        session.bind(listener);
+        listener.setProgress(progress);
+        if (resolvePipelineEnabled(options.getParallel())) {
+            listener.enableValidationPipeline(importValidationExecutor, pipelineBatchSize,
+                    importValidationExecutor.getMaxPoolSize() * 2);
+        }
+
+        rowSource.read(head, listener);
+
+        if (progress != null && progress.isCancelled()) {
+            throw new CancellationException(assetType + "导入任务已取消");
+        }
+
+        int writtenCount = session.getInsertedCount() + session.getUpdatedCount();
+        listener.finishMerge(writtenCount);
+        if (progress != null) {
+            progress.markSaved(writtenCount);
+        }
+        log.info("{}更新模式导入完成：新增{}条，更新{}条，未变化{}条", assetType,
+                session.getInsertedCount(), session.getUpdatedCount(), session.getUnchangedCount());
+
+        ImportResult result = buildImportResult(listener, assetType);
+        if (result.getData() != null) {
+            String message = String.format("%s导入完成（更新模式）：新增%d条，更新%d条，未变化%d条", assetType,
+                    session.getInsertedCount(), session.getUpdatedCount(), session.getUnchangedCount());
+            int errorCount = listener.getErrorDataList().size();
+            if (errorCount > 0) {
+                message += String.format("，存在%d条需要修正的错误", errorCount);
+            }
+            result.setMessage(message);
+        }
+        return result;
+    }
+
     // ============================ 模板下载方法（使用现有模板文件） ============================
 
     /**
@@ -420,8 +1471,8 @@ public class AssetImportController {
 
      * 校验规则：
      * 1. 文件不能为空
-     * 2. 文件格式必须是.xlsx或.xls
-     * 3. 文件大小不超过100MB（支持大文件导入）
+     * 2. 文件格式必须是.xlsx、.xls、.csv或.csv.gz
+     * 3. 文件大小不超过asset.import.max-file-size-mb（默认4096MB，上传文件落盘后按文件读取，大小不影响堆内存）
      *
      * @param file 上传的Excel文件
      * @throws IllegalArgumentException 当文件不符合要求时抛出
@@ -432,164 +1483,169 @@ public class AssetImportController {
         }
 
         String filename = file.getOriginalFilename();
-        if (filename == null ||
-                (!filename.toLowerCase().endsWith(".xlsx") && !filename.toLowerCase().endsWith(".xls"))) {
-            throw new IllegalArgumentException("只支持.xlsx和.xls格式的Excel文件");
-        }
+        validateFileName(filename);
 
-        // 100MB文件大小限制（支持大文件导入）
-        if (file.getSize() > 100 * 1024 * 1024) {
-            throw new IllegalArgumentException("文件大小不能超过100MB");
+        if (file.getSize() > maxFileSizeMb * 1024 * 1024) {
+            throw new IllegalArgumentException("文件大小不能超过" + maxFileSizeMb + "MB");
         }
 
         log.debug("文件校验通过: {}，大小: {} bytes", filename, file.getSize());
     }
 
     /**
-     * 构建统一的导入结果对象 - 新逻辑（无限制记录数量）
+     * 文件格式校验（按扩展名）
+     */
+    private void validateFileName(String filename) {
+        if (filename == null ||
+                (!filename.toLowerCase().endsWith(".xlsx") && !filename.toLowerCase().endsWith(".xls")
+                        && !isCsvFile(filename))) {
+            throw new IllegalArgumentException("只支持.xlsx、.xls格式的Excel文件和.csv、.csv.gz格式的CSV文件");
+        }
+    }
 
-     * 核心特性：
-     * - 移除Excel内部重复统计，统一为系统重复
-     * - 简化重复数据显示逻辑
-     * - 适配新的监听器方法名
-     * - 无限制返回所有成功和失败记录
-     * - 支持10万+行数据的完整结果返回
+    private static boolean isCsvFile(String filename) {
+        if (filename == null) {
+            return false;
+        }
+        String lower = filename.toLowerCase();
+        return lower.endsWith(".csv") || lower.endsWith(".csv.gz");
+    }
 
-     * 返回结构：
-     * - 总处理行数、成功导入数、重复跳过数、错误数量
-     * - 完整的错误详情列表（无数量限制）
-     * - 完整的重复记录详情（无数量限制）
-     * - 完整的成功记录列表（无数量限制）
+    /**
+     * 构建统一的导入结果对象（构建逻辑见ImportResultBuilder，构建过程异常时返回失败结果）
      *
      * @param listener Excel监听器实例（包含处理结果）
      * @param assetType 资产类型（用于生成结果消息）
      * @return ImportResult 完整的导入结果对象
      */
-    private ImportResult buildImportResult(Object listener, String assetType) {
+    private ImportResult buildImportResult(AssetImportListener<?, ?> listener, String assetType) {
         try {
-            // 通过反射获取监听器的结果数据（支持不同资产类型的监听器）
-            Method getValidDataList = listener.getClass().getMethod("getValidDataList");
-            Method getErrorDataList = listener.getClass().getMethod("getErrorDataList");
-            Method getSystemDuplicateCount = listener.getClass().getMethod("getSystemDuplicateCount");
-            Method getDuplicateRecords = listener.getClass().getMethod("getDuplicateRecords");
-
-            // 获取处理结果数据
-            List<?> validDataList = (List<?>) getValidDataList.invoke(listener);
-            @SuppressWarnings("unchecked")
-            List<ExcelErrorVO> errorDataList = (List<ExcelErrorVO>) getErrorDataList.invoke(listener);
-            int systemDuplicateCount = (int) getSystemDuplicateCount.invoke(listener);
-
-            List<?> duplicateRecords = (List<?>) getDuplicateRecords.invoke(listener);
-
-            // 计算统计信息（直接使用原始数据，不创建冗余变量）
-            int totalRows = validDataList.size() + errorDataList.size() + systemDuplicateCount;
-            int successCount = validDataList.size();
-            int errorCount = errorDataList.size();
-
-            // 创建基础结果对象
-            ImportResult result = new ImportResult();
-            result.setSuccess(true);
-
-            // 根据处理结果设置相应的提示消息
-            if (errorCount > 0) {
-                result.setMessage(String.format("%s导入完成，存在%d条需要修正的错误", assetType, errorCount));
-            } else if (systemDuplicateCount > 0) {
-                result.setMessage(String.format("%s导入完成，自动跳过%d条重复数据", assetType, systemDuplicateCount));
-            } else {
-                result.setMessage(String.format("%s导入完成，成功导入%d条数据", assetType, successCount));
-            }
+            return ImportResultBuilder.build(listener, assetType);
+        } catch (Exception e) {
+            log.error("构建导入结果时发生异常: {}", e.getMessage(), e);
+            return buildErrorResult("处理导入结果时发生异常");
+        }
+    }
 
-            // 构建详细的数据结构
-            ImportResult.ImportData data = new ImportResult.ImportData();
+    /**
+     * 批量保存软件资产并同步更新导入去重指纹索引
+     *
+     * @param validDataList 待保存的合法数据
+     */
+    private void saveSoftwareBatch(List<SoftwareAssetExcelVO> validDataList) {
+        softwareAssetService.batchSaveSoftwareAssets(validDataList);
+        assetFingerprintIndexService.onSoftwareBatchSaved(validDataList);
+    }
 
-            // 设置基础统计信息
-            data.setTotalRows(totalRows);
-            data.setSuccessCount(successCount);
-            data.setSkipCount(systemDuplicateCount); // 直接使用系统重复数量
-            data.setErrorCount(errorCount);
+    /**
+     * 批量保存网信资产并同步更新导入去重指纹索引
+     *
+     * @param validDataList 待保存的合法数据
+     */
+    private void saveCyberBatch(List<CyberAssetExcelVO> validDataList) {
+        cyberAssetService.batchSaveCyberAssets(validDataList);
+        assetFingerprintIndexService.onCyberBatchSaved(validDataList);
+    }
 
-            // 构建导入汇总信息
-            ImportResult.ImportSummary summary = new ImportResult.ImportSummary();
-            summary.setTotalProcessed(totalRows);
-            summary.setSuccessfullyImported(successCount);
-            summary.setDuplicatesSkipped(systemDuplicateCount); // 直接使用系统重复数量
-            summary.setCriticalErrors(errorCount);
-            data.setImportSummary(summary);
+    /**
+     * 批量保存数据内容资产并同步更新导入去重指纹索引
+     *
+     * @param validDataList 待保存的合法数据
+     */
+    private void saveDataContentBatch(List<DataContentAssetExcelVO> validDataList) {
+        dataContentAssetService.batchSaveDataContentAssets(validDataList);
+        assetFingerprintIndexService.onDataContentBatchSaved(validDataList);
+    }
 
-            // 设置错误详情（无数量限制，返回所有错误记录）
-            data.setErrorDetails(new ArrayList<>(errorDataList));
+    /**
+     * 解析流式提交批次大小
 
-            // 构建重复详情（简化逻辑，统一为系统重复）
-            ImportResult.DuplicateDetails duplicateDetails = new ImportResult.DuplicateDetails();
-            duplicateDetails.setTotalDuplicates(systemDuplicateCount); // 直接使用系统重复数量
-            duplicateDetails.setDuplicateRecords(new ArrayList<>(duplicateRecords));
-            data.setDuplicateDetails(duplicateDetails);
+     * 优先使用请求参数，未传时使用配置项asset.import.flush-batch-size，负数按0（关闭）处理
+     *
+     * @param batchSize 请求参数中的批次大小（可为空）
+     * @return 实际生效的批次大小，0表示关闭流式提交
+     */
+    private int resolveFlushBatchSize(Integer batchSize) {
+        int size = (batchSize != null) ? batchSize : defaultFlushBatchSize;
+        return Math.max(size, 0);
+    }
 
-            // 构建成功记录列表（无数量限制，返回所有成功记录）
-            List<ImportResult.SuccessRecord> successRecords = buildSuccessRecords(validDataList);
-            data.setSuccessRecords(successRecords);
+    /**
+     * 解析是否开启并行校验流水线（请求参数优先，未传时使用配置项asset.import.pipeline.enabled）
+     */
+    private boolean resolvePipelineEnabled(Boolean parallel) {
+        return (parallel != null) ? parallel : defaultPipelineEnabled;
+    }
 
-            // 设置完整数据到结果对象
-            result.setData(data);
+    /**
+     * 解析是否经暂存表合并（请求参数优先，未传时使用配置项asset.import.staging.enabled）
 
-            // 记录详细的导入结果日志
-            log.info("{}导入结果构建完成: 总处理{}行, 成功{}条, 跳过{}条, 错误{}条",
-                    assetType, totalRows, successCount, systemDuplicateCount, errorCount);
+     * NDJSON流式导入需要逐行输出最终结果，而暂存表合并要到解析结束后才能判重，此时不使用暂存表；
+     * 仅校验模式不写数据库、更新模式逐批比较写入，同样不使用暂存表；
+     * 目标表有资产服务保存时补齐的字段（如网信、数据内容资产的省、市）时，暂存表合并无法填充，同样不使用暂存表
+     */
+    private boolean resolveStagingEnabled(ImportOptions options, ImportRecordSink recordSink,
+                                          ImportStagingService.StageTarget<?, ?> target) {
+        if (Boolean.TRUE.equals(options.getDryRun()) || Boolean.TRUE.equals(options.getUpsert())) {
+            // 仅校验模式不创建暂存表，按逐行判重校验
+            return false;
+        }
+        boolean staging = (options.getStaging() != null) ? options.getStaging() : defaultStagingEnabled;
+        if (staging && recordSink != null) {
+            log.info("NDJSON流式导入不支持暂存表合并，按逐行判重导入");
+            return false;
+        }
+        if (staging) {
+            List<String> derived = importStagingService.serviceDerivedProperties(target);
+            if (!derived.isEmpty()) {
+                log.info("{}的{}字段由资产服务在保存时补齐，暂存表合并无法填充，按逐行判重导入",
+                        target.assetTypeName(), derived);
+                return false;
+            }
+        }
+        return staging;
+    }
 
-            return result;
+    /**
+     * 校验NDJSON流式导入的选项（在响应开始输出前调用）
 
-        } catch (Exception e) {
-            log.error("构建导入结果时发生异常: {}", e.getMessage(), e);
-            return buildErrorResult("处理导入结果时发生异常");
+     * NDJSON流式导入逐行输出的成功记录在入库前已发出，无法再改为"未变化"，因此不支持更新模式
+     *
+     * @throws IllegalArgumentException 请求更新模式时抛出
+     */
+    private static void validateStreamingOptions(ImportOptions options) {
+        if (Boolean.TRUE.equals(options.getUpsert()) && !Boolean.TRUE.equals(options.getDryRun())) {
+            throw new IllegalArgumentException("NDJSON流式导入不支持更新模式");
         }
     }
 
     /**
-     * 构建成功记录列表（无数量限制）
+     * 解析是否按更新模式导入（仅校验模式下按普通流程预检，已存在的ID只做字段校验）
+     *
+     * @throws IllegalArgumentException NDJSON流式导入请求更新模式时抛出（接口已在开始输出前拒绝，此处为兜底）
+     */
+    private boolean resolveUpsertEnabled(ImportOptions options, ImportRecordSink recordSink) {
+        if (!Boolean.TRUE.equals(options.getUpsert()) || Boolean.TRUE.equals(options.getDryRun())) {
+            return false;
+        }
+        if (recordSink != null) {
+            throw new IllegalArgumentException("NDJSON流式导入不支持更新模式");
+        }
+        return true;
+    }
 
-     * 功能说明：
-     * - 将有效数据转换为成功记录格式
-     * - 支持三种资产类型的VO对象转换
-     * - 无数量限制，返回所有成功记录
-     * - 支持10万+行数据的完整转换
-
-     * 性能考虑：
-     * - 使用Stream处理，内存友好
-     * - 异常处理确保单条记录失败不影响整体
-     * - 支持大规模数据转换
-     *
-     * @param validDataList 有效数据列表（从监听器获取）
-     * @return List<ImportResult.SuccessRecord> 成功记录列表（无数量限制）
-     */
-    private List<ImportResult.SuccessRecord> buildSuccessRecords(List<?> validDataList) {
-        return validDataList.stream()
-                .map(validData -> {
-                    ImportResult.SuccessRecord record = new ImportResult.SuccessRecord();
-                    try {
-                        // 根据资产类型设置相应的字段值
-                        if (validData instanceof SoftwareAssetExcelVO softwareVO) {
-                            record.setExcelRowNum(softwareVO.getExcelRowNum());
-                            record.setAssetId(softwareVO.getId());
-                            record.setAssetName(softwareVO.getAssetName());
-                            record.setReportUnit(softwareVO.getReportUnit());
-                        } else if (validData instanceof CyberAssetExcelVO cyberVO) {
-                            record.setExcelRowNum(cyberVO.getExcelRowNum());
-                            record.setAssetId(cyberVO.getId());
-                            record.setAssetName(cyberVO.getAssetName());
-                            record.setReportUnit(cyberVO.getReportUnit());
-                        } else if (validData instanceof DataContentAssetExcelVO dataVO) {
-                            record.setExcelRowNum(dataVO.getExcelRowNum());
-                            record.setAssetId(dataVO.getId());
-                            record.setAssetName(dataVO.getAssetName());
-                            record.setReportUnit(dataVO.getReportUnit());
-                        }
-                    } catch (Exception e) {
-                        // 单条记录转换失败不影响整体，记录警告日志
-                        log.warn("构建成功记录时发生异常: {}", e.getMessage());
-                    }
-                    return record;
-                })
-                .collect(Collectors.toList());
+    /**
+     * 解析更新模式每批行数（请求参数batchSize > 0 时优先，否则使用配置项asset.import.upsert.batch-size）
+     */
+    private int resolveUpsertBatchSize(Integer batchSize) {
+        return (batchSize != null && batchSize > 0) ? batchSize : Math.max(upsertBatchSize, 1);
+    }
+
+    /**
+     * 解析暂存批次大小（请求参数batchSize > 0 时优先，否则使用配置项asset.import.staging.batch-size）
+     */
+    private int resolveStagingBatchSize(Integer batchSize) {
+        return (batchSize != null && batchSize > 0) ? batchSize : Math.max(stagingBatchSize, 1);
     }
 
     /**
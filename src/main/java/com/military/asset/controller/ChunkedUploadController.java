@@ -0,0 +1,117 @@
+package com.military.asset.controller;
+
+import com.military.asset.service.impl.ChunkedUploadService;
+import com.military.asset.vo.UploadSessionVO;
+import com.military.asset.vo.ResultVO;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+
+/**
+ * 分片上传控制器（断点续传）
+
+ * 上传流程：
+ * 1. POST   /api/asset/import/uploads?fileName=&totalSize=&chunkSize=        创建上传会话，返回uploadId
+ * 2. PUT    /api/asset/import/uploads/{uploadId}/chunks?offset=              上传分片（请求体为分片原始字节，
+ *                                                                           请求头X-Chunk-SHA256为分片SHA-256）
+ * 3. GET    /api/asset/import/uploads/{uploadId}                             断线重连后查询missingChunks，只补传缺失分片
+ * 4. POST   /api/asset/import/{software|cyber|data-content}/uploads/{uploadId}/complete
+ *                                                                           全部分片到齐后提交异步导入任务（见AssetImportController）
+ * - DELETE /api/asset/import/uploads/{uploadId}                             放弃上传，删除临时文件
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/asset/import/uploads")
+@RequiredArgsConstructor
+public class ChunkedUploadController {
+
+    /**
+     * 分片校验和请求头（分片内容的SHA-256，十六进制）
+     */
+    public static final String CHUNK_CHECKSUM_HEADER = "X-Chunk-SHA256";
+
+    private final ChunkedUploadService chunkedUploadService;
+
+    /**
+     * 创建上传会话
+     *
+     * @param fileName 文件名（.xlsx、.xls、.csv、.csv.gz）
+     * @param totalSize 文件总字节数
+     * @param chunkSize 分片字节数（可选，默认8MB，范围256KB~64MB）
+     * @return 201 会话状态；400 参数不合法
+     */
+    @PostMapping
+    public ResponseEntity<ResultVO<UploadSessionVO>> createSession(@RequestParam("fileName") String fileName,
+                                                                   @RequestParam("totalSize") long totalSize,
+                                                                   @RequestParam(value = "chunkSize", required = false) Integer chunkSize) {
+        try {
+            UploadSessionVO session = chunkedUploadService.create(fileName, totalSize, chunkSize);
+            return ResponseEntity.status(HttpStatus.CREATED).body(ResultVO.success(session, "上传会话已创建"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ResultVO.fail(e.getMessage()));
+        } catch (Exception e) {
+            log.error("创建分片上传会话失败: {}", e.getMessage(), e);
+            return ResponseEntity.internalServerError().body(ResultVO.fail("创建上传会话失败: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * 上传分片
+     *
+     * @param uploadId 上传会话ID
+     * @param offset 分片起始字节偏移（分片大小的整数倍）
+     * @param checksum 分片内容的SHA-256
+     * @return 200 会话状态（含剩余missingChunks）；400 偏移/长度/校验和不符，需重传该分片；404 会话不存在或已过期
+     */
+    @PutMapping("/{uploadId}/chunks")
+    public ResponseEntity<ResultVO<UploadSessionVO>> uploadChunk(@PathVariable String uploadId,
+                                                                 @RequestParam("offset") long offset,
+                                                                 @RequestHeader(value = CHUNK_CHECKSUM_HEADER, required = false) String checksum,
+                                                                 HttpServletRequest request) {
+        ChunkedUploadService.UploadSession session = chunkedUploadService.get(uploadId);
+        if (session == null) {
+            return notFound(uploadId);
+        }
+        try (InputStream body = request.getInputStream()) {
+            UploadSessionVO vo = chunkedUploadService.writeChunk(session, offset, body, checksum);
+            return ResponseEntity.ok(ResultVO.success(vo, "分片已接收"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ResultVO.fail(e.getMessage()));
+        } catch (Exception e) {
+            log.warn("分片上传失败：会话ID={}，偏移={}，原因={}", uploadId, offset, e.getMessage());
+            return ResponseEntity.internalServerError().body(ResultVO.fail("分片上传失败: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * 查询上传进度（已接收分片数、缺失分片序号）
+     */
+    @GetMapping("/{uploadId}")
+    public ResponseEntity<ResultVO<UploadSessionVO>> getSession(@PathVariable String uploadId) {
+        ChunkedUploadService.UploadSession session = chunkedUploadService.get(uploadId);
+        if (session == null) {
+            return notFound(uploadId);
+        }
+        return ResponseEntity.ok(ResultVO.success(session.toVO(), "查询成功"));
+    }
+
+    /**
+     * 放弃上传
+     */
+    @DeleteMapping("/{uploadId}")
+    public ResponseEntity<ResultVO<Void>> abortSession(@PathVariable String uploadId) {
+        if (!chunkedUploadService.abort(uploadId)) {
+            return notFound(uploadId);
+        }
+        return ResponseEntity.ok(ResultVO.success("上传会话已取消"));
+    }
+
+    private <T> ResponseEntity<ResultVO<T>> notFound(String uploadId) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ResultVO.fail("上传会话不存在或已过期：" + uploadId));
+    }
+}
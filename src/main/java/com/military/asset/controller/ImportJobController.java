@@ -0,0 +1,125 @@
+package com.military.asset.controller;
+
+import com.military.asset.service.impl.ImportAdmissionService;
+import com.military.asset.service.impl.ImportJobService;
+import com.military.asset.service.impl.ImportResultStore;
+import com.military.asset.vo.ImportJobVO;
+import com.military.asset.vo.ImportQueueVO;
+import com.military.asset.vo.ImportResult;
+import com.military.asset.vo.ResultVO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * 异步导入任务查询控制器
+
+ * 配合 POST /api/asset/import/{software|cyber|data-content}/async 使用：
+ * - GET    /api/asset/import/jobs                 查询全部任务（按提交时间倒序）
+ * - GET    /api/asset/import/jobs/queue           查询各资产类型的导入执行数和排队数
+ * - GET    /api/asset/import/jobs/{jobId}         查询任务进度（排队位置、已解析行数、合法数、错误数、已保存数）
+ * - GET    /api/asset/import/jobs/{jobId}/result  获取完整导入结果（与同步导入接口返回结构一致）
+ * - DELETE /api/asset/import/jobs/{jobId}         取消任务
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/asset/import/jobs")
+@RequiredArgsConstructor
+public class ImportJobController {
+
+    private final ImportJobService importJobService;
+
+    private final ImportAdmissionService importAdmissionService;
+
+    private final ImportResultStore importResultStore;
+
+    /**
+     * 查询全部导入任务
+     */
+    @GetMapping
+    public ResultVO<List<ImportJobVO>> listJobs() {
+        List<ImportJobVO> jobs = importJobService.listJobs();
+        return ResultVO.success(jobs, "查询成功，共" + jobs.size() + "个导入任务");
+    }
+
+    /**
+     * 查询各资产类型的导入排队情况（含同步导入；尚未发生过导入的资产类型不列出）
+     */
+    @GetMapping("/queue")
+    public ResultVO<List<ImportQueueVO>> getQueue() {
+        return ResultVO.success(importAdmissionService.snapshot(), "查询成功");
+    }
+
+    /**
+     * 查询导入任务进度
+     *
+     * @param jobId 任务ID
+     * @return 任务状态快照，任务不存在（或已过期清理）时返回404
+     */
+    @GetMapping("/{jobId}")
+    public ResponseEntity<ResultVO<ImportJobVO>> getJob(@PathVariable String jobId) {
+        ImportJobService.ImportJob job = importJobService.getJob(jobId);
+        if (job == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ResultVO.fail("导入任务不存在或已过期：" + jobId));
+        }
+        return ResponseEntity.ok(ResultVO.success(job.toVO(), "查询成功"));
+    }
+
+    /**
+     * 获取导入任务的完整结果
+     *
+     * @param jobId 任务ID
+     * @return 任务成功结束时返回完整ImportResult（从结果存储读取）；未结束返回202，失败或取消返回任务说明，
+     *         任务不存在或结果已被清理返回404
+     */
+    @GetMapping("/{jobId}/result")
+    public ResponseEntity<ImportResult> getJobResult(@PathVariable String jobId) {
+        ImportJobService.ImportJob job = importJobService.getJob(jobId);
+        if (job == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(buildMessageResult("导入任务不存在或已过期：" + jobId));
+        }
+        if (!job.isFinished()) {
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .body(buildMessageResult("导入任务尚未完成，当前状态：" + job.getStatus()));
+        }
+        if (job.getResultId() == null) {
+            return ResponseEntity.ok(buildMessageResult(job.getMessage()));
+        }
+        ImportResultStore.StoredResult stored = importResultStore.get(job.getResultId());
+        if (stored == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(buildMessageResult("导入结果已过期或已被清理：" + job.getResultId()));
+        }
+        return ResponseEntity.ok(stored.getResult());
+    }
+
+    /**
+     * 取消导入任务
+
+     * 排队中的任务直接移出队列；执行中的任务在下一行停止解析，不再保存剩余数据
+     * （流式提交模式下取消前已提交的批次保留在库中）
+     *
+     * @param jobId 任务ID
+     * @return 取消请求后的任务状态快照
+     */
+    @DeleteMapping("/{jobId}")
+    public ResponseEntity<ResultVO<ImportJobVO>> cancelJob(@PathVariable String jobId) {
+        ImportJobVO job = importJobService.cancel(jobId);
+        if (job == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ResultVO.fail("导入任务不存在或已过期：" + jobId));
+        }
+        log.info("导入任务取消请求已受理：{}", jobId);
+        return ResponseEntity.ok(ResultVO.success(job, "已请求取消导入任务"));
+    }
+
+    private ImportResult buildMessageResult(String message) {
+        ImportResult result = new ImportResult();
+        result.setSuccess(false);
+        result.setMessage(message);
+        return result;
+    }
+}
@@ -0,0 +1,174 @@
+package com.military.asset.controller;
+
+import com.military.asset.service.impl.ImportErrorWorkbookService;
+import com.military.asset.service.impl.ImportResultStore;
+import com.military.asset.vo.ExcelErrorVO;
+import com.military.asset.vo.ImportResult;
+import com.military.asset.vo.ImportResultSummaryVO;
+import com.military.asset.vo.PageVO;
+import com.military.asset.vo.ResultVO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * 导入结果分页查询控制器
+
+ * 配合 POST /api/asset/import/{software|cyber|data-content}/summary 与异步导入任务（任务快照中的resultId）使用：
+ * - GET /api/asset/import/results/{resultId}             查询结果摘要
+ * - GET /api/asset/import/results/{resultId}/successes   分页查询成功记录
+ * - GET /api/asset/import/results/{resultId}/errors      分页查询错误记录（错误描述在此时才渲染）
+ * - GET /api/asset/import/results/{resultId}/duplicates  分页查询重复记录
+ * - POST /api/asset/import/results/{resultId}/annotated-workbook  上传导入时的原始工作簿，下载错误标注后的工作簿
+ * 分页参数：page 从1开始（默认1），size 每页条数（默认100，最大1000）
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/asset/import/results")
+@RequiredArgsConstructor
+public class ImportResultController {
+
+    private final ImportResultStore importResultStore;
+    private final ImportErrorWorkbookService importErrorWorkbookService;
+
+    /**
+     * 查询导入结果摘要
+     */
+    @GetMapping("/{resultId}")
+    public ResponseEntity<ResultVO<ImportResultSummaryVO>> getSummary(@PathVariable String resultId) {
+        ImportResultStore.StoredResult stored = importResultStore.get(resultId);
+        if (stored == null) {
+            return notFound(resultId);
+        }
+        return ResponseEntity.ok(ResultVO.success(stored.toSummaryVO(), "查询成功"));
+    }
+
+    /**
+     * 分页查询成功记录
+     */
+    @GetMapping("/{resultId}/successes")
+    public ResponseEntity<ResultVO<PageVO<ImportResult.SuccessRecord>>> getSuccesses(
+            @PathVariable String resultId,
+            @RequestParam(value = "page", defaultValue = "1") int page,
+            @RequestParam(value = "size", defaultValue = "100") int size) {
+        ImportResultStore.StoredResult stored = importResultStore.get(resultId);
+        if (stored == null) {
+            return notFound(resultId);
+        }
+        return ResponseEntity.ok(ResultVO.success(
+                ImportResultStore.page(stored.getSuccessRecords(), page, size), "查询成功"));
+    }
+
+    /**
+     * 分页查询错误记录
+     */
+    @GetMapping("/{resultId}/errors")
+    public ResponseEntity<ResultVO<PageVO<ExcelErrorVO>>> getErrors(
+            @PathVariable String resultId,
+            @RequestParam(value = "page", defaultValue = "1") int page,
+            @RequestParam(value = "size", defaultValue = "100") int size) {
+        ImportResultStore.StoredResult stored = importResultStore.get(resultId);
+        if (stored == null) {
+            return notFound(resultId);
+        }
+        return ResponseEntity.ok(ResultVO.success(
+                ImportResultStore.page(stored.getErrorDetails(), page, size), "查询成功"));
+    }
+
+    /**
+     * 分页查询重复记录
+     */
+    @GetMapping("/{resultId}/duplicates")
+    public ResponseEntity<ResultVO<PageVO<?>>> getDuplicates(
+            @PathVariable String resultId,
+            @RequestParam(value = "page", defaultValue = "1") int page,
+            @RequestParam(value = "size", defaultValue = "100") int size) {
+        ImportResultStore.StoredResult stored = importResultStore.get(resultId);
+        if (stored == null) {
+            return notFound(resultId);
+        }
+        return ResponseEntity.ok(ResultVO.success(
+                ImportResultStore.page(stored.getDuplicateRecords(), page, size), "查询成功"));
+    }
+
+    /**
+     * 下载错误标注工作簿
+
+     * 服务端不保留上传的原始文件，需再次上传导入时使用的同一个工作簿（.xlsx/.xls）；
+     * 返回的xlsx在出错单元格标红，并在末尾追加"错误信息"列，边读边写直接输出到响应流
+     */
+    @PostMapping("/{resultId}/annotated-workbook")
+    public ResponseEntity<?> downloadAnnotatedWorkbook(@PathVariable String resultId,
+                                                       @RequestParam("file") MultipartFile file) {
+        ImportResultStore.StoredResult stored = importResultStore.get(resultId);
+        if (stored == null) {
+            return notFound(resultId);
+        }
+        String assetType = stored.getAssetType();
+        Path tempFile;
+        try {
+            tempFile = Files.createTempFile("asset-annotate-", ".tmp");
+        } catch (IOException e) {
+            log.error("{}错误标注工作簿临时文件创建失败: {}", assetType, e.getMessage(), e);
+            return ResponseEntity.internalServerError().body(ResultVO.fail("生成错误标注工作簿失败: " + e.getMessage()));
+        }
+        try {
+            file.transferTo(tempFile.toFile());
+            importErrorWorkbookService.validate(assetType, tempFile);
+        } catch (IllegalArgumentException e) {
+            deleteTempFile(tempFile);
+            return ResponseEntity.badRequest().body(ResultVO.fail(e.getMessage()));
+        } catch (Exception e) {
+            deleteTempFile(tempFile);
+            log.error("{}错误标注工作簿上传失败: {}", assetType, e.getMessage(), e);
+            return ResponseEntity.internalServerError().body(ResultVO.fail("生成错误标注工作簿失败: " + e.getMessage()));
+        }
+
+        StreamingResponseBody body = out -> {
+            try {
+                importErrorWorkbookService.write(assetType, tempFile, stored.getErrorDetails(), out);
+            } finally {
+                deleteTempFile(tempFile);
+            }
+        };
+        String filename = URLEncoder.encode(annotatedFilename(file.getOriginalFilename(), assetType),
+                StandardCharsets.UTF_8).replaceAll("\\+", "%20");
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment;filename=" + filename)
+                .body(body);
+    }
+
+    private static String annotatedFilename(String originalFilename, String assetType) {
+        String base = (originalFilename == null || originalFilename.isBlank()) ? assetType : originalFilename;
+        int dot = base.lastIndexOf('.');
+        if (dot > 0) {
+            base = base.substring(0, dot);
+        }
+        return base + "_错误标注.xlsx";
+    }
+
+    private static void deleteTempFile(Path tempFile) {
+        try {
+            Files.deleteIfExists(tempFile);
+        } catch (IOException e) {
+            log.warn("删除错误标注临时文件失败: {}", tempFile);
+        }
+    }
+
+    private <T> ResponseEntity<ResultVO<T>> notFound(String resultId) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ResultVO.fail("导入结果不存在或已过期：" + resultId));
+    }
+}
@@ -0,0 +1,710 @@
+package com.military.asset.listener;
+
+import com.alibaba.excel.context.AnalysisContext;
+import com.alibaba.excel.event.AnalysisEventListener;
+import com.military.asset.listener.rule.AssetRuleSet;
+import com.military.asset.listener.rule.ImportErrorBuffer;
+import com.military.asset.utils.AssetFingerprintIndex;
+import com.military.asset.utils.IntArrayBuffer;
+import com.military.asset.vo.ExcelErrorVO;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * 资产Excel导入监听器基类（三类资产共用的导入流程）
+
+ * 核心逻辑：
+ * 1. 只检查与数据库的重复，不检查Excel内部重复
+ * 2. 当数据库中存在相同ID时，比较关键字段指纹是否一致（不一致时才加载完整记录）
+ * 3. 关键字段一致 → 静默跳过，关键字段不一致 → 关键错误
+ * 4. 所有重复数据统一在"重复数据统计"中汇总显示
+
+ * 处理流程：
+ * 1. ID基础校验 → 2. 数据库重复检查 → 3. 业务字段校验（编译后的规则链AssetRuleSet）
+
+ * 子类只需提供：
+ * - 资产类型名称和编译后的规则链（构造时传入）
+ * - Excel行字段访问（ID、资产名称、上报单位、行号）
+ * - 关键字段指纹、关键字段不一致错误、重复记录的构建
+
+ * 流式提交模式（flushBatchSize > 0）：
+ * - 合法数据每累计flushBatchSize条即交给batchSaver保存，并清空validDataList
+ * - 只保留合法数量和成功行号用于构建导入结果，堆内存占用与总行数无关
+ * - 每批独立提交，中途失败时之前的批次已入库（savedCount为已入库条数）
+
+ * 进度与取消（异步导入任务使用，可选）：
+ * - 设置progress后，每行处理完成即更新进度计数
+ * - progress被取消后hasNext返回false，EasyExcel停止解析，且不再提交剩余批次
+
+ * 并行校验流水线（enableValidationPipeline开启，可选）：
+ * - 解析线程只负责读取和攒批，ID校验、重复检查、字段校验在校验线程池中并行执行
+ * - 结果按批次提交顺序登记，错误列表、成功行号与串行模式顺序一致
+ * - 登记结果、流式提交、进度更新仍只在解析线程中进行，统计字段无需加锁
+
+ * 记录输出（设置recordSink后，可选）：
+ * - 每行登记结果时同步输出成功/错误/重复记录，用于NDJSON边解析边返回
+
+ * 延迟渲染的错误详情：
+ * - 出错行只向ImportErrorBuffer记录行号、错误码和参数，不格式化描述、不创建ExcelErrorVO
+ * - getErrorDataList返回只读视图，客户端查看错误详情（响应序列化或分页）时才渲染
+ *
+ * @param <VO> Excel行对象类型
+ * @param <E> 资产实体类型
+ */
+@Slf4j
+public abstract class AssetImportListener<VO, E> extends AnalysisEventListener<VO> {
+
+    protected static final String ERROR_LEVEL_CRITICAL = "CRITICAL";
+    protected static final String ERROR_LEVEL_INFO = "INFO";
+
+    /**
+     * 单行校验结果：合法 / 系统重复（关键字段完全一致） / 出错（错误已写入错误缓冲区）
+     */
+    private static final byte ROW_VALID = 0;
+    private static final byte ROW_DUPLICATE = 1;
+    private static final byte ROW_ERROR = 2;
+
+    // ============================ 核心数据存储 ============================
+
+    /**
+     * 资产类型名称（用于日志）
+     */
+    @Getter
+    private final String assetTypeName;
+
+    /**
+     * 系统中已存在资产的关键字段指纹索引
+     * Key: 资产ID, Value: 关键字段指纹（完整资产对象仅在指纹不一致时按需加载）
+     */
+    private final AssetFingerprintIndex<E> existingIndex;
+
+    /**
+     * 业务字段校验规则链（按资产类型编译，所有导入共享）
+     */
+    private final AssetRuleSet<VO> ruleSet;
+
+    // ============================ 导入结果统计 ============================
+
+    /**
+     * 合法数据列表
+     * 非流式模式：保存全部合法数据；流式模式：仅保存尚未提交的当前批次
+     */
+    @Getter
+    private final List<VO> validDataList = new ArrayList<>();
+
+    /**
+     * 合法数据总数（两种模式下均为全部合法行数）
+     */
+    @Getter
+    private int validCount = 0;
+
+    /**
+     * 流式模式下已提交入库的条数
+     */
+    @Getter
+    private int savedCount = 0;
+
+    /**
+     * 流式模式下的成功行号（替代已释放的合法数据对象）
+     */
+    @Getter
+    private final IntArrayBuffer successRowNums = new IntArrayBuffer();
+
+    /**
+     * 错误缓冲区（只记录行号、错误码和参数，查看错误详情时才渲染为ExcelErrorVO）
+     */
+    private final ImportErrorBuffer errorBuffer = new ImportErrorBuffer();
+
+    /**
+     * 重复数据汇总信息（解析完成后生成，位于错误列表开头）
+     */
+    private ExcelErrorVO summaryError;
+
+    /**
+     * 系统重复数量（关键字段完全一致）
+     */
+    @Getter
+    private int systemDuplicateCount = 0;
+
+    /**
+     * 重复记录详情（元素为子类定义的DuplicateRecord）
+     */
+    @Getter
+    private final List<Object> duplicateRecords = new ArrayList<>();
+
+    // ============================ 流式提交配置 ============================
+
+    /**
+     * 流式提交批次大小（<=0 表示关闭流式模式，由调用方在解析完成后统一保存）
+     */
+    private final int flushBatchSize;
+
+    /**
+     * 批量保存回调（通常为Service层的批量保存方法）
+     */
+    private final Consumer<List<VO>> batchSaver;
+
+    /**
+     * 仅校验模式：校验、重复检查、计数和记录输出照常进行，合法数据不交给批量保存回调
+     */
+    @Getter
+    @Setter
+    private boolean dryRun;
+
+    /**
+     * 更新模式：ID已存在的行不按系统重复或关键字段冲突处理，与新行一样做字段校验后交给批量保存回调
+     * （由更新模式的保存回调逐行比较系统记录，内容未变化的行经rejectAsSystemDuplicate回写为系统重复）
+     */
+    @Getter
+    @Setter
+    private boolean upsertMode;
+
+    /**
+     * 导入进度（异步导入任务设置，同步导入为null）
+     */
+    @Setter
+    private ImportProgress progress;
+
+    /**
+     * 导入记录接收器（NDJSON流式导入设置，每行处理完成即输出，其他场景为null）
+     */
+    @Setter
+    private ImportRecordSink recordSink;
+
+    // ============================ 并行校验流水线配置 ============================
+
+    /**
+     * 校验线程池（为null表示串行校验，在解析线程中逐行执行）
+     */
+    private Executor validationExecutor;
+
+    private int pipelineBatchSize;
+
+    private int maxInFlightBatches;
+
+    /**
+     * 待提交到校验线程池的行（解析线程攒批）
+     */
+    private List<VO> pendingRows;
+
+    /**
+     * 已提交、按提交顺序排列的在途批次（队首最早，出队即按Excel行顺序登记）
+     */
+    private final Deque<PipelineBatch<VO>> inFlightBatches = new ArrayDeque<>();
+
+    // ============================ 构造函数 ============================
+
+    /**
+     * @param assetTypeName 资产类型名称（用于日志）
+     * @param existingIndex 系统中已存在资产的关键字段指纹索引（为null时视为空表）
+     * @param ruleSet 编译后的业务字段校验规则链
+     * @param flushBatchSize 每批提交条数（<=0 时关闭流式模式）
+     * @param batchSaver 批量保存回调，流式模式下不能为空
+     */
+    protected AssetImportListener(String assetTypeName, AssetFingerprintIndex<E> existingIndex,
+                                  AssetRuleSet<VO> ruleSet, int flushBatchSize, Consumer<List<VO>> batchSaver) {
+        if (flushBatchSize > 0 && batchSaver == null) {
+            throw new IllegalArgumentException("流式提交模式必须提供批量保存回调");
+        }
+        this.assetTypeName = assetTypeName;
+        this.existingIndex = (existingIndex != null)
+                ? existingIndex : AssetFingerprintIndex.fromAssets(null, asset -> 0L);
+        this.ruleSet = ruleSet;
+        this.flushBatchSize = flushBatchSize;
+        this.batchSaver = batchSaver;
+        log.info("{}Excel监听器初始化完成 - 已加载{}条系统已存在资产，校验规则{}条",
+                assetTypeName, this.existingIndex.size(), ruleSet.size());
+
+        // 索引需要按批查询数据库（布隆过滤器模式）时，未开启并行校验也按批校验，在解析线程中同步执行
+        int lookupBatchSize = this.existingIndex.getLookupBatchSize();
+        if (lookupBatchSize > 0) {
+            enableValidationPipeline(Runnable::run, lookupBatchSize, 1);
+        }
+    }
+
+    // ============================ 子类扩展点 ============================
+
+    /**
+     * Excel行的资产ID（未trim，构建成功记录时也会调用）
+     */
+    public abstract String getAssetId(VO excelVO);
+
+    public abstract String getAssetName(VO excelVO);
+
+    public abstract String getReportUnit(VO excelVO);
+
+    public abstract int getRowNum(VO excelVO);
+
+    protected abstract void setRowNum(VO excelVO, int rowNum);
+
+    /**
+     * Excel行的关键字段指纹（与实体指纹使用相同字段和顺序）
+     */
+    protected abstract long fingerprintOf(VO excelVO);
+
+    /**
+     * 创建关键字段不匹配错误（包含系统值与Excel值）
+     */
+    protected abstract ExcelErrorVO createKeyFieldMismatchError(VO excelVO, int rowNum, E existingAsset);
+
+    /**
+     * 创建重复记录（关键字段指纹一致，系统值与Excel值相同，直接取Excel值）
+     */
+    protected abstract Object createDuplicateRecord(VO excelVO, int rowNum);
+
+    // ============================ 核心处理逻辑 ============================
+
+    /**
+     * 每行数据读取处理
+     */
+    @Override
+    public void invoke(VO excelVO, AnalysisContext context) {
+        acceptRow(excelVO, context.readRowHolder().getRowIndex() + 1);
+    }
+
+    /**
+     * 处理一行数据（EasyExcel解析时由invoke调用；CSV等非EasyExcel来源直接调用）
+     *
+     * @param excelVO 行数据
+     * @param rowNum 行号（从1开始，含表头行）
+     */
+    public void acceptRow(VO excelVO, int rowNum) {
+        setRowNum(excelVO, rowNum);
+
+        // 流水线模式：攒批交给校验线程池，解析线程继续读取下一行
+        if (isPipelineMode()) {
+            pendingRows.add(excelVO);
+            if (pendingRows.size() >= pipelineBatchSize) {
+                submitPendingRows();
+            }
+            return;
+        }
+
+        applyRowResult(excelVO, rowNum, validateRow(excelVO, rowNum, errorBuffer, null));
+    }
+
+    /**
+     * 单行校验（除写入传入的错误缓冲区外不修改监听器状态，可在校验线程池中并行执行）
+     *
+     * @param errors 错误缓冲区（出错时写入该行的错误码和参数）
+     * @param batchFingerprints 按批预先查询的已存在ID指纹（为null时逐行查询指纹索引）
+     * @return ROW_VALID / ROW_DUPLICATE / ROW_ERROR
+     */
+    private byte validateRow(VO excelVO, int rowNum, ImportErrorBuffer errors, Map<String, Long> batchFingerprints) {
+        int mark = errors.mark();
+        try {
+            // 步骤1：ID基础校验
+            String id = getAssetId(excelVO);
+            if (AssetRuleSet.isBlank(id)) {
+                errors.add(rowNum, AssetRuleSet.ID_BLANK);
+                return ROW_ERROR;
+            }
+
+            String currentId = id.trim();
+
+            // 步骤2：数据库重复检查（新逻辑核心；更新模式下跳过，已存在的ID按更新处理）
+            Long existingFingerprint = upsertMode ? null
+                    : (batchFingerprints != null) ? batchFingerprints.get(currentId)
+                    : existingIndex.getFingerprint(currentId);
+            if (existingFingerprint != null) {
+                // 数据库中存在相同ID，比较关键字段指纹
+                if (existingFingerprint == fingerprintOf(excelVO)) {
+                    // 关键字段完全一致 → 静默跳过（系统重复）
+                    if (log.isDebugEnabled()) {
+                        log.debug("第{}行数据与系统数据完全重复，跳过导入", rowNum);
+                    }
+                    return ROW_DUPLICATE;
+                }
+
+                // 关键字段不一致 → 按需加载完整记录，生成关键错误（需修正主键）
+                E existingAsset = existingIndex.loadFullAsset(currentId);
+                if (existingAsset != null) {
+                    log.debug("第{}行数据ID重复但关键字段不一致，标记为错误", rowNum);
+                    errors.addRendered(rowNum, createKeyFieldMismatchError(excelVO, rowNum, existingAsset));
+                    return ROW_ERROR;
+                }
+                log.debug("第{}行数据ID对应的系统记录已被删除，按新数据继续校验", rowNum);
+            }
+
+            // 步骤3：业务字段校验（只有通过重复检查后才进行）
+            return ruleSet.validate(excelVO, rowNum, errors) ? ROW_VALID : ROW_ERROR;
+
+        } catch (Exception e) {
+            log.error("处理第{}行数据时发生异常", rowNum, e);
+            // 丢弃该行已记录的部分错误，只保留系统错误
+            errors.truncate(mark);
+            errors.addRendered(rowNum, createSystemError(excelVO, rowNum, e.getMessage()));
+            return ROW_ERROR;
+        }
+    }
+
+    /**
+     * 按Excel行顺序登记单行校验结果（只在解析线程中调用，错误详情已写入错误缓冲区）
+     */
+    private void applyRowResult(VO excelVO, int rowNum, byte result) {
+        if (result == ROW_VALID) {
+            // 所有校验通过，添加到有效数据列表
+            validDataList.add(excelVO);
+            validCount++;
+            if (isStreamingMode()) {
+                successRowNums.add(rowNum);
+            }
+            if (log.isDebugEnabled()) {
+                log.debug("第{}行数据校验通过，加入有效数据列表", rowNum);
+            }
+            if (recordSink != null) {
+                recordSink.onSuccess(rowNum, getAssetId(excelVO), getAssetName(excelVO), getReportUnit(excelVO));
+            }
+        } else if (result == ROW_DUPLICATE) {
+            systemDuplicateCount++;
+            Object duplicateRecord = createDuplicateRecord(excelVO, rowNum);
+            duplicateRecords.add(duplicateRecord);
+            if (recordSink != null) {
+                recordSink.onDuplicate(duplicateRecord);
+            }
+        } else if (recordSink != null) {
+            // 错误已写入错误缓冲区，输出时才渲染最后一个条目
+            recordSink.onError(errorBuffer.render(errorBuffer.size() - 1, ruleSet));
+        }
+        publishProgress();
+
+        // 流式模式：批次已满则提交（保存异常直接抛出，终止本次解析）
+        if (isStreamingMode() && validDataList.size() >= flushBatchSize) {
+            flushValidData();
+        }
+    }
+
+    /**
+     * 是否开启流式提交模式
+     */
+    public boolean isStreamingMode() {
+        return flushBatchSize > 0;
+    }
+
+    /**
+     * 提交当前批次的合法数据并释放引用
+     */
+    private void flushValidData() {
+        if (validDataList.isEmpty()) {
+            return;
+        }
+        if (dryRun) {
+            // 仅校验：直接释放当前批次，savedCount保持为0
+            validDataList.clear();
+            return;
+        }
+        int batchCount = validDataList.size();
+        batchSaver.accept(validDataList);
+        savedCount += batchCount;
+        validDataList.clear();
+        publishProgress();
+        log.debug("{}流式提交{}条数据，累计已保存{}条", assetTypeName, batchCount, savedCount);
+    }
+
+    /**
+     * 是否继续解析下一行（导入任务被取消时停止）
+     */
+    @Override
+    public boolean hasNext(AnalysisContext context) {
+        return !isCancelled();
+    }
+
+    /**
+     * 导入任务是否已被取消（非EasyExcel来源在读取每行前检查）
+     */
+    public boolean isCancelled() {
+        return progress != null && progress.isCancelled();
+    }
+
+    /**
+     * 将当前计数同步到导入进度
+     */
+    private void publishProgress() {
+        if (progress != null) {
+            progress.update(validCount + errorBuffer.size() + systemDuplicateCount,
+                    validCount, errorBuffer.size(), savedCount);
+        }
+    }
+
+    // ============================ 并行校验流水线 ============================
+
+    /**
+     * 开启并行校验流水线
+
+     * 解析线程只负责读取Excel行并攒批，每批交给校验线程池执行validateRow，
+     * 结果按提交顺序（即Excel行顺序）登记，错误列表和行号顺序与串行模式完全一致
+     *
+     * @param executor 校验线程池（队列满时应由调用线程执行，不能拒绝任务）
+     * @param batchSize 每批交给线程池的行数
+     * @param maxInFlightBatches 同时在途的最大批次数（达到上限时解析线程等待最早的批次完成，限制内存占用）
+     */
+    public void enableValidationPipeline(Executor executor, int batchSize, int maxInFlightBatches) {
+        if (executor == null || batchSize <= 0) {
+            return;
+        }
+        this.validationExecutor = executor;
+        this.pipelineBatchSize = batchSize;
+        this.maxInFlightBatches = Math.max(maxInFlightBatches, 1);
+        this.pendingRows = new ArrayList<>(batchSize);
+        log.info("{}Excel监听器开启并行校验流水线 - 每批{}行，最多{}批在途", assetTypeName, batchSize, this.maxInFlightBatches);
+    }
+
+    /**
+     * 是否开启并行校验流水线
+     */
+    public boolean isPipelineMode() {
+        return validationExecutor != null;
+    }
+
+    /**
+     * 将当前攒满的行提交到校验线程池
+     */
+    private void submitPendingRows() {
+        List<VO> batch = pendingRows;
+        pendingRows = new ArrayList<>(pipelineBatchSize);
+        inFlightBatches.addLast(new PipelineBatch<>(batch,
+                CompletableFuture.supplyAsync(() -> validateBatch(batch), validationExecutor)));
+
+        // 最早的批次已完成则先登记，保证进度和流式提交及时推进
+        while (!inFlightBatches.isEmpty() && inFlightBatches.peekFirst().results().isDone()) {
+            applyHeadBatch();
+        }
+        // 在途批次达到上限时阻塞等待最早的批次
+        while (inFlightBatches.size() >= maxInFlightBatches) {
+            applyHeadBatch();
+        }
+    }
+
+    private BatchResult validateBatch(List<VO> batch) {
+        byte[] statuses = new byte[batch.size()];
+        ImportErrorBuffer errors = new ImportErrorBuffer();
+        Map<String, Long> batchFingerprints = lookupBatchFingerprints(batch);
+        for (int i = 0; i < statuses.length; i++) {
+            VO excelVO = batch.get(i);
+            statuses[i] = validateRow(excelVO, getRowNum(excelVO), errors, batchFingerprints);
+        }
+        return new BatchResult(statuses, errors);
+    }
+
+    /**
+     * 一次查询整批行的已存在ID指纹（索引需要按批查询数据库时；常驻内存的索引返回null，逐行查询）
+     */
+    private Map<String, Long> lookupBatchFingerprints(List<VO> batch) {
+        if (upsertMode || existingIndex.getLookupBatchSize() <= 0) {
+            return null;
+        }
+        List<String> ids = new ArrayList<>(batch.size());
+        for (VO excelVO : batch) {
+            String id = getAssetId(excelVO);
+            if (!AssetRuleSet.isBlank(id)) {
+                ids.add(id.trim());
+            }
+        }
+        return existingIndex.getFingerprints(ids);
+    }
+
+    /**
+     * 等待最早提交的批次完成并按行顺序登记结果
+     */
+    private void applyHeadBatch() {
+        PipelineBatch<VO> head = inFlightBatches.pollFirst();
+        BatchResult result = head.results().join();
+        byte[] statuses = result.statuses();
+        int errorEntry = 0;
+        for (int i = 0; i < statuses.length; i++) {
+            VO excelVO = head.rows().get(i);
+            if (statuses[i] == ROW_ERROR) {
+                // 批次缓冲区中每个出错行恰好一个条目，按行逐条并入，登记时主缓冲区的最后一个条目即为本行错误
+                errorBuffer.appendEntry(result.errors(), errorEntry++);
+            }
+            applyRowResult(excelVO, getRowNum(excelVO), statuses[i]);
+        }
+    }
+
+    /**
+     * 提交剩余不满一批的行，并等待全部在途批次登记完成
+     */
+    private void drainPipeline() {
+        if (!isPipelineMode()) {
+            return;
+        }
+        if (!pendingRows.isEmpty()) {
+            submitPendingRows();
+        }
+        while (!inFlightBatches.isEmpty()) {
+            applyHeadBatch();
+        }
+    }
+
+    /**
+     * 在途批次（Excel行与对应的校验结果，下标一一对应）
+     */
+    private record PipelineBatch<VO>(List<VO> rows, CompletableFuture<BatchResult> results) {
+    }
+
+    /**
+     * 批次校验结果（逐行状态与批次内的错误缓冲区，登记时逐行并入主缓冲区）
+     */
+    private record BatchResult(byte[] statuses, ImportErrorBuffer errors) {
+    }
+
+    // ============================ 工具方法 ============================
+
+    /**
+     * 创建错误VO对象
+     */
+    protected ExcelErrorVO createErrorVO(int rowNum, String errorFields, String errorMsg, String errorLevel) {
+        ExcelErrorVO errorVO = new ExcelErrorVO();
+        errorVO.setExcelRowNum(rowNum);
+        errorVO.setErrorFields(errorFields);
+        errorVO.setErrorMsg(errorMsg);
+        errorVO.setErrorLevel(errorLevel);
+        return errorVO;
+    }
+
+    /**
+     * 创建系统错误
+     */
+    private ExcelErrorVO createSystemError(VO excelVO, int rowNum, String message) {
+        ExcelErrorVO errorVO = new ExcelErrorVO();
+        errorVO.setExcelRowNum(rowNum);
+        errorVO.setErrorFields("系统");
+        errorVO.setErrorLevel(ERROR_LEVEL_CRITICAL);
+        errorVO.setErrorMsg("系统错误: " + message);
+        errorVO.setAssetId(getAssetId(excelVO));
+        errorVO.setAssetName(getAssetName(excelVO));
+        return errorVO;
+    }
+
+    // ============================ 结束处理 ============================
+
+    /**
+     * 所有数据解析完成后的处理
+     */
+    @Override
+    public void doAfterAllAnalysed(AnalysisContext context) {
+        finishRows();
+    }
+
+    /**
+     * 全部数据行处理完成（EasyExcel解析时由doAfterAllAnalysed调用；CSV等非EasyExcel来源直接调用）
+     */
+    public void finishRows() {
+        // 流水线模式：等待在途批次校验完成并按顺序登记
+        drainPipeline();
+
+        // 流式模式：提交最后一个不满批次的数据（任务已取消时不再提交）
+        if (isStreamingMode() && !isCancelled()) {
+            flushValidData();
+        }
+        publishProgress();
+
+        int totalRows = validCount + errorBuffer.size() + systemDuplicateCount;
+
+        log.info("{}Excel解析完成：总行数={}，合法={}条，关键错误={}条，系统重复跳过={}条",
+                assetTypeName, totalRows, validCount, errorBuffer.size(), systemDuplicateCount);
+
+        buildSummaryError();
+    }
+
+    /**
+     * 如果有重复数据，添加汇总信息到错误列表开头
+     */
+    private void buildSummaryError() {
+        if (systemDuplicateCount > 0) {
+            String summaryMsg = String.format("自动跳过%d条重复数据（系统已存在：%d条）",
+                    systemDuplicateCount, systemDuplicateCount);
+
+            summaryError = createErrorVO(0, "summary", summaryMsg, ERROR_LEVEL_INFO);
+        }
+    }
+
+    // ============================ 入库阶段判重结果 ============================
+
+    /**
+     * 入库阶段被拒绝的行号（按行号升序登记，入库结束后从成功行号中剔除）
+
+     * 暂存表合并导入：合法行由batchSaver写入暂存表（此时savedCount为已暂存条数），
+     * 重复分类在数据库中用集合SQL完成，合并后按Excel行顺序回传被拒绝的行，
+     * 从合法行中扣除并登记为重复或错误（合并产生的错误排在解析阶段的错误之后）
+     * 更新模式导入：batchSaver逐批比较系统记录，内容未变化的行回传为系统重复
+     */
+    private final IntArrayBuffer mergeRejectedRowNums = new IntArrayBuffer();
+
+    /**
+     * 合并时发现系统已存在且关键字段一致（更新模式下为内容完全一致）→ 静默跳过（系统重复）
+     */
+    public void rejectAsSystemDuplicate(VO excelVO, int rowNum) {
+        mergeRejectedRowNums.add(rowNum);
+        systemDuplicateCount++;
+        duplicateRecords.add(createDuplicateRecord(excelVO, rowNum));
+    }
+
+    /**
+     * 合并时发现系统已存在但关键字段不一致 → 关键错误（需修正主键）
+     *
+     * @param existingAsset 系统记录（只需填充ID和关键字段）
+     */
+    public void rejectAsKeyFieldMismatch(VO excelVO, int rowNum, E existingAsset) {
+        mergeRejectedRowNums.add(rowNum);
+        errorBuffer.addRendered(rowNum, createKeyFieldMismatchError(excelVO, rowNum, existingAsset));
+    }
+
+    /**
+     * 合并时发现与文件内前一行ID重复 → 关键错误（首次出现的行正常导入）
+     *
+     * @param firstRowNum 同ID首次出现的行号
+     */
+    public void rejectAsFileDuplicate(VO excelVO, int rowNum, int firstRowNum) {
+        mergeRejectedRowNums.add(rowNum);
+        ExcelErrorVO errorVO = createErrorVO(rowNum, "资产ID",
+                String.format("资产ID与第%d行重复，请修改该行主键值", firstRowNum), ERROR_LEVEL_CRITICAL);
+        errorVO.setAssetId(getAssetId(excelVO));
+        errorVO.setAssetName(getAssetName(excelVO));
+        errorBuffer.addRendered(rowNum, errorVO);
+    }
+
+    /**
+     * 合并完成：成功行号中剔除被拒绝的行，savedCount改为实际写入条数
+     *
+     * @param mergedCount 实际写入目标表的条数（更新模式为新增与更新条数之和）
+     */
+    public void finishMerge(int mergedCount) {
+        validCount -= successRowNums.removeSorted(mergeRejectedRowNums);
+        mergeRejectedRowNums.clear();
+        savedCount = mergedCount;
+        publishProgress();
+        buildSummaryError();
+        log.info("{}入库结果合并完成：写入={}条，关键错误={}条，系统重复跳过={}条",
+                assetTypeName, mergedCount, errorBuffer.size(), systemDuplicateCount);
+    }
+
+    // ============================ 错误详情 ============================
+
+    /**
+     * 错误列表（重复汇总信息在前，其后按Excel行顺序排列）
+
+     * 返回延迟渲染的只读视图：get时才格式化错误描述，subList分页只渲染当前页，
+     * 调用方不要复制为ArrayList，否则会一次性渲染全部错误
+     */
+    public List<ExcelErrorVO> getErrorDataList() {
+        return errorBuffer.asList(summaryError, ruleSet);
+    }
+
+    /**
+     * 出错行数（不含重复汇总信息，不触发渲染）
+     */
+    public int getErrorCount() {
+        return errorBuffer.size();
+    }
+}
@@ -0,0 +1,356 @@
+package com.military.asset.listener;
+
+import com.alibaba.excel.annotation.ExcelIgnore;
+import com.alibaba.excel.annotation.ExcelProperty;
+import com.alibaba.excel.annotation.format.DateTimeFormat;
+import com.military.asset.utils.CsvByteParser;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * CSV数据行读取器（CSV / CSV.GZ导入使用，不经过EasyExcel和POI）
+
+ * 作用：用CsvByteParser按字节解析CSV，按列绑定到Excel导入VO，逐行交给AssetImportListener，
+ * 之后的ID校验、重复检查、字段校验、流式提交、进度与取消与Excel导入完全相同
+
+ * 列绑定规则：
+ * - VO字段上的@ExcelProperty声明列名（取最后一级表头）和可选的列序号，@ExcelIgnore字段不绑定
+ * - 前两行中包含任一已知列名的行视为表头，按最后一个表头行的列名绑定（列顺序可以与模板不同）
+ * - 前两行都不含已知列名时，按模板布局处理：跳过2行表头，按@ExcelProperty列序号（未指定时按字段声明顺序）绑定
+
+ * 值转换（与EasyExcel默认行为一致）：
+ * - 去除首尾空白，空值为null；空行跳过
+ * - 支持String、Integer、Long、Double、BigDecimal、LocalDate、LocalDateTime、Date
+ * - 转换失败时抛出IllegalArgumentException（指明行列），终止本次导入
+ */
+@Slf4j
+public final class CsvRowReader {
+
+    /**
+     * 表头识别的最大行数（与Excel模板的表头行数一致）
+     */
+    private static final int MAX_HEAD_ROWS = 2;
+
+    private static final DateTimeFormatter[] DATE_FORMATS = {
+            DateTimeFormatter.ofPattern("yyyy-M-d"),
+            DateTimeFormatter.ofPattern("yyyy/M/d"),
+            DateTimeFormatter.ofPattern("yyyy.M.d"),
+            DateTimeFormatter.ofPattern("yyyyMMdd")
+    };
+
+    private static final DateTimeFormatter[] DATE_TIME_FORMATS = {
+            DateTimeFormatter.ofPattern("yyyy-M-d H:m:s"),
+            DateTimeFormatter.ofPattern("yyyy/M/d H:m:s"),
+            DateTimeFormatter.ofPattern("yyyy-M-d H:m"),
+            DateTimeFormatter.ofPattern("yyyy/M/d H:m")
+    };
+
+    private CsvRowReader() {
+    }
+
+    /**
+     * 读取CSV全部数据行并交给监听器
+     *
+     * @param inputStream CSV输入流（.csv.gz由调用方先解压）
+     * @param head Excel导入VO类型（与监听器的VO类型一致）
+     * @param listener 资产导入监听器
+     */
+    @SuppressWarnings("unchecked")
+    public static void read(InputStream inputStream, Class<?> head, AssetImportListener<?, ?> listener) throws IOException {
+        doRead(inputStream, (Class<Object>) head, (AssetImportListener<Object, ?>) listener);
+    }
+
+    private static <VO> void doRead(InputStream inputStream, Class<VO> head,
+                                    AssetImportListener<VO, ?> listener) throws IOException {
+        List<Column> columns = describeColumns(head);
+        Constructor<VO> constructor = newInstanceConstructor(head);
+        CsvByteParser parser = new CsvByteParser(inputStream, null);
+        log.info("CSV导入开始：{}，编码={}，VO列数={}", head.getSimpleName(), parser.getCharset(), columns.size());
+
+        // 步骤1：识别表头并绑定列
+        List<List<String>> leadingRows = new ArrayList<>(MAX_HEAD_ROWS);
+        int headRows = 0;
+        Column[] binding = null;
+        for (int i = 0; i < MAX_HEAD_ROWS; i++) {
+            List<String> record = parser.nextRecord();
+            if (record == null) {
+                break;
+            }
+            leadingRows.add(new ArrayList<>(record));
+            Column[] byName = bindByName(record, columns);
+            if (byName != null) {
+                binding = byName;
+                headRows = i + 1;
+            }
+        }
+        if (binding == null) {
+            binding = bindByIndex(columns);
+            headRows = MAX_HEAD_ROWS;
+        }
+
+        // 步骤2：逐行转换并交给监听器（行号从1开始，含表头行，与Excel导入一致）
+        int rowIndex = 0;
+        for (List<String> record : leadingRows) {
+            if (rowIndex >= headRows) {
+                acceptRecord(record, rowIndex, binding, constructor, listener);
+            }
+            rowIndex++;
+        }
+        List<String> record;
+        while (!listener.isCancelled() && (record = parser.nextRecord()) != null) {
+            acceptRecord(record, rowIndex++, binding, constructor, listener);
+        }
+
+        listener.finishRows();
+    }
+
+    private static <VO> void acceptRecord(List<String> record, int rowIndex, Column[] binding,
+                                          Constructor<VO> constructor, AssetImportListener<VO, ?> listener) {
+        if (isBlankRecord(record)) {
+            return;
+        }
+        VO excelVO;
+        try {
+            excelVO = constructor.newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("无法创建导入对象：" + constructor.getDeclaringClass().getName(), e);
+        }
+
+        int columnCount = Math.min(record.size(), binding.length);
+        for (int i = 0; i < columnCount; i++) {
+            Column column = binding[i];
+            if (column == null) {
+                continue;
+            }
+            String text = record.get(i).trim();
+            if (text.isEmpty()) {
+                continue;
+            }
+            try {
+                column.field.set(excelVO, column.converter.apply(text));
+            } catch (RuntimeException | IllegalAccessException e) {
+                throw new IllegalArgumentException(String.format("第%d行第%d列（%s）数据格式错误：%s",
+                        rowIndex + 1, i + 1, column.name, text), e);
+            }
+        }
+        listener.acceptRow(excelVO, rowIndex + 1);
+    }
+
+    // ============================ 列绑定 ============================
+
+    /**
+     * 按表头列名绑定
+     *
+     * @return 至少匹配一个列名时返回"CSV列下标 → VO列"数组，否则返回null
+     */
+    private static Column[] bindByName(List<String> headRow, List<Column> columns) {
+        Map<String, Column> byName = new HashMap<>();
+        for (Column column : columns) {
+            byName.putIfAbsent(column.name, column);
+        }
+        Column[] binding = new Column[headRow.size()];
+        boolean matched = false;
+        for (int i = 0; i < headRow.size(); i++) {
+            binding[i] = byName.get(headRow.get(i).trim());
+            matched |= binding[i] != null;
+        }
+        return matched ? binding : null;
+    }
+
+    /**
+     * 模板布局下各字段所在的列（与按模板布局读取CSV、EasyExcel按序号读取时的列一致）
+     *
+     * @param head Excel导入VO类型
+     * @return Key: 字段名及最后一级列名, Value: 列序号（从0开始）；模板列数为最大列序号 + 1
+     */
+    public static Map<String, Integer> templateColumnIndexes(Class<?> head) {
+        Column[] binding = bindByIndex(describeColumns(head));
+        Map<String, Integer> indexes = new HashMap<>();
+        for (int i = 0; i < binding.length; i++) {
+            if (binding[i] != null) {
+                indexes.put(binding[i].field.getName(), i);
+                indexes.put(binding[i].name, i);
+            }
+        }
+        return indexes;
+    }
+
+    /**
+     * 按@ExcelProperty列序号绑定（未指定序号的字段按声明顺序排在已指定列之后的空位）
+     */
+    private static Column[] bindByIndex(List<Column> columns) {
+        int size = columns.size();
+        for (Column column : columns) {
+            size = Math.max(size, column.index + 1);
+        }
+        Column[] binding = new Column[size];
+        for (Column column : columns) {
+            if (column.index >= 0) {
+                binding[column.index] = column;
+            }
+        }
+        int next = 0;
+        for (Column column : columns) {
+            if (column.index >= 0) {
+                continue;
+            }
+            while (binding[next] != null) {
+                next++;
+            }
+            binding[next] = column;
+        }
+        return binding;
+    }
+
+    private static List<Column> describeColumns(Class<?> head) {
+        List<Class<?>> hierarchy = new ArrayList<>();
+        for (Class<?> type = head; type != null && type != Object.class; type = type.getSuperclass()) {
+            hierarchy.add(0, type);
+        }
+        List<Column> columns = new ArrayList<>();
+        for (Class<?> type : hierarchy) {
+            for (Field field : type.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if (Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers)
+                        || field.isAnnotationPresent(ExcelIgnore.class)) {
+                    continue;
+                }
+                ExcelProperty property = field.getAnnotation(ExcelProperty.class);
+                if (property == null) {
+                    continue;
+                }
+                String[] names = property.value();
+                String name = (names.length > 0) ? names[names.length - 1].trim() : field.getName();
+                field.setAccessible(true);
+                columns.add(new Column(name, property.index(), field, converterFor(field)));
+            }
+        }
+        if (columns.isEmpty()) {
+            throw new IllegalStateException(head.getName() + "没有@ExcelProperty字段，无法按列读取CSV");
+        }
+        return columns;
+    }
+
+    private static <VO> Constructor<VO> newInstanceConstructor(Class<VO> head) {
+        try {
+            Constructor<VO> constructor = head.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return constructor;
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(head.getName() + "缺少无参构造函数", e);
+        }
+    }
+
+    private static boolean isBlankRecord(List<String> record) {
+        for (String value : record) {
+            if (!value.isBlank()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // ============================ 值转换 ============================
+
+    private static Function<String, Object> converterFor(Field field) {
+        Class<?> type = field.getType();
+        DateTimeFormat format = field.getAnnotation(DateTimeFormat.class);
+        DateTimeFormatter declared = (format != null && !format.value().isEmpty())
+                ? DateTimeFormatter.ofPattern(format.value()) : null;
+
+        if (type == String.class) {
+            return text -> text;
+        }
+        if (type == Integer.class || type == int.class) {
+            return text -> Integer.valueOf(stripDecimalZeros(text));
+        }
+        if (type == Long.class || type == long.class) {
+            return text -> Long.valueOf(stripDecimalZeros(text));
+        }
+        if (type == Double.class || type == double.class) {
+            return Double::valueOf;
+        }
+        if (type == BigDecimal.class) {
+            return BigDecimal::new;
+        }
+        if (type == LocalDate.class) {
+            return text -> parseDate(text, declared);
+        }
+        if (type == LocalDateTime.class) {
+            return text -> parseDateTime(text, declared);
+        }
+        if (type == Date.class) {
+            return text -> Date.from(parseDateTime(text, declared).atZone(ZoneId.systemDefault()).toInstant());
+        }
+        throw new IllegalStateException("CSV导入不支持的字段类型：" + field.getDeclaringClass().getSimpleName()
+                + "." + field.getName() + "（" + type.getSimpleName() + "）");
+    }
+
+    /**
+     * Excel另存为CSV时整数可能带".0"
+     */
+    private static String stripDecimalZeros(String text) {
+        int dot = text.indexOf('.');
+        if (dot > 0 && text.substring(dot + 1).chars().allMatch(c -> c == '0')) {
+            return text.substring(0, dot);
+        }
+        return text;
+    }
+
+    private static LocalDate parseDate(String text, DateTimeFormatter declared) {
+        if (declared != null) {
+            return LocalDate.parse(text, declared);
+        }
+        // 带时间部分的日期只取日期
+        int space = text.indexOf(' ');
+        String datePart = (space > 0) ? text.substring(0, space) : text;
+        for (DateTimeFormatter formatter : DATE_FORMATS) {
+            try {
+                return LocalDate.parse(datePart, formatter);
+            } catch (DateTimeParseException ignored) {
+                // 尝试下一种格式
+            }
+        }
+        throw new DateTimeParseException("无法识别的日期格式", text, 0);
+    }
+
+    private static LocalDateTime parseDateTime(String text, DateTimeFormatter declared) {
+        if (declared != null) {
+            return LocalDateTime.parse(text, declared);
+        }
+        for (DateTimeFormatter formatter : DATE_TIME_FORMATS) {
+            try {
+                return LocalDateTime.parse(text, formatter);
+            } catch (DateTimeParseException ignored) {
+                // 尝试下一种格式
+            }
+        }
+        return parseDate(text, null).atStartOfDay();
+    }
+
+    /**
+     * VO列描述
+     *
+     * @param name 列名（@ExcelProperty最后一级表头）
+     * @param index @ExcelProperty列序号（未指定为-1）
+     */
+    private record Column(String name, int index, Field field, Function<String, Object> converter) {
+    }
+}
@@ -0,0 +1,75 @@
+package com.military.asset.listener;
+
+import lombok.Getter;
+
+/**
+ * 导入进度（监听器与异步导入任务之间共享）
+
+ * 写入方：Excel监听器在解析线程中逐行更新计数，导入流程在保存后更新已保存数
+ * 读取方：进度查询接口在其他线程读取，字段均为volatile，读取无需加锁
+ * 取消：cancel()后监听器在下一行停止解析（hasNext返回false），导入流程不再保存剩余数据
+ */
+@Getter
+public class ImportProgress {
+
+    /**
+     * 已解析行数（合法 + 错误 + 系统重复）
+     */
+    private volatile int rowsParsed;
+
+    /**
+     * 合法行数
+     */
+    private volatile int validCount;
+
+    /**
+     * 错误行数
+     */
+    private volatile int errorCount;
+
+    /**
+     * 已保存入库条数
+     */
+    private volatile int savedCount;
+
+    /**
+     * 是否已请求取消
+     */
+    private volatile boolean cancelled;
+
+    /**
+     * 排队位置（等待同类型导入执行槽位时为队列中的位置，1为下一个执行；未排队为0）
+     */
+    private volatile int queuePosition;
+
+    /**
+     * 由监听器在每行处理完成后调用
+     */
+    public void update(int rowsParsed, int validCount, int errorCount, int savedCount) {
+        this.rowsParsed = rowsParsed;
+        this.validCount = validCount;
+        this.errorCount = errorCount;
+        this.savedCount = savedCount;
+    }
+
+    /**
+     * 非流式模式下统一保存完成后调用
+     */
+    public void markSaved(int savedCount) {
+        this.savedCount = savedCount;
+    }
+
+    /**
+     * 由导入准入控制在排队位置变化时调用
+     */
+    public void setQueuePosition(int queuePosition) {
+        this.queuePosition = queuePosition;
+    }
+
+    /**
+     * 请求取消导入
+     */
+    public void cancel() {
+        this.cancelled = true;
+    }
+}
@@ -0,0 +1,29 @@
+package com.military.asset.listener;
+
+import com.military.asset.vo.ExcelErrorVO;
+
+/**
+ * 导入记录接收器（NDJSON流式导入等需要边解析边输出记录的场景使用，可选）
+
+ * 调用约定：
+ * - 由监听器在解析线程中按Excel行顺序调用（并行校验流水线模式下同样按行顺序）
+ * - 每行恰好产生一条记录：成功、错误或重复
+ * - 接收器抛出的异常会终止本次解析（如客户端断开连接）
+ */
+public interface ImportRecordSink {
+
+    /**
+     * 校验通过的行
+     */
+    void onSuccess(int rowNum, String assetId, String assetName, String reportUnit);
+
+    /**
+     * 出错的行（错误描述在输出时渲染）
+     */
+    void onError(ExcelErrorVO errorVO);
+
+    /**
+     * 与系统数据完全重复的行（元素为各监听器定义的DuplicateRecord）
+     */
+    void onDuplicate(Object duplicateRecord);
+}
@@ -0,0 +1,282 @@
+package com.military.asset.listener.rule;
+
+import com.military.asset.vo.ExcelErrorVO;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 编译后的资产行校验规则链
+
+ * 作用：三类资产的字段校验（非空、正整数、分类匹配、枚举值、日期下限、特有规则）
+ * 由Builder声明式定义，编译为扁平的"字段名 + 规则"数组，逐行顺序执行
+
+ * 性能约定：
+ * - 规则链按资产类型编译一次（见DailyRuleSet），所有导入共享
+ * - 合法行：只遍历数组，不创建任何临时对象
+ * - 出错行：只向ImportErrorBuffer记录"行号 + 错误码 + 参数"，不格式化描述；
+ *   错误码在构建时注册为"错误字段 + 描述模板"，查看错误详情时才渲染，
+ *   渲染结果（错误字段、描述按规则声明顺序拼接）与原手写校验的输出完全一致
+
+ * 使用示例：
+ * AssetRuleSet.&lt;SoftwareAssetExcelVO&gt;builder()
+ *         .notBlank("reportUnit", SoftwareAssetExcelVO::getReportUnit, "上报单位为空")
+ *         .requiredPositive("actualQuantity", SoftwareAssetExcelVO::getActualQuantity, "实有数量")
+ *         .build();
+ *
+ * @param <VO> Excel行对象类型
+ */
+public final class AssetRuleSet<VO> {
+
+    private static final String ERROR_LEVEL_CRITICAL = "CRITICAL";
+
+    /**
+     * 资产ID为空的错误码（每个规则链都预先注册，由导入监听器在重复检查前使用）
+     */
+    public static final int ID_BLANK = 0;
+
+    /**
+     * 错误码对应的错误字段（下标即错误码）
+     */
+    private final String[] errorFields;
+
+    /**
+     * 错误码对应的描述模板（不含"第N行："前缀和"；"后缀，有参数时按String.format渲染）
+     */
+    private final String[] errorPatterns;
+
+    private final RowRule<VO>[] rules;
+
+    private AssetRuleSet(List<String> errorFields, List<String> errorPatterns, List<RowRule<VO>> rules) {
+        this.errorFields = errorFields.toArray(new String[0]);
+        this.errorPatterns = errorPatterns.toArray(new String[0]);
+        @SuppressWarnings("unchecked")
+        RowRule<VO>[] compiled = rules.toArray(new RowRule[0]);
+        this.rules = compiled;
+    }
+
+    public static <VO> Builder<VO> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * 执行全部规则
+     *
+     * @param excelVO Excel行对象
+     * @param rowNum Excel行号
+     * @param errors 错误缓冲区（违规按规则声明顺序写入）
+     * @return 全部通过返回true
+     */
+    public boolean validate(VO excelVO, int rowNum, ImportErrorBuffer errors) {
+        int mark = errors.mark();
+        for (RowRule<VO> rule : rules) {
+            rule.check(excelVO, rowNum, errors);
+        }
+        return errors.mark() == mark;
+    }
+
+    /**
+     * 错误码对应的错误字段
+     */
+    public String fieldOf(int code) {
+        return errorFields[code];
+    }
+
+    /**
+     * 渲染错误码对应的描述（格式："第N行：描述；"）
+     */
+    public String renderMessage(int code, int rowNum, Object[] args) {
+        String pattern = errorPatterns[code];
+        String message = (args.length == 0) ? pattern : String.format(pattern, args);
+        return "第" + rowNum + "行：" + message + "；";
+    }
+
+    /**
+     * 创建关键错误对象（渲染错误条目时使用）
+     */
+    static ExcelErrorVO criticalError(int rowNum, String errorFields, String errorMsg) {
+        ExcelErrorVO errorVO = new ExcelErrorVO();
+        errorVO.setExcelRowNum(rowNum);
+        errorVO.setErrorFields(errorFields);
+        errorVO.setErrorMsg(errorMsg);
+        errorVO.setErrorLevel(ERROR_LEVEL_CRITICAL);
+        return errorVO;
+    }
+
+    /**
+     * 规则条数
+     */
+    public int size() {
+        return rules.length;
+    }
+
+    /**
+     * 是否为空白字符串（null、空串或只含空白字符，判定与trim().isEmpty()一致，但不创建新字符串）
+     */
+    public static boolean isBlank(String value) {
+        if (value == null) {
+            return true;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // ============================ 规则声明 ============================
+
+    /**
+     * 规则链构建器（按声明顺序执行，错误描述按声明顺序拼接）
+     */
+    public static final class Builder<VO> {
+
+        private final List<String> errorFields = new ArrayList<>();
+        private final List<String> errorPatterns = new ArrayList<>();
+        private final List<RowRule<VO>> rules = new ArrayList<>();
+
+        private Builder() {
+            // 错误码0固定为ID_BLANK
+            error("id", "资产ID为空");
+        }
+
+        /**
+         * 注册错误码
+         *
+         * @param field 出错时记录的错误字段
+         * @param pattern 描述模板（不含"第N行："前缀和"；"后缀；有参数时按String.format占位）
+         * @return 错误码（规则出错时传给ImportErrorBuffer.add）
+         */
+        public int error(String field, String pattern) {
+            errorFields.add(field);
+            errorPatterns.add(pattern);
+            return errorFields.size() - 1;
+        }
+
+        /**
+         * 自定义规则（错误码先通过error注册）
+         */
+        public Builder<VO> rule(RowRule<VO> rule) {
+            rules.add(rule);
+            return this;
+        }
+
+        /**
+         * 字符串非空校验
+         *
+         * @param emptyMessage 为空时的描述（如"上报单位为空"）
+         */
+        public Builder<VO> notBlank(String field, Function<VO, String> getter, String emptyMessage) {
+            int empty = error(field, emptyMessage);
+            return rule((excelVO, rowNum, errors) -> {
+                if (isBlank(getter.apply(excelVO))) {
+                    errors.add(rowNum, empty);
+                }
+            });
+        }
+
+        /**
+         * 非null校验（数字、日期等非字符串字段）
+         *
+         * @param emptyMessage 为空时的描述（如"投入使用日期为空"）
+         */
+        public Builder<VO> notNull(String field, Function<VO, ?> getter, String emptyMessage) {
+            int empty = error(field, emptyMessage);
+            return rule((excelVO, rowNum, errors) -> {
+                if (getter.apply(excelVO) == null) {
+                    errors.add(rowNum, empty);
+                }
+            });
+        }
+
+        /**
+         * 必填正整数校验（为空、<=0 分别给出描述）
+         *
+         * @param label 字段中文名（如"实有数量"）
+         */
+        public Builder<VO> requiredPositive(String field, Function<VO, Integer> getter, String label) {
+            int empty = error(field, label + "为空");
+            int notPositive = error(field, label + "需为正整数（当前：%d）");
+            return rule((excelVO, rowNum, errors) -> {
+                Integer value = getter.apply(excelVO);
+                if (value == null) {
+                    errors.add(rowNum, empty);
+                } else if (value <= 0) {
+                    errors.add(rowNum, notPositive, value);
+                }
+            });
+        }
+
+        /**
+         * 分类编码与资产分类匹配校验（两个字段都不为空时才校验）
+         * 编码非法记为categoryCode错误；编码合法但分类不一致记为categoryCode,assetCategory错误
+         *
+         * @param categoryMap 合法的"分类编码 → 资产分类"映射（编译时传入，之后只读）
+         */
+        public Builder<VO> categoryMatches(Map<String, String> categoryMap,
+                                           Function<VO, String> codeGetter, Function<VO, String> categoryGetter) {
+            int illegalCode = error("categoryCode", "分类编码非法（当前值：%s）");
+            int mismatch = error("categoryCode,assetCategory", "分类不匹配（编码%s对应：%s，Excel分类：%s）");
+            rule((excelVO, rowNum, errors) -> {
+                String categoryCode = codeGetter.apply(excelVO);
+                if (isBlank(categoryCode) || isBlank(categoryGetter.apply(excelVO))) {
+                    return;
+                }
+                if (!categoryMap.containsKey(categoryCode.trim())) {
+                    errors.add(rowNum, illegalCode, categoryCode);
+                }
+            });
+            return rule((excelVO, rowNum, errors) -> {
+                String categoryCode = codeGetter.apply(excelVO);
+                String assetCategory = categoryGetter.apply(excelVO);
+                if (isBlank(categoryCode) || isBlank(assetCategory)) {
+                    return;
+                }
+                String legalCategory = categoryMap.get(categoryCode.trim());
+                if (legalCategory != null && !legalCategory.equals(assetCategory.trim())) {
+                    errors.add(rowNum, mismatch, categoryCode, legalCategory, assetCategory);
+                }
+            });
+        }
+
+        /**
+         * 枚举值校验（为空时不校验，由非空规则负责）
+         *
+         * @param legalValues 合法取值
+         * @param label 字段中文名（如"服务状态"）
+         */
+        public Builder<VO> oneOf(String field, Function<VO, String> getter, List<String> legalValues, String label) {
+            int illegal = error(field, label + "非法（仅允许：" + String.join("、", legalValues) + "）");
+            return rule((excelVO, rowNum, errors) -> {
+                String value = getter.apply(excelVO);
+                if (!isBlank(value) && !legalValues.contains(value.trim())) {
+                    errors.add(rowNum, illegal);
+                }
+            });
+        }
+
+        /**
+         * 日期下限校验（为空时不校验，由非空规则负责）
+         *
+         * @param minDate 最早允许的日期（编译时计算一次，不再逐行调用LocalDate.now()）
+         * @param label 字段中文名（如"投入使用日期"）
+         */
+        public Builder<VO> notBefore(String field, Function<VO, LocalDate> getter, LocalDate minDate, String label) {
+            int tooEarly = error(field, label + "非法（需>=" + minDate + "）");
+            return rule((excelVO, rowNum, errors) -> {
+                LocalDate value = getter.apply(excelVO);
+                if (value != null && value.isBefore(minDate)) {
+                    errors.add(rowNum, tooEarly);
+                }
+            });
+        }
+
+        public AssetRuleSet<VO> build() {
+            return new AssetRuleSet<>(errorFields, errorPatterns, rules);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.military.asset.listener.rule;
+
+import java.time.LocalDate;
+import java.util.function.Function;
+
+/**
+ * 按天编译的规则链缓存
+
+ * 日期类规则（如"投入使用日期不早于50年前"）的下限依赖当天日期，
+ * 规则链在当天首次使用时编译一次，日期变化后下一次获取时重新编译，
+ * 避免逐行调用LocalDate.now()，也避免长期运行的服务使用过期的日期下限
+ *
+ * @param <VO> Excel行对象类型
+ */
+public final class DailyRuleSet<VO> {
+
+    /**
+     * 规则链编译函数（参数为当天日期）
+     */
+    private final Function<LocalDate, AssetRuleSet<VO>> compiler;
+
+    private volatile Compiled<VO> current;
+
+    public DailyRuleSet(Function<LocalDate, AssetRuleSet<VO>> compiler) {
+        this.compiler = compiler;
+    }
+
+    /**
+     * 获取当天的规则链（并发下可能重复编译一次，结果等价，无需加锁）
+     */
+    public AssetRuleSet<VO> get() {
+        LocalDate today = LocalDate.now();
+        Compiled<VO> compiled = current;
+        if (compiled == null || !compiled.day().equals(today)) {
+            compiled = new Compiled<>(today, compiler.apply(today));
+            current = compiled;
+        }
+        return compiled.ruleSet();
+    }
+
+    private record Compiled<VO>(LocalDate day, AssetRuleSet<VO> ruleSet) {
+    }
+}
@@ -0,0 +1,252 @@
+package com.military.asset.listener.rule;
+
+import com.military.asset.vo.ExcelErrorVO;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * 导入错误缓冲区（延迟渲染）
+
+ * 作用：校验时只记录紧凑的"行号 + 错误码 + 参数"元组，不调用String.format、不创建ExcelErrorVO；
+ * 客户端查看错误详情时（响应序列化或分页读取）才按错误码对应的模板渲染为ExcelErrorVO
+
+ * 存储结构（均为可增长的数组，追加为均摊O(1)）：
+ * - 每条违规：rowNums[i]、codes[i]、argStarts[i]（参数在args中的起始下标）
+ * - 参数池：args，只保存对Excel行中已有字符串/数字对象的引用，不复制
+ * - 错误条目：entryStarts[k]，同一行连续的违规合并为一个条目（对应一个ExcelErrorVO）
+
+ * 已格式化的错误（关键字段不一致、系统异常等需要查库或罕见的路径）通过addRendered直接保存对象，
+ * 单独成为一个条目
+ */
+public class ImportErrorBuffer {
+
+    /**
+     * 已渲染条目的错误码（参数池中保存ExcelErrorVO本身）
+     */
+    private static final int RENDERED = -1;
+
+    private int[] rowNums = new int[16];
+    private int[] codes = new int[16];
+    private int[] argStarts = new int[16];
+    private int size;
+
+    private Object[] args = new Object[16];
+    private int argSize;
+
+    private int[] entryStarts = new int[16];
+    private int entryCount;
+
+    // ============================ 记录 ============================
+
+    public void add(int rowNum, int code) {
+        begin(rowNum, code);
+    }
+
+    public void add(int rowNum, int code, Object arg) {
+        begin(rowNum, code);
+        pushArg(arg);
+    }
+
+    public void add(int rowNum, int code, Object arg1, Object arg2) {
+        begin(rowNum, code);
+        pushArg(arg1);
+        pushArg(arg2);
+    }
+
+    public void add(int rowNum, int code, Object arg1, Object arg2, Object arg3) {
+        begin(rowNum, code);
+        pushArg(arg1);
+        pushArg(arg2);
+        pushArg(arg3);
+    }
+
+    /**
+     * 记录已格式化的错误（单独成为一个条目）
+     */
+    public void addRendered(int rowNum, ExcelErrorVO errorVO) {
+        begin(rowNum, RENDERED);
+        pushArg(errorVO);
+    }
+
+    /**
+     * 当前违规条数（用于判断一行校验是否产生了错误）
+     */
+    public int mark() {
+        return size;
+    }
+
+    /**
+     * 撤销mark之后记录的违规（一行校验中途异常时，丢弃该行已记录的部分错误）
+     */
+    public void truncate(int mark) {
+        if (mark >= size) {
+            return;
+        }
+        argSize = argStarts[mark];
+        size = mark;
+        while (entryCount > 0 && entryStarts[entryCount - 1] >= mark) {
+            entryCount--;
+        }
+    }
+
+    /**
+     * 追加另一个缓冲区的一个错误条目（并行校验的批次结果按行顺序逐行并入导入的主缓冲区）
+     *
+     * @param entry 条目下标（0 ~ other.size()-1）
+     */
+    public void appendEntry(ImportErrorBuffer other, int entry) {
+        int to = (entry + 1 < other.entryCount) ? other.entryStarts[entry + 1] : other.size;
+        for (int i = other.entryStarts[entry]; i < to; i++) {
+            begin(other.rowNums[i], other.codes[i]);
+            for (int a = other.argStarts[i]; a < other.argEnd(i); a++) {
+                pushArg(other.args[a]);
+            }
+        }
+    }
+
+    /**
+     * 错误条目数（即出错的行数）
+     */
+    public int size() {
+        return entryCount;
+    }
+
+    public boolean isEmpty() {
+        return entryCount == 0;
+    }
+
+    /**
+     * 按实际大小收缩内部数组（导入结束、结果需要长期保存时调用，之后仍可继续追加）
+     */
+    public void trimToSize() {
+        rowNums = Arrays.copyOf(rowNums, Math.max(size, 1));
+        codes = Arrays.copyOf(codes, Math.max(size, 1));
+        argStarts = Arrays.copyOf(argStarts, Math.max(size, 1));
+        args = Arrays.copyOf(args, Math.max(argSize, 1));
+        entryStarts = Arrays.copyOf(entryStarts, Math.max(entryCount, 1));
+    }
+
+    // ============================ 渲染 ============================
+
+    /**
+     * 渲染一个错误条目
+     *
+     * @param entry 条目下标（0 ~ size()-1）
+     * @param ruleSet 记录错误时使用的规则链（提供错误码对应的模板）
+     * @return 与原逐行格式化输出一致的错误对象
+     */
+    public ExcelErrorVO render(int entry, AssetRuleSet<?> ruleSet) {
+        int from = entryStarts[entry];
+        int to = (entry + 1 < entryCount) ? entryStarts[entry + 1] : size;
+        if (codes[from] == RENDERED) {
+            return (ExcelErrorVO) args[argStarts[from]];
+        }
+
+        StringBuilder errorFields = new StringBuilder();
+        StringBuilder errorMsg = new StringBuilder();
+        for (int i = from; i < to; i++) {
+            if (i > from) {
+                errorFields.append(',');
+            }
+            errorFields.append(ruleSet.fieldOf(codes[i]));
+            errorMsg.append(ruleSet.renderMessage(codes[i], rowNums[i],
+                    Arrays.copyOfRange(args, argStarts[i], argEnd(i))));
+        }
+        return AssetRuleSet.criticalError(rowNums[from], errorFields.toString(), errorMsg.toString());
+    }
+
+    /**
+     * 延迟渲染的错误列表视图（get时才渲染，subList分页只渲染当前页）
+     *
+     * @param head 列表开头的附加条目（如重复数据汇总信息），可为null
+     * @param ruleSet 记录错误时使用的规则链
+     */
+    public List<ExcelErrorVO> asList(ExcelErrorVO head, AssetRuleSet<?> ruleSet) {
+        return new RenderedList(this, head, ruleSet);
+    }
+
+    /**
+     * 转为适合长期保存的错误列表：asList视图收缩缓冲区后原样返回（仍延迟渲染），其他列表复制为只读列表
+     */
+    public static List<ExcelErrorVO> compact(List<ExcelErrorVO> errors) {
+        if (errors == null) {
+            return Collections.emptyList();
+        }
+        if (errors instanceof RenderedList rendered) {
+            rendered.buffer.trimToSize();
+            return rendered;
+        }
+        return List.copyOf(errors);
+    }
+
+    // ============================ 内部方法 ============================
+
+    private void begin(int rowNum, int code) {
+        boolean newEntry = size == 0 || code == RENDERED || codes[size - 1] == RENDERED
+                || rowNums[size - 1] != rowNum;
+        if (size == rowNums.length) {
+            int capacity = size << 1;
+            rowNums = Arrays.copyOf(rowNums, capacity);
+            codes = Arrays.copyOf(codes, capacity);
+            argStarts = Arrays.copyOf(argStarts, capacity);
+        }
+        if (newEntry) {
+            if (entryCount == entryStarts.length) {
+                entryStarts = Arrays.copyOf(entryStarts, entryCount << 1);
+            }
+            entryStarts[entryCount++] = size;
+        }
+        rowNums[size] = rowNum;
+        codes[size] = code;
+        argStarts[size] = argSize;
+        size++;
+    }
+
+    private void pushArg(Object arg) {
+        if (argSize == args.length) {
+            args = Arrays.copyOf(args, argSize << 1);
+        }
+        args[argSize++] = arg;
+    }
+
+    private int argEnd(int i) {
+        return (i + 1 < size) ? argStarts[i + 1] : argSize;
+    }
+
+    /**
+     * 延迟渲染的只读列表
+     */
+    private static final class RenderedList extends AbstractList<ExcelErrorVO> implements RandomAccess {
+
+        private final ImportErrorBuffer buffer;
+        private final ExcelErrorVO head;
+        private final AssetRuleSet<?> ruleSet;
+        private final int offset;
+        private final int size;
+
+        private RenderedList(ImportErrorBuffer buffer, ExcelErrorVO head, AssetRuleSet<?> ruleSet) {
+            this.buffer = buffer;
+            this.head = head;
+            this.ruleSet = ruleSet;
+            this.offset = (head != null) ? 1 : 0;
+            this.size = buffer.size() + offset;
+        }
+
+        @Override
+        public ExcelErrorVO get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            return (index < offset) ? head : buffer.render(index - offset, ruleSet);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
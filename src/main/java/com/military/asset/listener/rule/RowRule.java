@@ -0,0 +1,25 @@
+package com.military.asset.listener.rule;
+
+/**
+ * 单条行校验规则
+
+ * 约定：
+ * - 校验通过时什么都不做，不产生任何临时对象（常见的合法行只走这条路径）
+ * - 校验不通过时向errors记录"行号 + 错误码 + 参数"，不格式化错误描述
+ *   （错误码由AssetRuleSet.Builder注册，描述在客户端查看错误详情时才渲染）
+ * - 规则必须无状态，编译后被所有导入、所有校验线程共享
+ *
+ * @param <VO> Excel行对象类型
+ */
+@FunctionalInterface
+public interface RowRule<VO> {
+
+    /**
+     * 校验一行数据
+     *
+     * @param excelVO Excel行对象
+     * @param rowNum Excel行号
+     * @param errors 错误缓冲区（校验不通过时写入）
+     */
+    void check(VO excelVO, int rowNum, ImportErrorBuffer errors);
+}
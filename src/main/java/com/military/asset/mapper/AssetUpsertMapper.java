@@ -0,0 +1,36 @@
+package com.military.asset.mapper;
+
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+/**
+ * 资产批量新增或更新Mapper（注解SQL，无XML）
+ * 作用：更新模式导入中，关键字段/内容有变化的已存在行合并为一条多行 INSERT ... ON DUPLICATE KEY UPDATE 执行
+ * （新增行经资产服务的批量保存写入，不走本Mapper）
+
+ * 表名、列清单、更新子句均由AssetUpsertService根据实体元数据生成（不含用户输入），因此使用${}拼接
+ * 由 @MapperScan 统一扫描，不加 @Mapper 注解
+ */
+public interface AssetUpsertMapper {
+
+    /**
+     * 多行新增或更新（主键已存在时按更新子句更新，更新子句不包含主键和创建时间，创建时间保持首次导入时的值）
+     *
+     * @param table 目标表
+     * @param columns 列清单（逗号分隔）
+     * @param rows 每行的值（与columns一一对应）
+     * @param updates 更新子句（如 col = VALUES(col), ...）
+     * @return MySQL影响行数（新增计1，更新计2，仅供日志参考）
+     */
+    @Insert({"<script>",
+            "INSERT INTO ${table} (${columns}) VALUES",
+            "<foreach collection='rows' item='row' separator=','>",
+            "<foreach collection='row' item='value' open='(' separator=',' close=')'>#{value}</foreach>",
+            "</foreach>",
+            "ON DUPLICATE KEY UPDATE ${updates}",
+            "</script>"})
+    int upsertRows(@Param("table") String table, @Param("columns") String columns,
+                   @Param("rows") List<List<Object>> rows, @Param("updates") String updates);
+}
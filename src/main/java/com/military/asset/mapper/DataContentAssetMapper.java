@@ -2,9 +2,16 @@ package com.military.asset.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.military.asset.entity.DataContentAsset;
+import org.apache.ibatis.annotations.Options;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.ResultType;
 import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.session.ResultHandler;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -18,6 +25,7 @@ import java.util.List;
 
  * 新增功能：
  * - selectAllExistingAssets(): 查询所有完整资产对象，用于导入时关键字段比较
+ * - selectKeyFields(): 流式查询ID与关键字段，用于构建导入去重的指纹索引
  */
 public interface DataContentAssetMapper extends BaseMapper<DataContentAsset> {
 
@@ -72,4 +80,132 @@ public interface DataContentAssetMapper extends BaseMapper<DataContentAsset> {
      */
     @Select("SELECT * FROM data_content_asset")
     List<DataContentAsset> selectAllExistingAssets();
+
+    /**
+     * 流式查询所有数据内容资产的ID与关键字段（窄投影）
+
+     * 用途：构建导入去重用的关键字段指纹索引，替代selectAllExistingAssets()的全字段加载
+     * 性能考虑：
+     * - 只查询参与关键字段比较的列，不读取其余业务字段
+     * - fetchSize=Integer.MIN_VALUE 启用MySQL驱动逐行流式返回，由handler逐条消费，结果集不在内存中堆积
+     *
+     * @param handler 逐行结果处理器（只填充id和关键字段）
+     */
+    @Select("SELECT id, report_unit, asset_category, asset_name FROM data_content_asset")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    @ResultType(DataContentAsset.class)
+    void selectKeyFields(ResultHandler<DataContentAsset> handler);
+
+    /**
+     * 游标流式读取所有数据内容资产的ID
+
+     * 用途：布隆过滤器模式下构建ID过滤器（asset.import.index.mode=bloom），只读ID列，逐行消费不堆积
+     * 注意：游标在所在事务（SqlSession）结束前有效，调用方需在只读事务内遍历完毕
+     *
+     * @return ID游标
+     */
+    @Select("SELECT id FROM data_content_asset")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    Cursor<String> selectIdCursor();
+
+    /**
+     * 按ID批量查询数据内容资产的ID与关键字段（窄投影）
+     * 用途：布隆过滤器判定"可能存在"的ID按批确认，并取得关键字段用于指纹比较
+     *
+     * @param ids 资产ID（不能为空集合）
+     * @return 存在的记录（只填充id和关键字段）
+     */
+    @Select({"<script>",
+            "SELECT id, report_unit, asset_category, asset_name FROM data_content_asset WHERE id IN",
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>",
+            "</script>"})
+    List<DataContentAsset> selectKeyFieldsByIds(@Param("ids") Collection<String> ids);
+
+    /**
+     * 键集分页查询数据内容资产（按入库时间倒序，同一时间按ID倒序）
+
+     * 用途：列表分页接口，下一页从上一页最后一条记录之后继续，走 (create_time, id) 索引，深分页不扫描前面的行
+     * 查询条件为空时不过滤；afterCreateTime为空时查询第一页
+     *
+     * @param columns SELECT列清单（"*"或由FieldSelection按实体元数据生成，不含用户输入；须包含id和create_time）
+     * @param afterCreateTime 上一页最后一条记录的入库时间
+     * @param afterId 上一页最后一条记录的ID
+     * @param limit 最多返回条数（调用方多查1条判断是否还有下一页）
+     */
+    @Select({"<script>",
+            "SELECT ${columns} FROM data_content_asset",
+            "<where>",
+            "<if test='reportUnit != null'>AND report_unit = #{reportUnit}</if>",
+            "<if test='assetCategory != null'>AND asset_category = #{assetCategory}</if>",
+            "<if test='afterCreateTime != null'>",
+            "AND (create_time &lt; #{afterCreateTime} OR (create_time = #{afterCreateTime} AND id &lt; #{afterId}))",
+            "</if>",
+            "</where>",
+            "ORDER BY create_time DESC, id DESC LIMIT #{limit}",
+            "</script>"})
+    List<DataContentAsset> selectKeysetPage(@Param("columns") String columns,
+                                            @Param("reportUnit") String reportUnit,
+                                            @Param("assetCategory") String assetCategory,
+                                            @Param("afterCreateTime") LocalDateTime afterCreateTime,
+                                            @Param("afterId") String afterId,
+                                            @Param("limit") int limit);
+
+    /**
+     * 按ID查询数据内容资产的指定字段（fields=参数）
+     *
+     * @param columns SELECT列清单（由FieldSelection按实体元数据生成，不含用户输入）
+     * @param id 资产ID
+     * @return 只填充所选字段的资产对象，不存在时返回null
+     */
+    @Select("SELECT ${columns} FROM data_content_asset WHERE id = #{id}")
+    DataContentAsset selectColumnsById(@Param("columns") String columns, @Param("id") String id);
+
+    /**
+     * 组合查询数据内容资产的指定字段（fields=参数；查询条件为空时不过滤，按入库时间倒序）
+     *
+     * @param columns SELECT列清单（由FieldSelection按实体元数据生成，不含用户输入）
+     */
+    @Select({"<script>",
+            "SELECT ${columns} FROM data_content_asset",
+            "<where>",
+            "<if test='reportUnit != null'>AND report_unit = #{reportUnit}</if>",
+            "<if test='assetCategory != null'>AND asset_category = #{assetCategory}</if>",
+            "</where>",
+            "ORDER BY create_time DESC",
+            "</script>"})
+    List<DataContentAsset> selectColumnsByReportUnitAndCategory(@Param("columns") String columns,
+                                                                @Param("reportUnit") String reportUnit,
+                                                                @Param("assetCategory") String assetCategory);
+
+    /**
+     * 游标流式读取全部数据内容资产（导出用，按入库时间倒序）
+
+     * fetchSize=Integer.MIN_VALUE 启用MySQL驱动逐行流式返回，边读边写入Excel，结果集不在内存中堆积
+     * 注意：游标在所在事务（SqlSession）结束前有效，调用方需在只读事务内遍历完毕
+     *
+     * @return 完整资产游标
+     */
+    @Select("SELECT * FROM data_content_asset ORDER BY create_time DESC, id DESC")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    Cursor<DataContentAsset> selectExportCursor();
+
+    /**
+     * 游标流式组合查询数据内容资产（NDJSON列表接口用；查询条件为空时不过滤，按入库时间倒序）
+
+     * fetchSize=Integer.MIN_VALUE 启用MySQL驱动逐行流式返回，调用方需在只读事务内遍历完毕
+     *
+     * @param columns SELECT列清单（由FieldSelection按实体元数据生成，不含用户输入；全部字段时为*）
+     */
+    @Select({"<script>",
+            "SELECT ${columns} FROM data_content_asset",
+            "<where>",
+            "<if test='reportUnit != null'>AND report_unit = #{reportUnit}</if>",
+            "<if test='assetCategory != null'>AND asset_category = #{assetCategory}</if>",
+            "</where>",
+            "ORDER BY create_time DESC, id DESC",
+            "</script>"})
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    Cursor<DataContentAsset> selectCursorByReportUnitAndCategory(@Param("columns") String columns,
+                                                                 @Param("reportUnit") String reportUnit,
+                                                                 @Param("assetCategory") String assetCategory);
 }
\ No newline at end of file
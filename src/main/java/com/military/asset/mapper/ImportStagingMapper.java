@@ -0,0 +1,151 @@
+package com.military.asset.mapper;
+
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.ResultType;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.session.ResultHandler;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 导入暂存表Mapper（注解SQL，无XML）
+ * 作用：暂存表合并导入中，解析出的合法行先批量写入每个导入任务独立的暂存表，
+ * 再用集合SQL（暂存表与目标表关联）一次性完成重复分类和最终插入
+
+ * 暂存表结构：与目标表相同的业务列（CREATE TABLE LIKE），另加
+ * - excel_row_num：Excel行号（主键，原主键改为普通索引idx_stage_id，允许文件内ID重复）
+ * - merge_status：合并状态（0待插入 / 1系统已存在且关键字段一致 / 2系统已存在但关键字段不一致 / 3与文件内前一行ID重复）
+ * - duplicate_of：merge_status=3时为同ID首次出现的行号
+
+ * 表名、列名均由ImportStagingService根据实体元数据生成（不含用户输入），因此使用${}拼接
+ * 由 @MapperScan 统一扫描，不加 @Mapper 注解
+ */
+public interface ImportStagingMapper {
+
+    /**
+     * 合并状态：待插入
+     */
+    int STATUS_PENDING = 0;
+
+    /**
+     * 合并状态：系统已存在且关键字段一致（跳过）
+     */
+    int STATUS_SYSTEM_DUPLICATE = 1;
+
+    /**
+     * 合并状态：系统已存在但关键字段不一致（错误）
+     */
+    int STATUS_KEY_MISMATCH = 2;
+
+    /**
+     * 合并状态：与文件内前一行ID重复（错误）
+     */
+    int STATUS_FILE_DUPLICATE = 3;
+
+    /**
+     * 按目标表结构创建暂存表
+     */
+    @Update("CREATE TABLE ${stageTable} LIKE ${targetTable}")
+    void createStageTable(@Param("stageTable") String stageTable, @Param("targetTable") String targetTable);
+
+    /**
+     * 暂存表改为按Excel行号做主键，并增加合并状态列
+     */
+    @Update("ALTER TABLE ${stageTable} DROP PRIMARY KEY, "
+            + "ADD COLUMN excel_row_num INT NOT NULL FIRST, "
+            + "ADD COLUMN merge_status TINYINT NOT NULL DEFAULT 0, "
+            + "ADD COLUMN duplicate_of INT NULL, "
+            + "ADD PRIMARY KEY (excel_row_num), "
+            + "ADD INDEX idx_stage_id (${keyColumn})")
+    void prepareStageTable(@Param("stageTable") String stageTable, @Param("keyColumn") String keyColumn);
+
+    /**
+     * 多行INSERT写入暂存表
+     *
+     * @param columns 列清单（excel_row_num之后的业务列，逗号分隔）
+     * @param rows 每行的值（第一个值为Excel行号，其余与columns一一对应）
+     * @return 写入行数
+     */
+    @Insert({"<script>",
+            "INSERT INTO ${stageTable} (excel_row_num, ${columns}) VALUES",
+            "<foreach collection='rows' item='row' separator=','>",
+            "<foreach collection='row' item='value' open='(' separator=',' close=')'>#{value}</foreach>",
+            "</foreach>",
+            "</script>"})
+    int insertStageRows(@Param("stageTable") String stageTable, @Param("columns") String columns,
+                        @Param("rows") List<List<Object>> rows);
+
+    /**
+     * 标记目标表中已存在的ID：关键字段全部一致为1，否则为2
+     *
+     * @param keyMatch 关键字段逐列比较条件（s为暂存表，t为目标表）
+     * @return 标记行数
+     */
+    @Update("UPDATE ${stageTable} s JOIN ${targetTable} t ON t.${keyColumn} = s.${keyColumn} "
+            + "SET s.merge_status = IF(${keyMatch}, 1, 2)")
+    int markExistingRows(@Param("stageTable") String stageTable, @Param("targetTable") String targetTable,
+                         @Param("keyColumn") String keyColumn, @Param("keyMatch") String keyMatch);
+
+    /**
+     * 标记文件内ID重复的行：同ID只保留行号最小的一行，其余标记为3并记录首次出现的行号
+     *
+     * @return 标记行数
+     */
+    @Update("UPDATE ${stageTable} s JOIN ("
+            + "SELECT ${keyColumn} AS dup_id, MIN(excel_row_num) AS first_row FROM ${stageTable} "
+            + "WHERE merge_status = 0 GROUP BY ${keyColumn} HAVING COUNT(*) > 1"
+            + ") d ON d.dup_id = s.${keyColumn} "
+            + "SET s.merge_status = 3, s.duplicate_of = d.first_row "
+            + "WHERE s.merge_status = 0 AND s.excel_row_num > d.first_row")
+    int markFileDuplicateRows(@Param("stageTable") String stageTable, @Param("keyColumn") String keyColumn);
+
+    /**
+     * 流式查询未能插入的行（按Excel行号排序），关键字段冲突的行同时带出目标表中的关键字段
+     *
+     * @param keyColumns 关键字段列清单（暂存表列别名excel_属性名，目标表列别名system_属性名）
+     * @param handler 逐行结果处理器（列：excel_row_num、merge_status、duplicate_of、asset_id及关键字段）
+     */
+    @Select("SELECT s.excel_row_num, s.merge_status, s.duplicate_of, s.${keyColumn} AS asset_id, ${keyColumns} "
+            + "FROM ${stageTable} s LEFT JOIN ${targetTable} t "
+            + "ON s.merge_status = 2 AND t.${keyColumn} = s.${keyColumn} "
+            + "WHERE s.merge_status > 0 ORDER BY s.excel_row_num")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    @ResultType(Map.class)
+    void selectRejectedRows(@Param("stageTable") String stageTable, @Param("targetTable") String targetTable,
+                            @Param("keyColumn") String keyColumn, @Param("keyColumns") String keyColumns,
+                            ResultHandler<Map<String, Object>> handler);
+
+    /**
+     * 待插入的行一次性写入目标表
+     *
+     * @param columns 业务列清单（暂存表与目标表相同）
+     * @return 插入行数
+     */
+    @Insert("INSERT INTO ${targetTable} (${columns}) "
+            + "SELECT ${columns} FROM ${stageTable} WHERE merge_status = 0 ORDER BY excel_row_num")
+    int mergeIntoTarget(@Param("stageTable") String stageTable, @Param("targetTable") String targetTable,
+                        @Param("columns") String columns);
+
+    /**
+     * 流式查询已插入行的ID与关键字段（用于增量更新导入去重指纹索引）
+     *
+     * @param keyColumns 关键字段列清单（别名excel_属性名）
+     * @param handler 逐行结果处理器
+     */
+    @Select("SELECT s.${keyColumn} AS asset_id, ${keyColumns} FROM ${stageTable} s WHERE s.merge_status = 0")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    @ResultType(Map.class)
+    void selectMergedKeys(@Param("stageTable") String stageTable, @Param("keyColumn") String keyColumn,
+                          @Param("keyColumns") String keyColumns, ResultHandler<Map<String, Object>> handler);
+
+    /**
+     * 删除暂存表
+     */
+    @Update("DROP TABLE IF EXISTS ${stageTable}")
+    void dropStageTable(@Param("stageTable") String stageTable);
+}
@@ -0,0 +1,181 @@
+package com.military.asset.mapper;
+
+import com.military.asset.entity.SoftwareAsset;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.ResultType;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.session.ResultHandler;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 软件资产导入辅助查询Mapper（注解SQL，无XML）
+ * 作用：集中定义软件资产表（software_asset）上供导入去重等场景使用的窄投影/流式查询
+ * 与SoftwareAssetMapper关系：不继承BaseMapper，只补充导入相关的专用查询，不影响原有CRUD
+
+ * 由 @MapperScan 统一扫描，不加 @Mapper 注解
+ */
+public interface SoftwareAssetQueryMapper {
+
+    /**
+     * 流式查询所有软件资产的ID与关键字段（窄投影）
+
+     * 用途：构建导入去重用的关键字段指纹索引，替代全字段加载
+     * 性能考虑：
+     * - 只查询参与关键字段比较的列（上报单位、资产分类、资产名称）
+     * - fetchSize=Integer.MIN_VALUE 启用MySQL驱动逐行流式返回，由handler逐条消费，结果集不在内存中堆积
+     *
+     * @param handler 逐行结果处理器（只填充id和关键字段）
+     */
+    @Select("SELECT id, report_unit, asset_category, asset_name FROM software_asset")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    @ResultType(SoftwareAsset.class)
+    void selectKeyFields(ResultHandler<SoftwareAsset> handler);
+
+    /**
+     * 按ID查询完整软件资产
+     * 用途：指纹不一致时按需加载完整记录，用于错误信息中展示系统值
+     *
+     * @param id 资产ID
+     * @return 完整资产对象，不存在时返回null
+     */
+    @Select("SELECT * FROM software_asset WHERE id = #{id}")
+    SoftwareAsset selectFullById(@Param("id") String id);
+
+    /**
+     * 按ID批量查询完整软件资产
+     * 用途：更新模式导入时按批加载已存在的记录，判断每行是新增、更新还是未变化
+     *
+     * @param ids 资产ID（不能为空集合）
+     * @return 存在的完整资产对象（顺序不保证）
+     */
+    @Select({"<script>",
+            "SELECT * FROM software_asset WHERE id IN",
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>",
+            "</script>"})
+    List<SoftwareAsset> selectFullByIds(@Param("ids") Collection<String> ids);
+
+    /**
+     * 软件资产总条数（布隆过滤器按表规模确定位数组大小）
+     */
+    @Select("SELECT COUNT(*) FROM software_asset")
+    long selectRowCount();
+
+    /**
+     * 游标流式读取所有软件资产的ID
+
+     * 用途：布隆过滤器模式下构建ID过滤器（asset.import.index.mode=bloom），只读ID列，逐行消费不堆积
+     * 注意：游标在所在事务（SqlSession）结束前有效，调用方需在只读事务内遍历完毕
+     *
+     * @return ID游标
+     */
+    @Select("SELECT id FROM software_asset")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    Cursor<String> selectIdCursor();
+
+    /**
+     * 按ID批量查询软件资产的ID与关键字段（窄投影）
+     * 用途：布隆过滤器判定"可能存在"的ID按批确认，并取得关键字段用于指纹比较
+     *
+     * @param ids 资产ID（不能为空集合）
+     * @return 存在的记录（只填充id和关键字段）
+     */
+    @Select({"<script>",
+            "SELECT id, report_unit, asset_category, asset_name FROM software_asset WHERE id IN",
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>",
+            "</script>"})
+    List<SoftwareAsset> selectKeyFieldsByIds(@Param("ids") Collection<String> ids);
+
+    /**
+     * 键集分页查询软件资产（按入库时间倒序，同一时间按ID倒序）
+
+     * 用途：列表分页接口，下一页从上一页最后一条记录之后继续，走 (create_time, id) 索引，深分页不扫描前面的行
+     * 查询条件为空时不过滤；afterCreateTime为空时查询第一页
+     *
+     * @param columns SELECT列清单（"*"或由FieldSelection按实体元数据生成，不含用户输入；须包含id和create_time）
+     * @param afterCreateTime 上一页最后一条记录的入库时间
+     * @param afterId 上一页最后一条记录的ID
+     * @param limit 最多返回条数（调用方多查1条判断是否还有下一页）
+     */
+    @Select({"<script>",
+            "SELECT ${columns} FROM software_asset",
+            "<where>",
+            "<if test='reportUnit != null'>AND report_unit = #{reportUnit}</if>",
+            "<if test='assetCategory != null'>AND asset_category = #{assetCategory}</if>",
+            "<if test='afterCreateTime != null'>",
+            "AND (create_time &lt; #{afterCreateTime} OR (create_time = #{afterCreateTime} AND id &lt; #{afterId}))",
+            "</if>",
+            "</where>",
+            "ORDER BY create_time DESC, id DESC LIMIT #{limit}",
+            "</script>"})
+    List<SoftwareAsset> selectKeysetPage(@Param("columns") String columns,
+                                         @Param("reportUnit") String reportUnit,
+                                         @Param("assetCategory") String assetCategory,
+                                         @Param("afterCreateTime") LocalDateTime afterCreateTime,
+                                         @Param("afterId") String afterId,
+                                         @Param("limit") int limit);
+
+    /**
+     * 按ID查询软件资产的指定字段（fields=参数）
+     *
+     * @param columns SELECT列清单（由FieldSelection按实体元数据生成，不含用户输入）
+     * @param id 资产ID
+     * @return 只填充所选字段的资产对象，不存在时返回null
+     */
+    @Select("SELECT ${columns} FROM software_asset WHERE id = #{id}")
+    SoftwareAsset selectColumnsById(@Param("columns") String columns, @Param("id") String id);
+
+    /**
+     * 组合查询软件资产的指定字段（fields=参数；查询条件为空时不过滤，按入库时间倒序）
+     *
+     * @param columns SELECT列清单（由FieldSelection按实体元数据生成，不含用户输入）
+     */
+    @Select({"<script>",
+            "SELECT ${columns} FROM software_asset",
+            "<where>",
+            "<if test='reportUnit != null'>AND report_unit = #{reportUnit}</if>",
+            "<if test='assetCategory != null'>AND asset_category = #{assetCategory}</if>",
+            "</where>",
+            "ORDER BY create_time DESC",
+            "</script>"})
+    List<SoftwareAsset> selectColumnsByReportUnitAndCategory(@Param("columns") String columns,
+                                                             @Param("reportUnit") String reportUnit,
+                                                             @Param("assetCategory") String assetCategory);
+
+    /**
+     * 游标流式读取全部软件资产（导出用，按入库时间倒序）
+
+     * fetchSize=Integer.MIN_VALUE 启用MySQL驱动逐行流式返回，边读边写入Excel，结果集不在内存中堆积
+     * 注意：游标在所在事务（SqlSession）结束前有效，调用方需在只读事务内遍历完毕
+     *
+     * @return 完整资产游标
+     */
+    @Select("SELECT * FROM software_asset ORDER BY create_time DESC, id DESC")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    Cursor<SoftwareAsset> selectExportCursor();
+
+    /**
+     * 游标流式组合查询软件资产（NDJSON列表接口用；查询条件为空时不过滤，按入库时间倒序）
+
+     * fetchSize=Integer.MIN_VALUE 启用MySQL驱动逐行流式返回，调用方需在只读事务内遍历完毕
+     *
+     * @param columns SELECT列清单（由FieldSelection按实体元数据生成，不含用户输入；全部字段时为*）
+     */
+    @Select({"<script>",
+            "SELECT ${columns} FROM software_asset",
+            "<where>",
+            "<if test='reportUnit != null'>AND report_unit = #{reportUnit}</if>",
+            "<if test='assetCategory != null'>AND asset_category = #{assetCategory}</if>",
+            "</where>",
+            "ORDER BY create_time DESC, id DESC",
+            "</script>"})
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    Cursor<SoftwareAsset> selectCursorByReportUnitAndCategory(@Param("columns") String columns,
+                                                              @Param("reportUnit") String reportUnit,
+                                                              @Param("assetCategory") String assetCategory);
+}
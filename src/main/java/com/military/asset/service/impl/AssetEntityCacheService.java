@@ -0,0 +1,157 @@
+package com.military.asset.service.impl;
+
+import com.military.asset.entity.CyberAsset;
+import com.military.asset.entity.DataContentAsset;
+import com.military.asset.entity.SoftwareAsset;
+import com.military.asset.mapper.CyberAssetMapper;
+import com.military.asset.mapper.DataContentAssetMapper;
+import com.military.asset.mapper.SoftwareAssetQueryMapper;
+import com.military.asset.utils.EntityCache;
+import com.military.asset.vo.EntityCacheStatsVO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 资产详情缓存服务（三张资产表各一个读穿透缓存）
+
+ * 作用：前端反复请求同一批资产ID的详情，缓存命中时不访问数据库；
+ * 返回的是缓存中的同一个实体对象，调用方只能读取、不能修改
+
+ * 失效：由AssetFingerprintIndexService在新增、修改、删除、批量导入保存（含暂存表合并和更新模式）
+ * 后按ID通知本服务；对账发现直接改库造成的偏差时清空该表缓存，其余未通知到的改动最迟在过期后生效
+
+ * 配置项：
+ * - asset.query.cache.enabled：是否启用（默认true，关闭后直接查询数据库）
+ * - asset.query.cache.max-entries：每类资产最多缓存的条目数（默认10000）
+ * - asset.query.cache.ttl-seconds：条目过期时间（默认300秒）
+ * - asset.query.cache.negative-ttl-seconds：不存在ID的过期时间（默认30秒，0为不缓存不存在的ID）
+ */
+@Slf4j
+@Service
+public class AssetEntityCacheService {
+
+    private final SoftwareAssetQueryMapper softwareAssetQueryMapper;
+    private final CyberAssetMapper cyberAssetMapper;
+    private final DataContentAssetMapper dataContentAssetMapper;
+
+    /**
+     * 各表缓存（未启用时为null）
+     */
+    private final EntityCache<SoftwareAsset> softwareCache;
+    private final EntityCache<CyberAsset> cyberCache;
+    private final EntityCache<DataContentAsset> dataContentCache;
+
+    public AssetEntityCacheService(SoftwareAssetQueryMapper softwareAssetQueryMapper,
+                                   CyberAssetMapper cyberAssetMapper,
+                                   DataContentAssetMapper dataContentAssetMapper,
+                                   @Value("${asset.query.cache.enabled:true}") boolean enabled,
+                                   @Value("${asset.query.cache.max-entries:10000}") int maxEntries,
+                                   @Value("${asset.query.cache.ttl-seconds:300}") long ttlSeconds,
+                                   @Value("${asset.query.cache.negative-ttl-seconds:30}") long negativeTtlSeconds) {
+        this.softwareAssetQueryMapper = softwareAssetQueryMapper;
+        this.cyberAssetMapper = cyberAssetMapper;
+        this.dataContentAssetMapper = dataContentAssetMapper;
+        if (enabled) {
+            this.softwareCache = new EntityCache<>("软件资产", maxEntries, ttlSeconds, negativeTtlSeconds);
+            this.cyberCache = new EntityCache<>("网信资产", maxEntries, ttlSeconds, negativeTtlSeconds);
+            this.dataContentCache = new EntityCache<>("数据内容资产", maxEntries, ttlSeconds, negativeTtlSeconds);
+            log.info("资产详情缓存已启用：每类最多{}条，过期{}秒，不存在ID过期{}秒", maxEntries, ttlSeconds, negativeTtlSeconds);
+        } else {
+            this.softwareCache = null;
+            this.cyberCache = null;
+            this.dataContentCache = null;
+        }
+    }
+
+    // ============================ 读取 ============================
+
+    public SoftwareAsset getSoftware(String id) {
+        return (softwareCache != null)
+                ? softwareCache.get(id, softwareAssetQueryMapper::selectFullById)
+                : softwareAssetQueryMapper.selectFullById(id);
+    }
+
+    public CyberAsset getCyber(String id) {
+        return (cyberCache != null)
+                ? cyberCache.get(id, cyberAssetMapper::selectById)
+                : cyberAssetMapper.selectById(id);
+    }
+
+    public DataContentAsset getDataContent(String id) {
+        return (dataContentCache != null)
+                ? dataContentCache.get(id, dataContentAssetMapper::selectById)
+                : dataContentAssetMapper.selectById(id);
+    }
+
+    // ============================ 失效 ============================
+
+    public void invalidateSoftware(String id) {
+        if (softwareCache != null) {
+            softwareCache.invalidate(id);
+        }
+    }
+
+    public void invalidateCyber(String id) {
+        if (cyberCache != null) {
+            cyberCache.invalidate(id);
+        }
+    }
+
+    public void invalidateDataContent(String id) {
+        if (dataContentCache != null) {
+            dataContentCache.invalidate(id);
+        }
+    }
+
+    public void invalidateSoftware(Collection<String> ids) {
+        if (softwareCache != null) {
+            softwareCache.invalidateAll(ids);
+        }
+    }
+
+    public void invalidateCyber(Collection<String> ids) {
+        if (cyberCache != null) {
+            cyberCache.invalidateAll(ids);
+        }
+    }
+
+    public void invalidateDataContent(Collection<String> ids) {
+        if (dataContentCache != null) {
+            dataContentCache.invalidateAll(ids);
+        }
+    }
+
+    public void clearSoftware() {
+        if (softwareCache != null) {
+            softwareCache.clear();
+        }
+    }
+
+    public void clearCyber() {
+        if (cyberCache != null) {
+            cyberCache.clear();
+        }
+    }
+
+    public void clearDataContent() {
+        if (dataContentCache != null) {
+            dataContentCache.clear();
+        }
+    }
+
+    // ============================ 统计 ============================
+
+    /**
+     * 三个缓存的命中统计（未启用时为空列表）
+     */
+    public List<EntityCacheStatsVO> stats() {
+        if (softwareCache == null) {
+            return List.of();
+        }
+        return List.of(softwareCache.stats(), cyberCache.stats(), dataContentCache.stats());
+    }
+}
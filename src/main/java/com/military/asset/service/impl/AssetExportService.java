@@ -0,0 +1,137 @@
+package com.military.asset.service.impl;
+
+import com.alibaba.excel.EasyExcel;
+import com.alibaba.excel.ExcelWriter;
+import com.alibaba.excel.write.metadata.WriteSheet;
+import com.military.asset.mapper.CyberAssetMapper;
+import com.military.asset.mapper.DataContentAssetMapper;
+import com.military.asset.mapper.SoftwareAssetQueryMapper;
+import com.military.asset.vo.excel.CyberAssetExcelVO;
+import com.military.asset.vo.excel.DataContentAssetExcelVO;
+import com.military.asset.vo.excel.SoftwareAssetExcelVO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.beans.BeanUtils;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * 资产Excel导出服务（三张资产表共用）
+
+ * 作用：整表导出为与导入模板相同版式的xlsx，导出文件可直接修改后重新导入
+ * - 读取：Mapper游标逐行流式读取（MySQL驱动fetchSize=Integer.MIN_VALUE），结果集不在内存中堆积
+ * - 写出：以 templates/*_asset_template.xlsx 为模板（保留两行表头和列宽），数据从表头之后追加，
+ *   EasyExcel对xlsx模板使用SXSSF滑动窗口写出，已写出的行落盘后不再占用堆内存
+ * 因此内存占用只与批大小有关，不随表的条数增长
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AssetExportService {
+
+    /**
+     * 软件资产模板路径（与导入模板为同一文件）
+     */
+    private static final String SOFTWARE_TEMPLATE_PATH = "templates/software_asset_template.xlsx";
+
+    /**
+     * 网信资产模板路径
+     */
+    private static final String CYBER_TEMPLATE_PATH = "templates/cyber_asset_template.xlsx";
+
+    /**
+     * 数据内容资产模板路径
+     */
+    private static final String DATA_CONTENT_TEMPLATE_PATH = "templates/data_content_asset_template.xlsx";
+
+    /**
+     * 每批写出的行数
+     */
+    private static final int WRITE_BATCH_SIZE = 1000;
+
+    private final SoftwareAssetQueryMapper softwareAssetQueryMapper;
+    private final CyberAssetMapper cyberAssetMapper;
+    private final DataContentAssetMapper dataContentAssetMapper;
+    private final PlatformTransactionManager transactionManager;
+
+    public long exportSoftware(OutputStream out) {
+        return export("软件资产", SOFTWARE_TEMPLATE_PATH, SoftwareAssetExcelVO.class,
+                softwareAssetQueryMapper::selectExportCursor, out);
+    }
+
+    public long exportCyber(OutputStream out) {
+        return export("网信资产", CYBER_TEMPLATE_PATH, CyberAssetExcelVO.class,
+                cyberAssetMapper::selectExportCursor, out);
+    }
+
+    public long exportDataContent(OutputStream out) {
+        return export("数据内容资产", DATA_CONTENT_TEMPLATE_PATH, DataContentAssetExcelVO.class,
+                dataContentAssetMapper::selectExportCursor, out);
+    }
+
+    // ============================ 导出实现 ============================
+
+    /**
+     * 游标读取并按批写入模板工作簿
+
+     * 游标只在SqlSession存活期间有效，因此在只读事务内遍历；
+     * 输出流由调用方（响应）负责关闭，写出失败（客户端断开）时抛出UncheckedIOException终止遍历
+     *
+     * @param templatePath 模板路径（classpath）
+     * @param voClass Excel映射类（与导入使用的同一个类，列位置一致）
+     * @param exportCursor 打开导出游标
+     * @return 导出条数
+     */
+    private <E, V> long export(String assetType, String templatePath, Class<V> voClass,
+                               Supplier<Cursor<E>> exportCursor, OutputStream out) {
+        long start = System.currentTimeMillis();
+        long[] exported = {0};
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status -> {
+            try (InputStream template = new ClassPathResource(templatePath).getInputStream();
+                 Cursor<E> cursor = exportCursor.get()) {
+                ExcelWriter writer = EasyExcel.write(out, voClass)
+                        .withTemplate(template)
+                        .needHead(false)
+                        .autoCloseStream(false)
+                        .build();
+                try {
+                    WriteSheet sheet = EasyExcel.writerSheet(0).build();
+                    List<V> batch = new ArrayList<>(WRITE_BATCH_SIZE);
+                    for (E entity : cursor) {
+                        V row = BeanUtils.instantiateClass(voClass);
+                        BeanUtils.copyProperties(entity, row);
+                        batch.add(row);
+                        if (batch.size() >= WRITE_BATCH_SIZE) {
+                            writer.write(batch, sheet);
+                            exported[0] += batch.size();
+                            batch.clear();
+                        }
+                    }
+                    if (!batch.isEmpty()) {
+                        writer.write(batch, sheet);
+                        exported[0] += batch.size();
+                    }
+                } finally {
+                    writer.finish();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        log.info("{}导出完成：{}条，耗时{}ms", assetType, exported[0], System.currentTimeMillis() - start);
+        return exported[0];
+    }
+}
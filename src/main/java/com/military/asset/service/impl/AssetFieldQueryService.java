@@ -0,0 +1,61 @@
+package com.military.asset.service.impl;
+
+import com.military.asset.mapper.CyberAssetMapper;
+import com.military.asset.mapper.DataContentAssetMapper;
+import com.military.asset.mapper.SoftwareAssetQueryMapper;
+import com.military.asset.utils.FieldSelection;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 指定字段查询服务（详情与组合查询接口的fields=参数）
+
+ * 作用：只查询所选列（SELECT列清单由FieldSelection生成），并按所选字段返回，
+ * 列表页只展示少数几列时不读取、不传输长文本列；未指定fields时接口仍走原有的全字段查询
+ */
+@Service
+@RequiredArgsConstructor
+public class AssetFieldQueryService {
+
+    private final SoftwareAssetQueryMapper softwareAssetQueryMapper;
+    private final CyberAssetMapper cyberAssetMapper;
+    private final DataContentAssetMapper dataContentAssetMapper;
+
+    public Map<String, Object> getSoftware(String id, FieldSelection selection) {
+        return selection.project(softwareAssetQueryMapper.selectColumnsById(selection.sqlColumns(), id));
+    }
+
+    public List<Map<String, Object>> listSoftware(String reportUnit, String assetCategory, FieldSelection selection) {
+        return selection.project(softwareAssetQueryMapper.selectColumnsByReportUnitAndCategory(
+                selection.sqlColumns(), trimToNull(reportUnit), trimToNull(assetCategory)));
+    }
+
+    public Map<String, Object> getCyber(String id, FieldSelection selection) {
+        return selection.project(cyberAssetMapper.selectColumnsById(selection.sqlColumns(), id));
+    }
+
+    public List<Map<String, Object>> listCyber(String reportUnit, String assetCategory, FieldSelection selection) {
+        return selection.project(cyberAssetMapper.selectColumnsByReportUnitAndCategory(
+                selection.sqlColumns(), trimToNull(reportUnit), trimToNull(assetCategory)));
+    }
+
+    public Map<String, Object> getDataContent(String id, FieldSelection selection) {
+        return selection.project(dataContentAssetMapper.selectColumnsById(selection.sqlColumns(), id));
+    }
+
+    public List<Map<String, Object>> listDataContent(String reportUnit, String assetCategory,
+                                                     FieldSelection selection) {
+        return selection.project(dataContentAssetMapper.selectColumnsByReportUnitAndCategory(
+                selection.sqlColumns(), trimToNull(reportUnit), trimToNull(assetCategory)));
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return value.trim();
+    }
+}
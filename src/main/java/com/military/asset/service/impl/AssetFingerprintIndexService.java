@@ -0,0 +1,485 @@
+package com.military.asset.service.impl;
+
+import com.military.asset.entity.CyberAsset;
+import com.military.asset.entity.DataContentAsset;
+import com.military.asset.entity.SoftwareAsset;
+import com.military.asset.listener.CyberAssetExcelListener;
+import com.military.asset.listener.DataContentAssetExcelListener;
+import com.military.asset.listener.SoftwareAssetExcelListener;
+import com.military.asset.mapper.CyberAssetMapper;
+import com.military.asset.mapper.DataContentAssetMapper;
+import com.military.asset.mapper.SoftwareAssetQueryMapper;
+import com.military.asset.utils.AssetFingerprintIndex;
+import com.military.asset.utils.BloomAssetFingerprintIndex;
+import com.military.asset.utils.IdBloomFilter;
+import com.military.asset.vo.excel.CyberAssetExcelVO;
+import com.military.asset.vo.excel.DataContentAssetExcelVO;
+import com.military.asset.vo.excel.SoftwareAssetExcelVO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 导入去重指纹索引服务（常驻内存、增量维护）
+
+ * 作用：替代getExistingAssetsMap()的"SELECT *"全量加载，
+ * 通过窄投影流式查询构建"ID → 关键字段指纹"索引，完整记录仅在指纹不一致时按ID懒加载
+
+ * 生命周期：
+ * 1. 启动预热：应用就绪后加载三张表的索引，之后所有导入共享同一份索引（预加载阶段O(1)）
+ * 2. 增量维护：新增、修改、删除、批量导入保存成功后，由调用方通知本服务就地更新（同时使资产详情缓存中的对应ID失效）
+ * 3. 定时对账：按asset.import.index.reconcile-interval-ms周期重新加载快照，修正漏更新或直接改库造成的偏差
+
+ * 内存对比（每条记录）：
+ * - 原方案：完整实体对象（20+个字段，约1~2KB）
+ * - 指纹索引：ID字符串 + 一个Long（约100B）
+ * - 布隆过滤器（asset.import.index.mode=bloom）：约10bit（误判率1%），可能存在的ID导入时按批 WHERE id IN 确认
+
+ * 布隆过滤器模式：启动时COUNT确定位数组大小，用MyBatis游标在只读事务中流式读取全部ID构建过滤器；
+ * 定时对账改为重建过滤器（清除已删除的ID）
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AssetFingerprintIndexService {
+
+    private final SoftwareAssetQueryMapper softwareAssetQueryMapper;
+    private final CyberAssetMapper cyberAssetMapper;
+    private final DataContentAssetMapper dataContentAssetMapper;
+    private final PlatformTransactionManager transactionManager;
+    private final AssetEntityCacheService assetEntityCacheService;
+
+    /**
+     * 索引模式：fingerprint（默认，常驻"ID → 关键字段指纹"）/ bloom（只常驻ID布隆过滤器，适用于千万级大表）
+     */
+    @Value("${asset.import.index.mode:fingerprint}")
+    private String indexMode;
+
+    /**
+     * 布隆过滤器期望误判率（误判只增加批量确认查询中的ID数，不影响判重结果）
+     */
+    @Value("${asset.import.index.bloom.false-positive-rate:0.01}")
+    private double bloomFalsePositiveRate;
+
+    /**
+     * 布隆过滤器模式下每次 WHERE id IN 确认的最大ID数（同时为监听器按批校验的行数）
+     */
+    @Value("${asset.import.index.bloom.lookup-batch-size:500}")
+    private int bloomLookupBatchSize;
+
+    private volatile AssetFingerprintIndex<SoftwareAsset> softwareIndex;
+    private volatile AssetFingerprintIndex<CyberAsset> cyberIndex;
+    private volatile AssetFingerprintIndex<DataContentAsset> dataContentIndex;
+
+    /**
+     * 数据版本：新增、修改、删除、更新模式导入修改已存在记录或对账发现偏差时递增（批量导入只新增记录时不递增），
+     * 导入结果复用据此判断两次导入之间表数据是否被改动过
+     */
+    private final AtomicLong softwareDataVersion = new AtomicLong();
+    private final AtomicLong cyberDataVersion = new AtomicLong();
+    private final AtomicLong dataContentDataVersion = new AtomicLong();
+
+    // ============================ 启动预热 ============================
+
+    /**
+     * 应用就绪后预热三张表的索引（失败不影响启动，首次导入时再加载）
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            getSoftwareIndex();
+            getCyberIndex();
+            getDataContentIndex();
+            log.info("导入去重指纹索引预热完成");
+        } catch (Exception e) {
+            log.error("导入去重指纹索引预热失败，将在首次导入时重新加载: {}", e.getMessage(), e);
+        }
+    }
+
+    // ============================ 索引获取 ============================
+
+    /**
+     * 获取软件资产指纹索引（关键字段：上报单位、资产分类、资产名称）
+     */
+    public AssetFingerprintIndex<SoftwareAsset> getSoftwareIndex() {
+        if (softwareIndex == null) {
+            synchronized (this) {
+                if (softwareIndex == null) {
+                    softwareIndex = isBloomMode()
+                            ? new BloomAssetFingerprintIndex<>(loadSoftwareIdFilter(), this::loadSoftwareIdFilter,
+                                    this::lookupSoftwareFingerprints, softwareAssetQueryMapper::selectFullById,
+                                    bloomLookupBatchSize)
+                            : new AssetFingerprintIndex<>(loadSoftwareFingerprints(),
+                                    softwareAssetQueryMapper::selectFullById, this::loadSoftwareFingerprints);
+                }
+            }
+        }
+        return softwareIndex;
+    }
+
+    /**
+     * 获取网信资产指纹索引（关键字段：上报单位、资产分类、资产名称、资产内容）
+     */
+    public AssetFingerprintIndex<CyberAsset> getCyberIndex() {
+        if (cyberIndex == null) {
+            synchronized (this) {
+                if (cyberIndex == null) {
+                    cyberIndex = isBloomMode()
+                            ? new BloomAssetFingerprintIndex<>(loadCyberIdFilter(), this::loadCyberIdFilter,
+                                    this::lookupCyberFingerprints, cyberAssetMapper::selectById, bloomLookupBatchSize)
+                            : new AssetFingerprintIndex<>(loadCyberFingerprints(), cyberAssetMapper::selectById,
+                                    this::loadCyberFingerprints);
+                }
+            }
+        }
+        return cyberIndex;
+    }
+
+    /**
+     * 获取数据内容资产指纹索引（关键字段：上报单位、资产分类、资产名称）
+     */
+    public AssetFingerprintIndex<DataContentAsset> getDataContentIndex() {
+        if (dataContentIndex == null) {
+            synchronized (this) {
+                if (dataContentIndex == null) {
+                    dataContentIndex = isBloomMode()
+                            ? new BloomAssetFingerprintIndex<>(loadDataContentIdFilter(), this::loadDataContentIdFilter,
+                                    this::lookupDataContentFingerprints, dataContentAssetMapper::selectById,
+                                    bloomLookupBatchSize)
+                            : new AssetFingerprintIndex<>(loadDataContentFingerprints(),
+                                    dataContentAssetMapper::selectById, this::loadDataContentFingerprints);
+                }
+            }
+        }
+        return dataContentIndex;
+    }
+
+    // ============================ 增量维护 ============================
+
+    /**
+     * 软件资产新增/修改成功后刷新索引（从库中重新读取，保证与实际保存的关键字段一致）
+     * 刷新失败只记录告警，不影响业务操作结果，由定时对账兜底
+     */
+    public void refreshSoftware(String id) {
+        softwareDataVersion.incrementAndGet();
+        assetEntityCacheService.invalidateSoftware(id);
+        AssetFingerprintIndex<SoftwareAsset> index = softwareIndex;
+        if (index == null || id == null) {
+            return;
+        }
+        try {
+            SoftwareAsset asset = softwareAssetQueryMapper.selectFullById(id);
+            if (asset == null) {
+                index.remove(id);
+            } else {
+                index.put(id, SoftwareAssetExcelListener.keyFingerprint(asset));
+            }
+        } catch (Exception e) {
+            log.warn("软件资产指纹索引刷新失败，ID：{}，等待定时对账修正: {}", id, e.getMessage());
+        }
+    }
+
+    public void refreshCyber(String id) {
+        cyberDataVersion.incrementAndGet();
+        assetEntityCacheService.invalidateCyber(id);
+        AssetFingerprintIndex<CyberAsset> index = cyberIndex;
+        if (index == null || id == null) {
+            return;
+        }
+        try {
+            CyberAsset asset = cyberAssetMapper.selectById(id);
+            if (asset == null) {
+                index.remove(id);
+            } else {
+                index.put(id, CyberAssetExcelListener.keyFingerprint(asset));
+            }
+        } catch (Exception e) {
+            log.warn("网信资产指纹索引刷新失败，ID：{}，等待定时对账修正: {}", id, e.getMessage());
+        }
+    }
+
+    public void refreshDataContent(String id) {
+        dataContentDataVersion.incrementAndGet();
+        assetEntityCacheService.invalidateDataContent(id);
+        AssetFingerprintIndex<DataContentAsset> index = dataContentIndex;
+        if (index == null || id == null) {
+            return;
+        }
+        try {
+            DataContentAsset asset = dataContentAssetMapper.selectById(id);
+            if (asset == null) {
+                index.remove(id);
+            } else {
+                index.put(id, DataContentAssetExcelListener.keyFingerprint(asset));
+            }
+        } catch (Exception e) {
+            log.warn("数据内容资产指纹索引刷新失败，ID：{}，等待定时对账修正: {}", id, e.getMessage());
+        }
+    }
+
+    public void removeSoftware(String id) {
+        softwareDataVersion.incrementAndGet();
+        assetEntityCacheService.invalidateSoftware(id);
+        AssetFingerprintIndex<SoftwareAsset> index = softwareIndex;
+        if (index != null && id != null) {
+            index.remove(id);
+        }
+    }
+
+    public void removeCyber(String id) {
+        cyberDataVersion.incrementAndGet();
+        assetEntityCacheService.invalidateCyber(id);
+        AssetFingerprintIndex<CyberAsset> index = cyberIndex;
+        if (index != null && id != null) {
+            index.remove(id);
+        }
+    }
+
+    public void removeDataContent(String id) {
+        dataContentDataVersion.incrementAndGet();
+        assetEntityCacheService.invalidateDataContent(id);
+        AssetFingerprintIndex<DataContentAsset> index = dataContentIndex;
+        if (index != null && id != null) {
+            index.remove(id);
+        }
+    }
+
+    /**
+     * 软件资产批量导入保存成功后更新索引（直接用Excel行计算指纹，不回查数据库）
+     */
+    public void onSoftwareBatchSaved(List<SoftwareAssetExcelVO> savedList) {
+        assetEntityCacheService.invalidateSoftware(savedIds(savedList, SoftwareAssetExcelVO::getId));
+        AssetFingerprintIndex<SoftwareAsset> index = softwareIndex;
+        if (index == null) {
+            return;
+        }
+        for (SoftwareAssetExcelVO excelVO : savedList) {
+            index.put(excelVO.getId().trim(), SoftwareAssetExcelListener.keyFingerprint(excelVO));
+        }
+    }
+
+    public void onCyberBatchSaved(List<CyberAssetExcelVO> savedList) {
+        assetEntityCacheService.invalidateCyber(savedIds(savedList, CyberAssetExcelVO::getId));
+        AssetFingerprintIndex<CyberAsset> index = cyberIndex;
+        if (index == null) {
+            return;
+        }
+        for (CyberAssetExcelVO excelVO : savedList) {
+            index.put(excelVO.getId().trim(), CyberAssetExcelListener.keyFingerprint(excelVO));
+        }
+    }
+
+    public void onDataContentBatchSaved(List<DataContentAssetExcelVO> savedList) {
+        assetEntityCacheService.invalidateDataContent(savedIds(savedList, DataContentAssetExcelVO::getId));
+        AssetFingerprintIndex<DataContentAsset> index = dataContentIndex;
+        if (index == null) {
+            return;
+        }
+        for (DataContentAssetExcelVO excelVO : savedList) {
+            index.put(excelVO.getId().trim(), DataContentAssetExcelListener.keyFingerprint(excelVO));
+        }
+    }
+
+    /**
+     * 更新模式导入修改了已存在的记录后递增数据版本（批量保存只新增记录时不递增）
+     */
+    public void onSoftwareRowsUpdated() {
+        softwareDataVersion.incrementAndGet();
+    }
+
+    public void onCyberRowsUpdated() {
+        cyberDataVersion.incrementAndGet();
+    }
+
+    public void onDataContentRowsUpdated() {
+        dataContentDataVersion.incrementAndGet();
+    }
+
+    private static <VO> List<String> savedIds(List<VO> savedList, Function<VO, String> idGetter) {
+        List<String> ids = new ArrayList<>(savedList.size());
+        for (VO excelVO : savedList) {
+            ids.add(idGetter.apply(excelVO).trim());
+        }
+        return ids;
+    }
+
+    public long getSoftwareDataVersion() {
+        return softwareDataVersion.get();
+    }
+
+    public long getCyberDataVersion() {
+        return cyberDataVersion.get();
+    }
+
+    public long getDataContentDataVersion() {
+        return dataContentDataVersion.get();
+    }
+
+    // ============================ 定时对账 ============================
+
+    /**
+     * 定时对账：重新加载三张表的快照修正索引偏差（默认每10分钟；布隆过滤器模式下重建过滤器）
+     * 各表分别处理，一张表的快照加载失败时放弃该表本次对账，不影响其他表
+     */
+    @Scheduled(initialDelayString = "${asset.import.index.reconcile-interval-ms:600000}",
+            fixedDelayString = "${asset.import.index.reconcile-interval-ms:600000}")
+    public void reconcile() {
+        if (reconcileTable("软件资产", softwareIndex) > 0) {
+            softwareDataVersion.incrementAndGet();
+            assetEntityCacheService.clearSoftware();
+        }
+        if (reconcileTable("网信资产", cyberIndex) > 0) {
+            cyberDataVersion.incrementAndGet();
+            assetEntityCacheService.clearCyber();
+        }
+        if (reconcileTable("数据内容资产", dataContentIndex) > 0) {
+            dataContentDataVersion.incrementAndGet();
+            assetEntityCacheService.clearDataContent();
+        }
+    }
+
+    /**
+     * 对账一张表的索引（索引尚未加载时跳过）
+     *
+     * @return 修正条数（失败或布隆过滤器重建时为0）
+     */
+    private int reconcileTable(String assetType, AssetFingerprintIndex<?> index) {
+        if (index == null) {
+            return 0;
+        }
+        try {
+            int corrected = index.reconcile();
+            log.info("{}导入去重索引对账完成，修正{}条", assetType, corrected);
+            return corrected;
+        } catch (Exception e) {
+            log.error("{}导入去重索引对账失败，下个周期重试: {}", assetType, e.getMessage(), e);
+            return 0;
+        }
+    }
+
+    // ============================ 快照加载 ============================
+
+    private Map<String, Long> loadSoftwareFingerprints() {
+        long start = System.currentTimeMillis();
+        Map<String, Long> fingerprints = new ConcurrentHashMap<>();
+        softwareAssetQueryMapper.selectKeyFields(context -> {
+            SoftwareAsset asset = context.getResultObject();
+            fingerprints.put(asset.getId(), SoftwareAssetExcelListener.keyFingerprint(asset));
+        });
+        log.info("软件资产指纹快照加载完成：{}条，耗时{}ms", fingerprints.size(), System.currentTimeMillis() - start);
+        return fingerprints;
+    }
+
+    private Map<String, Long> loadCyberFingerprints() {
+        long start = System.currentTimeMillis();
+        Map<String, Long> fingerprints = new ConcurrentHashMap<>();
+        cyberAssetMapper.selectKeyFields(context -> {
+            CyberAsset asset = context.getResultObject();
+            fingerprints.put(asset.getId(), CyberAssetExcelListener.keyFingerprint(asset));
+        });
+        log.info("网信资产指纹快照加载完成：{}条，耗时{}ms", fingerprints.size(), System.currentTimeMillis() - start);
+        return fingerprints;
+    }
+
+    private Map<String, Long> loadDataContentFingerprints() {
+        long start = System.currentTimeMillis();
+        Map<String, Long> fingerprints = new ConcurrentHashMap<>();
+        dataContentAssetMapper.selectKeyFields(context -> {
+            DataContentAsset asset = context.getResultObject();
+            fingerprints.put(asset.getId(), DataContentAssetExcelListener.keyFingerprint(asset));
+        });
+        log.info("数据内容资产指纹快照加载完成：{}条，耗时{}ms", fingerprints.size(), System.currentTimeMillis() - start);
+        return fingerprints;
+    }
+
+    // ============================ 布隆过滤器模式 ============================
+
+    private boolean isBloomMode() {
+        return "bloom".equalsIgnoreCase(indexMode);
+    }
+
+    private IdBloomFilter loadSoftwareIdFilter() {
+        return loadIdFilter("软件资产", softwareAssetQueryMapper.selectRowCount(),
+                softwareAssetQueryMapper::selectIdCursor);
+    }
+
+    private IdBloomFilter loadCyberIdFilter() {
+        return loadIdFilter("网信资产", cyberAssetMapper.selectCount(null), cyberAssetMapper::selectIdCursor);
+    }
+
+    private IdBloomFilter loadDataContentIdFilter() {
+        return loadIdFilter("数据内容资产", dataContentAssetMapper.selectCount(null),
+                dataContentAssetMapper::selectIdCursor);
+    }
+
+    /**
+     * 用游标流式读取全部ID构建布隆过滤器
+
+     * 位数组按当前条数再预留50%（至少10万条）余量，供两次重建之间的新增使用；
+     * 游标只在SqlSession存活期间有效，因此在只读事务内遍历
+     *
+     * @param rowCount 表当前条数
+     * @param idCursor 打开ID游标
+     */
+    private IdBloomFilter loadIdFilter(String assetType, long rowCount, Supplier<Cursor<String>> idCursor) {
+        long start = System.currentTimeMillis();
+        IdBloomFilter filter = new IdBloomFilter(rowCount + Math.max(rowCount / 2, 100_000), bloomFalsePositiveRate);
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status -> {
+            try (Cursor<String> cursor = idCursor.get()) {
+                for (String id : cursor) {
+                    filter.put(id);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        log.info("{}ID布隆过滤器构建完成：{}条，占用{}KB，哈希{}次，耗时{}ms", assetType, filter.getInsertions(),
+                filter.getSizeInBytes() / 1024, filter.getHashCount(), System.currentTimeMillis() - start);
+        return filter;
+    }
+
+    private Map<String, Long> lookupSoftwareFingerprints(Collection<String> ids) {
+        Map<String, Long> fingerprints = new HashMap<>();
+        for (SoftwareAsset asset : softwareAssetQueryMapper.selectKeyFieldsByIds(ids)) {
+            fingerprints.put(asset.getId(), SoftwareAssetExcelListener.keyFingerprint(asset));
+        }
+        return fingerprints;
+    }
+
+    private Map<String, Long> lookupCyberFingerprints(Collection<String> ids) {
+        Map<String, Long> fingerprints = new HashMap<>();
+        for (CyberAsset asset : cyberAssetMapper.selectKeyFieldsByIds(ids)) {
+            fingerprints.put(asset.getId(), CyberAssetExcelListener.keyFingerprint(asset));
+        }
+        return fingerprints;
+    }
+
+    private Map<String, Long> lookupDataContentFingerprints(Collection<String> ids) {
+        Map<String, Long> fingerprints = new HashMap<>();
+        for (DataContentAsset asset : dataContentAssetMapper.selectKeyFieldsByIds(ids)) {
+            fingerprints.put(asset.getId(), DataContentAssetExcelListener.keyFingerprint(asset));
+        }
+        return fingerprints;
+    }
+}
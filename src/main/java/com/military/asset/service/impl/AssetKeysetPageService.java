@@ -0,0 +1,134 @@
+package com.military.asset.service.impl;
+
+import com.military.asset.entity.CyberAsset;
+import com.military.asset.entity.DataContentAsset;
+import com.military.asset.entity.SoftwareAsset;
+import com.military.asset.mapper.CyberAssetMapper;
+import com.military.asset.mapper.DataContentAssetMapper;
+import com.military.asset.mapper.SoftwareAssetQueryMapper;
+import com.military.asset.utils.FieldSelection;
+import com.military.asset.utils.KeysetCursor;
+import com.military.asset.vo.CursorPageVO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 资产列表键集分页服务（三张资产表共用）
+
+ * 作用：组合查询接口不带条件时返回整张表，数据量大时响应体和数据库压力都随表增长；
+ * 分页接口按 create_time DESC, id DESC 排序，每页多查1条判断是否还有下一页，
+ * 下一页从上一页最后一条记录之后继续，深分页与第一页代价相同（建议在各表建 (create_time, id) 联合索引）
+
+ * 指定fields时只查询所选字段（另加游标所需的create_time），记录仍为实体，由调用方按所选字段序列化
+
+ * 配置项：
+ * - asset.query.page.default-size：未指定size时的每页条数（默认100）
+ * - asset.query.page.max-size：每页条数上限（默认1000，与分页插件单页上限一致）
+ */
+@Slf4j
+@Service
+public class AssetKeysetPageService {
+
+    private final SoftwareAssetQueryMapper softwareAssetQueryMapper;
+    private final CyberAssetMapper cyberAssetMapper;
+    private final DataContentAssetMapper dataContentAssetMapper;
+
+    private final int defaultSize;
+
+    private final int maxSize;
+
+    public AssetKeysetPageService(SoftwareAssetQueryMapper softwareAssetQueryMapper,
+                                  CyberAssetMapper cyberAssetMapper,
+                                  DataContentAssetMapper dataContentAssetMapper,
+                                  @Value("${asset.query.page.default-size:100}") int defaultSize,
+                                  @Value("${asset.query.page.max-size:1000}") int maxSize) {
+        this.softwareAssetQueryMapper = softwareAssetQueryMapper;
+        this.cyberAssetMapper = cyberAssetMapper;
+        this.dataContentAssetMapper = dataContentAssetMapper;
+        this.maxSize = Math.max(maxSize, 1);
+        this.defaultSize = Math.min(Math.max(defaultSize, 1), this.maxSize);
+    }
+
+    public CursorPageVO<SoftwareAsset> pageSoftware(String reportUnit, String assetCategory,
+                                                    String cursor, Integer size, FieldSelection selection) {
+        return page(reportUnit, assetCategory, cursor, size, selection, softwareAssetQueryMapper::selectKeysetPage,
+                SoftwareAsset::getCreateTime, SoftwareAsset::getId);
+    }
+
+    public CursorPageVO<CyberAsset> pageCyber(String reportUnit, String assetCategory,
+                                              String cursor, Integer size, FieldSelection selection) {
+        return page(reportUnit, assetCategory, cursor, size, selection, cyberAssetMapper::selectKeysetPage,
+                CyberAsset::getCreateTime, CyberAsset::getId);
+    }
+
+    public CursorPageVO<DataContentAsset> pageDataContent(String reportUnit, String assetCategory,
+                                                          String cursor, Integer size, FieldSelection selection) {
+        return page(reportUnit, assetCategory, cursor, size, selection, dataContentAssetMapper::selectKeysetPage,
+                DataContentAsset::getCreateTime, DataContentAsset::getId);
+    }
+
+    // ============================ 分页实现 ============================
+
+    /**
+     * 键集分页查询（Mapper方法签名一致）
+     */
+    @FunctionalInterface
+    private interface KeysetQuery<E> {
+        List<E> select(String columns, String reportUnit, String assetCategory, LocalDateTime afterCreateTime,
+                       String afterId, int limit);
+    }
+
+    private <E> CursorPageVO<E> page(String reportUnit, String assetCategory, String cursor, Integer size,
+                                     FieldSelection selection, KeysetQuery<E> query, Function<E, LocalDateTime> createTimeGetter,
+                                     Function<E, String> idGetter) {
+        String unit = trimToNull(reportUnit);
+        String category = trimToNull(assetCategory);
+        int pageSize = resolveSize(size);
+        String filterKey = unit + "\u0000" + category;
+
+        KeysetCursor after = (cursor == null || cursor.isBlank())
+                ? null : KeysetCursor.decode(cursor.trim(), filterKey);
+        String columns = (selection != null) ? selection.sqlColumns("createTime") : "*";
+        List<E> records = query.select(columns, unit, category,
+                (after != null) ? after.getCreateTime() : null, (after != null) ? after.getId() : null,
+                pageSize + 1);
+
+        CursorPageVO<E> page = new CursorPageVO<>();
+        page.setSize(pageSize);
+        page.setHasMore(records.size() > pageSize);
+        if (page.isHasMore()) {
+            records = records.subList(0, pageSize);
+            E last = records.get(pageSize - 1);
+            LocalDateTime createTime = createTimeGetter.apply(last);
+            if (createTime == null) {
+                // create_time由插入自动填充且有数据库默认值，为空说明数据被绕过应用写入
+                throw new IllegalStateException("资产" + idGetter.apply(last) + "缺少入库时间，无法生成分页游标");
+            }
+            page.setNextCursor(new KeysetCursor(createTime, idGetter.apply(last)).encode(filterKey));
+        }
+        page.setRecords(records);
+        return page;
+    }
+
+    private int resolveSize(Integer size) {
+        if (size == null) {
+            return defaultSize;
+        }
+        if (size <= 0) {
+            throw new IllegalArgumentException("每页条数必须大于0");
+        }
+        return Math.min(size, maxSize);
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return value.trim();
+    }
+}
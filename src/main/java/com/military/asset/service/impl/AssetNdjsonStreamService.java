@@ -0,0 +1,135 @@
+package com.military.asset.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.military.asset.mapper.CyberAssetMapper;
+import com.military.asset.mapper.DataContentAssetMapper;
+import com.military.asset.mapper.SoftwareAssetQueryMapper;
+import com.military.asset.utils.FieldSelection;
+import com.military.asset.vo.ResultVO;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * 资产列表NDJSON流式输出服务（三张资产表共用）
+
+ * 作用：整表拉取时不再把全部记录组装成ResultVO<List>再序列化成一个大数组，
+ * 而是游标逐行读取（MySQL驱动fetchSize=Integer.MIN_VALUE），每条资产用同一个Jackson生成器
+ * 序列化为一行JSON直接写入响应流；生成器缓冲写满即发送，首行写出后立即刷新，
+ * 服务端内存占用不随结果条数增长
+
+ * 指定fields时只查询所选字段，每行只包含所选字段（与组合查询接口一致）
+ */
+@Slf4j
+@Service
+public class AssetNdjsonStreamService {
+
+    private final SoftwareAssetQueryMapper softwareAssetQueryMapper;
+    private final CyberAssetMapper cyberAssetMapper;
+    private final DataContentAssetMapper dataContentAssetMapper;
+    private final PlatformTransactionManager transactionManager;
+
+    /**
+     * 逐行写出用的ObjectWriter：每条记录后不刷新（由生成器缓冲决定发送时机），根值之间不加分隔符（换行由本类写出）
+     */
+    private final ObjectWriter lineWriter;
+
+    public AssetNdjsonStreamService(SoftwareAssetQueryMapper softwareAssetQueryMapper,
+                                    CyberAssetMapper cyberAssetMapper,
+                                    DataContentAssetMapper dataContentAssetMapper,
+                                    PlatformTransactionManager transactionManager,
+                                    ObjectMapper objectMapper) {
+        this.softwareAssetQueryMapper = softwareAssetQueryMapper;
+        this.cyberAssetMapper = cyberAssetMapper;
+        this.dataContentAssetMapper = dataContentAssetMapper;
+        this.transactionManager = transactionManager;
+        this.lineWriter = objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("");
+    }
+
+    public long streamSoftware(String reportUnit, String assetCategory, FieldSelection selection, OutputStream out) {
+        return stream("软件资产", selection, out, columns -> softwareAssetQueryMapper.selectCursorByReportUnitAndCategory(
+                columns, trimToNull(reportUnit), trimToNull(assetCategory)));
+    }
+
+    public long streamCyber(String reportUnit, String assetCategory, FieldSelection selection, OutputStream out) {
+        return stream("网信资产", selection, out, columns -> cyberAssetMapper.selectCursorByReportUnitAndCategory(
+                columns, trimToNull(reportUnit), trimToNull(assetCategory)));
+    }
+
+    public long streamDataContent(String reportUnit, String assetCategory, FieldSelection selection,
+                                  OutputStream out) {
+        return stream("数据内容资产", selection, out, columns -> dataContentAssetMapper.selectCursorByReportUnitAndCategory(
+                columns, trimToNull(reportUnit), trimToNull(assetCategory)));
+    }
+
+    /**
+     * 查询开始前失败（如fields参数无效）时输出单行失败结果
+     */
+    public void writeFailure(OutputStream out, String message) throws IOException {
+        out.write(lineWriter.writeValueAsBytes(ResultVO.fail(message)));
+        out.write('\n');
+        out.flush();
+    }
+
+    // ============================ 流式输出实现 ============================
+
+    /**
+     * 按SELECT列清单打开游标
+     */
+    @FunctionalInterface
+    private interface CursorQuery<E> {
+        Cursor<E> open(String columns);
+    }
+
+    /**
+     * 游标逐行读取并写出NDJSON
+
+     * 游标只在SqlSession存活期间有效，因此在只读事务内遍历；
+     * 输出流由调用方（响应）负责关闭，写出失败（客户端断开）时抛出UncheckedIOException终止遍历
+     *
+     * @return 输出条数
+     */
+    private <E> long stream(String assetType, FieldSelection selection, OutputStream out, CursorQuery<E> query) {
+        long start = System.currentTimeMillis();
+        String columns = (selection != null) ? selection.sqlColumns() : "*";
+        long[] written = {0};
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status -> {
+            try (JsonGenerator generator = lineWriter.createGenerator(out);
+                 Cursor<E> cursor = query.open(columns)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                for (E entity : cursor) {
+                    lineWriter.writeValue(generator, (selection != null) ? selection.project(entity) : entity);
+                    generator.writeRaw('\n');
+                    if (++written[0] == 1) {
+                        generator.flush();
+                    }
+                }
+                generator.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        log.info("{}NDJSON列表输出完成：{}条，耗时{}ms", assetType, written[0], System.currentTimeMillis() - start);
+        return written[0];
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return value.trim();
+    }
+}
@@ -0,0 +1,321 @@
+package com.military.asset.service.impl;
+
+import com.baomidou.mybatisplus.core.metadata.TableFieldInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.military.asset.entity.CyberAsset;
+import com.military.asset.entity.DataContentAsset;
+import com.military.asset.entity.SoftwareAsset;
+import com.military.asset.listener.AssetImportListener;
+import com.military.asset.mapper.AssetUpsertMapper;
+import com.military.asset.mapper.CyberAssetMapper;
+import com.military.asset.mapper.DataContentAssetMapper;
+import com.military.asset.mapper.SoftwareAssetQueryMapper;
+import com.military.asset.service.CyberAssetService;
+import com.military.asset.service.DataContentAssetService;
+import com.military.asset.service.SoftwareAssetService;
+import com.military.asset.vo.excel.CyberAssetExcelVO;
+import com.military.asset.vo.excel.DataContentAssetExcelVO;
+import com.military.asset.vo.excel.SoftwareAssetExcelVO;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.util.ClassUtils;
+
+import java.beans.PropertyDescriptor;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * 更新模式导入服务（批量新增或更新）
+
+ * 作用：ID已存在但关键字段不一致的行，默认按关键错误拒绝，修正数据后只能逐条删除再重新导入；
+ * 更新模式下这类行直接更新系统记录，每批按ID加载已存在的记录逐行比较：
+ * - ID不存在 → 新增
+ * - ID已存在且内容有变化 → 更新（创建时间保持首次导入时的值）
+ * - ID已存在且内容完全一致 → 未变化，登记为系统重复并跳过
+ * 新增行与普通导入一样经资产服务的批量保存写入（由服务补齐省、市等派生字段）；
+ * 更新行合并为一条多行 INSERT ... ON DUPLICATE KEY UPDATE 执行
+
+ * 行由Excel导入VO按同名属性复制为实体后比较和写入；比较和更新的列只取Excel能提供的属性
+ * （实体元数据中的表字段与VO可读属性的交集），VO没有的列（如网信、数据内容资产的省、市）
+ * 不参与比较，更新时保留系统记录中的原值
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AssetUpsertService {
+
+    /**
+     * 单条多行INSERT的最大行数（控制语句大小，避免超过max_allowed_packet）
+     */
+    private static final int UPSERT_CHUNK_SIZE = 500;
+
+    private final AssetUpsertMapper assetUpsertMapper;
+    private final SoftwareAssetQueryMapper softwareAssetQueryMapper;
+    private final CyberAssetMapper cyberAssetMapper;
+    private final DataContentAssetMapper dataContentAssetMapper;
+    private final SoftwareAssetService softwareAssetService;
+    private final CyberAssetService cyberAssetService;
+    private final DataContentAssetService dataContentAssetService;
+    private final AssetFingerprintIndexService assetFingerprintIndexService;
+
+    public UpsertSession<SoftwareAssetExcelVO, SoftwareAsset> openSoftware() {
+        return new UpsertSession<>("软件资产", SoftwareAssetExcelVO.class, SoftwareAsset.class,
+                SoftwareAssetExcelVO::getExcelRowNum, softwareAssetQueryMapper::selectFullByIds,
+                softwareAssetService::batchSaveSoftwareAssets, assetFingerprintIndexService::onSoftwareBatchSaved,
+                assetFingerprintIndexService::onSoftwareRowsUpdated);
+    }
+
+    public UpsertSession<CyberAssetExcelVO, CyberAsset> openCyber() {
+        return new UpsertSession<>("网信资产", CyberAssetExcelVO.class, CyberAsset.class,
+                CyberAssetExcelVO::getExcelRowNum, cyberAssetMapper::selectBatchIds,
+                cyberAssetService::batchSaveCyberAssets, assetFingerprintIndexService::onCyberBatchSaved,
+                assetFingerprintIndexService::onCyberRowsUpdated);
+    }
+
+    public UpsertSession<DataContentAssetExcelVO, DataContentAsset> openDataContent() {
+        return new UpsertSession<>("数据内容资产", DataContentAssetExcelVO.class, DataContentAsset.class,
+                DataContentAssetExcelVO::getExcelRowNum, dataContentAssetMapper::selectBatchIds,
+                dataContentAssetService::batchSaveDataContentAssets,
+                assetFingerprintIndexService::onDataContentBatchSaved,
+                assetFingerprintIndexService::onDataContentRowsUpdated);
+    }
+
+    /**
+     * 属性是否由BeanUtils.copyProperties从导入VO复制到实体（VO可读、实体可写且类型兼容）
+     */
+    static boolean copiedFromRow(Class<?> voClass, Class<?> entityClass, String property) {
+        PropertyDescriptor source = BeanUtils.getPropertyDescriptor(voClass, property);
+        PropertyDescriptor target = BeanUtils.getPropertyDescriptor(entityClass, property);
+        return source != null && source.getReadMethod() != null
+                && target != null && target.getWriteMethod() != null
+                && ClassUtils.isAssignable(target.getWriteMethod().getParameterTypes()[0],
+                source.getReadMethod().getReturnType());
+    }
+
+    // ============================ 更新会话 ============================
+
+    /**
+     * 一次更新模式导入（write由监听器的批量保存回调在解析线程中按行顺序调用）
+     */
+    public final class UpsertSession<VO, E> {
+
+        @Getter
+        private final String assetTypeName;
+        private final Class<E> entityClass;
+        private final ToIntFunction<VO> rowNum;
+        private final Function<List<String>, List<E>> existingLoader;
+
+        /**
+         * 新增行的保存（资产服务的批量保存，与普通导入相同）
+         */
+        private final Consumer<List<VO>> inserter;
+
+        private final Consumer<List<VO>> indexUpdater;
+
+        /**
+         * 批次中有已存在的记录被修改时调用（递增数据版本，此前的导入结果不再复用）
+         */
+        private final Runnable updateNotifier;
+
+        private final String table;
+        private final String keyProperty;
+        private final String columns;
+        private final String updates;
+
+        /**
+         * 更新语句写入的属性（主键在前，其后为VO提供的表字段和自动填充的时间字段）
+         */
+        private final List<String> properties = new ArrayList<>();
+
+        /**
+         * 判断内容是否变化时比较的属性（VO提供的表字段，不含主键和自动填充的时间字段）
+         */
+        private final List<String> compareProperties = new ArrayList<>();
+
+        /**
+         * 插入时自动填充的时间属性（原生SQL不经过填充处理器，新增行在此补齐；更新时不覆盖）
+         */
+        private final List<String> insertFillProperties = new ArrayList<>();
+
+        private AssetImportListener<VO, E> listener;
+
+        @Getter
+        private int insertedCount;
+
+        @Getter
+        private int updatedCount;
+
+        @Getter
+        private int unchangedCount;
+
+        UpsertSession(String assetTypeName, Class<VO> voClass, Class<E> entityClass, ToIntFunction<VO> rowNum,
+                      Function<List<String>, List<E>> existingLoader, Consumer<List<VO>> inserter,
+                      Consumer<List<VO>> indexUpdater, Runnable updateNotifier) {
+            TableInfo tableInfo = TableInfoHelper.getTableInfo(entityClass);
+            if (tableInfo == null || tableInfo.getKeyColumn() == null) {
+                throw new IllegalStateException("未找到实体表信息：" + entityClass.getName());
+            }
+            this.assetTypeName = assetTypeName;
+            this.entityClass = entityClass;
+            this.rowNum = rowNum;
+            this.existingLoader = existingLoader;
+            this.inserter = inserter;
+            this.indexUpdater = indexUpdater;
+            this.updateNotifier = updateNotifier;
+            this.table = tableInfo.getTableName();
+            this.keyProperty = tableInfo.getKeyProperty();
+
+            List<String> columnList = new ArrayList<>();
+            List<String> updateList = new ArrayList<>();
+            properties.add(keyProperty);
+            columnList.add(tableInfo.getKeyColumn());
+            for (TableFieldInfo field : tableInfo.getFieldList()) {
+                if (field.isWithInsertFill()) {
+                    properties.add(field.getProperty());
+                    columnList.add(field.getColumn());
+                    if (field.getPropertyType() == LocalDateTime.class) {
+                        insertFillProperties.add(field.getProperty());
+                    }
+                    continue;
+                }
+                if (!copiedFromRow(voClass, entityClass, field.getProperty())) {
+                    // VO没有的列：复制出的实体上恒为null，比较和更新都会误判或清空原值
+                    continue;
+                }
+                properties.add(field.getProperty());
+                columnList.add(field.getColumn());
+                if (!field.isWithUpdateFill()) {
+                    compareProperties.add(field.getProperty());
+                }
+                updateList.add(field.getColumn() + " = VALUES(" + field.getColumn() + ")");
+            }
+            this.columns = String.join(", ", columnList);
+            this.updates = String.join(", ", updateList);
+        }
+
+        /**
+         * 绑定导入监听器（未变化的行回写为系统重复）
+         */
+        public void bind(AssetImportListener<VO, E> listener) {
+            this.listener = listener;
+        }
+
+        /**
+         * 一批合法行新增或更新（监听器流式提交回调）
+         *
+         * @param rows 当前批次的合法行（按Excel行顺序）
+         */
+        public void write(List<VO> rows) {
+            int updatedBefore = updatedCount;
+            LocalDateTime now = LocalDateTime.now();
+            List<BeanWrapper> entities = new ArrayList<>(rows.size());
+            Set<String> ids = new LinkedHashSet<>();
+            for (VO row : rows) {
+                BeanWrapper entity = toEntity(row, now);
+                entities.add(entity);
+                ids.add((String) entity.getPropertyValue(keyProperty));
+            }
+
+            // 当前批次涉及的已存在记录（主键比较与MySQL默认排序规则一致，不区分大小写）
+            Map<String, BeanWrapper> current = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            for (E existing : existingLoader.apply(new ArrayList<>(ids))) {
+                BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(existing);
+                current.put((String) wrapper.getPropertyValue(keyProperty), wrapper);
+            }
+
+            List<VO> insertedRows = new ArrayList<>();
+            List<List<Object>> updatedValues = new ArrayList<>();
+            List<VO> changedRows = new ArrayList<>();
+            for (int i = 0; i < rows.size(); i++) {
+                VO row = rows.get(i);
+                BeanWrapper entity = entities.get(i);
+                String id = (String) entity.getPropertyValue(keyProperty);
+                BeanWrapper existing = current.get(id);
+                if (existing != null && sameContent(existing, entity)) {
+                    unchangedCount++;
+                    listener.rejectAsSystemDuplicate(row, rowNum.applyAsInt(row));
+                    continue;
+                }
+                if (existing == null) {
+                    insertedCount++;
+                    insertedRows.add(row);
+                } else {
+                    updatedCount++;
+                    updatedValues.add(values(entity));
+                }
+                // 同一批次内ID重复时，后面的行与前面的行比较并按更新处理（新增先于更新执行，结果与按行顺序写入一致）
+                current.put(id, entity);
+                changedRows.add(row);
+            }
+
+            if (!insertedRows.isEmpty()) {
+                inserter.accept(insertedRows);
+            }
+            for (int from = 0; from < updatedValues.size(); from += UPSERT_CHUNK_SIZE) {
+                int to = Math.min(from + UPSERT_CHUNK_SIZE, updatedValues.size());
+                assetUpsertMapper.upsertRows(table, columns, updatedValues.subList(from, to), updates);
+            }
+            if (!changedRows.isEmpty()) {
+                indexUpdater.accept(changedRows);
+            }
+            if (updatedCount > updatedBefore) {
+                updateNotifier.run();
+            }
+            log.debug("{}更新模式提交一批：{}行，累计新增{}条，更新{}条，未变化{}条",
+                    assetTypeName, rows.size(), insertedCount, updatedCount, unchangedCount);
+        }
+
+        private BeanWrapper toEntity(VO row, LocalDateTime now) {
+            BeanWrapper entity = PropertyAccessorFactory.forBeanPropertyAccess(BeanUtils.instantiateClass(entityClass));
+            BeanUtils.copyProperties(row, entity.getWrappedInstance());
+            if (entity.getPropertyValue(keyProperty) instanceof String id) {
+                entity.setPropertyValue(keyProperty, id.trim());
+            }
+            for (String property : insertFillProperties) {
+                if (entity.getPropertyValue(property) == null) {
+                    entity.setPropertyValue(property, now);
+                }
+            }
+            return entity;
+        }
+
+        private List<Object> values(BeanWrapper entity) {
+            List<Object> values = new ArrayList<>(properties.size());
+            for (String property : properties) {
+                values.add(entity.getPropertyValue(property));
+            }
+            return values;
+        }
+
+        private boolean sameContent(BeanWrapper existing, BeanWrapper entity) {
+            for (String property : compareProperties) {
+                Object oldValue = existing.getPropertyValue(property);
+                Object newValue = entity.getPropertyValue(property);
+                if (oldValue instanceof BigDecimal oldDecimal && newValue instanceof BigDecimal newDecimal) {
+                    if (oldDecimal.compareTo(newDecimal) != 0) {
+                        return false;
+                    }
+                } else if (!Objects.equals(oldValue, newValue)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
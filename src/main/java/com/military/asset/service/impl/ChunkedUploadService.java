@@ -0,0 +1,359 @@
+package com.military.asset.service.impl;
+
+import com.military.asset.vo.UploadSessionVO;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 分片上传服务（断点续传）
+
+ * 作用：网络不稳定的上报单位按分片上传导入文件，断线后查询缺失分片只补传缺失部分，
+ * 全部分片到齐后把组装好的文件交给现有导入流程
+
+ * 关键设计：
+ * - 创建会话时确定文件大小和分片大小，分片按序号对齐（偏移 = 序号 × 分片大小），最后一个分片可以更短
+ * - 分片请求体以64KB为单位直接写入会话临时文件的对应偏移（FileChannel定位写，可并发上传不同分片），
+ *   写入的同时计算SHA-256，服务端任何时候都不持有整个文件
+ * - 校验和不一致的分片不标记为已接收，客户端重传即可；已接收的分片重复上传直接忽略
+ * - 完成上传后会话移出注册表，临时文件交给导入流程（由导入流程负责删除）
+ * - 未完成的会话保留asset.import.upload.retention-minutes分钟（默认1440），过期后删除临时文件
+ */
+@Slf4j
+@Service
+public class ChunkedUploadService {
+
+    /**
+     * 默认分片大小（8MB）
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 8 * 1024 * 1024;
+
+    private static final int MIN_CHUNK_SIZE = 256 * 1024;
+
+    private static final int MAX_CHUNK_SIZE = 64 * 1024 * 1024;
+
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * 未完成会话的保留时长（分钟）
+     */
+    private final long retentionMinutes;
+
+    /**
+     * 文件大小上限（MB，与直接上传接口一致）
+     */
+    private final long maxFileSizeMb;
+
+    /**
+     * 会话注册表，Key: 上传会话ID
+     */
+    private final Map<String, UploadSession> sessions = new ConcurrentHashMap<>();
+
+    public ChunkedUploadService(@Value("${asset.import.upload.retention-minutes:1440}") long retentionMinutes,
+                                @Value("${asset.import.max-file-size-mb:4096}") long maxFileSizeMb) {
+        this.retentionMinutes = retentionMinutes;
+        this.maxFileSizeMb = maxFileSizeMb;
+    }
+
+    /**
+     * 创建上传会话
+     *
+     * @param fileName 文件名
+     * @param totalSize 文件总字节数
+     * @param chunkSize 分片字节数（为null时使用默认8MB，范围256KB~64MB）
+     * @return 会话状态快照
+     * @throws IllegalArgumentException 参数不合法时抛出
+     */
+    public UploadSessionVO create(String fileName, long totalSize, Integer chunkSize) throws IOException {
+        if (fileName == null || fileName.isBlank()) {
+            throw new IllegalArgumentException("文件名不能为空");
+        }
+        if (totalSize <= 0) {
+            throw new IllegalArgumentException("文件大小必须大于0");
+        }
+        if (totalSize > maxFileSizeMb * 1024 * 1024) {
+            throw new IllegalArgumentException("文件大小不能超过" + maxFileSizeMb + "MB");
+        }
+        int size = (chunkSize != null) ? chunkSize : DEFAULT_CHUNK_SIZE;
+        if (size < MIN_CHUNK_SIZE || size > MAX_CHUNK_SIZE) {
+            throw new IllegalArgumentException("分片大小需在" + MIN_CHUNK_SIZE + "~" + MAX_CHUNK_SIZE + "字节之间");
+        }
+
+        Path tempFile = Files.createTempFile("asset-upload-", ".part");
+        UploadSession session = new UploadSession(UUID.randomUUID().toString().replace("-", ""), fileName,
+                totalSize, size, tempFile, LocalDateTime.now().plusMinutes(retentionMinutes));
+        sessions.put(session.getUploadId(), session);
+        log.info("分片上传会话已创建：会话ID={}，文件={}，大小={} bytes，分片{}个",
+                session.getUploadId(), fileName, totalSize, session.getChunkCount());
+        return session.toVO();
+    }
+
+    /**
+     * 查询上传会话
+     *
+     * @return 会话不存在或已过期时返回null
+     */
+    public UploadSession get(String uploadId) {
+        UploadSession session = sessions.get(uploadId);
+        if (session == null || session.isExpired()) {
+            return null;
+        }
+        return session;
+    }
+
+    /**
+     * 写入一个分片
+     *
+     * @param session 上传会话
+     * @param offset 分片在文件中的起始字节偏移（必须是分片大小的整数倍）
+     * @param body 分片内容（请求体，边读边写入临时文件）
+     * @param sha256 分片内容的SHA-256（十六进制，不区分大小写）
+     * @return 写入后的会话状态快照
+     * @throws IllegalArgumentException 偏移不对齐、长度不符或校验和不一致时抛出（该分片需重传）
+     */
+    public UploadSessionVO writeChunk(UploadSession session, long offset, InputStream body, String sha256) throws IOException {
+        if (sha256 == null || sha256.isBlank()) {
+            throw new IllegalArgumentException("缺少分片校验和（SHA-256）");
+        }
+        if (offset < 0 || offset >= session.totalSize || offset % session.chunkSize != 0) {
+            throw new IllegalArgumentException("分片偏移不合法：" + offset + "（需为" + session.chunkSize + "的整数倍且小于文件大小）");
+        }
+        int chunkIndex = (int) (offset / session.chunkSize);
+        if (!session.beginWrite(chunkIndex)) {
+            // 重复上传（如上次响应丢失后的重试），已接收的内容不覆盖
+            return session.toVO();
+        }
+        try {
+            transferChunk(session, chunkIndex, offset, body, sha256.trim());
+        } finally {
+            session.endWrite(chunkIndex);
+        }
+        log.debug("分片上传会话{}：分片{}已接收（{}/{}）", session.getUploadId(), chunkIndex,
+                session.getReceivedCount(), session.getChunkCount());
+        return session.toVO();
+    }
+
+    private void transferChunk(UploadSession session, int chunkIndex, long offset, InputStream body,
+                               String sha256) throws IOException {
+        long expectedLength = Math.min(session.chunkSize, session.totalSize - offset);
+
+        MessageDigest digest = newSha256();
+        long written = 0;
+        byte[] bytes = new byte[WRITE_BUFFER_SIZE];
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        try (FileChannel channel = FileChannel.open(session.tempFile, StandardOpenOption.WRITE)) {
+            int n;
+            while ((n = body.read(bytes)) > 0) {
+                if (written + n > expectedLength) {
+                    throw new IllegalArgumentException("分片长度超过预期的" + expectedLength + "字节");
+                }
+                digest.update(bytes, 0, n);
+                buffer.clear().limit(n);
+                long position = offset + written;
+                while (buffer.hasRemaining()) {
+                    position += channel.write(buffer, position);
+                }
+                written += n;
+            }
+        }
+        if (written != expectedLength) {
+            throw new IllegalArgumentException("分片长度不符：收到" + written + "字节，预期" + expectedLength + "字节");
+        }
+        String actual = HexFormat.of().formatHex(digest.digest());
+        if (!actual.equalsIgnoreCase(sha256)) {
+            throw new IllegalArgumentException("分片" + chunkIndex + "校验和不一致，请重传该分片");
+        }
+        session.markReceived(chunkIndex);
+    }
+
+    /**
+     * 完成上传：全部分片到齐后移出会话，返回组装好的文件（调用方负责删除）
+     *
+     * @throws IllegalArgumentException 仍有分片缺失时抛出（会话保留，可继续补传）
+     */
+    public Path complete(UploadSession session) {
+        synchronized (session) {
+            int missing = session.getChunkCount() - session.getReceivedCount();
+            if (missing > 0) {
+                throw new IllegalArgumentException("仍有" + missing + "个分片未上传，请按missingChunks补传后再完成上传");
+            }
+            if (sessions.remove(session.getUploadId()) == null) {
+                throw new IllegalArgumentException("上传会话已完成或已取消：" + session.getUploadId());
+            }
+        }
+        log.info("分片上传会话已完成：会话ID={}，文件={}", session.getUploadId(), session.getFileName());
+        return session.tempFile;
+    }
+
+    /**
+     * 重新登记已完成的会话（组装好的文件未能交给导入任务时调用，如导入队列已满），
+     * 文件保留，客户端稍后重新调用完成接口即可，无需重新上传；会话已过期时删除文件
+     *
+     * @return 会话已过期、未能重新登记时返回false
+     */
+    public boolean reopen(UploadSession session) {
+        if (session.isExpired()) {
+            deleteQuietly(session.tempFile);
+            return false;
+        }
+        sessions.put(session.getUploadId(), session);
+        log.info("分片上传会话已重新登记，等待重新完成：会话ID={}", session.getUploadId());
+        return true;
+    }
+
+    /**
+     * 取消上传会话并删除临时文件
+     *
+     * @return 会话不存在时返回false
+     */
+    public boolean abort(String uploadId) {
+        UploadSession session = sessions.remove(uploadId);
+        if (session == null) {
+            return false;
+        }
+        deleteQuietly(session.tempFile);
+        log.info("分片上传会话已取消：{}", uploadId);
+        return true;
+    }
+
+    /**
+     * 定时清理过期会话（每分钟）
+     */
+    @Scheduled(fixedDelay = 60_000)
+    public void evictExpiredSessions() {
+        sessions.values().removeIf(session -> {
+            if (!session.isExpired()) {
+                return false;
+            }
+            deleteQuietly(session.tempFile);
+            return true;
+        });
+    }
+
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256不可用", e);
+        }
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (Exception e) {
+            log.warn("删除分片上传临时文件失败：{}，原因：{}", file, e.getMessage());
+        }
+    }
+
+    // ============================ 会话对象 ============================
+
+    /**
+     * 上传会话（内部状态，对外以UploadSessionVO快照返回）
+     */
+    @Getter
+    public static class UploadSession {
+
+        private final String uploadId;
+        private final String fileName;
+        private final long totalSize;
+        private final int chunkSize;
+        private final int chunkCount;
+        private final LocalDateTime createTime = LocalDateTime.now();
+        private final LocalDateTime expireTime;
+        private final Path tempFile;
+
+        /**
+         * 已接收分片位图（访问需持有会话锁）
+         */
+        private final BitSet received;
+
+        /**
+         * 正在写入的分片位图（同一分片同时只允许一个请求写入，访问需持有会话锁）
+         */
+        private final BitSet writing = new BitSet();
+
+        UploadSession(String uploadId, String fileName, long totalSize, int chunkSize, Path tempFile,
+                      LocalDateTime expireTime) {
+            this.uploadId = uploadId;
+            this.fileName = fileName;
+            this.totalSize = totalSize;
+            this.chunkSize = chunkSize;
+            this.chunkCount = (int) ((totalSize + chunkSize - 1) / chunkSize);
+            this.tempFile = tempFile;
+            this.expireTime = expireTime;
+            this.received = new BitSet(chunkCount);
+        }
+
+        public boolean isExpired() {
+            return LocalDateTime.now().isAfter(expireTime);
+        }
+
+        public synchronized int getReceivedCount() {
+            return received.cardinality();
+        }
+
+        /**
+         * 开始写入分片
+         *
+         * @return 分片已接收时返回false（无需写入）
+         * @throws IllegalArgumentException 同一分片正在被另一个请求写入时抛出
+         */
+        private synchronized boolean beginWrite(int chunkIndex) {
+            if (received.get(chunkIndex)) {
+                return false;
+            }
+            if (writing.get(chunkIndex)) {
+                throw new IllegalArgumentException("分片" + chunkIndex + "正在上传中，请稍后重试");
+            }
+            writing.set(chunkIndex);
+            return true;
+        }
+
+        private synchronized void endWrite(int chunkIndex) {
+            writing.clear(chunkIndex);
+        }
+
+        private synchronized void markReceived(int chunkIndex) {
+            received.set(chunkIndex);
+        }
+
+        public synchronized UploadSessionVO toVO() {
+            List<Integer> missing = new ArrayList<>(chunkCount - received.cardinality());
+            for (int i = received.nextClearBit(0); i < chunkCount; i = received.nextClearBit(i + 1)) {
+                missing.add(i);
+            }
+            UploadSessionVO vo = new UploadSessionVO();
+            vo.setUploadId(uploadId);
+            vo.setFileName(fileName);
+            vo.setTotalSize(totalSize);
+            vo.setChunkSize(chunkSize);
+            vo.setChunkCount(chunkCount);
+            vo.setReceivedChunks(chunkCount - missing.size());
+            vo.setMissingChunks(missing);
+            vo.setCreateTime(createTime);
+            vo.setExpireTime(expireTime);
+            return vo;
+        }
+    }
+}
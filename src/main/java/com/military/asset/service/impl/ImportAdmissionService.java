@@ -0,0 +1,411 @@
+package com.military.asset.service.impl;
+
+import com.military.asset.listener.ImportProgress;
+import com.military.asset.vo.ImportQueueVO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 导入准入控制服务（按资产类型排队）
+
+ * 作用：同一资产类型的导入同时写入同一张表，并发执行时会对同一个ID各自判定为"不存在"后重复插入，
+ * 因此同类型导入按资产类型限制并发数，超出的导入在该类型的等待队列中按提交顺序排队；
+ * 不同资产类型各自排队，互不影响，可并行导入
+
+ * 两种排队方式（共用同一个等待队列，按提交顺序放行）：
+ * - 同步导入（请求线程、多工作表导入线程）：acquire阻塞当前线程直到取得执行槽位
+ * - 异步任务：enqueue只登记，不占用线程；取得执行槽位后才回调Dispatcher提交到导入线程池，
+ *   因此排队中的任务不会占住importExecutor线程，其他资产类型的任务不会因线程池被占满而等待
+
+ * 配置项：
+ * - asset.import.admission.max-concurrent：每种资产类型同时执行的导入数（默认1，即同类型串行）
+ * - asset.import.admission.max-waiting：每种资产类型的等待队列长度（默认10），队列满时拒绝
+ * - asset.import.admission.max-wait-minutes：排队最长等待时间（分钟，默认30，<=0 不限制）
+
+ * 排队位置：写入ImportProgress，任务查询接口返回queuePosition（1为下一个执行）；
+ * 各资产类型的执行数和排队数通过队列查询接口获取
+ */
+@Slf4j
+@Service
+public class ImportAdmissionService {
+
+    /**
+     * 等待期间检查取消请求和超时的间隔（毫秒）
+     */
+    private static final long WAIT_CHECK_INTERVAL_MS = 500;
+
+    private final int maxConcurrent;
+
+    private final int maxWaiting;
+
+    private final long maxWaitMillis;
+
+    /**
+     * Key: 资产类型
+     */
+    private final Map<String, Lane> lanes = new ConcurrentHashMap<>();
+
+    /**
+     * 异步任务取得执行槽位后的回调（由异步任务服务提供）
+     */
+    public interface Dispatcher {
+
+        /**
+         * 已取得执行槽位，提交任务执行（任务结束后关闭permit；提交失败时抛出异常，由本服务关闭permit并回调reject）
+         */
+        void dispatch(Permit permit);
+
+        /**
+         * 排队超时或提交失败，任务不会再执行
+         */
+        void reject(RuntimeException reason);
+    }
+
+    @Autowired
+    public ImportAdmissionService(@Value("${asset.import.admission.max-concurrent:1}") int maxConcurrent,
+                                  @Value("${asset.import.admission.max-waiting:10}") int maxWaiting,
+                                  @Value("${asset.import.admission.max-wait-minutes:30}") long maxWaitMinutes) {
+        this(maxConcurrent, maxWaiting, Duration.ofMinutes(Math.max(maxWaitMinutes, 0)));
+    }
+
+    /**
+     * @param maxWait 排队最长等待时间（为0时不限制；单元测试使用毫秒级时长）
+     */
+    ImportAdmissionService(int maxConcurrent, int maxWaiting, Duration maxWait) {
+        this.maxConcurrent = Math.max(maxConcurrent, 1);
+        this.maxWaiting = Math.max(maxWaiting, 0);
+        this.maxWaitMillis = maxWait.toMillis();
+    }
+
+    /**
+     * 取得指定资产类型的导入执行槽位（同步导入使用：槽位已满时阻塞排队，按提交顺序放行）
+     *
+     * @param assetType 资产类型
+     * @param progress 导入进度（排队期间写入排队位置并响应取消；同步导入传null）
+     * @return 执行槽位，导入结束后关闭以放行下一个排队的导入
+     * @throws TaskRejectedException 等待队列已满或排队超时时抛出
+     * @throws CancellationException 排队期间任务被取消时抛出
+     */
+    public Permit acquire(String assetType, ImportProgress progress) throws InterruptedException {
+        Lane lane = lanes.computeIfAbsent(assetType, Lane::new);
+        try {
+            return awaitPermit(lane, new Waiter(progress, null, deadline()));
+        } finally {
+            // 本次等待结束后队首可能变化，放行排在后面的异步任务
+            dispatchReady(lane);
+        }
+    }
+
+    /**
+     * 异步任务登记排队（不阻塞：槽位空闲时立即回调dispatch，否则进入等待队列，轮到时再回调）
+     *
+     * @param assetType 资产类型
+     * @param progress 任务进度（写入排队位置；同一任务的progress即排队凭据，撤回时使用）
+     * @param dispatcher 取得槽位后的提交回调
+     * @throws TaskRejectedException 等待队列已满，或槽位空闲但立即提交失败时抛出（任务未登记）
+     */
+    public void enqueue(String assetType, ImportProgress progress, Dispatcher dispatcher) {
+        Lane lane = lanes.computeIfAbsent(assetType, Lane::new);
+        Permit permit;
+        synchronized (lane) {
+            if (lane.running < maxConcurrent && lane.waiting.isEmpty()) {
+                lane.running++;
+                permit = new Permit(this, lane);
+            } else {
+                rejectIfFull(lane);
+                lane.waiting.addLast(new Waiter(progress, dispatcher, deadline()));
+                lane.publishPositions();
+                log.info("{}导入任务进入排队：第{}位（执行中{}个）", assetType, lane.waiting.size(), lane.running);
+                return;
+            }
+        }
+        try {
+            dispatcher.dispatch(permit);
+        } catch (RuntimeException e) {
+            permit.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 撤回排队中的异步任务（取消任务时调用）
+     *
+     * @return 任务仍在等待队列中并已移出时返回true；已取得槽位（已提交或即将提交执行）时返回false
+     */
+    public boolean withdraw(String assetType, ImportProgress progress) {
+        Lane lane = lanes.get(assetType);
+        if (lane == null) {
+            return false;
+        }
+        boolean removed;
+        synchronized (lane) {
+            removed = lane.waiting.removeIf(waiter -> waiter.dispatcher != null && waiter.progress == progress);
+            if (removed) {
+                progress.setQueuePosition(0);
+                lane.publishPositions();
+            }
+        }
+        if (removed) {
+            dispatchReady(lane);
+        }
+        return removed;
+    }
+
+    /**
+     * 定时移出排队超时或已取消的异步任务（同步导入在自身等待循环中检查）
+     */
+    @Scheduled(fixedDelay = 10_000)
+    public void expireWaiting() {
+        long now = System.currentTimeMillis();
+        for (Lane lane : lanes.values()) {
+            List<Waiter> expired = new ArrayList<>();
+            synchronized (lane) {
+                Iterator<Waiter> it = lane.waiting.iterator();
+                while (it.hasNext()) {
+                    Waiter waiter = it.next();
+                    if (waiter.dispatcher != null && (waiter.isCancelled() || now >= waiter.deadline)) {
+                        it.remove();
+                        waiter.setPosition(0);
+                        expired.add(waiter);
+                    }
+                }
+                if (!expired.isEmpty()) {
+                    lane.publishPositions();
+                }
+            }
+            for (Waiter waiter : expired) {
+                waiter.dispatcher.reject(waiter.isCancelled()
+                        ? new CancellationException(lane.assetType + "导入任务在排队中被取消")
+                        : timeout(lane.assetType));
+            }
+            if (!expired.isEmpty()) {
+                dispatchReady(lane);
+            }
+        }
+    }
+
+    /**
+     * 各资产类型的执行与排队情况（按资产类型排序）
+     */
+    public List<ImportQueueVO> snapshot() {
+        return lanes.values().stream()
+                .sorted(Comparator.comparing(lane -> lane.assetType))
+                .map(this::toVO)
+                .toList();
+    }
+
+    private ImportQueueVO toVO(Lane lane) {
+        synchronized (lane) {
+            ImportQueueVO vo = new ImportQueueVO();
+            vo.setAssetType(lane.assetType);
+            vo.setRunning(lane.running);
+            vo.setWaiting(lane.waiting.size());
+            vo.setMaxConcurrent(maxConcurrent);
+            vo.setMaxWaiting(maxWaiting);
+            return vo;
+        }
+    }
+
+    // ============================ 排队实现 ============================
+
+    /**
+     * 同步导入阻塞等待，直到排到队首且有空闲槽位
+     */
+    private Permit awaitPermit(Lane lane, Waiter waiter) throws InterruptedException {
+        synchronized (lane) {
+            if (lane.running < maxConcurrent && lane.waiting.isEmpty()) {
+                lane.running++;
+                return new Permit(this, lane);
+            }
+            rejectIfFull(lane);
+            lane.waiting.addLast(waiter);
+            lane.publishPositions();
+            log.info("{}导入进入排队：第{}位（执行中{}个）", lane.assetType, lane.waiting.size(), lane.running);
+
+            try {
+                while (lane.running >= maxConcurrent || lane.waiting.peekFirst() != waiter) {
+                    if (waiter.isCancelled()) {
+                        throw new CancellationException(lane.assetType + "导入任务在排队中被取消");
+                    }
+                    long remaining = waiter.deadline - System.currentTimeMillis();
+                    if (remaining <= 0) {
+                        throw timeout(lane.assetType);
+                    }
+                    lane.wait(Math.min(remaining, WAIT_CHECK_INTERVAL_MS));
+                }
+                lane.waiting.removeFirst();
+                lane.running++;
+                return new Permit(this, lane);
+            } catch (InterruptedException | RuntimeException e) {
+                lane.waiting.remove(waiter);
+                throw e;
+            } finally {
+                waiter.setPosition(0);
+                lane.publishPositions();
+                // 队首变化后唤醒其余排队者重新判断
+                lane.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * 有空闲槽位时放行队首的异步任务（在锁外提交到线程池；队首为同步导入时由其自身等待循环取得槽位）
+     */
+    private void dispatchReady(Lane lane) {
+        while (true) {
+            Waiter next;
+            Permit permit;
+            synchronized (lane) {
+                next = lane.waiting.peekFirst();
+                if (next == null || lane.running >= maxConcurrent) {
+                    return;
+                }
+                if (next.dispatcher == null) {
+                    lane.notifyAll();
+                    return;
+                }
+                lane.waiting.removeFirst();
+                lane.running++;
+                next.setPosition(0);
+                lane.publishPositions();
+                permit = new Permit(this, lane);
+            }
+            try {
+                next.dispatcher.dispatch(permit);
+            } catch (RuntimeException e) {
+                log.warn("{}导入任务提交执行失败：{}", lane.assetType, e.getMessage());
+                releaseSlot(permit);
+                next.dispatcher.reject(e);
+            }
+        }
+    }
+
+    /**
+     * 归还执行槽位（不放行后续任务，由调用方负责）
+     *
+     * @return 本次是否实际归还（重复关闭时为false）
+     */
+    private boolean releaseSlot(Permit permit) {
+        synchronized (permit.lane) {
+            if (permit.released) {
+                return false;
+            }
+            permit.released = true;
+            permit.lane.running--;
+            permit.lane.notifyAll();
+            return true;
+        }
+    }
+
+    private void rejectIfFull(Lane lane) {
+        if (lane.waiting.size() >= maxWaiting) {
+            log.warn("{}导入排队已满：执行中{}个，排队{}个", lane.assetType, lane.running, lane.waiting.size());
+            throw new TaskRejectedException(String.format("%s导入排队已满（%d个导入执行中，%d个排队中），请稍后重试",
+                    lane.assetType, lane.running, lane.waiting.size()));
+        }
+    }
+
+    private TaskRejectedException timeout(String assetType) {
+        return new TaskRejectedException(String.format("%s导入排队超过%d分钟仍未开始，请稍后重试",
+                assetType, TimeUnit.MILLISECONDS.toMinutes(maxWaitMillis)));
+    }
+
+    private long deadline() {
+        return (maxWaitMillis > 0) ? System.currentTimeMillis() + maxWaitMillis : Long.MAX_VALUE;
+    }
+
+    // ============================ 排队对象 ============================
+
+    /**
+     * 单个资产类型的执行槽位与等待队列（以自身为锁）
+     */
+    private static final class Lane {
+
+        private final String assetType;
+        private final Deque<Waiter> waiting = new ArrayDeque<>();
+        private int running;
+
+        private Lane(String assetType) {
+            this.assetType = assetType;
+        }
+
+        /**
+         * 按队列顺序更新各排队导入的位置（队列有界，逐个更新即可）
+         */
+        private void publishPositions() {
+            int position = 1;
+            for (Waiter waiter : waiting) {
+                waiter.setPosition(position++);
+            }
+        }
+    }
+
+    /**
+     * 一个排队中的导入（按对象身份在队列中识别，同步导入的progress均为null）
+     */
+    private static final class Waiter {
+
+        private final ImportProgress progress;
+
+        /**
+         * 异步任务的提交回调（同步导入为null）
+         */
+        private final Dispatcher dispatcher;
+
+        private final long deadline;
+
+        private Waiter(ImportProgress progress, Dispatcher dispatcher, long deadline) {
+            this.progress = progress;
+            this.dispatcher = dispatcher;
+            this.deadline = deadline;
+        }
+
+        private boolean isCancelled() {
+            return progress != null && progress.isCancelled();
+        }
+
+        private void setPosition(int position) {
+            if (progress != null) {
+                progress.setQueuePosition(position);
+            }
+        }
+    }
+
+    /**
+     * 导入执行槽位（重复关闭无副作用，关闭后放行下一个排队的导入）
+     */
+    public static final class Permit implements AutoCloseable {
+
+        private final ImportAdmissionService owner;
+        private final Lane lane;
+        private boolean released;
+
+        private Permit(ImportAdmissionService owner, Lane lane) {
+            this.owner = owner;
+            this.lane = lane;
+        }
+
+        @Override
+        public void close() {
+            if (owner.releaseSlot(this)) {
+                owner.dispatchReady(lane);
+            }
+        }
+    }
+}
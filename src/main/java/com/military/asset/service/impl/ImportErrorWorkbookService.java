@@ -0,0 +1,301 @@
+package com.military.asset.service.impl;
+
+import com.alibaba.excel.EasyExcel;
+import com.alibaba.excel.ExcelWriter;
+import com.alibaba.excel.context.AnalysisContext;
+import com.alibaba.excel.event.AnalysisEventListener;
+import com.alibaba.excel.write.handler.CellWriteHandler;
+import com.alibaba.excel.write.handler.context.CellWriteHandlerContext;
+import com.alibaba.excel.write.metadata.WriteSheet;
+import com.military.asset.listener.CsvRowReader;
+import com.military.asset.vo.ExcelErrorVO;
+import com.military.asset.vo.excel.CyberAssetExcelVO;
+import com.military.asset.vo.excel.DataContentAssetExcelVO;
+import com.military.asset.vo.excel.SoftwareAssetExcelVO;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.FillPatternType;
+import org.apache.poi.ss.usermodel.IndexedColors;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 导入错误标注工作簿服务
+
+ * 作用：把导入失败的原始工作簿按导入结果重新生成一份：出错的单元格标红，末尾追加"错误信息"列，
+ * 用户直接在标注后的文件上修改后重新导入，不必按错误列表中的行号逐行查找
+
+ * 处理方式（内存占用与文件行数无关）：
+ * - 原文件由EasyExcel事件模式逐行读取（不加载整个工作簿）
+ * - 每读满一批即写入响应流，EasyExcel写xlsx使用SXSSF，只在内存中保留最近的窗口行
+ * - 错误按行号排序后随读取进度顺序推进，错误描述只在写到该行时渲染
+ * - 空行按原行号补齐，标注后的文件行号与导入结果中的excelRowNum一致
+
+ * 出错单元格按错误字段（规则字段名，或"资产ID"等列名）定位到模板列；系统错误等无法定位到列的只写错误信息
+ */
+@Slf4j
+@Service
+public class ImportErrorWorkbookService {
+
+    /**
+     * 每批写出的行数
+     */
+    private static final int WRITE_BATCH_SIZE = 1000;
+
+    /**
+     * 模板表头行数（与导入时跳过的表头行数一致，错误信息列标题写在最后一个表头行）
+     */
+    private static final int HEAD_ROW_COUNT = 2;
+
+    private static final String ERROR_COLUMN_TITLE = "错误信息";
+
+    /**
+     * 资产类型对应的Excel导入VO（用于把错误字段定位到模板列）
+     */
+    private static final Map<String, Class<?>> HEAD_CLASSES = Map.of(
+            "软件资产", SoftwareAssetExcelVO.class,
+            "网信资产", CyberAssetExcelVO.class,
+            "数据内容资产", DataContentAssetExcelVO.class);
+
+    /**
+     * 校验上传文件是否为Excel工作簿（CSV导入的错误不生成标注工作簿）
+     *
+     * @throws IllegalArgumentException 不是xlsx/xls文件或资产类型未知时抛出
+     */
+    public void validate(String assetType, Path workbook) throws IOException {
+        if (!HEAD_CLASSES.containsKey(assetType)) {
+            throw new IllegalArgumentException("不支持的资产类型：" + assetType);
+        }
+        byte[] magic = new byte[4];
+        int n;
+        try (InputStream in = Files.newInputStream(workbook)) {
+            n = in.readNBytes(magic, 0, magic.length);
+        }
+        boolean zip = magic[0] == 0x50 && magic[1] == 0x4B && magic[2] == 0x03 && magic[3] == 0x04;
+        boolean ole = (magic[0] & 0xFF) == 0xD0 && (magic[1] & 0xFF) == 0xCF
+                && (magic[2] & 0xFF) == 0x11 && (magic[3] & 0xFF) == 0xE0;
+        if (n < magic.length || !(zip || ole)) {
+            throw new IllegalArgumentException("只能为Excel文件（.xlsx、.xls）生成错误标注，请上传导入时使用的工作簿");
+        }
+    }
+
+    /**
+     * 生成错误标注工作簿并写入输出流（xlsx格式）
+     *
+     * @param assetType 资产类型
+     * @param workbook 导入时使用的原始工作簿（读取第一个工作表）
+     * @param errors 导入结果中的错误列表（行号为Excel行号，从1开始）
+     * @param out 输出流（写完不关闭）
+     */
+    public void write(String assetType, Path workbook, List<ExcelErrorVO> errors, OutputStream out) {
+        Map<String, Integer> columnIndexes = CsvRowReader.templateColumnIndexes(HEAD_CLASSES.get(assetType));
+        int templateColumns = columnIndexes.values().stream().mapToInt(Integer::intValue).max().orElse(-1) + 1;
+        long start = System.currentTimeMillis();
+
+        RowAnnotator annotator = new RowAnnotator(errors, columnIndexes);
+        ExcelWriter writer = EasyExcel.write(out).registerWriteHandler(annotator).autoCloseStream(false).build();
+        WriteSheet sheet = EasyExcel.writerSheet(0, "错误标注").build();
+        AnnotatingReader reader = new AnnotatingReader(writer, sheet, annotator, templateColumns);
+        try {
+            EasyExcel.read(workbook.toFile(), reader).sheet(0).headRowNumber(0).doRead();
+            reader.flush();
+        } finally {
+            writer.finish();
+        }
+        log.info("{}错误标注工作簿生成完成：{}行，标注错误{}行，耗时{}ms", assetType, reader.nextRowIndex,
+                annotator.annotatedRows, System.currentTimeMillis() - start);
+    }
+
+    // ============================ 逐行读取与写出 ============================
+
+    /**
+     * 读取原工作簿的每一行（含表头），追加错误信息列后按批写出
+     */
+    private static final class AnnotatingReader extends AnalysisEventListener<Map<Integer, String>> {
+
+        private final ExcelWriter writer;
+        private final WriteSheet sheet;
+        private final RowAnnotator annotator;
+        private final int templateColumns;
+        private final List<List<String>> pending = new ArrayList<>(WRITE_BATCH_SIZE);
+
+        /**
+         * 下一个写出的行序号（从0开始）
+         */
+        private int nextRowIndex;
+
+        private AnnotatingReader(ExcelWriter writer, WriteSheet sheet, RowAnnotator annotator, int templateColumns) {
+            this.writer = writer;
+            this.sheet = sheet;
+            this.annotator = annotator;
+            this.templateColumns = templateColumns;
+        }
+
+        @Override
+        public void invoke(Map<Integer, String> data, AnalysisContext context) {
+            int rowIndex = context.readRowHolder().getRowIndex();
+            // EasyExcel跳过空行，补齐空行保持行号不变
+            while (nextRowIndex < rowIndex) {
+                addRow(new ArrayList<>(), nextRowIndex);
+            }
+            int lastColumn = data.keySet().stream().mapToInt(Integer::intValue).max().orElse(-1);
+            List<String> row = new ArrayList<>(Math.max(lastColumn + 1, templateColumns) + 1);
+            for (int i = 0; i <= lastColumn; i++) {
+                row.add(data.get(i));
+            }
+            addRow(row, rowIndex);
+        }
+
+        private void addRow(List<String> row, int rowIndex) {
+            String message = (rowIndex == HEAD_ROW_COUNT - 1) ? ERROR_COLUMN_TITLE : annotator.prepare(rowIndex + 1);
+            if (message != null) {
+                while (row.size() < templateColumns) {
+                    row.add(null);
+                }
+                row.add(message);
+            }
+            pending.add(row);
+            nextRowIndex = rowIndex + 1;
+            if (pending.size() >= WRITE_BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            writer.write(pending, sheet);
+            pending.clear();
+            annotator.clearWritten();
+        }
+
+        @Override
+        public void doAfterAllAnalysed(AnalysisContext context) {
+            // 剩余行由write()在读取结束后写出
+        }
+    }
+
+    /**
+     * 行号 → 错误的定位与单元格标红（错误按行号排序后顺序推进，只保留当前批次待写出行的出错列）
+     */
+    private static final class RowAnnotator implements CellWriteHandler {
+
+        private final List<ExcelErrorVO> errors;
+        private final Map<String, Integer> columnIndexes;
+
+        /**
+         * 按行号排序的错误下标（高32位为行号，低32位为错误列表下标）
+         */
+        private final long[] sortedEntries;
+
+        private int cursor;
+
+        /**
+         * 当前批次中出错的行：Key: 行序号（从0开始）, Value: 出错列序号
+         */
+        private final Map<Integer, int[]> pendingHighlights = new HashMap<>();
+
+        private CellStyle highlightStyle;
+
+        private int annotatedRows;
+
+        private RowAnnotator(List<ExcelErrorVO> errors, Map<String, Integer> columnIndexes) {
+            this.errors = errors;
+            this.columnIndexes = columnIndexes;
+            long[] entries = new long[errors.size()];
+            int count = 0;
+            for (int i = 0; i < errors.size(); i++) {
+                Integer rowNum = errors.get(i).getExcelRowNum();
+                // 行号为0的是重复数据汇总信息，不对应具体行
+                if (rowNum != null && rowNum > 0) {
+                    entries[count++] = ((long) rowNum << 32) | i;
+                }
+            }
+            this.sortedEntries = Arrays.copyOf(entries, count);
+            Arrays.sort(sortedEntries);
+        }
+
+        /**
+         * 取得该行的错误信息并登记出错列（行号必须递增调用）
+         *
+         * @param rowNum Excel行号（从1开始）
+         * @return 错误信息，该行无错误时返回null
+         */
+        private String prepare(int rowNum) {
+            while (cursor < sortedEntries.length && (int) (sortedEntries[cursor] >>> 32) < rowNum) {
+                cursor++;
+            }
+            StringBuilder message = null;
+            List<Integer> columns = new ArrayList<>();
+            while (cursor < sortedEntries.length && (int) (sortedEntries[cursor] >>> 32) == rowNum) {
+                ExcelErrorVO error = errors.get((int) sortedEntries[cursor++]);
+                message = (message == null) ? new StringBuilder() : message.append('\n');
+                message.append(error.getErrorMsg());
+                if (error.getErrorFields() != null) {
+                    for (String field : error.getErrorFields().split(",")) {
+                        Integer column = columnOf(field.trim());
+                        if (column != null) {
+                            columns.add(column);
+                        }
+                    }
+                }
+            }
+            if (message == null) {
+                return null;
+            }
+            annotatedRows++;
+            if (!columns.isEmpty()) {
+                pendingHighlights.put(rowNum - 1, columns.stream().mapToInt(Integer::intValue).toArray());
+            }
+            return message.toString();
+        }
+
+        private Integer columnOf(String field) {
+            Integer column = columnIndexes.get(field);
+            // 关键字段冲突、文件内ID重复等错误的字段为"资产ID"
+            return (column == null && "资产ID".equals(field)) ? columnIndexes.get("id") : column;
+        }
+
+        private void clearWritten() {
+            pendingHighlights.clear();
+        }
+
+        @Override
+        public void afterCellDispose(CellWriteHandlerContext context) {
+            int[] columns = pendingHighlights.get(context.getRowIndex());
+            if (columns == null) {
+                return;
+            }
+            int columnIndex = context.getColumnIndex();
+            for (int column : columns) {
+                if (column == columnIndex) {
+                    context.getCell().setCellStyle(highlightStyle(context));
+                    return;
+                }
+            }
+        }
+
+        /**
+         * 标红样式（整个工作簿共用一个，避免超出单元格样式数上限）
+         */
+        private CellStyle highlightStyle(CellWriteHandlerContext context) {
+            if (highlightStyle == null) {
+                highlightStyle = context.getWriteWorkbookHolder().getWorkbook().createCellStyle();
+                highlightStyle.setFillForegroundColor(IndexedColors.ROSE.getIndex());
+                highlightStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+            }
+            return highlightStyle;
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package com.military.asset.service.impl;
+
+import com.military.asset.listener.ImportProgress;
+import com.military.asset.vo.ImportResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.LongSupplier;
+
+/**
+ * 导入结果复用服务（相同文件内容的幂等导入）
+
+ * 作用：同一个文件被重复上传时（操作员"保险起见"多传几次），不再重新解析和判重，
+ * 直接返回最近一次导入该文件的结果
+
+ * 判定规则：
+ * - 按上传文件内容的SHA-256 + 资产类型识别同一次导入（与文件名无关）
+ * - 只复用成功完成的导入结果，保留asset.import.idempotency.window-minutes分钟（默认30，0为关闭）
+ * - 两次导入之间该资产表被新增、修改、删除或对账发现偏差（数据版本变化）时不复用，重新导入
+ * - 相同文件的导入正在进行时，后到的请求等待其完成后复用结果，不并发重复导入
+ *   （异步任务等待期间响应取消；调用方在进入本服务前已取得该资产类型的执行槽位，
+ *   进行中的导入不会反过来等待后到请求持有的槽位）
+ * - 请求参数force=true时跳过复用，强制重新导入
+ * - 可复用的结果保存在ImportResultStore（紧凑快照），本服务只记录结果ID；
+ *   复用时按ID取回，结果已过期或被淘汰时视为未命中，重新导入
+ */
+@Slf4j
+@Service
+public class ImportIdempotencyService {
+
+    private static final int DIGEST_BUFFER_SIZE = 1024 * 1024;
+
+    /**
+     * 等待相同文件的导入完成期间检查取消请求的间隔（毫秒）
+     */
+    private static final long WAIT_CHECK_INTERVAL_MS = 500;
+
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    /**
+     * 结果复用时间窗口（分钟，<=0 关闭）
+     */
+    private final long windowMinutes;
+
+    /**
+     * 最多保留的已完成导入记录数（每条只含结果ID和数据版本）
+     */
+    private final int maxEntries;
+
+    private final ImportResultStore importResultStore;
+
+    /**
+     * Key: 资产类型 + ":" + 文件SHA-256
+     */
+    private final Map<String, ImportEntry> entries = new ConcurrentHashMap<>();
+
+    public ImportIdempotencyService(@Value("${asset.import.idempotency.window-minutes:30}") long windowMinutes,
+                                    @Value("${asset.import.idempotency.max-entries:20}") int maxEntries,
+                                    ImportResultStore importResultStore) {
+        this.windowMinutes = windowMinutes;
+        this.maxEntries = Math.max(maxEntries, 1);
+        this.importResultStore = importResultStore;
+    }
+
+    public boolean isEnabled() {
+        return windowMinutes > 0;
+    }
+
+    /**
+     * 幂等执行导入：相同内容的文件在时间窗口内已成功导入且数据版本未变时直接返回该次结果，否则执行导入
+     *
+     * @param assetType 资产类型
+     * @param uploadFile 已落盘的上传文件
+     * @param dataVersion 该资产表当前的数据版本
+     * @param progress 导入进度（异步任务传入，等待相同文件的导入期间响应取消；同步导入传null）
+     * @param importer 实际导入流程
+     * @return 导入结果（可复用时为ImportResultStore中保存的快照；复用时为带提示信息的副本，明细与该快照共享）
+     * @throws CancellationException 等待期间任务被取消时抛出
+     */
+    public ImportResult importOnce(String assetType, Path uploadFile, LongSupplier dataVersion,
+                                   ImportProgress progress, Callable<ImportResult> importer) throws Exception {
+        if (!isEnabled()) {
+            return importer.call();
+        }
+        String contentHash = sha256(uploadFile);
+        String key = assetType + ":" + contentHash;
+        while (true) {
+            long version = dataVersion.getAsLong();
+            ImportEntry created = new ImportEntry(version);
+            ImportEntry entry = entries.compute(key, (k, existing) ->
+                    (existing != null && existing.isReusable(version)) ? existing : created);
+
+            if (entry != created) {
+                // 已有相同文件的导入：进行中则等待，失败、数据已变化或结果已被淘汰时移除该记录后重新判断
+                ImportResultStore.StoredResult reused = awaitReusable(entry, version, progress);
+                if (reused != null) {
+                    log.info("{}导入文件内容与{}完成的导入相同（SHA-256={}），复用该次导入结果：结果ID={}",
+                            assetType, entry.completeTime.format(TIME_FORMAT), contentHash, reused.getResultId());
+                    return reusedCopy(reused.getResult(), entry.completeTime);
+                }
+                entries.remove(key, entry);
+                continue;
+            }
+
+            try {
+                ImportResult result = importer.call();
+                boolean reusable = result != null && result.isSuccess() && result.getData() != null
+                        && dataVersion.getAsLong() == version;
+                if (!reusable) {
+                    entries.remove(key, created);
+                    created.complete(null, false);
+                    return result;
+                }
+                ImportResultStore.StoredResult stored = importResultStore.save(assetType, result);
+                created.complete(stored.getResultId(), true);
+                evictOverflow();
+                return stored.getResult();
+            } catch (Exception | Error e) {
+                entries.remove(key, created);
+                created.fail(e);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * 计算文件内容的SHA-256（按1MB缓冲区顺序读取，不把文件读入内存）
+     *
+     * @return 十六进制小写摘要
+     */
+    public static String sha256(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("当前JDK不支持SHA-256", e);
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(DIGEST_BUFFER_SIZE);
+            while (channel.read(buffer) >= 0) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * 定时清理过期结果（每分钟）
+     */
+    @Scheduled(fixedDelay = 60_000)
+    public void evictExpiredEntries() {
+        entries.values().removeIf(ImportEntry::isExpired);
+    }
+
+    /**
+     * 等待相同文件的导入完成，并按结果ID取回保存的结果
+     *
+     * @return 可复用的结果；先到的导入失败、数据版本已变化或结果已过期/被淘汰时返回null
+     */
+    private ImportResultStore.StoredResult awaitReusable(ImportEntry entry, long version, ImportProgress progress)
+            throws InterruptedException {
+        while (true) {
+            if (progress != null && progress.isCancelled()) {
+                throw new CancellationException("导入任务在等待相同文件的导入完成时被取消");
+            }
+            try {
+                String resultId = entry.future.get(WAIT_CHECK_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                return (entry.reusable && entry.dataVersion == version && resultId != null)
+                        ? importResultStore.get(resultId) : null;
+            } catch (TimeoutException e) {
+                // 继续等待，下一轮检查取消请求
+            } catch (ExecutionException | CancellationException e) {
+                // 先到的导入失败，由当前请求重新导入
+                return null;
+            }
+        }
+    }
+
+    /**
+     * 超出数量上限时移除最早完成的结果
+     */
+    private void evictOverflow() {
+        while (entries.size() > maxEntries) {
+            Optional<Map.Entry<String, ImportEntry>> oldest = entries.entrySet().stream()
+                    .filter(e -> e.getValue().future.isDone())
+                    .min(Comparator.comparing(e -> e.getValue().completeTime));
+            if (oldest.isEmpty()) {
+                // 其余都是进行中的导入
+                return;
+            }
+            entries.remove(oldest.get().getKey(), oldest.get().getValue());
+        }
+    }
+
+    private static ImportResult reusedCopy(ImportResult original, LocalDateTime completeTime) {
+        ImportResult copy = new ImportResult();
+        copy.setSuccess(original.isSuccess());
+        copy.setMessage(String.format("文件内容与%s完成的导入相同，未重复导入，返回该次导入结果。%s",
+                completeTime.format(TIME_FORMAT), original.getMessage()));
+        copy.setData(original.getData());
+        return copy;
+    }
+
+    /**
+     * 一次导入（进行中或已完成；完成后只保存结果ID）
+     */
+    private final class ImportEntry {
+
+        private final long dataVersion;
+        private final CompletableFuture<String> future = new CompletableFuture<>();
+        private volatile boolean reusable;
+        private volatile LocalDateTime completeTime;
+
+        private ImportEntry(long dataVersion) {
+            this.dataVersion = dataVersion;
+        }
+
+        private void complete(String resultId, boolean reusable) {
+            this.completeTime = LocalDateTime.now();
+            this.reusable = reusable;
+            future.complete(resultId);
+        }
+
+        private void fail(Throwable e) {
+            future.completeExceptionally(e);
+        }
+
+        /**
+         * 进行中，或已成功完成、未过期且数据版本未变
+         */
+        private boolean isReusable(long currentVersion) {
+            if (!future.isDone()) {
+                return true;
+            }
+            return reusable && dataVersion == currentVersion && !isExpired();
+        }
+
+        private boolean isExpired() {
+            return future.isDone() && completeTime != null
+                    && LocalDateTime.now().isAfter(completeTime.plusMinutes(windowMinutes));
+        }
+    }
+}
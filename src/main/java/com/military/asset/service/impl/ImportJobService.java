@@ -0,0 +1,325 @@
+package com.military.asset.service.impl;
+
+import com.military.asset.listener.ImportProgress;
+import com.military.asset.vo.ImportJobVO;
+import com.military.asset.vo.ImportResult;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+
+/**
+ * 异步导入任务服务
+
+ * 作用：导入接口提交任务后立即返回任务ID，解析、校验、保存在importExecutor线程池中执行
+
+ * 任务生命周期：
+ * PENDING（排队） → RUNNING（执行中） → SUCCEEDED / FAILED / CANCELLED
+ * （写库的任务先在ImportAdmissionService中按资产类型排队，取得执行槽位后才提交到线程池，
+ *   排队期间不占用导入线程，并返回排队位置；仅校验的任务不排队，直接提交）
+
+ * 关键设计：
+ * - 上传文件先落盘为临时文件（MultipartFile在请求结束后失效），任务结束后删除
+ * - 进度由监听器通过ImportProgress实时写入，查询接口无锁读取
+ * - 取消：排队中的任务直接移出队列（同类型排队或线程池队列）；
+ *   执行中的任务在下一行停止解析，不再保存剩余数据
+ *   （流式提交模式下取消前已提交的批次保留在库中）
+ * - 已结束的任务保留asset.import.job.retention-minutes分钟（默认60）供查询结果，之后自动清理
+ * - 成功结束的任务将结果保存到ImportResultStore，任务只记录resultId（完整结果和分页明细均从结果存储获取）
+ */
+@Slf4j
+@Service
+public class ImportJobService {
+
+    /**
+     * 任务状态
+     */
+    public enum JobStatus {
+        PENDING, RUNNING, SUCCEEDED, FAILED, CANCELLED
+    }
+
+    /**
+     * 导入任务执行体（由导入控制器提供具体资产类型的导入流程）
+     */
+    @FunctionalInterface
+    public interface ImportTask {
+        ImportResult run(Path uploadFile, ImportProgress progress) throws Exception;
+    }
+
+    private final ThreadPoolTaskExecutor importExecutor;
+
+    private final ImportAdmissionService importAdmissionService;
+
+    private final ImportResultStore importResultStore;
+
+    /**
+     * 已结束任务的保留时长（分钟）
+     */
+    private final long retentionMinutes;
+
+    /**
+     * 任务注册表，Key: 任务ID
+     */
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    public ImportJobService(@Qualifier("importExecutor") ThreadPoolTaskExecutor importExecutor,
+                            ImportAdmissionService importAdmissionService,
+                            ImportResultStore importResultStore,
+                            @Value("${asset.import.job.retention-minutes:60}") long retentionMinutes) {
+        this.importExecutor = importExecutor;
+        this.importAdmissionService = importAdmissionService;
+        this.importResultStore = importResultStore;
+        this.retentionMinutes = retentionMinutes;
+    }
+
+    /**
+     * 提交导入任务
+     *
+     * @param assetType 资产类型（用于日志和结果展示）
+     * @param fileName 上传文件名
+     * @param tempFile 已落盘的上传文件（任务结束后删除）
+     * @param admission 是否按资产类型排队（写库的导入为true；仅校验不写库，传false直接提交）
+     * @param task 导入流程
+     * @return 任务状态快照
+     * @throws org.springframework.core.task.TaskRejectedException 同类型排队已满或线程池队列已满时抛出（调用方负责删除临时文件）
+     */
+    public ImportJobVO submit(String assetType, String fileName, Path tempFile, boolean admission, ImportTask task) {
+        ImportJob job = new ImportJob(UUID.randomUUID().toString().replace("-", ""), assetType, fileName, tempFile);
+        jobs.put(job.getJobId(), job);
+        try {
+            if (admission) {
+                importAdmissionService.enqueue(assetType, job.progress, new ImportAdmissionService.Dispatcher() {
+                    @Override
+                    public void dispatch(ImportAdmissionService.Permit permit) {
+                        start(job, task, permit);
+                    }
+
+                    @Override
+                    public void reject(RuntimeException reason) {
+                        // 已登记排队、之后超时或提交失败：任务就此结束
+                        job.finish(reason instanceof CancellationException ? JobStatus.CANCELLED : JobStatus.FAILED,
+                                null, reason.getMessage());
+                        deleteQuietly(job.tempFile);
+                        log.warn("{}导入任务未能开始：任务ID={}，原因={}", assetType, job.getJobId(), reason.getMessage());
+                    }
+                });
+            } else {
+                start(job, task, null);
+            }
+        } catch (RuntimeException e) {
+            jobs.remove(job.getJobId());
+            throw e;
+        }
+        log.info("{}导入任务已提交：任务ID={}，文件={}", assetType, job.getJobId(), fileName);
+        return job.toVO();
+    }
+
+    /**
+     * 查询任务
+     *
+     * @return 任务，不存在或已过期清理时返回null
+     */
+    public ImportJob getJob(String jobId) {
+        return jobs.get(jobId);
+    }
+
+    /**
+     * 查询全部任务（按提交时间倒序）
+     */
+    public List<ImportJobVO> listJobs() {
+        return jobs.values().stream()
+                .sorted(Comparator.comparing(ImportJob::getSubmitTime).reversed())
+                .map(ImportJob::toVO)
+                .toList();
+    }
+
+    /**
+     * 取消任务
+     *
+     * @return 取消后的任务状态快照，任务不存在时返回null
+     */
+    public ImportJobVO cancel(String jobId) {
+        ImportJob job = jobs.get(jobId);
+        if (job == null) {
+            return null;
+        }
+        job.progress.cancel();
+        synchronized (job) {
+            if (job.status == JobStatus.PENDING && withdraw(job)) {
+                // 仍在队列中，不会再被执行，此处直接结束并删除临时文件
+                job.finish(JobStatus.CANCELLED, null, "任务在排队中被取消");
+                deleteQuietly(job.tempFile);
+            }
+        }
+        log.info("{}导入任务请求取消：任务ID={}，当前状态={}", job.getAssetType(), jobId, job.status);
+        return job.toVO();
+    }
+
+    /**
+     * 将排队中的任务移出队列（同类型排队中，或已提交但线程池尚未开始执行）
+     *
+     * @return 是否已移出（移出后任务不会再执行）
+     */
+    private boolean withdraw(ImportJob job) {
+        if (job.future == null) {
+            return importAdmissionService.withdraw(job.getAssetType(), job.progress);
+        }
+        if (job.future.cancel(false)) {
+            closePermit(job);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 提交到导入线程池（permit为本任务的执行槽位，任务结束或在线程池队列中被取消时关闭；不排队的任务为null）
+     */
+    private void start(ImportJob job, ImportTask task, ImportAdmissionService.Permit permit) {
+        synchronized (job) {
+            job.permit = permit;
+            job.future = importExecutor.submit(() -> execute(job, task));
+        }
+    }
+
+    private void closePermit(ImportJob job) {
+        if (job.permit != null) {
+            job.permit.close();
+        }
+    }
+
+    /**
+     * 在导入线程中执行任务
+     */
+    private void execute(ImportJob job, ImportTask task) {
+        try {
+            synchronized (job) {
+                if (job.progress.isCancelled()) {
+                    job.finish(JobStatus.CANCELLED, null, "任务在开始前被取消");
+                    return;
+                }
+                job.status = JobStatus.RUNNING;
+                job.startTime = LocalDateTime.now();
+            }
+            log.info("{}导入任务开始执行：任务ID={}", job.getAssetType(), job.getJobId());
+
+            ImportResult result = task.run(job.tempFile, job.progress);
+            if (result.getData() != null) {
+                job.finish(JobStatus.SUCCEEDED, importResultStore.save(job.getAssetType(), result).getResultId(),
+                        "导入完成");
+            } else {
+                job.finish(JobStatus.SUCCEEDED, null, result.getMessage());
+            }
+        } catch (CancellationException e) {
+            job.finish(JobStatus.CANCELLED, null, e.getMessage());
+        } catch (Exception e) {
+            log.error("{}导入任务执行失败：任务ID={}，原因={}", job.getAssetType(), job.getJobId(), e.getMessage(), e);
+            job.finish(JobStatus.FAILED, null, "导入失败：" + e.getMessage());
+        } finally {
+            closePermit(job);
+            deleteQuietly(job.tempFile);
+            log.info("{}导入任务结束：任务ID={}，状态={}", job.getAssetType(), job.getJobId(), job.status);
+        }
+    }
+
+    /**
+     * 定时清理已结束且超过保留时长的任务（每分钟）
+     */
+    @Scheduled(fixedDelay = 60_000)
+    public void evictExpiredJobs() {
+        LocalDateTime deadline = LocalDateTime.now().minusMinutes(retentionMinutes);
+        jobs.values().removeIf(job -> job.finishTime != null && job.finishTime.isBefore(deadline));
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (Exception e) {
+            log.warn("删除导入临时文件失败：{}，原因：{}", file, e.getMessage());
+        }
+    }
+
+    // ============================ 任务对象 ============================
+
+    /**
+     * 导入任务（内部状态，对外以ImportJobVO快照返回）
+     */
+    @Getter
+    public static class ImportJob {
+
+        private final String jobId;
+        private final String assetType;
+        private final String fileName;
+        private final ImportProgress progress = new ImportProgress();
+        private final LocalDateTime submitTime = LocalDateTime.now();
+        private final Path tempFile;
+
+        private volatile JobStatus status = JobStatus.PENDING;
+        private volatile String message;
+
+        /**
+         * 成功结束时保存在ImportResultStore中的结果ID（任务本身不持有结果）
+         */
+        private volatile String resultId;
+        private volatile LocalDateTime startTime;
+        private volatile LocalDateTime finishTime;
+        private volatile Future<?> future;
+        private volatile ImportAdmissionService.Permit permit;
+
+        ImportJob(String jobId, String assetType, String fileName, Path tempFile) {
+            this.jobId = jobId;
+            this.assetType = assetType;
+            this.fileName = fileName;
+            this.tempFile = tempFile;
+        }
+
+        /**
+         * 任务是否已结束（成功、失败或取消）
+         */
+        public boolean isFinished() {
+            return finishTime != null;
+        }
+
+        private synchronized void finish(JobStatus status, String resultId, String message) {
+            if (finishTime != null) {
+                return;
+            }
+            this.status = status;
+            this.resultId = resultId;
+            this.message = message;
+            this.finishTime = LocalDateTime.now();
+        }
+
+        public ImportJobVO toVO() {
+            ImportJobVO vo = new ImportJobVO();
+            vo.setJobId(jobId);
+            vo.setAssetType(assetType);
+            vo.setFileName(fileName);
+            vo.setStatus(status.name());
+            vo.setQueuePosition(progress.getQueuePosition());
+            vo.setRowsParsed(progress.getRowsParsed());
+            vo.setValidCount(progress.getValidCount());
+            vo.setErrorCount(progress.getErrorCount());
+            vo.setSavedCount(progress.getSavedCount());
+            vo.setMessage(message);
+            vo.setResultId(resultId);
+            vo.setSubmitTime(submitTime);
+            vo.setStartTime(startTime);
+            vo.setFinishTime(finishTime);
+            return vo;
+        }
+    }
+}
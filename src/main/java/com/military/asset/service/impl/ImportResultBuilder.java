@@ -0,0 +1,295 @@
+package com.military.asset.service.impl;
+
+import com.military.asset.listener.AssetImportListener;
+import com.military.asset.listener.rule.ImportErrorBuffer;
+import com.military.asset.utils.IntArrayBuffer;
+import com.military.asset.vo.ExcelErrorVO;
+import com.military.asset.vo.ImportResult;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.AbstractList;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * 导入结果构建器
+
+ * 作用：由解析完成的监听器构建ImportResult（同步导入、异步任务、摘要导入共用），
+ * 不依赖Spring容器，基准测试可直接调用
+
+ * 结果中的错误详情、成功记录均为延迟视图，构建本身不复制明细，序列化或分页读取时才逐条渲染；
+ * 需要长期保存的结果先经compact转为不引用监听器的紧凑快照
+ */
+@Slf4j
+public final class ImportResultBuilder {
+
+    private ImportResultBuilder() {
+    }
+
+    /**
+     * 构建统一的导入结果对象（无限制记录数量）
+
+     * 核心特性：
+     * - 移除Excel内部重复统计，统一为系统重复
+     * - 简化重复数据显示逻辑
+     * - 适配新的监听器方法名
+     * - 无限制返回所有成功和失败记录
+     * - 支持10万+行数据的完整结果返回
+
+     * 返回结构：
+     * - 总处理行数、成功导入数、重复跳过数、错误数量
+     * - 完整的错误详情列表（无数量限制）
+     * - 完整的重复记录详情（无数量限制）
+     * - 完整的成功记录列表（无数量限制）
+     *
+     * @param listener Excel监听器实例（包含处理结果）
+     * @param assetType 资产类型（用于生成结果消息）
+     * @return ImportResult 完整的导入结果对象
+     */
+    public static ImportResult build(AssetImportListener<?, ?> listener, String assetType) {
+        // 获取处理结果数据（三类资产监听器共用AssetImportListener的结果接口）
+        List<ExcelErrorVO> errorDataList = listener.getErrorDataList();
+        int systemDuplicateCount = listener.getSystemDuplicateCount();
+
+        List<Object> duplicateRecords = listener.getDuplicateRecords();
+        int validCount = listener.getValidCount();
+        boolean streamingMode = listener.isStreamingMode();
+
+        // 计算统计信息（流式模式下validDataList已释放，以validCount为准）
+        int totalRows = validCount + errorDataList.size() + systemDuplicateCount;
+        int successCount = validCount;
+        int errorCount = errorDataList.size();
+
+        // 创建基础结果对象
+        ImportResult result = new ImportResult();
+        result.setSuccess(true);
+
+        // 根据处理结果设置相应的提示消息
+        if (listener.isDryRun()) {
+            if (errorCount > 0) {
+                result.setMessage(String.format("%s校验完成（未写入数据库），存在%d条需要修正的错误", assetType, errorCount));
+            } else if (systemDuplicateCount > 0) {
+                result.setMessage(String.format("%s校验完成（未写入数据库），%d条数据可以导入，将自动跳过%d条重复数据",
+                        assetType, successCount, systemDuplicateCount));
+            } else {
+                result.setMessage(String.format("%s校验完成（未写入数据库），%d条数据可以导入", assetType, successCount));
+            }
+        } else if (errorCount > 0) {
+            result.setMessage(String.format("%s导入完成，存在%d条需要修正的错误", assetType, errorCount));
+        } else if (systemDuplicateCount > 0) {
+            result.setMessage(String.format("%s导入完成，自动跳过%d条重复数据", assetType, systemDuplicateCount));
+        } else {
+            result.setMessage(String.format("%s导入完成，成功导入%d条数据", assetType, successCount));
+        }
+
+        // 构建详细的数据结构
+        ImportResult.ImportData data = new ImportResult.ImportData();
+
+        // 设置基础统计信息
+        data.setTotalRows(totalRows);
+        data.setSuccessCount(successCount);
+        data.setSkipCount(systemDuplicateCount); // 直接使用系统重复数量
+        data.setErrorCount(errorCount);
+
+        // 构建导入汇总信息
+        ImportResult.ImportSummary summary = new ImportResult.ImportSummary();
+        summary.setTotalProcessed(totalRows);
+        summary.setSuccessfullyImported(successCount);
+        summary.setDuplicatesSkipped(systemDuplicateCount); // 直接使用系统重复数量
+        summary.setCriticalErrors(errorCount);
+        data.setImportSummary(summary);
+
+        // 设置错误详情（无数量限制；延迟渲染视图，响应序列化或分页读取时才格式化错误描述）
+        data.setErrorDetails(errorDataList);
+
+        // 构建重复详情（简化逻辑，统一为系统重复）
+        ImportResult.DuplicateDetails duplicateDetails = new ImportResult.DuplicateDetails();
+        duplicateDetails.setTotalDuplicates(systemDuplicateCount); // 直接使用系统重复数量
+        duplicateDetails.setDuplicateRecords(Collections.unmodifiableList(duplicateRecords));
+        data.setDuplicateDetails(duplicateDetails);
+
+        // 构建成功记录列表（无数量限制；延迟视图，序列化或分页读取时才逐条构建；流式模式下仅含行号）
+        List<ImportResult.SuccessRecord> successRecords = streamingMode
+                ? buildSuccessRecords(listener.getSuccessRowNums())
+                : buildSuccessRecords(listener);
+        data.setSuccessRecords(successRecords);
+
+        // 设置完整数据到结果对象
+        result.setData(data);
+
+        // 记录详细的导入结果日志
+        log.info("{}导入结果构建完成: 总处理{}行, 成功{}条, 跳过{}条, 错误{}条",
+                assetType, totalRows, successCount, systemDuplicateCount, errorCount);
+
+        return result;
+    }
+
+    /**
+     * 构建成功记录列表（无数量限制）
+
+     * 功能说明：
+     * - 将有效数据转换为成功记录格式
+     * - 字段通过监听器的类型化访问方法读取，三种资产类型共用
+     * - 无数量限制，返回所有成功记录
+     * - 返回只读延迟视图，响应序列化或分页读取时才逐条转换，不预先复制10万+行数据
+     *
+     * @param listener Excel监听器实例（有效数据从监听器获取）
+     * @return List<ImportResult.SuccessRecord> 成功记录列表（无数量限制）
+     */
+    public static <VO> List<ImportResult.SuccessRecord> buildSuccessRecords(AssetImportListener<VO, ?> listener) {
+        List<VO> validDataList = listener.getValidDataList();
+        return new AbstractList<>() {
+            @Override
+            public ImportResult.SuccessRecord get(int index) {
+                VO validData = validDataList.get(index);
+                ImportResult.SuccessRecord record = new ImportResult.SuccessRecord();
+                record.setExcelRowNum(listener.getRowNum(validData));
+                record.setAssetId(listener.getAssetId(validData));
+                record.setAssetName(listener.getAssetName(validData));
+                record.setReportUnit(listener.getReportUnit(validData));
+                return record;
+            }
+
+            @Override
+            public int size() {
+                return validDataList.size();
+            }
+        };
+    }
+
+    /**
+     * 构建成功记录列表（流式提交模式）
+
+     * 流式模式下合法数据对象入库后即释放，成功记录只保留Excel行号（同样为延迟视图）
+     *
+     * @param successRowNums 成功行号缓冲区（从监听器获取）
+     * @return List<ImportResult.SuccessRecord> 仅包含行号的成功记录列表
+     */
+    public static List<ImportResult.SuccessRecord> buildSuccessRecords(IntArrayBuffer successRowNums) {
+        return new AbstractList<>() {
+            @Override
+            public ImportResult.SuccessRecord get(int index) {
+                ImportResult.SuccessRecord record = new ImportResult.SuccessRecord();
+                record.setExcelRowNum(successRowNums.get(index));
+                return record;
+            }
+
+            @Override
+            public int size() {
+                return successRowNums.size();
+            }
+        };
+    }
+
+    // ============================ 结果快照 ============================
+
+    /**
+     * 将build构建的结果转为紧凑快照（供ImportResultStore长期保存）
+
+     * build返回的成功记录视图直接引用监听器的validDataList（每行一个完整的Excel VO），
+     * 保存60分钟、最多50个结果时会把整个监听器一并留在内存中。快照后：
+     * - 成功记录只保留行号（int[]）和资产ID、名称、上报单位（String[]），流式模式下只有行号
+     * - 错误详情仍为延迟渲染视图，错误缓冲区按实际大小收缩，本身只引用行号、错误码和参数
+     * - 重复记录复制为按实际大小分配的只读列表
+     * 快照不再引用监听器，监听器及其合法数据在请求结束后即可回收
+     *
+     * @param result build构建的导入结果（data为空时原样返回）
+     * @return 不引用监听器的导入结果
+     */
+    public static ImportResult compact(ImportResult result) {
+        ImportResult.ImportData source = result.getData();
+        if (source == null) {
+            return result;
+        }
+        ImportResult.ImportData data = new ImportResult.ImportData();
+        data.setTotalRows(source.getTotalRows());
+        data.setSuccessCount(source.getSuccessCount());
+        data.setSkipCount(source.getSkipCount());
+        data.setErrorCount(source.getErrorCount());
+        data.setImportSummary(source.getImportSummary());
+        data.setErrorDetails(ImportErrorBuffer.compact(source.getErrorDetails()));
+
+        ImportResult.DuplicateDetails duplicateDetails = new ImportResult.DuplicateDetails();
+        if (source.getDuplicateDetails() != null) {
+            List<?> duplicateRecords = source.getDuplicateDetails().getDuplicateRecords();
+            duplicateDetails.setTotalDuplicates(source.getDuplicateDetails().getTotalDuplicates());
+            duplicateDetails.setDuplicateRecords((duplicateRecords != null)
+                    ? List.copyOf(duplicateRecords) : Collections.emptyList());
+        }
+        data.setDuplicateDetails(duplicateDetails);
+        data.setSuccessRecords(compactSuccessRecords(source.getSuccessRecords()));
+
+        ImportResult compacted = new ImportResult();
+        compacted.setSuccess(result.isSuccess());
+        compacted.setMessage(result.getMessage());
+        compacted.setData(data);
+        return compacted;
+    }
+
+    /**
+     * 将成功记录复制为列式数组（逐条读取一次，之后不再引用原列表）
+     */
+    static List<ImportResult.SuccessRecord> compactSuccessRecords(List<ImportResult.SuccessRecord> records) {
+        if (records == null || records.isEmpty()) {
+            return Collections.emptyList();
+        }
+        if (records instanceof CompactSuccessRecords) {
+            return records;
+        }
+        int size = records.size();
+        int[] rowNums = new int[size];
+        String[] fields = null;
+        for (int i = 0; i < size; i++) {
+            ImportResult.SuccessRecord record = records.get(i);
+            Integer rowNum = record.getExcelRowNum();
+            rowNums[i] = (rowNum != null) ? rowNum : 0;
+            if (record.getAssetId() != null || record.getAssetName() != null || record.getReportUnit() != null) {
+                // 流式模式下只有行号，此时不分配字段数组
+                if (fields == null) {
+                    fields = new String[size * 3];
+                }
+                fields[i * 3] = record.getAssetId();
+                fields[i * 3 + 1] = record.getAssetName();
+                fields[i * 3 + 2] = record.getReportUnit();
+            }
+        }
+        return new CompactSuccessRecords(rowNums, fields);
+    }
+
+    /**
+     * 列式存储的成功记录只读列表（get时才创建SuccessRecord）
+     */
+    private static final class CompactSuccessRecords extends AbstractList<ImportResult.SuccessRecord>
+            implements RandomAccess {
+
+        private final int[] rowNums;
+
+        /**
+         * 每行3个字段：资产ID、资产名称、上报单位；全部为空时为null
+         */
+        private final String[] fields;
+
+        private CompactSuccessRecords(int[] rowNums, String[] fields) {
+            this.rowNums = rowNums;
+            this.fields = fields;
+        }
+
+        @Override
+        public ImportResult.SuccessRecord get(int index) {
+            ImportResult.SuccessRecord record = new ImportResult.SuccessRecord();
+            record.setExcelRowNum(rowNums[index]);
+            if (fields != null) {
+                record.setAssetId(fields[index * 3]);
+                record.setAssetName(fields[index * 3 + 1]);
+                record.setReportUnit(fields[index * 3 + 2]);
+            }
+            return record;
+        }
+
+        @Override
+        public int size() {
+            return rowNums.length;
+        }
+    }
+}
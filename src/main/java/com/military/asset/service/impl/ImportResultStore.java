@@ -0,0 +1,199 @@
+package com.military.asset.service.impl;
+
+import com.military.asset.vo.ExcelErrorVO;
+import com.military.asset.vo.ImportResult;
+import com.military.asset.vo.ImportResultSummaryVO;
+import com.military.asset.vo.PageVO;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 导入结果存储服务
+
+ * 作用：导入完成后将完整结果保存在服务端，接口只返回摘要，
+ * 成功、错误、重复记录由客户端按页获取，避免10万行导入一次性返回几十MB的JSON
+
+ * 关键设计：
+ * - 保存前经ImportResultBuilder.compact转为紧凑快照，不再引用监听器及其合法数据：
+ *   成功记录为行号/ID/名称/上报单位的列式数组，错误描述仍在分页读取时才渲染，重复记录按实际大小复制
+ * - 结果保留asset.import.result.retention-minutes分钟（默认60），之后自动清理；
+ *   同时最多保留asset.import.result.max-entries个（默认50），超出时先淘汰最早保存的结果
+ * - 异步导入任务成功结束后同样保存结果，任务只记录resultId，完整结果只在本服务保存一份
+ * - 幂等复用（ImportIdempotencyService）同样只记录resultId，复用副本与快照共享明细，再次保存时返回已有记录
+ */
+@Slf4j
+@Service
+public class ImportResultStore {
+
+    /**
+     * 单页最大条数
+     */
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    /**
+     * 结果保留时长（分钟）
+     */
+    private final long retentionMinutes;
+
+    /**
+     * 最多保留的结果数
+     */
+    private final int maxEntries;
+
+    /**
+     * 结果注册表，Key: 结果ID
+     */
+    private final Map<String, StoredResult> results = new ConcurrentHashMap<>();
+
+    public ImportResultStore(@Value("${asset.import.result.retention-minutes:60}") long retentionMinutes,
+                             @Value("${asset.import.result.max-entries:50}") int maxEntries) {
+        this.retentionMinutes = retentionMinutes;
+        this.maxEntries = Math.max(maxEntries, 1);
+    }
+
+    /**
+     * 保存导入结果
+     *
+     * @param assetType 资产类型
+     * @param result 导入结果（data不能为空；保存的是其紧凑快照）
+     * @return 已保存的结果（result本身即已保存的快照或其复用副本时，返回已有记录，不重复保存）
+     */
+    public StoredResult save(String assetType, ImportResult result) {
+        for (StoredResult existing : results.values()) {
+            if (existing.getResult().getData() == result.getData() && !existing.isExpired()) {
+                return existing;
+            }
+        }
+        StoredResult stored = new StoredResult(UUID.randomUUID().toString().replace("-", ""), assetType,
+                ImportResultBuilder.compact(result), LocalDateTime.now().plusMinutes(retentionMinutes));
+        results.put(stored.getResultId(), stored);
+        evictOverflow();
+        log.info("{}导入结果已保存：结果ID={}，保留{}分钟", assetType, stored.getResultId(), retentionMinutes);
+        return stored;
+    }
+
+    /**
+     * 获取导入结果
+     *
+     * @return 结果不存在或已过期时返回null
+     */
+    public StoredResult get(String resultId) {
+        StoredResult stored = results.get(resultId);
+        if (stored == null || stored.isExpired()) {
+            return null;
+        }
+        return stored;
+    }
+
+    /**
+     * 定时清理过期结果（每分钟）
+     */
+    @Scheduled(fixedDelay = 60_000)
+    public void evictExpiredResults() {
+        results.values().removeIf(StoredResult::isExpired);
+    }
+
+    /**
+     * 超出数量上限时按保存时间淘汰最早的结果
+     */
+    private void evictOverflow() {
+        while (results.size() > maxEntries) {
+            Optional<StoredResult> oldest = results.values().stream()
+                    .min(Comparator.comparing(StoredResult::getCreateTime));
+            if (oldest.isEmpty()) {
+                return;
+            }
+            results.remove(oldest.get().getResultId(), oldest.get());
+            log.info("导入结果数超过上限{}，淘汰最早的结果：结果ID={}", maxEntries, oldest.get().getResultId());
+        }
+    }
+
+    /**
+     * 截取一页记录（只访问当前页元素，延迟视图只渲染当前页）
+     *
+     * @param records 完整记录列表
+     * @param page 页码（从1开始，<1按1处理）
+     * @param size 每页条数（限制在1~1000之间）
+     */
+    public static <T> PageVO<T> page(List<T> records, int page, int size) {
+        int pageNum = Math.max(page, 1);
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        List<T> source = (records != null) ? records : Collections.emptyList();
+
+        long from = (long) (pageNum - 1) * pageSize;
+        int fromIndex = (int) Math.min(from, source.size());
+        int toIndex = Math.min(fromIndex + pageSize, source.size());
+
+        PageVO<T> vo = new PageVO<>();
+        vo.setPage(pageNum);
+        vo.setSize(pageSize);
+        vo.setTotal(source.size());
+        vo.setRecords(List.copyOf(source.subList(fromIndex, toIndex)));
+        return vo;
+    }
+
+    // ============================ 结果对象 ============================
+
+    /**
+     * 已保存的导入结果
+     */
+    @Getter
+    public static class StoredResult {
+
+        private final String resultId;
+        private final String assetType;
+        private final ImportResult result;
+        private final LocalDateTime createTime = LocalDateTime.now();
+        private final LocalDateTime expireTime;
+
+        StoredResult(String resultId, String assetType, ImportResult result, LocalDateTime expireTime) {
+            this.resultId = resultId;
+            this.assetType = assetType;
+            this.result = result;
+            this.expireTime = expireTime;
+        }
+
+        public boolean isExpired() {
+            return LocalDateTime.now().isAfter(expireTime);
+        }
+
+        public List<ImportResult.SuccessRecord> getSuccessRecords() {
+            return result.getData().getSuccessRecords();
+        }
+
+        public List<ExcelErrorVO> getErrorDetails() {
+            return result.getData().getErrorDetails();
+        }
+
+        public List<?> getDuplicateRecords() {
+            return result.getData().getDuplicateDetails().getDuplicateRecords();
+        }
+
+        public ImportResultSummaryVO toSummaryVO() {
+            ImportResult.ImportData data = result.getData();
+            ImportResultSummaryVO vo = new ImportResultSummaryVO();
+            vo.setResultId(resultId);
+            vo.setAssetType(assetType);
+            vo.setMessage(result.getMessage());
+            vo.setTotalRows(data.getTotalRows());
+            vo.setSuccessCount(data.getSuccessCount());
+            vo.setSkipCount(data.getSkipCount());
+            vo.setErrorCount(data.getErrorCount());
+            vo.setCreateTime(createTime);
+            vo.setExpireTime(expireTime);
+            return vo;
+        }
+    }
+}
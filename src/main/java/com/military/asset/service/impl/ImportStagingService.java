@@ -0,0 +1,371 @@
+package com.military.asset.service.impl;
+
+import com.baomidou.mybatisplus.core.metadata.TableFieldInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.military.asset.entity.CyberAsset;
+import com.military.asset.entity.DataContentAsset;
+import com.military.asset.entity.SoftwareAsset;
+import com.military.asset.listener.AssetImportListener;
+import com.military.asset.mapper.ImportStagingMapper;
+import com.military.asset.vo.excel.CyberAssetExcelVO;
+import com.military.asset.vo.excel.DataContentAssetExcelVO;
+import com.military.asset.vo.excel.SoftwareAssetExcelVO;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+
+/**
+ * 导入暂存表合并服务
+
+ * 作用：大批量导入时不在内存中逐行判重，而是把通过字段校验的行批量写入每个导入任务独立的暂存表，
+ * 解析完成后用几条集合SQL完成重复分类和最终插入：
+ * 1. 暂存表关联目标表：ID已存在的行按关键字段是否一致标记为"系统重复"或"关键字段冲突"
+ * 2. 暂存表按ID分组：文件内ID重复的行只保留第一行，其余标记为"文件内重复"
+ * 3. 按行号流式读回被拒绝的行，交给监听器登记为重复记录或错误（错误信息格式与逐行判重一致）
+ * 4. INSERT ... SELECT 一次性写入目标表（单条语句，失败时整体回滚，不会部分入库）
+ * 5. 流式读回已插入行的ID与关键字段，增量更新导入去重指纹索引
+
+ * 与逐行判重的区别：
+ * - 不需要加载指纹索引，导入开始前没有预加载开销
+ * - 暂存期间目标表没有任何写入，取消或失败时删除暂存表即可，目标表保持不变
+ * - 能识别文件内ID重复（逐行判重模式下由主键冲突导致整批保存失败）
+
+ * 暂存行由Excel导入VO按同名属性复制为实体后写入，列清单取自MyBatis-Plus实体元数据
+
+ * 限制：INSERT ... SELECT不经过资产服务的批量保存，服务在保存时补齐的字段（Excel导入VO中没有的表字段，
+ * 如网信、数据内容资产的省、市）无法填充；存在这类字段的资产类型不使用暂存表合并（见serviceDerivedProperties）
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ImportStagingService {
+
+    private static final String STAGE_TABLE_PREFIX = "asset_import_stage_";
+
+    /**
+     * 单条多行INSERT的最大行数（控制语句大小，避免超过max_allowed_packet）
+     */
+    private static final int INSERT_CHUNK_SIZE = 500;
+
+    /**
+     * 更新指纹索引时每批处理的行数
+     */
+    private static final int INDEX_UPDATE_BATCH_SIZE = 1000;
+
+    private final ImportStagingMapper importStagingMapper;
+    private final AssetFingerprintIndexService assetFingerprintIndexService;
+
+    /**
+     * 创建暂存表并打开暂存会话（调用方用try-with-resources保证暂存表被删除）
+     *
+     * @param target 导入目标（资产类型）
+     * @return 暂存会话
+     */
+    public <VO, E> StagingSession<VO, E> open(StageTarget<VO, E> target) {
+        TableInfo tableInfo = TableInfoHelper.getTableInfo(target.entityClass());
+        if (tableInfo == null || tableInfo.getKeyColumn() == null) {
+            throw new IllegalStateException("未找到实体表信息：" + target.entityClass().getName());
+        }
+        String stageTable = STAGE_TABLE_PREFIX + UUID.randomUUID().toString().replace("-", "");
+        importStagingMapper.createStageTable(stageTable, tableInfo.getTableName());
+        try {
+            importStagingMapper.prepareStageTable(stageTable, tableInfo.getKeyColumn());
+        } catch (RuntimeException e) {
+            importStagingMapper.dropStageTable(stageTable);
+            throw e;
+        }
+        log.info("{}导入暂存表已创建：{}", target.assetTypeName(), stageTable);
+        return new StagingSession<>(target, tableInfo, stageTable);
+    }
+
+    /**
+     * 目标表中Excel导入VO不提供的字段（不含主键和自动填充的时间字段）
+
+     * 这些字段由资产服务在批量保存时补齐，暂存表合并写入时会为NULL；
+     * 返回非空时调用方应改用逐行判重导入（经资产服务保存）
+     *
+     * @param target 导入目标
+     * @return 属性名列表，全部字段都由VO提供时为空列表
+     */
+    public List<String> serviceDerivedProperties(StageTarget<?, ?> target) {
+        TableInfo tableInfo = TableInfoHelper.getTableInfo(target.entityClass());
+        if (tableInfo == null) {
+            throw new IllegalStateException("未找到实体表信息：" + target.entityClass().getName());
+        }
+        return tableInfo.getFieldList().stream()
+                .filter(field -> !field.isWithInsertFill() && !field.isWithUpdateFill())
+                .map(TableFieldInfo::getProperty)
+                .filter(property -> !AssetUpsertService.copiedFromRow(target.excelClass(), target.entityClass(),
+                        property))
+                .toList();
+    }
+
+    // ============================ 导入目标 ============================
+
+    /**
+     * 暂存表合并的导入目标
+     *
+     * @param assetTypeName 资产类型名称（用于日志和提示）
+     * @param excelClass Excel导入VO类型
+     * @param entityClass 目标表实体类型
+     * @param keyProperties 关键字段属性名（与监听器keyFingerprint使用的字段和顺序一致）
+     * @param rowNum Excel行号访问方法
+     * @param indexUpdater 插入成功后更新导入去重指纹索引
+     */
+    public record StageTarget<VO, E>(String assetTypeName, Class<VO> excelClass, Class<E> entityClass,
+                                     List<String> keyProperties, ToIntFunction<VO> rowNum,
+                                     BiConsumer<AssetFingerprintIndexService, List<VO>> indexUpdater) {
+
+        public static final StageTarget<SoftwareAssetExcelVO, SoftwareAsset> SOFTWARE = new StageTarget<>(
+                "软件资产", SoftwareAssetExcelVO.class, SoftwareAsset.class,
+                List.of("reportUnit", "assetCategory", "assetName"),
+                SoftwareAssetExcelVO::getExcelRowNum, AssetFingerprintIndexService::onSoftwareBatchSaved);
+
+        public static final StageTarget<CyberAssetExcelVO, CyberAsset> CYBER = new StageTarget<>(
+                "网信资产", CyberAssetExcelVO.class, CyberAsset.class,
+                List.of("reportUnit", "assetCategory", "assetName", "assetContent"),
+                CyberAssetExcelVO::getExcelRowNum, AssetFingerprintIndexService::onCyberBatchSaved);
+
+        public static final StageTarget<DataContentAssetExcelVO, DataContentAsset> DATA_CONTENT = new StageTarget<>(
+                "数据内容资产", DataContentAssetExcelVO.class, DataContentAsset.class,
+                List.of("reportUnit", "assetCategory", "assetName"),
+                DataContentAssetExcelVO::getExcelRowNum, AssetFingerprintIndexService::onDataContentBatchSaved);
+    }
+
+    // ============================ 暂存会话 ============================
+
+    /**
+     * 暂存会话（一次导入对应一张暂存表，关闭时删除暂存表）
+
+     * write由监听器的批量保存回调在解析线程中调用，merge在解析完成后调用一次
+     */
+    public final class StagingSession<VO, E> implements AutoCloseable {
+
+        private final StageTarget<VO, E> target;
+        private final String stageTable;
+        private final String targetTable;
+        private final String keyColumn;
+        private final String keyProperty;
+
+        /**
+         * 写入暂存表的属性（主键在前，其后为实体的全部表字段）与对应的列清单
+         */
+        private final List<String> properties = new ArrayList<>();
+        private final String columns;
+
+        /**
+         * 插入时自动填充的时间属性（实体@TableField(fill = INSERT)的LocalDateTime字段，原生SQL不经过填充处理器）
+         */
+        private final List<String> insertFillProperties = new ArrayList<>();
+
+        /**
+         * 关键字段比较条件与投影（按字节比较，与指纹比较一样区分大小写和首尾空格）
+         */
+        private final String keyMatch;
+        private final String excelKeyColumns;
+        private final String rejectedKeyColumns;
+
+        /**
+         * 已写入暂存表的行数
+         */
+        @Getter
+        private int stagedCount;
+
+        private StagingSession(StageTarget<VO, E> target, TableInfo tableInfo, String stageTable) {
+            this.target = target;
+            this.stageTable = stageTable;
+            this.targetTable = tableInfo.getTableName();
+            this.keyColumn = tableInfo.getKeyColumn();
+            this.keyProperty = tableInfo.getKeyProperty();
+
+            List<String> columnList = new ArrayList<>();
+            properties.add(keyProperty);
+            columnList.add(keyColumn);
+            for (TableFieldInfo field : tableInfo.getFieldList()) {
+                properties.add(field.getProperty());
+                columnList.add(field.getColumn());
+                if (field.isWithInsertFill() && field.getPropertyType() == LocalDateTime.class) {
+                    insertFillProperties.add(field.getProperty());
+                }
+            }
+            this.columns = String.join(", ", columnList);
+
+            List<String> keyColumns = target.keyProperties().stream()
+                    .map(property -> columnOf(tableInfo, property))
+                    .toList();
+            this.keyMatch = keyColumns.stream()
+                    .map(column -> "CAST(s." + column + " AS BINARY) <=> CAST(t." + column + " AS BINARY)")
+                    .collect(Collectors.joining(" AND "));
+            List<String> excelColumns = new ArrayList<>();
+            List<String> systemColumns = new ArrayList<>();
+            for (int i = 0; i < keyColumns.size(); i++) {
+                excelColumns.add("s." + keyColumns.get(i) + " AS excel_" + target.keyProperties().get(i));
+                systemColumns.add("t." + keyColumns.get(i) + " AS system_" + target.keyProperties().get(i));
+            }
+            this.excelKeyColumns = String.join(", ", excelColumns);
+            excelColumns.addAll(systemColumns);
+            this.rejectedKeyColumns = String.join(", ", excelColumns);
+        }
+
+        /**
+         * 合法行写入暂存表（监听器流式提交回调）
+         *
+         * @param rows 当前批次的合法行
+         */
+        public void write(List<VO> rows) {
+            LocalDateTime now = LocalDateTime.now();
+            List<List<Object>> chunk = new ArrayList<>(Math.min(rows.size(), INSERT_CHUNK_SIZE));
+            for (VO row : rows) {
+                chunk.add(toStageRow(row, now));
+                if (chunk.size() == INSERT_CHUNK_SIZE) {
+                    insertChunk(chunk);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                insertChunk(chunk);
+            }
+        }
+
+        private void insertChunk(List<List<Object>> chunk) {
+            stagedCount += importStagingMapper.insertStageRows(stageTable, columns, chunk);
+            chunk.clear();
+        }
+
+        /**
+         * Excel行转换为暂存表的一行值：Excel行号 + 按同名属性复制到实体后的各列值
+         */
+        private List<Object> toStageRow(VO row, LocalDateTime now) {
+            BeanWrapper entity = PropertyAccessorFactory.forBeanPropertyAccess(
+                    BeanUtils.instantiateClass(target.entityClass()));
+            BeanUtils.copyProperties(row, entity.getWrappedInstance());
+            if (entity.getPropertyValue(keyProperty) instanceof String id) {
+                entity.setPropertyValue(keyProperty, id.trim());
+            }
+            for (String property : insertFillProperties) {
+                if (entity.getPropertyValue(property) == null) {
+                    entity.setPropertyValue(property, now);
+                }
+            }
+
+            List<Object> values = new ArrayList<>(properties.size() + 1);
+            values.add(target.rowNum().applyAsInt(row));
+            for (String property : properties) {
+                values.add(entity.getPropertyValue(property));
+            }
+            return values;
+        }
+
+        /**
+         * 集合SQL完成重复分类并写入目标表，被拒绝的行按Excel行顺序交给监听器登记
+         *
+         * @param listener 导入监听器（解析已完成）
+         * @return 实际插入目标表的条数
+         */
+        public int merge(AssetImportListener<VO, E> listener) {
+            if (stagedCount == 0) {
+                listener.finishMerge(0);
+                return 0;
+            }
+            long start = System.currentTimeMillis();
+
+            // 步骤1~2：标记系统已存在的ID和文件内重复的ID
+            int existingRows = importStagingMapper.markExistingRows(stageTable, targetTable, keyColumn, keyMatch);
+            int fileDuplicateRows = importStagingMapper.markFileDuplicateRows(stageTable, keyColumn);
+
+            // 步骤3：被拒绝的行按行号顺序登记到监听器
+            if (existingRows + fileDuplicateRows > 0) {
+                importStagingMapper.selectRejectedRows(stageTable, targetTable, keyColumn, rejectedKeyColumns,
+                        context -> applyRejectedRow(listener, context.getResultObject()));
+            }
+
+            // 步骤4：其余行一次性写入目标表
+            int mergedCount = importStagingMapper.mergeIntoTarget(stageTable, targetTable, columns);
+
+            // 步骤5：更新导入去重指纹索引
+            if (mergedCount > 0) {
+                updateFingerprintIndex();
+            }
+
+            listener.finishMerge(mergedCount);
+            log.info("{}暂存表合并完成：暂存{}条，系统已存在{}条，文件内重复{}条，插入{}条，耗时{}ms",
+                    target.assetTypeName(), stagedCount, existingRows, fileDuplicateRows, mergedCount,
+                    System.currentTimeMillis() - start);
+            return mergedCount;
+        }
+
+        private void applyRejectedRow(AssetImportListener<VO, E> listener, Map<String, Object> row) {
+            int rowNum = ((Number) row.get("excel_row_num")).intValue();
+            int status = ((Number) row.get("merge_status")).intValue();
+            VO excelRow = keyFieldsBean(target.excelClass(), row, "excel_");
+            switch (status) {
+                case ImportStagingMapper.STATUS_SYSTEM_DUPLICATE -> listener.rejectAsSystemDuplicate(excelRow, rowNum);
+                case ImportStagingMapper.STATUS_KEY_MISMATCH -> listener.rejectAsKeyFieldMismatch(excelRow, rowNum,
+                        keyFieldsBean(target.entityClass(), row, "system_"));
+                default -> listener.rejectAsFileDuplicate(excelRow, rowNum,
+                        ((Number) row.get("duplicate_of")).intValue());
+            }
+        }
+
+        private void updateFingerprintIndex() {
+            List<VO> batch = new ArrayList<>(INDEX_UPDATE_BATCH_SIZE);
+            importStagingMapper.selectMergedKeys(stageTable, keyColumn, excelKeyColumns, context -> {
+                batch.add(keyFieldsBean(target.excelClass(), context.getResultObject(), "excel_"));
+                if (batch.size() == INDEX_UPDATE_BATCH_SIZE) {
+                    target.indexUpdater().accept(assetFingerprintIndexService, batch);
+                    batch.clear();
+                }
+            });
+            if (!batch.isEmpty()) {
+                target.indexUpdater().accept(assetFingerprintIndexService, batch);
+            }
+        }
+
+        /**
+         * 只填充ID和关键字段的对象（用于生成重复记录、错误信息和指纹）
+         */
+        private <T> T keyFieldsBean(Class<T> type, Map<String, Object> row, String prefix) {
+            T bean = BeanUtils.instantiateClass(type);
+            BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(bean);
+            wrapper.setPropertyValue(keyProperty, row.get("asset_id"));
+            for (String property : target.keyProperties()) {
+                wrapper.setPropertyValue(property, row.get(prefix + property));
+            }
+            return bean;
+        }
+
+        /**
+         * 删除暂存表（删除失败只记录日志，不覆盖导入结果或原始异常）
+         */
+        @Override
+        public void close() {
+            try {
+                importStagingMapper.dropStageTable(stageTable);
+            } catch (RuntimeException e) {
+                log.warn("删除导入暂存表{}失败：{}", stageTable, e.getMessage());
+            }
+        }
+    }
+
+    private static String columnOf(TableInfo tableInfo, String property) {
+        return tableInfo.getFieldList().stream()
+                .filter(field -> field.getProperty().equals(property))
+                .map(TableFieldInfo::getColumn)
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException(
+                        tableInfo.getEntityType().getSimpleName() + "缺少关键字段属性：" + property));
+    }
+}
@@ -0,0 +1,268 @@
+package com.military.asset.utils;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * 已存在资产的关键字段指纹索引
+
+ * 作用：替代"ID → 完整资产对象"的Map，导入去重时只保存"ID → 关键字段64位指纹"
+ * - 软件资产/数据内容资产：上报单位、资产分类、资产名称
+ * - 网信资产：上报单位、资产分类、资产名称、资产内容
+
+ * 使用方式：
+ * 1. 通过窄投影查询（只查id和关键字段）逐行计算指纹放入索引，不保留实体对象
+ * 2. 监听器用Excel行的关键字段计算指纹，与索引中的指纹比较
+ * 3. 指纹不一致时才通过fullAssetLoader按ID查询完整记录，用于生成"系统值/Excel值"错误信息
+
+ * 指纹算法：FNV-1a 64位，逐字符计算，null与空串区分，字段间加分隔符避免拼接歧义
+
+ * 增量维护（线程安全）：
+ * - 索引常驻内存、跨导入共享，新增/修改/删除/批量导入后通过put/remove就地更新
+ * - 读操作无锁；写操作与对账互斥，保证对账不会覆盖并发写入
+ * - 定时对账：reconcile()先开始记录修改 → 通过snapshotLoader加载表快照 → 用快照修正，
+ *   对账期间被put/remove过的ID以实时值为准，不被快照覆盖；子类可覆盖reconcile()改为其他对账方式
+
+ * 超大表可改用子类BloomAssetFingerprintIndex（只常驻ID布隆过滤器，可能存在的ID按批查询数据库确认）
+ *
+ * @param <E> 资产实体类型
+ */
+public class AssetFingerprintIndex<E> {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /**
+     * null字段的占位值（与任何字符序列的哈希结果区分）
+     */
+    private static final long NULL_MARKER = 0x9e3779b97f4a7c15L;
+
+    /**
+     * 字段分隔符（不会出现在正常文本中的字符）
+     */
+    private static final char FIELD_SEPARATOR = '\u001f';
+
+    /**
+     * Key: 资产ID, Value: 关键字段指纹
+     */
+    private final Map<String, Long> fingerprints;
+
+    /**
+     * 对账期间被修改过的ID（未在对账时为null）
+     */
+    private volatile Set<String> touchedDuringReconcile;
+
+    /**
+     * 按ID加载完整资产（仅指纹不一致时调用）
+     */
+    private final Function<String, E> fullAssetLoader;
+
+    /**
+     * 加载表的"ID → 指纹"快照（定时对账时调用，为null时不对账）
+     */
+    private final Supplier<Map<String, Long>> snapshotLoader;
+
+    public AssetFingerprintIndex(Map<String, Long> fingerprints, Function<String, E> fullAssetLoader) {
+        this(fingerprints, fullAssetLoader, null);
+    }
+
+    /**
+     * @param fingerprints 初始"ID → 指纹"
+     * @param fullAssetLoader 按ID加载完整资产
+     * @param snapshotLoader 定时对账时加载表快照（为null时reconcile不做处理）
+     */
+    public AssetFingerprintIndex(Map<String, Long> fingerprints, Function<String, E> fullAssetLoader,
+                                 Supplier<Map<String, Long>> snapshotLoader) {
+        this.fingerprints = (fingerprints instanceof ConcurrentHashMap)
+                ? fingerprints : new ConcurrentHashMap<>(fingerprints);
+        this.fullAssetLoader = fullAssetLoader;
+        this.snapshotLoader = snapshotLoader;
+    }
+
+    /**
+     * 由完整资产Map构建指纹索引（兼容原有的getExistingAssetsMap()调用方式）
+     *
+     * @param existingAssets 已存在的完整资产Map
+     * @param fingerprintFunction 实体关键字段指纹计算函数
+     * @return 指纹索引，完整资产直接从原Map中取
+     */
+    public static <E> AssetFingerprintIndex<E> fromAssets(Map<String, E> existingAssets,
+                                                         ToLongFunction<E> fingerprintFunction) {
+        Map<String, E> assets = (existingAssets != null) ? existingAssets : Map.of();
+        Map<String, Long> fingerprints = new ConcurrentHashMap<>(Math.max(16, (int) (assets.size() / 0.75f) + 1));
+        assets.forEach((id, asset) -> fingerprints.put(id, fingerprintFunction.applyAsLong(asset)));
+        return new AssetFingerprintIndex<>(fingerprints, assets::get);
+    }
+
+    /**
+     * 是否存在该ID
+     */
+    public boolean contains(String id) {
+        return fingerprints.containsKey(id);
+    }
+
+    /**
+     * 获取ID对应的关键字段指纹
+     *
+     * @return 指纹，不存在时返回null
+     */
+    public Long getFingerprint(String id) {
+        return fingerprints.get(id);
+    }
+
+    /**
+     * 批量获取一批ID的关键字段指纹（导入按批校验时调用）
+     *
+     * @return 其中已存在的ID及其指纹
+     */
+    public Map<String, Long> getFingerprints(Collection<String> ids) {
+        Map<String, Long> found = new HashMap<>();
+        for (String id : ids) {
+            Long fingerprint = fingerprints.get(id);
+            if (fingerprint != null) {
+                found.put(id, fingerprint);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * 监听器按批查询的批次大小（0表示常驻内存、逐行查询即可；查询需要访问数据库的实现返回正数）
+     */
+    public int getLookupBatchSize() {
+        return 0;
+    }
+
+    /**
+     * 按ID加载完整资产对象（用于生成关键字段不一致的错误信息）
+     *
+     * @return 完整资产对象，记录已不存在时返回null
+     */
+    public E loadFullAsset(String id) {
+        return fullAssetLoader.apply(id);
+    }
+
+    public int size() {
+        return fingerprints.size();
+    }
+
+    // ============================ 增量维护 ============================
+
+    /**
+     * 新增或更新ID对应的指纹（新增、修改、批量导入保存后调用）
+     */
+    public synchronized void put(String id, long fingerprint) {
+        fingerprints.put(id, fingerprint);
+        markTouched(id);
+    }
+
+    /**
+     * 移除ID（删除后调用）
+     */
+    public synchronized void remove(String id) {
+        fingerprints.remove(id);
+        markTouched(id);
+    }
+
+    /**
+     * 与数据库对账：修正索引中的偏差（漏更新、外部直接改库等）
+     * 快照加载期间被put/remove的ID以实时值为准；加载失败时清除对账状态后抛出，索引保持原样
+     *
+     * @return 修正的条数（新增、更新、移除合计）
+     */
+    public int reconcile() {
+        if (snapshotLoader == null) {
+            return 0;
+        }
+        beginReconcile();
+        try {
+            return finishReconcile(snapshotLoader.get());
+        } finally {
+            endReconcile();
+        }
+    }
+
+    private synchronized void beginReconcile() {
+        touchedDuringReconcile = ConcurrentHashMap.newKeySet();
+    }
+
+    private synchronized int finishReconcile(Map<String, Long> snapshot) {
+        Set<String> touched = touchedDuringReconcile;
+        int corrected = 0;
+        for (Map.Entry<String, Long> entry : snapshot.entrySet()) {
+            if (touched.contains(entry.getKey())) {
+                continue;
+            }
+            Long previous = fingerprints.put(entry.getKey(), entry.getValue());
+            if (!entry.getValue().equals(previous)) {
+                corrected++;
+            }
+        }
+        for (String id : fingerprints.keySet()) {
+            if (!snapshot.containsKey(id) && !touched.contains(id)) {
+                fingerprints.remove(id);
+                corrected++;
+            }
+        }
+        return corrected;
+    }
+
+    private synchronized void endReconcile() {
+        touchedDuringReconcile = null;
+    }
+
+    private void markTouched(String id) {
+        Set<String> touched = touchedDuringReconcile;
+        if (touched != null) {
+            touched.add(id);
+        }
+    }
+
+    // ============================ 指纹计算 ============================
+
+    /**
+     * 计算三个关键字段的指纹（软件资产、数据内容资产）
+     */
+    public static long fingerprint(String reportUnit, String assetCategory, String assetName) {
+        long hash = FNV_OFFSET_BASIS;
+        hash = append(hash, reportUnit);
+        hash = append(hash, assetCategory);
+        hash = append(hash, assetName);
+        return hash;
+    }
+
+    /**
+     * 计算四个关键字段的指纹（网信资产，多一个资产内容字段）
+     */
+    public static long fingerprint(String reportUnit, String assetCategory, String assetName, String assetContent) {
+        long hash = fingerprint(reportUnit, assetCategory, assetName);
+        return append(hash, assetContent);
+    }
+
+    /**
+     * 将一个字段追加到指纹中（逐字符计算，不产生临时对象）
+     */
+    private static long append(long hash, String value) {
+        if (value == null) {
+            hash ^= NULL_MARKER;
+            hash *= FNV_PRIME;
+        } else {
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                hash ^= (c & 0xff);
+                hash *= FNV_PRIME;
+                hash ^= (c >>> 8);
+                hash *= FNV_PRIME;
+            }
+        }
+        hash ^= FIELD_SEPARATOR;
+        hash *= FNV_PRIME;
+        return hash;
+    }
+}
@@ -0,0 +1,172 @@
+package com.military.asset.utils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 布隆过滤器预筛的已存在资产索引（超大表可选模式，asset.import.index.mode=bloom）
+
+ * 作用：常驻内存的只有ID布隆过滤器，不保存"ID → 指纹"，千万级表的常驻内存从GB级降到十几MB
+ * - 过滤器判定"一定不存在"的ID直接按新数据处理（绝大多数新导入的行）
+ * - 判定"可能存在"的ID按批次一次 WHERE id IN (...) 窄投影查询，确认是否存在并取得关键字段指纹
+ * - 误判（不存在却判为可能存在）只多一次批量查询中的一个ID，不影响判重结果
+
+ * 与父类的差异：
+ * - getLookupBatchSize() > 0：监听器按批调用getFingerprints，不逐行查询数据库
+ * - put只向过滤器放入ID；remove不做处理（过滤器不支持删除，已删除的ID由数据库确认为不存在）
+ * - 定时对账（覆盖reconcile()）改为重建：开始记录放入的ID → 通过filterLoader读取全部ID构建新过滤器 → 替换，
+ *   重建期间放入的ID同时补入新过滤器，不会因快照遗漏而被判为"一定不存在"；读取失败时继续使用原过滤器
+ *
+ * @param <E> 资产实体类型
+ */
+public class BloomAssetFingerprintIndex<E> extends AssetFingerprintIndex<E> {
+
+    private volatile IdBloomFilter filter;
+
+    /**
+     * 按ID批量查询"ID → 关键字段指纹"（只返回数据库中存在的ID）
+     */
+    private final Function<Collection<String>, Map<String, Long>> fingerprintLoader;
+
+    /**
+     * 由表中全部ID构建新过滤器（定时重建时调用）
+     */
+    private final Supplier<IdBloomFilter> filterLoader;
+
+    private final int lookupBatchSize;
+
+    /**
+     * 重建期间放入的ID（未在重建时为null）
+     */
+    private volatile Set<String> putDuringRebuild;
+
+    /**
+     * @param filter 由表中全部ID构建的布隆过滤器
+     * @param filterLoader 定时重建时由表中全部ID构建新过滤器
+     * @param fingerprintLoader 按ID批量查询关键字段指纹（WHERE id IN）
+     * @param fullAssetLoader 按ID加载完整资产（仅指纹不一致时调用）
+     * @param lookupBatchSize 每次批量确认的最大ID数
+     */
+    public BloomAssetFingerprintIndex(IdBloomFilter filter, Supplier<IdBloomFilter> filterLoader,
+                                      Function<Collection<String>, Map<String, Long>> fingerprintLoader,
+                                      Function<String, E> fullAssetLoader, int lookupBatchSize) {
+        super(new ConcurrentHashMap<>(), fullAssetLoader);
+        this.filter = filter;
+        this.filterLoader = filterLoader;
+        this.fingerprintLoader = fingerprintLoader;
+        this.lookupBatchSize = Math.max(lookupBatchSize, 1);
+    }
+
+    @Override
+    public boolean contains(String id) {
+        return getFingerprint(id) != null;
+    }
+
+    /**
+     * 单个ID查询（过滤器判定可能存在时查询一次数据库；导入校验走getFingerprints批量接口）
+     */
+    @Override
+    public Long getFingerprint(String id) {
+        if (!filter.mightContain(id)) {
+            return null;
+        }
+        return fingerprintLoader.apply(List.of(id)).get(id);
+    }
+
+    /**
+     * 批量查询：过滤器筛掉一定不存在的ID，其余按lookupBatchSize分批 WHERE id IN 确认
+     */
+    @Override
+    public Map<String, Long> getFingerprints(Collection<String> ids) {
+        IdBloomFilter current = filter;
+        List<String> candidates = new ArrayList<>();
+        for (String id : ids) {
+            if (current.mightContain(id)) {
+                candidates.add(id);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, Long> found = new HashMap<>();
+        for (int from = 0; from < candidates.size(); from += lookupBatchSize) {
+            int to = Math.min(from + lookupBatchSize, candidates.size());
+            found.putAll(fingerprintLoader.apply(candidates.subList(from, to)));
+        }
+        return found;
+    }
+
+    @Override
+    public int getLookupBatchSize() {
+        return lookupBatchSize;
+    }
+
+    /**
+     * 过滤器中的ID数（含已删除的ID，仅为估算值）
+     */
+    @Override
+    public int size() {
+        return (int) Math.min(filter.getInsertions(), Integer.MAX_VALUE);
+    }
+
+    public IdBloomFilter getFilter() {
+        return filter;
+    }
+
+    // ============================ 增量维护 ============================
+
+    @Override
+    public synchronized void put(String id, long fingerprint) {
+        filter.put(id);
+        Set<String> pending = putDuringRebuild;
+        if (pending != null) {
+            pending.add(id);
+        }
+    }
+
+    @Override
+    public void remove(String id) {
+        // 过滤器不支持删除：该ID之后判为"可能存在"，批量确认时数据库返回不存在，下次重建时清除
+    }
+
+    /**
+     * 重建过滤器（清除已删除的ID），读取失败时清除重建状态后抛出，继续使用原过滤器
+     *
+     * @return 0（重建不逐条比较，不统计修正条数）
+     */
+    @Override
+    public int reconcile() {
+        beginRebuild();
+        try {
+            finishRebuild(filterLoader.get());
+        } finally {
+            endRebuild();
+        }
+        return 0;
+    }
+
+    private synchronized void beginRebuild() {
+        putDuringRebuild = ConcurrentHashMap.newKeySet();
+    }
+
+    /**
+     * 补入重建期间放入的ID后替换过滤器
+     */
+    private synchronized void finishRebuild(IdBloomFilter rebuilt) {
+        for (String id : putDuringRebuild) {
+            rebuilt.put(id);
+        }
+        filter = rebuilt;
+    }
+
+    private synchronized void endRebuild() {
+        putDuringRebuild = null;
+    }
+}
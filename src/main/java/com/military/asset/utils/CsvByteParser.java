@@ -0,0 +1,289 @@
+package com.military.asset.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 按字节解析的CSV读取器（RFC 4180：逗号分隔、双引号包裹、""转义、CRLF/LF换行）
+
+ * 作用：CSV导入不经过POI，也不先把整行解码为String再切分，
+ * 直接在64KB读缓冲区中按字节查找分隔符，每个字段只在确定边界后解码一次
+
+ * 关键设计：
+ * - 分隔符（, " \r \n）都小于0x40，UTF-8多字节序列和GBK双字节字符的任何字节都不会与之冲突，
+ *   因此两种编码都可以直接按字节切分
+ * - 字段完整落在读缓冲区内时直接从缓冲区解码（零拷贝）；跨缓冲区或含""转义的字段才拷贝到暂存区
+ * - 编码自动识别：UTF-8 BOM → UTF-8；否则首个缓冲区能按UTF-8正确解码 → UTF-8，不能 → GBK
+ * - nextRecord返回的列表在下一次调用时复用，调用方需在此之前取完字段
+ */
+public class CsvByteParser implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * GBK编码（国内业务系统导出CSV的常用编码）
+     */
+    public static final Charset GBK = Charset.forName("GBK");
+
+    private static final int COMMA = 0;
+    private static final int END_OF_LINE = 1;
+    private static final int END_OF_FILE = 2;
+
+    private final InputStream in;
+    private final byte[] buf = new byte[BUFFER_SIZE];
+    private int pos;
+    private int limit;
+
+    /**
+     * 跨缓冲区或含转义字段的暂存区
+     */
+    private byte[] scratch = new byte[256];
+    private int scratchLen;
+
+    private final List<String> record = new ArrayList<>();
+
+    private Charset charset;
+
+    /**
+     * @param in 输入流（由调用方负责关闭，或通过close关闭）
+     * @param charset 字符编码，为null时自动识别（UTF-8/GBK）
+     */
+    public CsvByteParser(InputStream in, Charset charset) throws IOException {
+        this.in = in;
+        this.charset = charset;
+        // 首个缓冲区读满（或读到文件结束），用于跳过BOM和识别编码
+        this.limit = in.readNBytes(buf, 0, buf.length);
+        skipUtf8Bom();
+        if (this.charset == null) {
+            this.charset = looksLikeUtf8(buf, pos, limit) ? StandardCharsets.UTF_8 : GBK;
+        }
+    }
+
+    /**
+     * 实际使用的字符编码
+     */
+    public Charset getCharset() {
+        return charset;
+    }
+
+    /**
+     * 读取下一条记录
+     *
+     * @return 字段列表（复用对象，下一次调用时被覆盖）；文件结束时返回null
+     */
+    public List<String> nextRecord() throws IOException {
+        record.clear();
+        if (pos >= limit && !fill()) {
+            return null;
+        }
+        while (readField() == COMMA) {
+            // 继续读取同一记录的下一个字段
+        }
+        return record;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    // ============================ 字段解析 ============================
+
+    /**
+     * 读取一个字段并加入record
+     *
+     * @return 字段之后的分隔符：COMMA / END_OF_LINE / END_OF_FILE
+     */
+    private int readField() throws IOException {
+        scratchLen = 0;
+        if (pos >= limit && !fill()) {
+            record.add("");
+            return END_OF_FILE;
+        }
+        if (buf[pos] == '"') {
+            pos++;
+            return readQuotedField();
+        }
+
+        int start = pos;
+        while (true) {
+            if (pos >= limit) {
+                appendScratch(start, pos);
+                if (!fill()) {
+                    addField(0, 0);
+                    return END_OF_FILE;
+                }
+                start = 0;
+            }
+            byte b = buf[pos];
+            if (b == ',') {
+                addField(start, pos);
+                pos++;
+                return COMMA;
+            }
+            if (b == '\n' || b == '\r') {
+                addField(start, pos);
+                skipLineEnd();
+                return END_OF_LINE;
+            }
+            pos++;
+        }
+    }
+
+    /**
+     * 读取双引号包裹的字段（起始引号已跳过）
+     */
+    private int readQuotedField() throws IOException {
+        int start = pos;
+        while (true) {
+            if (pos >= limit) {
+                appendScratch(start, pos);
+                if (!fill()) {
+                    // 缺少结束引号：按已读内容结束
+                    addField(0, 0);
+                    return END_OF_FILE;
+                }
+                start = 0;
+            }
+            if (buf[pos] != '"') {
+                pos++;
+                continue;
+            }
+
+            int end = pos++;
+            // 引号后的字节决定是转义（""）还是字段结束，必要时先补充缓冲区
+            if (pos >= limit) {
+                appendScratch(start, end);
+                if (!fill()) {
+                    addField(0, 0);
+                    return END_OF_FILE;
+                }
+                start = 0;
+                end = 0;
+            }
+            if (buf[pos] == '"') {
+                // 转义的双引号：保留一个
+                appendScratch(start, end);
+                appendScratch('"');
+                pos++;
+                start = pos;
+                continue;
+            }
+
+            addField(start, end);
+            return skipToDelimiter();
+        }
+    }
+
+    /**
+     * 引号字段结束后跳到下一个分隔符（结束引号后的多余字符忽略）
+     */
+    private int skipToDelimiter() throws IOException {
+        while (true) {
+            if (pos >= limit && !fill()) {
+                return END_OF_FILE;
+            }
+            byte b = buf[pos];
+            if (b == ',') {
+                pos++;
+                return COMMA;
+            }
+            if (b == '\n' || b == '\r') {
+                skipLineEnd();
+                return END_OF_LINE;
+            }
+            pos++;
+        }
+    }
+
+    /**
+     * 跳过换行符（\r\n、\n 或单独的 \r）
+     */
+    private void skipLineEnd() throws IOException {
+        byte b = buf[pos++];
+        if (b == '\r' && (pos < limit || fill()) && buf[pos] == '\n') {
+            pos++;
+        }
+    }
+
+    /**
+     * 解码字段：未使用暂存区时直接从读缓冲区解码
+     */
+    private void addField(int start, int end) {
+        if (scratchLen == 0) {
+            record.add(new String(buf, start, end - start, charset));
+            return;
+        }
+        appendScratch(start, end);
+        record.add(new String(scratch, 0, scratchLen, charset));
+    }
+
+    private void appendScratch(int start, int end) {
+        int length = end - start;
+        if (length <= 0) {
+            return;
+        }
+        ensureScratch(length);
+        System.arraycopy(buf, start, scratch, scratchLen, length);
+        scratchLen += length;
+    }
+
+    private void appendScratch(char c) {
+        ensureScratch(1);
+        scratch[scratchLen++] = (byte) c;
+    }
+
+    private void ensureScratch(int extra) {
+        if (scratchLen + extra > scratch.length) {
+            scratch = Arrays.copyOf(scratch, Math.max(scratch.length << 1, scratchLen + extra));
+        }
+    }
+
+    /**
+     * 读缓冲区已用完时重新填充
+     *
+     * @return 还有数据返回true，文件结束返回false
+     */
+    private boolean fill() throws IOException {
+        int n;
+        do {
+            n = in.read(buf, 0, buf.length);
+        } while (n == 0);
+        pos = 0;
+        limit = Math.max(n, 0);
+        return n > 0;
+    }
+
+    // ============================ 编码识别 ============================
+
+    private void skipUtf8Bom() {
+        if (limit - pos >= 3 && (buf[pos] & 0xFF) == 0xEF && (buf[pos + 1] & 0xFF) == 0xBB
+                && (buf[pos + 2] & 0xFF) == 0xBF) {
+            pos += 3;
+            if (charset == null) {
+                charset = StandardCharsets.UTF_8;
+            }
+        }
+    }
+
+    /**
+     * 按UTF-8严格解码首个缓冲区（末尾被截断的多字节字符不算错误）
+     */
+    private static boolean looksLikeUtf8(byte[] bytes, int from, int to) {
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT);
+        CharBuffer out = CharBuffer.allocate(Math.max(to - from, 1));
+        return !decoder.decode(ByteBuffer.wrap(bytes, from, to - from), out, false).isError();
+    }
+}
@@ -0,0 +1,166 @@
+package com.military.asset.utils;
+
+import com.military.asset.vo.EntityCacheStatsVO;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 按ID缓存实体的读穿透缓存（容量上限 + 过期时间）
+
+ * 作用：详情接口反复查询同一批ID时直接返回缓存的实体，不再每次访问数据库
+
+ * 实现：
+ * - LinkedHashMap按访问顺序排列，超出容量时淘汰最久未访问的条目（LRU）；所有操作在同一把锁内完成，
+ *   锁内只做Map操作，数据库加载在锁外进行
+ * - 每个条目记录过期时间，读取时发现过期即移除并重新加载
+ * - 负缓存：不存在的ID缓存为null（使用单独的、通常更短的过期时间），避免反复查询不存在的ID
+ * - 失效：invalidate递增失效代数；加载开始后发生过任何失效，则本次加载结果不写入缓存，
+ *   避免"加载读到旧值 → 写入方失效 → 加载写回旧值"的竞态留下过期数据
+ */
+public class EntityCache<V> {
+
+    private final String name;
+
+    private final int maxEntries;
+
+    private final long ttlNanos;
+
+    private final long negativeTtlNanos;
+
+    private final LinkedHashMap<String, Entry<V>> entries;
+
+    /**
+     * 失效代数（每次失效递增）
+     */
+    private long generation;
+
+    private long hits;
+    private long negativeHits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    /**
+     * @param name 缓存名称（用于统计）
+     * @param maxEntries 最大条目数
+     * @param ttlSeconds 条目过期时间（秒）
+     * @param negativeTtlSeconds 不存在ID的过期时间（秒，<=0 不缓存不存在的ID）
+     */
+    public EntityCache(String name, int maxEntries, long ttlSeconds, long negativeTtlSeconds) {
+        if (maxEntries <= 0 || ttlSeconds <= 0) {
+            throw new IllegalArgumentException("缓存容量和过期时间必须大于0：" + name);
+        }
+        this.name = name;
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttlSeconds * 1_000_000_000L;
+        this.negativeTtlNanos = Math.max(negativeTtlSeconds, 0) * 1_000_000_000L;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry<V>> eldest) {
+                if (size() > EntityCache.this.maxEntries) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * 读取实体，未命中或已过期时调用loader加载并写入缓存
+     *
+     * @param id 实体ID（为null时直接调用loader，不缓存）
+     * @param loader 按ID从数据库加载，不存在时返回null
+     * @return 实体，不存在时返回null
+     */
+    public V get(String id, Function<String, V> loader) {
+        if (id == null) {
+            return loader.apply(null);
+        }
+        long loadGeneration;
+        synchronized (this) {
+            Entry<V> entry = entries.get(id);
+            if (entry != null) {
+                if (entry.expireAt - System.nanoTime() > 0) {
+                    if (entry.value != null) {
+                        hits++;
+                    } else {
+                        negativeHits++;
+                    }
+                    return entry.value;
+                }
+                entries.remove(id);
+            }
+            misses++;
+            loadGeneration = generation;
+        }
+
+        V value = loader.apply(id);
+        long ttl = (value != null) ? ttlNanos : negativeTtlNanos;
+        if (ttl > 0) {
+            synchronized (this) {
+                if (generation == loadGeneration) {
+                    entries.put(id, new Entry<>(value, System.nanoTime() + ttl));
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * 使单个ID失效（新增、修改、删除后调用）
+     */
+    public synchronized void invalidate(String id) {
+        generation++;
+        invalidations++;
+        if (id != null) {
+            entries.remove(id);
+        }
+    }
+
+    /**
+     * 使一批ID失效（批量导入保存后调用）
+     */
+    public synchronized void invalidateAll(Collection<String> ids) {
+        generation++;
+        invalidations++;
+        for (String id : ids) {
+            if (id != null) {
+                entries.remove(id);
+            }
+        }
+    }
+
+    /**
+     * 清空缓存（对账发现数据库被直接修改时调用）
+     */
+    public synchronized void clear() {
+        generation++;
+        invalidations++;
+        entries.clear();
+    }
+
+    /**
+     * 当前统计（命中率 = (命中 + 负命中) / 总请求）
+     */
+    public synchronized EntityCacheStatsVO stats() {
+        EntityCacheStatsVO vo = new EntityCacheStatsVO();
+        vo.setName(name);
+        vo.setSize(entries.size());
+        vo.setMaxEntries(maxEntries);
+        vo.setHits(hits);
+        vo.setNegativeHits(negativeHits);
+        vo.setMisses(misses);
+        vo.setEvictions(evictions);
+        vo.setInvalidations(invalidations);
+        long requests = hits + negativeHits + misses;
+        vo.setHitRate(requests == 0 ? 0 : (double) (hits + negativeHits) / requests);
+        return vo;
+    }
+
+    private record Entry<V>(V value, long expireAt) {
+    }
+}
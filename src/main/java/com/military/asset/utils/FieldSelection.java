@@ -0,0 +1,135 @@
+package com.military.asset.utils;
+
+import com.baomidou.mybatisplus.core.metadata.TableFieldInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 查询字段选择（fields=参数）
+
+ * 作用：列表页只展示少数几列时，只查询并返回所需字段，避免长文本列（功能简介、计价说明、备注等）
+ * 的数据库读取、JDBC解码和JSON序列化开销
+ * - SQL：生成"列名 AS 属性名"的SELECT列清单，交给Mapper的${columns}
+ * - 序列化：实体按所选属性转换为有序Map，未选择的字段不出现在响应中
+
+ * 安全性：字段名只能是实体表字段的属性名（取自MyBatis-Plus实体元数据），列清单全部由元数据生成，
+ * 不拼接任何用户输入；主键总是包含在结果中
+ */
+public final class FieldSelection {
+
+    /**
+     * Key: 实体类, Value: 属性名 → 列名（主键在前，按实体声明顺序）
+     */
+    private static final Map<Class<?>, Map<String, String>> COLUMNS_BY_ENTITY = new ConcurrentHashMap<>();
+
+    private final Map<String, String> columns;
+
+    private final Set<String> properties;
+
+    private FieldSelection(Map<String, String> columns, Set<String> properties) {
+        this.columns = columns;
+        this.properties = properties;
+    }
+
+    /**
+     * 解析fields参数
+     *
+     * @param entityClass 实体类（须为MyBatis-Plus表实体）
+     * @param fields 逗号分隔的属性名（如"id,assetName,reportUnit"）
+     * @return 字段选择；参数为空时返回null（查询全部字段）
+     * @throws IllegalArgumentException 包含实体不存在的字段时抛出
+     */
+    public static FieldSelection parse(Class<?> entityClass, String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        Map<String, String> columns = COLUMNS_BY_ENTITY.computeIfAbsent(entityClass, FieldSelection::describe);
+        Set<String> properties = new LinkedHashSet<>();
+        properties.add(columns.keySet().iterator().next());
+        List<String> unknown = new ArrayList<>();
+        for (String field : fields.split(",")) {
+            String property = field.trim();
+            if (property.isEmpty()) {
+                continue;
+            }
+            if (columns.containsKey(property)) {
+                properties.add(property);
+            } else {
+                unknown.add(property);
+            }
+        }
+        if (!unknown.isEmpty()) {
+            throw new IllegalArgumentException("未知字段：" + String.join(",", unknown));
+        }
+        return new FieldSelection(columns, Collections.unmodifiableSet(properties));
+    }
+
+    /**
+     * 所选字段（主键在前）
+     */
+    public Set<String> getProperties() {
+        return properties;
+    }
+
+    /**
+     * SELECT列清单（"列名 AS 属性名"，逗号分隔）
+     *
+     * @param requiredProperties 查询需要但不一定返回的属性（如游标分页的排序字段）
+     */
+    public String sqlColumns(String... requiredProperties) {
+        Set<String> selected = new LinkedHashSet<>(properties);
+        Collections.addAll(selected, requiredProperties);
+        List<String> items = new ArrayList<>(selected.size());
+        for (String property : selected) {
+            items.add(columns.get(property) + " AS " + property);
+        }
+        return String.join(", ", items);
+    }
+
+    /**
+     * 实体转换为只含所选字段的Map（保持所选字段顺序，值为null的字段同样输出）
+     */
+    public Map<String, Object> project(Object entity) {
+        if (entity == null) {
+            return null;
+        }
+        BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(entity);
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (String property : properties) {
+            result.put(property, wrapper.getPropertyValue(property));
+        }
+        return result;
+    }
+
+    public List<Map<String, Object>> project(List<?> entities) {
+        List<Map<String, Object>> result = new ArrayList<>(entities.size());
+        for (Object entity : entities) {
+            result.add(project(entity));
+        }
+        return result;
+    }
+
+    private static Map<String, String> describe(Class<?> entityClass) {
+        TableInfo tableInfo = TableInfoHelper.getTableInfo(entityClass);
+        if (tableInfo == null || tableInfo.getKeyProperty() == null) {
+            throw new IllegalStateException("未找到实体表信息：" + entityClass.getName());
+        }
+        Map<String, String> columns = new LinkedHashMap<>();
+        columns.put(tableInfo.getKeyProperty(), tableInfo.getKeyColumn());
+        for (TableFieldInfo field : tableInfo.getFieldList()) {
+            columns.put(field.getProperty(), field.getColumn());
+        }
+        return Collections.unmodifiableMap(columns);
+    }
+}
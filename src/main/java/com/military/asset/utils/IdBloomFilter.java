@@ -0,0 +1,141 @@
+package com.military.asset.utils;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 资产ID布隆过滤器
+
+ * 作用：超大表（千万级）导入去重时替代"ID → 指纹"的常驻Map，每个ID只占约10个bit（误判率1%时），
+ * 回答"一定不存在"或"可能存在"，可能存在的ID再到数据库确认
+
+ * 实现：
+ * - 位数组按预计条数和误判率计算大小：m = -n·ln(p) / (ln2)²，哈希次数 k = m/n·ln2
+ * - 双重哈希：由ID的两个64位哈希（FNV-1a + 混合函数）组合出k个位置，不为每次哈希创建对象
+ * - 位数组为AtomicLongArray，put与mightContain可并发调用（导入保存与校验线程同时访问）
+ * - 不支持删除：删除的ID仍判为"可能存在"，由数据库确认，定时重建时清除
+ */
+public class IdBloomFilter {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private static final double LN2 = Math.log(2);
+
+    /**
+     * 位数组上限（2^31个long，即2^37个bit，远超实际需要）
+     */
+    private static final long MAX_BITS = (long) Integer.MAX_VALUE * Long.SIZE;
+
+    private final AtomicLongArray bits;
+
+    private final long bitCount;
+
+    private final int hashCount;
+
+    /**
+     * 已放入的ID数（重复放入同一ID也计数，仅用于日志和估算）
+     */
+    private final LongAdder insertions = new LongAdder();
+
+    /**
+     * @param expectedInsertions 预计放入的ID数
+     * @param falsePositiveRate 期望误判率（0~1之间，如0.01）
+     */
+    public IdBloomFilter(long expectedInsertions, double falsePositiveRate) {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("布隆过滤器误判率必须在0~1之间：" + falsePositiveRate);
+        }
+        long n = Math.max(expectedInsertions, 1);
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (LN2 * LN2));
+        m = Math.min(Math.max(m, Long.SIZE), MAX_BITS);
+        int words = (int) ((m + Long.SIZE - 1) / Long.SIZE);
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = (long) words * Long.SIZE;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * LN2));
+    }
+
+    /**
+     * 放入ID
+     */
+    public void put(String id) {
+        long hash1 = hash(id);
+        long hash2 = mix(hash1);
+        for (int i = 0; i < hashCount; i++) {
+            long index = Math.floorMod(hash1 + i * hash2, bitCount);
+            setBit(index);
+        }
+        insertions.increment();
+    }
+
+    /**
+     * ID是否可能存在
+     *
+     * @return false表示一定不存在；true表示可能存在（需要确认）
+     */
+    public boolean mightContain(String id) {
+        long hash1 = hash(id);
+        long hash2 = mix(hash1);
+        for (int i = 0; i < hashCount; i++) {
+            long index = Math.floorMod(hash1 + i * hash2, bitCount);
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long getInsertions() {
+        return insertions.sum();
+    }
+
+    /**
+     * 位数组占用的字节数
+     */
+    public long getSizeInBytes() {
+        return bitCount / Byte.SIZE;
+    }
+
+    public int getHashCount() {
+        return hashCount;
+    }
+
+    private void setBit(long index) {
+        int word = (int) (index >>> 6);
+        long mask = 1L << index;
+        long current;
+        do {
+            current = bits.get(word);
+            if ((current & mask) != 0) {
+                return;
+            }
+        } while (!bits.compareAndSet(word, current, current | mask));
+    }
+
+    /**
+     * FNV-1a 64位（逐字符计算，与AssetFingerprintIndex一致）
+     */
+    private static long hash(String id) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < id.length(); i++) {
+            char c = id.charAt(i);
+            hash ^= (c & 0xff);
+            hash *= FNV_PRIME;
+            hash ^= (c >>> 8);
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+    /**
+     * 由第一个哈希派生第二个哈希（MurmurHash3 fmix64），保证为奇数避免步长与位数组大小同余退化
+     */
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash | 1;
+    }
+}
@@ -0,0 +1,84 @@
+package com.military.asset.utils;
+
+import java.util.Arrays;
+
+/**
+ * 基于int[]的可增长缓冲区
+
+ * 用途：导入过程中只需保留行号等轻量数据时，替代List<Integer>，
+ * 避免每个元素一个Integer对象的装箱开销（100万行约节省16MB堆内存）
+ */
+public class IntArrayBuffer {
+
+    private int[] elements;
+
+    private int size;
+
+    public IntArrayBuffer() {
+        this(16);
+    }
+
+    public IntArrayBuffer(int initialCapacity) {
+        this.elements = new int[Math.max(initialCapacity, 1)];
+    }
+
+    /**
+     * 追加一个元素，容量不足时按1.5倍扩容
+     */
+    public void add(int value) {
+        if (size == elements.length) {
+            elements = Arrays.copyOf(elements, elements.length + (elements.length >> 1) + 1);
+        }
+        elements[size++] = value;
+    }
+
+    public int get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("索引越界：" + index + "，当前大小：" + size);
+        }
+        return elements[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * 删除与给定值相同的元素（本缓冲区与values都须按升序排列，一次归并扫描完成）
+     *
+     * @param values 待删除的值（升序）
+     * @return 删除的元素个数
+     */
+    public int removeSorted(IntArrayBuffer values) {
+        int kept = 0;
+        int v = 0;
+        for (int i = 0; i < size; i++) {
+            int element = elements[i];
+            while (v < values.size && values.elements[v] < element) {
+                v++;
+            }
+            if (v < values.size && values.elements[v] == element) {
+                continue;
+            }
+            elements[kept++] = element;
+        }
+        int removed = size - kept;
+        size = kept;
+        return removed;
+    }
+
+    /**
+     * 返回有效元素的副本
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(elements, size);
+    }
+}
@@ -0,0 +1,83 @@
+package com.military.asset.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * 键集分页游标（按 create_time DESC, id DESC 排序时上一页最后一条记录的位置）
+
+ * 作用：下一页查询从该位置之后继续（create_time &lt; t OR (create_time = t AND id &lt; id)），
+ * 走 (create_time, id) 索引定位，不论翻到第几页代价都与第一页相同，不像OFFSET需要扫描并丢弃前面的行
+
+ * 令牌格式：Base64URL("v1|查询条件摘要|创建时间|ID")，对调用方不透明，只能原样传回；
+ * 查询条件摘要用于拒绝在其他查询条件下使用的游标（否则会静默返回错位的数据）
+ */
+public final class KeysetCursor {
+
+    private static final String VERSION = "v1";
+
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime createTime;
+
+    private final String id;
+
+    public KeysetCursor(LocalDateTime createTime, String id) {
+        this.createTime = Objects.requireNonNull(createTime, "createTime");
+        this.id = Objects.requireNonNull(id, "id");
+    }
+
+    public LocalDateTime getCreateTime() {
+        return createTime;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * 编码为不透明令牌
+     *
+     * @param filterKey 查询条件（同一组条件得到相同的值）
+     */
+    public String encode(String filterKey) {
+        String raw = String.join(SEPARATOR, VERSION, filterDigest(filterKey), createTime.toString(), id);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析令牌
+     *
+     * @param token 上一页返回的游标
+     * @param filterKey 本次查询条件（须与生成游标时相同）
+     * @throws IllegalArgumentException 令牌无法解析或与查询条件不匹配时抛出
+     */
+    public static KeysetCursor decode(String token, String filterKey) {
+        String[] parts;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            // ID可能包含分隔符，只切分前3个字段
+            parts = raw.split("\\|", 4);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("无效的分页游标");
+        }
+        if (parts.length != 4 || !VERSION.equals(parts[0])) {
+            throw new IllegalArgumentException("无效的分页游标");
+        }
+        if (!filterDigest(filterKey).equals(parts[1])) {
+            throw new IllegalArgumentException("分页游标与查询条件不匹配，请从第一页重新查询");
+        }
+        try {
+            return new KeysetCursor(LocalDateTime.parse(parts[2]), parts[3]);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("无效的分页游标");
+        }
+    }
+
+    private static String filterDigest(String filterKey) {
+        return Integer.toHexString(Objects.hashCode(filterKey));
+    }
+}
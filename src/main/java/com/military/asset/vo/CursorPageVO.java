@@ -0,0 +1,34 @@
+package com.military.asset.vo;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 游标分页返回对象（键集分页，不返回总数和页码）
+ *
+ * @param <T> 记录类型
+ */
+@Data
+public class CursorPageVO<T> {
+
+    /**
+     * 每页条数
+     */
+    private int size;
+
+    /**
+     * 是否还有下一页
+     */
+    private boolean hasMore;
+
+    /**
+     * 下一页游标（原样作为cursor参数传回；没有下一页时为null）
+     */
+    private String nextCursor;
+
+    /**
+     * 当前页记录
+     */
+    private List<T> records;
+}
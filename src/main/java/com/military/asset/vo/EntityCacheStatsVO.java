@@ -0,0 +1,55 @@
+package com.military.asset.vo;
+
+import lombok.Data;
+
+/**
+ * 实体缓存统计（自应用启动起累计）
+ */
+@Data
+public class EntityCacheStatsVO {
+
+    /**
+     * 缓存名称（资产类型）
+     */
+    private String name;
+
+    /**
+     * 当前条目数（含不存在ID的负缓存条目）
+     */
+    private int size;
+
+    /**
+     * 最大条目数
+     */
+    private int maxEntries;
+
+    /**
+     * 命中次数
+     */
+    private long hits;
+
+    /**
+     * 负缓存命中次数（命中"ID不存在"）
+     */
+    private long negativeHits;
+
+    /**
+     * 未命中次数（含过期，均访问了数据库）
+     */
+    private long misses;
+
+    /**
+     * 因超出容量淘汰的条目数
+     */
+    private long evictions;
+
+    /**
+     * 失效次数（新增、修改、删除、批量导入保存、对账清空）
+     */
+    private long invalidations;
+
+    /**
+     * 命中率（含负缓存命中）
+     */
+    private double hitRate;
+}
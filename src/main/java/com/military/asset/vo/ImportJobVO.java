@@ -0,0 +1,75 @@
+package com.military.asset.vo;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 异步导入任务状态返回对象
+ * 用于提交、进度查询、取消接口的返回数据
+ */
+@Data
+public class ImportJobVO {
+
+    /**
+     * 任务ID（提交时生成，用于后续查询和取消）
+     */
+    private String jobId;
+
+    /**
+     * 资产类型（软件资产/网信资产/数据内容资产）
+     */
+    private String assetType;
+
+    /**
+     * 上传文件名
+     */
+    private String fileName;
+
+    /**
+     * 任务状态：PENDING/RUNNING/SUCCEEDED/FAILED/CANCELLED
+     * （等待同类型导入执行槽位期间为PENDING）
+     */
+    private String status;
+
+    /**
+     * 排队位置（等待同类型导入执行时为队列中的位置，1为下一个执行；未排队为0）
+     */
+    private int queuePosition;
+
+    /**
+     * 已解析行数
+     */
+    private int rowsParsed;
+
+    /**
+     * 合法行数
+     */
+    private int validCount;
+
+    /**
+     * 错误行数
+     */
+    private int errorCount;
+
+    /**
+     * 已保存入库条数
+     */
+    private int savedCount;
+
+    /**
+     * 状态说明（失败原因等）
+     */
+    private String message;
+
+    /**
+     * 导入结果ID（任务成功结束后生成，用于分页获取成功、错误、重复记录）
+     */
+    private String resultId;
+
+    private LocalDateTime submitTime;
+
+    private LocalDateTime startTime;
+
+    private LocalDateTime finishTime;
+}
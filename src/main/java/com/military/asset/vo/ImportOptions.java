@@ -0,0 +1,41 @@
+package com.military.asset.vo;
+
+import lombok.Data;
+
+/**
+ * 导入选项（各导入接口共用的可选请求参数，按同名查询参数绑定）
+ * 未传的选项使用asset.import.*配置项的默认值
+ */
+@Data
+public class ImportOptions {
+
+    /**
+     * 流式提交批次大小（>0 时每满一批即入库，不传则使用asset.import.flush-batch-size）
+     */
+    private Integer batchSize;
+
+    /**
+     * 是否开启并行校验流水线（不传则使用asset.import.pipeline.enabled）
+     */
+    private Boolean parallel;
+
+    /**
+     * 是否经暂存表合并（合法行先写入暂存表，再用集合SQL判重并插入；不传则使用asset.import.staging.enabled）
+     */
+    private Boolean staging;
+
+    /**
+     * 是否强制重新导入（默认false：文件内容与最近一次成功导入相同时直接返回该次结果）
+     */
+    private Boolean force;
+
+    /**
+     * 是否仅校验（dryRun=true 时执行全部校验和重复检查，返回与正式导入相同格式的结果，但不写入数据库）
+     */
+    private Boolean dryRun;
+
+    /**
+     * 是否更新模式（upsert=true 时ID已存在且内容有变化的行更新系统记录，创建时间保持不变；内容未变化的行跳过）
+     */
+    private Boolean upsert;
+}
@@ -0,0 +1,36 @@
+package com.military.asset.vo;
+
+import lombok.Data;
+
+/**
+ * 导入排队情况返回对象（每种资产类型一条）
+ * 用于导入队列查询接口的返回数据
+ */
+@Data
+public class ImportQueueVO {
+
+    /**
+     * 资产类型（软件资产/网信资产/数据内容资产）
+     */
+    private String assetType;
+
+    /**
+     * 执行中的导入数
+     */
+    private int running;
+
+    /**
+     * 排队中的导入数
+     */
+    private int waiting;
+
+    /**
+     * 同时执行的导入数上限
+     */
+    private int maxConcurrent;
+
+    /**
+     * 等待队列长度上限
+     */
+    private int maxWaiting;
+}
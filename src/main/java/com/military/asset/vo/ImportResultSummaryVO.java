@@ -0,0 +1,55 @@
+package com.military.asset.vo;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 导入结果摘要返回对象
+ * 完整结果保存在服务端，成功、错误、重复记录通过 /api/asset/import/results/{resultId}/... 分页获取
+ */
+@Data
+public class ImportResultSummaryVO {
+
+    /**
+     * 结果ID（用于分页获取明细）
+     */
+    private String resultId;
+
+    /**
+     * 资产类型（软件资产/网信资产/数据内容资产）
+     */
+    private String assetType;
+
+    /**
+     * 结果提示消息
+     */
+    private String message;
+
+    /**
+     * 总处理行数
+     */
+    private int totalRows;
+
+    /**
+     * 成功导入数
+     */
+    private int successCount;
+
+    /**
+     * 重复跳过数
+     */
+    private int skipCount;
+
+    /**
+     * 错误数量
+     */
+    private int errorCount;
+
+    private LocalDateTime createTime;
+
+    /**
+     * 结果过期时间（过期后明细不可再查询）
+     */
+    private LocalDateTime expireTime;
+}
@@ -0,0 +1,34 @@
+package com.military.asset.vo;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 分页返回对象
+ *
+ * @param <T> 记录类型
+ */
+@Data
+public class PageVO<T> {
+
+    /**
+     * 当前页码（从1开始）
+     */
+    private int page;
+
+    /**
+     * 每页条数
+     */
+    private int size;
+
+    /**
+     * 总记录数
+     */
+    private int total;
+
+    /**
+     * 当前页记录
+     */
+    private List<T> records;
+}
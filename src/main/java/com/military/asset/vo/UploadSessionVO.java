@@ -0,0 +1,53 @@
+package com.military.asset.vo;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 分片上传会话状态返回对象
+ * 用于创建会话、上传分片、查询进度接口的返回数据，客户端断线重连后按missingChunks补传
+ */
+@Data
+public class UploadSessionVO {
+
+    /**
+     * 上传会话ID（创建时生成，用于后续上传分片和完成上传）
+     */
+    private String uploadId;
+
+    /**
+     * 文件名（完成上传时按扩展名校验文件格式）
+     */
+    private String fileName;
+
+    /**
+     * 文件总字节数
+     */
+    private long totalSize;
+
+    /**
+     * 分片字节数（最后一个分片可以更短）
+     */
+    private int chunkSize;
+
+    /**
+     * 分片总数
+     */
+    private int chunkCount;
+
+    /**
+     * 已接收（校验和通过）的分片数
+     */
+    private int receivedChunks;
+
+    /**
+     * 尚未接收的分片序号（从0开始，分片偏移 = 序号 × chunkSize）
+     */
+    private List<Integer> missingChunks;
+
+    private LocalDateTime createTime;
+
+    private LocalDateTime expireTime;
+}
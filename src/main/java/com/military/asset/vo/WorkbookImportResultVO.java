@@ -0,0 +1,70 @@
+package com.military.asset.vo;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 多工作表导入结果返回对象
+ * 一个工作簿中的软件、网信、数据内容资产工作表并行导入，每个工作表一个结果分区
+ */
+@Data
+public class WorkbookImportResultVO {
+
+    /**
+     * 上传文件名
+     */
+    private String fileName;
+
+    /**
+     * 是否全部工作表导入成功（存在数据校验错误不算失败）
+     */
+    private boolean success;
+
+    /**
+     * 结果提示消息
+     */
+    private String message;
+
+    /**
+     * 各工作表导入结果（按工作表顺序）
+     */
+    private List<SheetResult> sheets = new ArrayList<>();
+
+    /**
+     * 未识别资产类型、未导入的工作表名称
+     */
+    private List<String> ignoredSheets = new ArrayList<>();
+
+    /**
+     * 单个工作表的导入结果
+     */
+    @Data
+    public static class SheetResult {
+
+        /**
+         * 工作表序号（从0开始）
+         */
+        private int sheetNo;
+
+        private String sheetName;
+
+        /**
+         * 资产类型（软件资产/网信资产/数据内容资产）
+         */
+        private String assetType;
+
+        private boolean success;
+
+        /**
+         * 结果提示消息（失败时为失败原因）
+         */
+        private String message;
+
+        /**
+         * 结果摘要（含resultId，明细通过 /api/asset/import/results/{resultId}/... 分页获取；失败时为null）
+         */
+        private ImportResultSummaryVO summary;
+    }
+}
@@ -0,0 +1,127 @@
+package com.military.asset.listener.rule;
+
+import com.military.asset.vo.ExcelErrorVO;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * AssetRuleSet单元测试
+
+ * 规则链渲染出的错误字段和描述须与原手写校验（逐条String.format并按校验顺序拼接）逐字一致，
+ * 期望值即原SoftwareAssetExcelListener中的格式串
+ */
+class AssetRuleSetTest {
+
+    private static final LocalDate MIN_DATE = LocalDate.of(2000, 1, 1);
+
+    private static final AssetRuleSet<Row> RULES = AssetRuleSet.<Row>builder()
+            .notBlank("reportUnit", Row::reportUnit, "上报单位为空")
+            .requiredPositive("actualQuantity", Row::actualQuantity, "实有数量")
+            .notNull("putIntoUseDate", Row::putIntoUseDate, "投入使用日期为空")
+            .categoryMatches(Map.of("A1", "办公软件"), Row::categoryCode, Row::assetCategory)
+            .oneOf("serviceStatus", Row::serviceStatus, List.of("在用", "停用"), "服务状态")
+            .notBefore("putIntoUseDate", Row::putIntoUseDate, MIN_DATE, "投入使用日期")
+            .build();
+
+    @Test
+    void validRowRecordsNothing() {
+        ImportErrorBuffer errors = new ImportErrorBuffer();
+
+        assertTrue(RULES.validate(validRow(), 3, errors));
+        assertTrue(errors.isEmpty());
+    }
+
+    @Test
+    void violationsRenderInDeclarationOrder() {
+        ImportErrorBuffer errors = new ImportErrorBuffer();
+        Row row = new Row(" ", 0, "A1", "办公软件", "报废", LocalDate.of(2020, 1, 1));
+
+        assertFalse(RULES.validate(row, 5, errors));
+
+        ExcelErrorVO error = errors.render(0, RULES);
+        assertEquals(5, error.getExcelRowNum());
+        assertEquals("reportUnit,actualQuantity,serviceStatus", error.getErrorFields());
+        assertEquals(String.format("第%d行：上报单位为空；", 5)
+                + String.format("第%d行：实有数量需为正整数（当前：%d）；", 5, 0)
+                + String.format("第%d行：服务状态非法（仅允许：%s）；", 5, String.join("、", List.of("在用", "停用"))),
+                error.getErrorMsg());
+        assertEquals("CRITICAL", error.getErrorLevel());
+    }
+
+    @Test
+    void emptyRequiredFieldsUseEmptyMessages() {
+        ImportErrorBuffer errors = new ImportErrorBuffer();
+        Row row = new Row("某部", null, null, null, null, null);
+
+        RULES.validate(row, 4, errors);
+
+        ExcelErrorVO error = errors.render(0, RULES);
+        assertEquals("actualQuantity,putIntoUseDate", error.getErrorFields());
+        assertEquals("第4行：实有数量为空；第4行：投入使用日期为空；", error.getErrorMsg());
+    }
+
+    @Test
+    void categoryMessagesMatchOriginalFormat() {
+        ImportErrorBuffer errors = new ImportErrorBuffer();
+        RULES.validate(new Row("某部", 1, "X9", "办公软件", "在用", MIN_DATE), 6, errors);
+        RULES.validate(new Row("某部", 1, " A1 ", "工具软件", "在用", MIN_DATE), 7, errors);
+
+        assertEquals(2, errors.size());
+        ExcelErrorVO illegalCode = errors.render(0, RULES);
+        assertEquals("categoryCode", illegalCode.getErrorFields());
+        assertEquals(String.format("第%d行：分类编码非法（当前值：%s）；", 6, "X9"), illegalCode.getErrorMsg());
+
+        ExcelErrorVO mismatch = errors.render(1, RULES);
+        assertEquals("categoryCode,assetCategory", mismatch.getErrorFields());
+        assertEquals(String.format("第%d行：分类不匹配（编码%s对应：%s，Excel分类：%s）；", 7, " A1 ", "办公软件", "工具软件"),
+                mismatch.getErrorMsg());
+    }
+
+    @Test
+    void dateLowerBoundMessageMatchesOriginalFormat() {
+        ImportErrorBuffer errors = new ImportErrorBuffer();
+        RULES.validate(new Row("某部", 1, "A1", "办公软件", "在用", MIN_DATE.minusDays(1)), 8, errors);
+
+        ExcelErrorVO error = errors.render(0, RULES);
+        assertEquals("putIntoUseDate", error.getErrorFields());
+        assertEquals(String.format("第%d行：投入使用日期非法（需>=%s）；", 8, MIN_DATE), error.getErrorMsg());
+    }
+
+    @Test
+    void idBlankCodeIsPreRegistered() {
+        ImportErrorBuffer errors = new ImportErrorBuffer();
+        errors.add(9, AssetRuleSet.ID_BLANK);
+
+        ExcelErrorVO error = errors.render(0, RULES);
+        assertEquals("id", error.getErrorFields());
+        assertEquals(String.format("第%d行：资产ID为空；", 9), error.getErrorMsg());
+    }
+
+    @Test
+    void isBlankMatchesTrimIsEmpty() {
+        for (String value : new String[]{"", " ", "\t\r\n", "\u0000", "a", " a ", "　", "某部"}) {
+            assertEquals(value.trim().isEmpty(), AssetRuleSet.isBlank(value), "[" + value + "]");
+        }
+        assertTrue(AssetRuleSet.isBlank(null));
+    }
+
+    // ============================ 工具方法 ============================
+
+    private static Row validRow() {
+        return new Row("某部", 2, "A1", "办公软件", "在用", MIN_DATE);
+    }
+
+    /**
+     * 测试用的Excel行（字段与软件资产导入VO同名）
+     */
+    private record Row(String reportUnit, Integer actualQuantity, String categoryCode, String assetCategory,
+                       String serviceStatus, LocalDate putIntoUseDate) {
+    }
+}
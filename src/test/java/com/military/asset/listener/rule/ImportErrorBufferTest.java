@@ -0,0 +1,123 @@
+package com.military.asset.listener.rule;
+
+import com.military.asset.vo.ExcelErrorVO;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * ImportErrorBuffer单元测试
+
+ * 覆盖条目合并（同一行连续的违规为一个条目）、撤销、已渲染条目、跨缓冲区并入、列表视图和收缩
+ */
+class ImportErrorBufferTest {
+
+    private static final AssetRuleSet.Builder<Object> BUILDER = AssetRuleSet.builder();
+    private static final int UNIT_BLANK = BUILDER.error("reportUnit", "上报单位为空");
+    private static final int NOT_POSITIVE = BUILDER.error("actualQuantity", "实有数量需为正整数（当前：%d）");
+    private static final int MISMATCH = BUILDER.error("categoryCode,assetCategory", "分类不匹配（编码%s对应：%s，Excel分类：%s）");
+    private static final AssetRuleSet<Object> RULES = BUILDER.build();
+
+    @Test
+    void consecutiveViolationsOfOneRowFormOneEntry() {
+        ImportErrorBuffer errors = new ImportErrorBuffer();
+        errors.add(2, UNIT_BLANK);
+        errors.add(2, NOT_POSITIVE, -1);
+        errors.add(3, MISMATCH, "A1", "办公软件", "工具软件");
+
+        assertEquals(2, errors.size());
+        assertEquals("第2行：上报单位为空；第2行：实有数量需为正整数（当前：-1）；", errors.render(0, RULES).getErrorMsg());
+        assertEquals("categoryCode,assetCategory", errors.render(1, RULES).getErrorFields());
+        assertEquals("第3行：分类不匹配（编码A1对应：办公软件，Excel分类：工具软件）；", errors.render(1, RULES).getErrorMsg());
+    }
+
+    @Test
+    void truncateDiscardsPartiallyRecordedRow() {
+        ImportErrorBuffer errors = new ImportErrorBuffer();
+        errors.add(2, UNIT_BLANK);
+        int mark = errors.mark();
+        errors.add(3, NOT_POSITIVE, 0);
+        errors.add(3, UNIT_BLANK);
+
+        errors.truncate(mark);
+
+        assertEquals(1, errors.size());
+        errors.add(4, NOT_POSITIVE, 0);
+        assertEquals(2, errors.size());
+        assertEquals("第4行：实有数量需为正整数（当前：0）；", errors.render(1, RULES).getErrorMsg());
+    }
+
+    @Test
+    void renderedEntryStandsAlone() {
+        ExcelErrorVO mismatch = new ExcelErrorVO();
+        mismatch.setExcelRowNum(2);
+        mismatch.setErrorMsg("关键字段不一致");
+
+        ImportErrorBuffer errors = new ImportErrorBuffer();
+        errors.add(2, UNIT_BLANK);
+        errors.addRendered(2, mismatch);
+        errors.add(2, UNIT_BLANK);
+
+        assertEquals(3, errors.size());
+        assertSame(mismatch, errors.render(1, RULES));
+        assertEquals("第2行：上报单位为空；", errors.render(2, RULES).getErrorMsg());
+    }
+
+    @Test
+    void appendEntryCopiesViolationsAndArguments() {
+        ImportErrorBuffer batch = new ImportErrorBuffer();
+        batch.add(5, UNIT_BLANK);
+        batch.add(5, NOT_POSITIVE, 0);
+        batch.add(7, MISMATCH, "B2", "数据库", "中间件");
+
+        ImportErrorBuffer main = new ImportErrorBuffer();
+        main.add(1, UNIT_BLANK);
+        main.appendEntry(batch, 0);
+        main.appendEntry(batch, 1);
+
+        assertEquals(3, main.size());
+        assertEquals(batch.render(0, RULES).getErrorMsg(), main.render(1, RULES).getErrorMsg());
+        assertEquals(batch.render(1, RULES).getErrorMsg(), main.render(2, RULES).getErrorMsg());
+    }
+
+    @Test
+    void listViewPutsHeadFirstAndChecksBounds() {
+        ExcelErrorVO head = new ExcelErrorVO();
+        head.setErrorMsg("重复数据汇总");
+        ImportErrorBuffer errors = new ImportErrorBuffer();
+        errors.add(2, UNIT_BLANK);
+
+        List<ExcelErrorVO> list = errors.asList(head, RULES);
+
+        assertEquals(2, list.size());
+        assertSame(head, list.get(0));
+        assertEquals("第2行：上报单位为空；", list.get(1).getErrorMsg());
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(2));
+        assertEquals(1, errors.asList(null, RULES).size());
+    }
+
+    @Test
+    void compactKeepsViewAndBufferStaysWritable() {
+        ImportErrorBuffer errors = new ImportErrorBuffer();
+        for (int row = 2; row < 40; row++) {
+            errors.add(row, NOT_POSITIVE, row);
+        }
+        List<ExcelErrorVO> view = errors.asList(null, RULES);
+
+        assertSame(view, ImportErrorBuffer.compact(view));
+        assertEquals("第39行：实有数量需为正整数（当前：39）；", view.get(37).getErrorMsg());
+
+        errors.add(40, UNIT_BLANK);
+        assertEquals(39, errors.size());
+
+        ImportErrorBuffer empty = new ImportErrorBuffer();
+        empty.trimToSize();
+        empty.add(2, UNIT_BLANK);
+        empty.add(3, UNIT_BLANK);
+        assertEquals(2, empty.size());
+    }
+}
@@ -0,0 +1,235 @@
+package com.military.asset.service.impl;
+
+import com.baomidou.mybatisplus.annotation.FieldFill;
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.military.asset.listener.AssetImportListener;
+import com.military.asset.listener.rule.AssetRuleSet;
+import com.military.asset.vo.ExcelErrorVO;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * AssetUpsertService.UpsertSession单元测试
+
+ * 重点覆盖变化判断：新增行经资产服务保存，内容一致的行（ID忽略首尾空格和大小写、金额按数值比较、
+ * VO没有的派生列不参与比较）登记为系统重复，有变化的行只更新VO提供的列且不覆盖创建时间
+ */
+class AssetUpsertServiceTest {
+
+    private static final LocalDateTime FIRST_IMPORT = LocalDateTime.of(2023, 6, 1, 8, 0);
+
+    /**
+     * 系统已存在的记录（主键比较与MySQL默认排序规则一致，不区分大小写）
+     */
+    private final Map<String, UpsertEntity> existing = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+    private final List<List<UpsertRow>> inserted = new ArrayList<>();
+    private final List<UpsertCall> upserts = new ArrayList<>();
+    private final List<List<UpsertRow>> indexed = new ArrayList<>();
+    private int updateNotifications;
+
+    @BeforeAll
+    static void initTableInfo() {
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), UpsertEntity.class);
+    }
+
+    @Test
+    void newRowIsInsertedThroughAssetService() {
+        RecordingListener listener = new RecordingListener();
+        UpsertRow row = new UpsertRow("SW-1", "办公套件", new BigDecimal("1.5"), 3);
+
+        openSession(listener).write(List.of(row));
+
+        assertEquals(List.of(List.of(row)), inserted);
+        assertTrue(upserts.isEmpty());
+        assertEquals(List.of(List.of(row)), indexed);
+        assertEquals(0, updateNotifications);
+    }
+
+    @Test
+    void unchangedRowIsReportedAsSystemDuplicate() {
+        existing.put("sw-1", new UpsertEntity("sw-1", "办公套件", new BigDecimal("1.50"), "北京", FIRST_IMPORT));
+        RecordingListener listener = new RecordingListener();
+        AssetUpsertService.UpsertSession<UpsertRow, UpsertEntity> session = openSession(listener);
+
+        // ID首尾空格、大小写不同，金额精度不同，派生列（省份）在VO中没有：均视为未变化
+        session.write(List.of(new UpsertRow(" SW-1 ", "办公套件", new BigDecimal("1.5"), 4)));
+
+        assertEquals(1, session.getUnchangedCount());
+        assertEquals(0, session.getInsertedCount() + session.getUpdatedCount());
+        assertEquals(1, listener.getSystemDuplicateCount());
+        assertEquals(List.of(4), listener.getDuplicateRecords());
+        assertTrue(inserted.isEmpty());
+        assertTrue(upserts.isEmpty());
+        assertTrue(indexed.isEmpty());
+        assertEquals(0, updateNotifications);
+    }
+
+    @Test
+    void changedRowUpdatesOnlyColumnsFromTheRow() {
+        existing.put("SW-1", new UpsertEntity("SW-1", "旧名称", new BigDecimal("1.5"), "北京", FIRST_IMPORT));
+        RecordingListener listener = new RecordingListener();
+        AssetUpsertService.UpsertSession<UpsertRow, UpsertEntity> session = openSession(listener);
+        UpsertRow row = new UpsertRow("SW-1", "新名称", new BigDecimal("1.5"), 5);
+
+        session.write(List.of(row));
+
+        assertEquals(1, session.getUpdatedCount());
+        assertEquals(1, upserts.size());
+        UpsertCall call = upserts.get(0);
+        assertEquals("upsert_asset", call.table());
+        assertEquals("id, asset_name, amount, create_time", call.columns());
+        assertEquals("asset_name = VALUES(asset_name), amount = VALUES(amount)", call.updates());
+        assertEquals(List.of("SW-1", "新名称", new BigDecimal("1.5")), call.rows().get(0).subList(0, 3));
+        assertTrue(inserted.isEmpty());
+        assertEquals(List.of(List.of(row)), indexed);
+        assertEquals(1, updateNotifications);
+        assertEquals(0, listener.getSystemDuplicateCount());
+    }
+
+    @Test
+    void repeatedIdInOneBatchComparesWithEarlierRow() {
+        RecordingListener listener = new RecordingListener();
+        AssetUpsertService.UpsertSession<UpsertRow, UpsertEntity> session = openSession(listener);
+        UpsertRow first = new UpsertRow("SW-1", "办公套件", new BigDecimal("1"), 2);
+        UpsertRow same = new UpsertRow("SW-1", "办公套件", new BigDecimal("1.0"), 3);
+        UpsertRow changed = new UpsertRow("SW-1", "办公套件专业版", new BigDecimal("1"), 4);
+
+        session.write(List.of(first, same, changed));
+
+        assertEquals(1, session.getInsertedCount());
+        assertEquals(1, session.getUnchangedCount());
+        assertEquals(1, session.getUpdatedCount());
+        assertEquals(List.of(List.of(first)), inserted);
+        assertEquals("办公套件专业版", upserts.get(0).rows().get(0).get(1));
+        assertEquals(List.of(3), listener.getDuplicateRecords());
+    }
+
+    // ============================ 工具方法 ============================
+
+    private AssetUpsertService.UpsertSession<UpsertRow, UpsertEntity> openSession(RecordingListener listener) {
+        AssetUpsertService service = new AssetUpsertService((table, columns, rows, updates) -> {
+            upserts.add(new UpsertCall(table, columns, new ArrayList<>(rows), updates));
+            return rows.size();
+        }, null, null, null, null, null, null, null);
+        AssetUpsertService.UpsertSession<UpsertRow, UpsertEntity> session = service.new UpsertSession<>(
+                "测试资产", UpsertRow.class, UpsertEntity.class, UpsertRow::getExcelRowNum,
+                ids -> ids.stream().map(existing::get).filter(Objects::nonNull).toList(),
+                inserted::add, indexed::add, () -> updateNotifications++);
+        session.bind(listener);
+        return session;
+    }
+
+    /**
+     * 一次多行新增或更新语句
+     */
+    private record UpsertCall(String table, String columns, List<List<Object>> rows, String updates) {
+    }
+
+    /**
+     * 测试用的导入VO（没有省份等由资产服务派生的属性）
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class UpsertRow {
+        private String id;
+        private String assetName;
+        private BigDecimal amount;
+        private Integer excelRowNum;
+    }
+
+    /**
+     * 测试用的实体（省份为派生列，创建时间为插入自动填充）
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @TableName("upsert_asset")
+    public static class UpsertEntity {
+        @TableId(value = "id", type = IdType.INPUT)
+        private String id;
+
+        @TableField("asset_name")
+        private String assetName;
+
+        @TableField("amount")
+        private BigDecimal amount;
+
+        @TableField("province")
+        private String province;
+
+        @TableField(value = "create_time", fill = FieldFill.INSERT)
+        private LocalDateTime createTime;
+    }
+
+    /**
+     * 只记录系统重复的监听器（重复记录为Excel行号）
+     */
+    private static final class RecordingListener extends AssetImportListener<UpsertRow, UpsertEntity> {
+
+        private RecordingListener() {
+            super("测试资产", null, AssetRuleSet.<UpsertRow>builder().build(), 0, null);
+        }
+
+        @Override
+        public String getAssetId(UpsertRow excelVO) {
+            return excelVO.getId();
+        }
+
+        @Override
+        public String getAssetName(UpsertRow excelVO) {
+            return excelVO.getAssetName();
+        }
+
+        @Override
+        public String getReportUnit(UpsertRow excelVO) {
+            return null;
+        }
+
+        @Override
+        public int getRowNum(UpsertRow excelVO) {
+            return excelVO.getExcelRowNum();
+        }
+
+        @Override
+        protected void setRowNum(UpsertRow excelVO, int rowNum) {
+            excelVO.setExcelRowNum(rowNum);
+        }
+
+        @Override
+        protected long fingerprintOf(UpsertRow excelVO) {
+            return 0L;
+        }
+
+        @Override
+        protected ExcelErrorVO createKeyFieldMismatchError(UpsertRow excelVO, int rowNum, UpsertEntity existingAsset) {
+            return new ExcelErrorVO();
+        }
+
+        @Override
+        protected Object createDuplicateRecord(UpsertRow excelVO, int rowNum) {
+            return rowNum;
+        }
+    }
+}
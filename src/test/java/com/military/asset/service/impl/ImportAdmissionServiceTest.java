@@ -0,0 +1,196 @@
+package com.military.asset.service.impl;
+
+import com.military.asset.listener.ImportProgress;
+import com.military.asset.vo.ImportQueueVO;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * ImportAdmissionService单元测试
+
+ * 覆盖同类型排队按提交顺序放行、撤回、队列满拒绝、排队超时和取消，以及不同资产类型互不影响
+ */
+class ImportAdmissionServiceTest {
+
+    private static final String SOFTWARE = "软件资产";
+
+    @Test
+    void queuedTasksAreDispatchedInSubmissionOrder() throws InterruptedException {
+        ImportAdmissionService service = new ImportAdmissionService(1, 10, Duration.ofMinutes(30));
+        ImportAdmissionService.Permit running = service.acquire(SOFTWARE, null);
+        RecordingDispatcher first = new RecordingDispatcher();
+        RecordingDispatcher second = new RecordingDispatcher();
+
+        service.enqueue(SOFTWARE, first.progress, first);
+        service.enqueue(SOFTWARE, second.progress, second);
+
+        assertNull(first.permit);
+        assertEquals(1, first.progress.getQueuePosition());
+        assertEquals(2, second.progress.getQueuePosition());
+
+        running.close();
+
+        assertNotNull(first.permit);
+        assertEquals(0, first.progress.getQueuePosition());
+        assertNull(second.permit);
+        assertEquals(1, second.progress.getQueuePosition());
+
+        first.permit.close();
+        // 重复关闭不能多归还槽位
+        first.permit.close();
+
+        assertNotNull(second.permit);
+        assertQueue(service, 1, 0);
+        second.permit.close();
+        assertQueue(service, 0, 0);
+    }
+
+    @Test
+    void withdrawnTaskIsNeverDispatched() throws InterruptedException {
+        ImportAdmissionService service = new ImportAdmissionService(1, 10, Duration.ofMinutes(30));
+        ImportAdmissionService.Permit running = service.acquire(SOFTWARE, null);
+        RecordingDispatcher first = new RecordingDispatcher();
+        RecordingDispatcher second = new RecordingDispatcher();
+        service.enqueue(SOFTWARE, first.progress, first);
+        service.enqueue(SOFTWARE, second.progress, second);
+
+        assertTrue(service.withdraw(SOFTWARE, first.progress));
+        assertEquals(0, first.progress.getQueuePosition());
+        assertEquals(1, second.progress.getQueuePosition());
+        assertFalse(service.withdraw(SOFTWARE, first.progress));
+
+        running.close();
+
+        assertNull(first.permit);
+        assertNotNull(second.permit);
+        assertFalse(service.withdraw(SOFTWARE, second.progress));
+        second.permit.close();
+    }
+
+    @Test
+    void fullQueueRejectsNewImports() throws InterruptedException {
+        ImportAdmissionService service = new ImportAdmissionService(1, 1, Duration.ofMinutes(30));
+        ImportAdmissionService.Permit running = service.acquire(SOFTWARE, null);
+        RecordingDispatcher queued = new RecordingDispatcher();
+        service.enqueue(SOFTWARE, queued.progress, queued);
+
+        RecordingDispatcher rejected = new RecordingDispatcher();
+        assertThrows(TaskRejectedException.class, () -> service.enqueue(SOFTWARE, rejected.progress, rejected));
+        assertThrows(TaskRejectedException.class, () -> service.acquire(SOFTWARE, null));
+
+        running.close();
+        assertNotNull(queued.permit);
+        queued.permit.close();
+    }
+
+    @Test
+    void synchronousWaitTimesOut() throws InterruptedException {
+        ImportAdmissionService service = new ImportAdmissionService(1, 10, Duration.ofMillis(100));
+        try (ImportAdmissionService.Permit ignored = service.acquire(SOFTWARE, null)) {
+            assertThrows(TaskRejectedException.class, () -> service.acquire(SOFTWARE, null));
+            // 超时的等待者已移出队列
+            assertQueue(service, 1, 0);
+        }
+    }
+
+    @Test
+    void expiredAndCancelledTasksAreRejected() throws InterruptedException {
+        ImportAdmissionService service = new ImportAdmissionService(1, 10, Duration.ofMillis(100));
+        ImportAdmissionService.Permit running = service.acquire(SOFTWARE, null);
+        RecordingDispatcher expired = new RecordingDispatcher();
+        service.enqueue(SOFTWARE, expired.progress, expired);
+
+        Thread.sleep(200);
+        RecordingDispatcher cancelled = new RecordingDispatcher();
+        service.enqueue(SOFTWARE, cancelled.progress, cancelled);
+        cancelled.progress.cancel();
+        service.expireWaiting();
+
+        assertEquals(1, expired.rejections.size());
+        assertInstanceOf(TaskRejectedException.class, expired.rejections.get(0));
+        assertEquals(1, cancelled.rejections.size());
+        assertInstanceOf(CancellationException.class, cancelled.rejections.get(0));
+        assertQueue(service, 1, 0);
+
+        running.close();
+        assertNull(expired.permit);
+        assertNull(cancelled.permit);
+    }
+
+    @Test
+    void failedDispatchReleasesSlotAndRejects() throws InterruptedException {
+        ImportAdmissionService service = new ImportAdmissionService(1, 10, Duration.ofMinutes(30));
+        ImportAdmissionService.Permit running = service.acquire(SOFTWARE, null);
+        RecordingDispatcher failing = new RecordingDispatcher();
+        failing.failure = new TaskRejectedException("线程池已满");
+        RecordingDispatcher next = new RecordingDispatcher();
+        service.enqueue(SOFTWARE, failing.progress, failing);
+        service.enqueue(SOFTWARE, next.progress, next);
+
+        running.close();
+
+        assertEquals(List.of(failing.failure), failing.rejections);
+        assertNotNull(next.permit);
+        next.permit.close();
+        assertQueue(service, 0, 0);
+    }
+
+    @Test
+    void assetTypesQueueIndependently() throws InterruptedException {
+        ImportAdmissionService service = new ImportAdmissionService(1, 10, Duration.ofMillis(100));
+        try (ImportAdmissionService.Permit ignored = service.acquire(SOFTWARE, null);
+             ImportAdmissionService.Permit cyber = service.acquire("网信资产", null)) {
+            assertNotNull(cyber);
+            List<ImportQueueVO> snapshot = service.snapshot();
+            assertEquals(List.of("网信资产", SOFTWARE), snapshot.stream().map(ImportQueueVO::getAssetType).toList());
+        }
+    }
+
+    // ============================ 工具方法 ============================
+
+    private static void assertQueue(ImportAdmissionService service, int running, int waiting) {
+        ImportQueueVO vo = service.snapshot().stream()
+                .filter(lane -> SOFTWARE.equals(lane.getAssetType()))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(running, vo.getRunning());
+        assertEquals(waiting, vo.getWaiting());
+    }
+
+    /**
+     * 记录回调的异步任务提交器
+     */
+    private static final class RecordingDispatcher implements ImportAdmissionService.Dispatcher {
+
+        private final ImportProgress progress = new ImportProgress();
+        private final List<RuntimeException> rejections = new ArrayList<>();
+        private ImportAdmissionService.Permit permit;
+        private RuntimeException failure;
+
+        @Override
+        public void dispatch(ImportAdmissionService.Permit permit) {
+            if (failure != null) {
+                throw failure;
+            }
+            this.permit = permit;
+        }
+
+        @Override
+        public void reject(RuntimeException reason) {
+            rejections.add(reason);
+        }
+    }
+}
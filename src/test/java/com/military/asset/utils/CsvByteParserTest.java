@@ -0,0 +1,111 @@
+package com.military.asset.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * CsvByteParser单元测试
+
+ * 重点覆盖64KB读缓冲区边界：转义引号、\r\n被切在两次填充之间时不能多出或丢失字符/记录
+ */
+class CsvByteParserTest {
+
+    /**
+     * 读缓冲区大小（与CsvByteParser一致）
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Test
+    void escapedQuoteSplitAcrossRefill() throws IOException {
+        // 起始引号在下标0，转义引号""的第一个引号恰好是首个缓冲区的最后一个字节
+        String body = "x".repeat(BUFFER_SIZE - 2);
+        byte[] csv = utf8("\"" + body + "\"\"y\",tail\nnext,row\n");
+        assertEquals('"', csv[BUFFER_SIZE - 1]);
+        assertEquals('"', csv[BUFFER_SIZE]);
+
+        List<List<String>> records = parseAll(csv, null);
+
+        assertEquals(List.of(
+                List.of(body + "\"y", "tail"),
+                List.of("next", "row")), records);
+    }
+
+    @Test
+    void crlfSplitAcrossRefill() throws IOException {
+        // \r是首个缓冲区的最后一个字节，\n在下一次填充的开头，不能被当作一个空行
+        String first = "a".repeat(BUFFER_SIZE - 1);
+        byte[] csv = utf8(first + "\r\nb,c\r\n");
+        assertEquals('\r', csv[BUFFER_SIZE - 1]);
+
+        List<List<String>> records = parseAll(csv, null);
+
+        assertEquals(List.of(
+                List.of(first),
+                List.of("b", "c")), records);
+    }
+
+    @Test
+    void unterminatedQuoteAtEndOfFile() throws IOException {
+        List<List<String>> records = parseAll(utf8("id,name\n1,\"未结束的字段"), StandardCharsets.UTF_8);
+
+        assertEquals(List.of(
+                List.of("id", "name"),
+                List.of("1", "未结束的字段")), records);
+    }
+
+    @Test
+    void utf8BomIsSkipped() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(new byte[]{(byte) 0xEF, (byte) 0xBB, (byte) 0xBF});
+        out.write("软件名称,版本\r\n办公套件,\"2.0\"\r\n".getBytes(StandardCharsets.UTF_8));
+
+        try (CsvByteParser parser = new CsvByteParser(new ByteArrayInputStream(out.toByteArray()), null)) {
+            assertEquals(StandardCharsets.UTF_8, parser.getCharset());
+            assertEquals(List.of("软件名称", "版本"), List.copyOf(parser.nextRecord()));
+            assertEquals(List.of("办公套件", "2.0"), List.copyOf(parser.nextRecord()));
+            assertNull(parser.nextRecord());
+        }
+    }
+
+    @Test
+    void gbkIsDetectedWhenNotValidUtf8() throws IOException {
+        byte[] csv = "软件名称,上报单位\r\n办公套件,\"某部,信息中心\"\r\n".getBytes(CsvByteParser.GBK);
+
+        try (CsvByteParser parser = new CsvByteParser(new ByteArrayInputStream(csv), null)) {
+            assertEquals(CsvByteParser.GBK, parser.getCharset());
+            assertEquals(List.of("软件名称", "上报单位"), List.copyOf(parser.nextRecord()));
+            assertEquals(List.of("办公套件", "某部,信息中心"), List.copyOf(parser.nextRecord()));
+            assertNull(parser.nextRecord());
+        }
+    }
+
+    // ============================ 工具方法 ============================
+
+    /**
+     * 读取全部记录（nextRecord返回的列表会被复用，逐条拷贝）
+     */
+    private static List<List<String>> parseAll(byte[] csv, Charset charset) throws IOException {
+        List<List<String>> records = new ArrayList<>();
+        try (CsvByteParser parser = new CsvByteParser(new ByteArrayInputStream(csv), charset)) {
+            List<String> record;
+            while ((record = parser.nextRecord()) != null) {
+                records.add(List.copyOf(record));
+            }
+        }
+        return records;
+    }
+
+    private static byte[] utf8(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
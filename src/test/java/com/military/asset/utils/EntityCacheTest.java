@@ -0,0 +1,151 @@
+package com.military.asset.utils;
+
+import com.military.asset.vo.EntityCacheStatsVO;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * EntityCache单元测试
+
+ * 重点覆盖失效代数：加载期间发生失效时加载结果不能写回缓存；以及负缓存、LRU淘汰和统计
+ */
+class EntityCacheTest {
+
+    @Test
+    void secondReadIsServedFromCache() {
+        EntityCache<String> cache = new EntityCache<>("测试", 10, 60, 60);
+        CountingLoader loader = new CountingLoader(id -> "实体-" + id);
+
+        assertEquals("实体-A", cache.get("A", loader));
+        assertEquals("实体-A", cache.get("A", loader));
+
+        assertEquals(1, loader.calls.get());
+        EntityCacheStatsVO stats = cache.stats();
+        assertEquals(1, stats.getHits());
+        assertEquals(1, stats.getMisses());
+        assertEquals(0.5, stats.getHitRate());
+    }
+
+    @Test
+    void missingIdIsCachedOnlyWithNegativeTtl() {
+        EntityCache<String> negative = new EntityCache<>("负缓存", 10, 60, 30);
+        CountingLoader loader = new CountingLoader(id -> null);
+        assertNull(negative.get("X", loader));
+        assertNull(negative.get("X", loader));
+        assertEquals(1, loader.calls.get());
+        assertEquals(1, negative.stats().getNegativeHits());
+
+        EntityCache<String> noNegative = new EntityCache<>("无负缓存", 10, 60, 0);
+        CountingLoader uncached = new CountingLoader(id -> null);
+        noNegative.get("X", uncached);
+        noNegative.get("X", uncached);
+        assertEquals(2, uncached.calls.get());
+        assertEquals(0, noNegative.stats().getSize());
+    }
+
+    @Test
+    void invalidationDuringLoadDropsLoadedValue() {
+        EntityCache<String> cache = new EntityCache<>("测试", 10, 60, 60);
+        // 加载读到旧值后，写入方修改并失效了该ID
+        String stale = cache.get("A", id -> {
+            cache.invalidate(id);
+            return "旧值";
+        });
+        assertEquals("旧值", stale);
+        assertEquals(0, cache.stats().getSize());
+
+        assertEquals("新值", cache.get("A", id -> "新值"));
+        assertEquals("新值", cache.get("A", id -> "不应再加载"));
+    }
+
+    @Test
+    void invalidationOfOtherIdsAlsoDropsLoadedValue() {
+        EntityCache<String> cache = new EntityCache<>("测试", 10, 60, 60);
+        cache.get("A", id -> {
+            cache.invalidateAll(List.of("B", "C"));
+            return "A值";
+        });
+
+        assertEquals(0, cache.stats().getSize());
+        assertEquals(1, cache.stats().getInvalidations());
+    }
+
+    @Test
+    void invalidateAndClearRemoveEntries() {
+        EntityCache<String> cache = new EntityCache<>("测试", 10, 60, 60);
+        cache.get("A", id -> "A值");
+        cache.get("B", id -> "B值");
+        cache.get("C", id -> "C值");
+
+        cache.invalidate("A");
+        assertEquals(2, cache.stats().getSize());
+        assertEquals("A新值", cache.get("A", id -> "A新值"));
+
+        cache.invalidateAll(List.of("A", "B"));
+        assertEquals(1, cache.stats().getSize());
+
+        cache.clear();
+        assertEquals(0, cache.stats().getSize());
+        assertEquals(3, cache.stats().getInvalidations());
+    }
+
+    @Test
+    void leastRecentlyUsedEntryIsEvicted() {
+        EntityCache<String> cache = new EntityCache<>("测试", 2, 60, 60);
+        cache.get("A", id -> "A值");
+        cache.get("B", id -> "B值");
+        // 访问A后B成为最久未访问的条目
+        cache.get("A", id -> "不应再加载");
+        cache.get("C", id -> "C值");
+
+        assertEquals(1, cache.stats().getEvictions());
+        assertEquals("A值", cache.get("A", id -> "不应再加载"));
+        assertEquals("B重新加载", cache.get("B", id -> "B重新加载"));
+    }
+
+    @Test
+    void nullIdBypassesCache() {
+        EntityCache<String> cache = new EntityCache<>("测试", 10, 60, 60);
+        CountingLoader loader = new CountingLoader(id -> "无ID");
+
+        cache.get(null, loader);
+        cache.get(null, loader);
+
+        assertEquals(2, loader.calls.get());
+        assertEquals(0, cache.stats().getMisses());
+    }
+
+    @Test
+    void invalidCapacityIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new EntityCache<String>("测试", 0, 60, 60));
+        assertThrows(IllegalArgumentException.class, () -> new EntityCache<String>("测试", 10, 0, 60));
+    }
+
+    // ============================ 工具方法 ============================
+
+    /**
+     * 记录调用次数的加载函数
+     */
+    private static final class CountingLoader implements Function<String, String> {
+
+        private final AtomicInteger calls = new AtomicInteger();
+        private final Function<String, String> delegate;
+
+        private CountingLoader(Function<String, String> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public String apply(String id) {
+            calls.incrementAndGet();
+            return delegate.apply(id);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.military.asset.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * KeysetCursor单元测试
+
+ * 覆盖令牌编码/解析往返、ID中含分隔符、查询条件不匹配和各类非法令牌
+ */
+class KeysetCursorTest {
+
+    private static final LocalDateTime CREATE_TIME = LocalDateTime.of(2024, 3, 15, 9, 30, 5, 123_000_000);
+
+    @Test
+    void roundTripKeepsPosition() {
+        String token = new KeysetCursor(CREATE_TIME, "SW-0001").encode("reportUnit=某部");
+
+        KeysetCursor cursor = KeysetCursor.decode(token, "reportUnit=某部");
+
+        assertEquals(CREATE_TIME, cursor.getCreateTime());
+        assertEquals("SW-0001", cursor.getId());
+    }
+
+    @Test
+    void idContainingSeparatorIsPreserved() {
+        String token = new KeysetCursor(CREATE_TIME, "A|B|C").encode(null);
+
+        assertEquals("A|B|C", KeysetCursor.decode(token, null).getId());
+    }
+
+    @Test
+    void tokenIsUrlSafe() {
+        String token = new KeysetCursor(CREATE_TIME, "资产/编号+1").encode("assetName=办公?套件");
+
+        assertFalse(token.contains("+") || token.contains("/") || token.contains("="), token);
+    }
+
+    @Test
+    void cursorFromOtherFilterIsRejected() {
+        String token = new KeysetCursor(CREATE_TIME, "SW-0001").encode("reportUnit=某部");
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> KeysetCursor.decode(token, "reportUnit=另一单位"));
+        assertEquals("分页游标与查询条件不匹配，请从第一页重新查询", e.getMessage());
+    }
+
+    @Test
+    void malformedTokensAreRejected() {
+        assertInvalid("不是Base64!!");
+        assertInvalid(urlEncode("v1|only-three|fields"));
+        assertInvalid(urlEncode("v2|0|" + CREATE_TIME + "|SW-0001"));
+        assertInvalid(urlEncode("v1|0|2024-13-45T00:00|SW-0001"));
+    }
+
+    // ============================ 工具方法 ============================
+
+    private static void assertInvalid(String token) {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> KeysetCursor.decode(token, null));
+        assertEquals("无效的分页游标", e.getMessage());
+    }
+
+    private static String urlEncode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}